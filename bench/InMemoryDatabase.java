@@ -0,0 +1,640 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * In-process stand-in for the football database, used by the benchmarks.
+ *
+ * <p>
+ * Tables are kept in memory and the JDBC interfaces are implemented with
+ * dynamic proxies. Only the SQL issued by the DAOs is understood: each
+ * statement is looked up by its exact text, so a DAO query that changes
+ * without a matching change here fails loudly instead of being measured
+ * against the wrong data. Transactions are accepted but not isolated.
+ * </p>
+ *
+ * <p>
+ * Install it with {@link #installer()}, which plugs it into
+ * {@link DatabaseConnection} as the source of physical connections.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class InMemoryDatabase {
+
+    private static final String[] COLONNES_LIGUE = { "id", "nom" };
+    private static final String[] COLONNES_EQUIPE = { "id", "nom", "ligue_id", "points", "elo" };
+    private static final String[] COLONNES_JOUEUR = { "id", "nom", "prenom", "numeroMaillot", "equipe_id" };
+    private static final String[] COLONNES_MATCH = { "id", "equipe1Id", "equipe2Id", "nbButsEquipe1",
+            "nbButsEquipe2" };
+    private static final String[] COLONNES_USER = { "id", "username", "password" };
+    private static final String[] COLONNES_CLE = { "GENERATED_KEY" };
+
+    private static final String[] NOMS = { "Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard",
+            "Petit", "Durand", "Leroy", "Moreau", "Simon", "Laurent", "Lefebvre", "Michel", "Garcia" };
+    private static final String[] PRENOMS = { "Lucas", "Hugo", "Louis", "Nathan", "Enzo", "Jules", "Arthur",
+            "Adam", "Paul", "Noah", "Tom", "Leo", "Gabriel", "Raphael", "Theo" };
+
+    private final Table ligues = new Table(COLONNES_LIGUE);
+    private final Table equipes = new Table(COLONNES_EQUIPE);
+    private final Table joueurs = new Table(COLONNES_JOUEUR);
+    private final Table matchs = new Table(COLONNES_MATCH);
+    private final Table users = new Table(COLONNES_USER);
+
+    private final Map<String, Selection> selections = new HashMap<>();
+    private final Map<String, Modification> modifications = new HashMap<>();
+
+    private int derniereCle;
+
+    /**
+     * Constructs an empty database that understands the DAO queries.
+     */
+    public InMemoryDatabase() {
+        // LigueDAO
+        selections.put("SELECT id FROM ligue WHERE nom = ?",
+                p -> new Lignes(new String[] { "id" }, projeter(ligues.filtrer(l -> l[1].equals(p[0])), 0)));
+        modifications.put("INSERT INTO ligue (nom) VALUES (?) ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id)", p -> {
+            // uk_ligue_nom: the existing league becomes the generated key.
+            List<Object[]> existantes = ligues.filtrer(l -> l[1].equals(p[0]));
+            if (!existantes.isEmpty()) {
+                derniereCle = entier(existantes.get(0)[0]);
+                return 1;
+            }
+            return inserer(ligues, p[0]);
+        });
+
+        // EquipeDAO
+        selections.put("SELECT * FROM equipe WHERE ligue_id = ?",
+                p -> new Lignes(COLONNES_EQUIPE, equipes.filtrer(e -> e[2].equals(p[0]))));
+        selections.put("SELECT e.id, e.nom FROM equipe e JOIN ligue l ON l.id = e.ligue_id WHERE l.nom = ?",
+                p -> new Lignes(new String[] { "id", "nom" },
+                        projeter(equipes.filtrer(e -> e[2].equals(idLigue(p[0]))), 0, 1)));
+        selections.put("SELECT * FROM equipe WHERE ligue_id = ? AND id > ? ORDER BY id LIMIT ?",
+                p -> new Lignes(COLONNES_EQUIPE, limiter(
+                        equipes.filtrer(e -> e[2].equals(p[0]) && entier(e[0]) > entier(p[1])), entier(p[2]))));
+        selections.put("SELECT * FROM equipe WHERE ligue_id = ? AND (points, id) < (?, ?) "
+                + "ORDER BY points DESC, id DESC LIMIT ?", p -> {
+                    List<Object[]> lignes = equipes.filtrer(e -> e[2].equals(p[0]) && (entier(e[3]) < entier(p[1])
+                            || (entier(e[3]) == entier(p[1]) && entier(e[0]) < entier(p[2]))));
+                    lignes.sort(Comparator.<Object[]>comparingInt(e -> -entier(e[3]))
+                            .thenComparingInt(e -> -entier(e[0])));
+                    return new Lignes(COLONNES_EQUIPE, limiter(lignes, entier(p[3])));
+                });
+        modifications.put("INSERT INTO equipe (nom, ligue_id, points) VALUES (?, ?, ?)",
+                p -> inserer(equipes, p[0], p[1], p[2], EloRatings.ELO_INITIAL));
+        modifications.put("UPDATE equipe SET nom = ? WHERE id = ?", p -> modifier(equipes, p[1], 1, p[0]));
+        modifications.put("UPDATE equipe SET points = ? WHERE id = ?", p -> modifier(equipes, p[1], 3, p[0]));
+        modifications.put("UPDATE equipe SET points = points + ?, elo = elo + ? WHERE id = ?", p -> {
+            Object[] ligne = equipes.get(entier(p[2]));
+            return ligne == null ? 0
+                    : modifier(equipes, p[2], 3, entier(ligne[3]) + entier(p[0]), reel(ligne[4]) + reel(p[1]));
+        });
+        modifications.put("UPDATE equipe SET elo = ? WHERE id = ?", p -> modifier(equipes, p[1], 4, p[0]));
+        modifications.put("UPDATE equipe e SET e.points = (SELECT COALESCE(SUM(CASE "
+                + "WHEN m.nbButsEquipe1 = m.nbButsEquipe2 THEN 1 "
+                + "WHEN m.equipe1Id = e.id AND m.nbButsEquipe1 > m.nbButsEquipe2 THEN 3 "
+                + "WHEN m.equipe2Id = e.id AND m.nbButsEquipe2 > m.nbButsEquipe1 THEN 3 "
+                + "ELSE 0 END), 0) FROM `match` m "
+                + "WHERE (m.equipe1Id = e.id OR m.equipe2Id = e.id) AND m.nbButsEquipe1 >= 0 AND m.nbButsEquipe2 >= 0) "
+                + "WHERE e.ligue_id = (SELECT id FROM ligue WHERE nom = ?)", this::recalculerPoints);
+
+        // JoueurDAO
+        selections.put("SELECT * FROM joueur WHERE equipe_id = ?",
+                p -> new Lignes(COLONNES_JOUEUR, joueurs.filtrer(j -> j[4].equals(p[0]))));
+        selections.put("SELECT * FROM joueur WHERE equipe_id = ? AND id > ? ORDER BY id LIMIT ?",
+                p -> new Lignes(COLONNES_JOUEUR, limiter(
+                        joueurs.filtrer(j -> j[4].equals(p[0]) && entier(j[0]) > entier(p[1])), entier(p[2]))));
+        selections.put("SELECT * FROM joueur WHERE equipe_id = ? "
+                + "AND (numeroMaillot > ? OR (numeroMaillot = ? AND id > ?)) ORDER BY numeroMaillot, id LIMIT ?",
+                p -> {
+                    List<Object[]> lignes = joueurs.filtrer(j -> j[4].equals(p[0]) && (entier(j[3]) > entier(p[1])
+                            || (entier(j[3]) == entier(p[2]) && entier(j[0]) > entier(p[3]))));
+                    lignes.sort(Comparator.<Object[]>comparingInt(j -> entier(j[3])).thenComparingInt(j -> entier(j[0])));
+                    return new Lignes(COLONNES_JOUEUR, limiter(lignes, entier(p[4])));
+                });
+        modifications.put("INSERT INTO joueur (nom, prenom, numeroMaillot, equipe_id) VALUES (?, ?, ?, ?)",
+                p -> inserer(joueurs, p[0], p[1], p[2], p[3]));
+        modifications.put("UPDATE joueur SET nom = ?, prenom = ?, numeroMaillot = ? WHERE id = ?",
+                p -> modifier(joueurs, p[3], 1, p[0], p[1], p[2]));
+        modifications.put("DELETE FROM joueur WHERE id = ?", p -> joueurs.supprimer(entier(p[0])));
+
+        // MatchDAO
+        selections.put("SELECT * FROM `match`;", p -> new Lignes(COLONNES_MATCH, matchs.filtrer(m -> true)));
+        selections.put("SELECT id, equipe1Id, equipe2Id, nbButsEquipe1, nbButsEquipe2 FROM `match` ORDER BY id",
+                p -> new Lignes(COLONNES_MATCH, matchs.filtrer(m -> true)));
+        selections.put("SELECT id, equipe1Id, equipe2Id, nbButsEquipe1, nbButsEquipe2 FROM `match` "
+                + "WHERE equipe1Id IN (SELECT e.id FROM equipe e JOIN ligue l ON l.id = e.ligue_id WHERE l.nom = ?) "
+                + "OR equipe2Id IN (SELECT e.id FROM equipe e JOIN ligue l ON l.id = e.ligue_id WHERE l.nom = ?) "
+                + "ORDER BY id", p -> {
+                    Set<Object> ids = new HashSet<>();
+                    for (Object[] e : equipes.filtrer(e -> e[2].equals(idLigue(p[0])))) {
+                        ids.add(e[0]);
+                    }
+                    return new Lignes(COLONNES_MATCH, matchs.filtrer(m -> ids.contains(m[1]) || ids.contains(m[2])));
+                });
+        selections.put("SELECT id, equipe1Id, equipe2Id, nbButsEquipe1, nbButsEquipe2 FROM `match` "
+                + "WHERE id > ? ORDER BY id LIMIT ?",
+                p -> new Lignes(COLONNES_MATCH, limiter(matchs.filtrer(m -> entier(m[0]) > entier(p[0])),
+                        entier(p[1]))));
+        // Season and matchday are not stored: every match is outside a schedule.
+        selections.put("SELECT m.id, m.saison, m.journee FROM `match` m "
+                + "JOIN equipe e ON e.id = m.equipe1Id JOIN ligue l ON l.id = e.ligue_id "
+                + "WHERE l.nom = ? AND m.nbButsEquipe1 = -1 ORDER BY m.saison, m.journee, m.id", p -> {
+                    Object idLigue = idLigue(p[0]);
+                    List<Object[]> lignes = new ArrayList<>();
+                    for (Object[] m : matchs.filtrer(m -> entier(m[3]) == -1)) {
+                        Object[] equipe = equipes.get(entier(m[1]));
+                        if (equipe != null && equipe[2].equals(idLigue)) {
+                            lignes.add(new Object[] { m[0], 0, 0 });
+                        }
+                    }
+                    return new Lignes(new String[] { "id", "saison", "journee" }, lignes);
+                });
+        selections.put("SELECT m.id, m.saison, m.journee FROM `match` m "
+                + "JOIN equipe e ON e.id = m.equipe1Id JOIN ligue l ON l.id = e.ligue_id "
+                + "WHERE l.nom = ? AND m.nbButsEquipe1 <> -1 ORDER BY m.saison, m.journee, m.id", p -> {
+                    Object idLigue = idLigue(p[0]);
+                    List<Object[]> lignes = new ArrayList<>();
+                    for (Object[] m : matchs.filtrer(m -> entier(m[3]) != -1)) {
+                        Object[] equipe = equipes.get(entier(m[1]));
+                        if (equipe != null && equipe[2].equals(idLigue)) {
+                            lignes.add(new Object[] { m[0], 0, 0 });
+                        }
+                    }
+                    return new Lignes(new String[] { "id", "saison", "journee" }, lignes);
+                });
+        selections.put("SELECT m.equipe1Id, m.equipe2Id, COUNT(*) AS nombre FROM `match` m "
+                + "JOIN equipe e ON e.id = m.equipe1Id JOIN ligue l ON l.id = e.ligue_id "
+                + "WHERE l.nom = ? AND m.nbButsEquipe1 = -1 GROUP BY m.equipe1Id, m.equipe2Id", p -> {
+                    Object idLigue = idLigue(p[0]);
+                    Map<List<Object>, Integer> nombres = new LinkedHashMap<>();
+                    for (Object[] m : matchs.filtrer(m -> entier(m[3]) == -1)) {
+                        Object[] equipe = equipes.get(entier(m[1]));
+                        if (equipe != null && equipe[2].equals(idLigue)) {
+                            nombres.merge(Arrays.asList(m[1], m[2]), 1, Integer::sum);
+                        }
+                    }
+                    List<Object[]> lignes = new ArrayList<>();
+                    for (Map.Entry<List<Object>, Integer> entry : nombres.entrySet()) {
+                        lignes.add(new Object[] { entry.getKey().get(0), entry.getKey().get(1), entry.getValue() });
+                    }
+                    return new Lignes(new String[] { "equipe1Id", "equipe2Id", "nombre" }, lignes);
+                });
+        modifications.put("INSERT INTO `match` (equipe1Id, equipe2Id, nbButsEquipe1, nbButsEquipe2) VALUES (?, ?, ?, ?)",
+                p -> {
+                    // uk_match_a_venir_paire: one upcoming match per home and away team.
+                    if (entier(p[2]) == -1 && !matchs.filtrer(m -> m[1].equals(p[0]) && m[2].equals(p[1])
+                            && entier(m[3]) == -1).isEmpty()) {
+                        throw new SQLIntegrityConstraintViolationException(
+                                "Duplicate entry for key 'uk_match_a_venir_paire'", "23000", 1062);
+                    }
+                    return inserer(matchs, p[0], p[1], p[2], p[3]);
+                });
+        modifications.put("UPDATE `match` SET nbButsEquipe1 = ?, nbButsEquipe2 = ? "
+                + "WHERE equipe1Id = ? AND equipe2Id = ? AND nbButsEquipe1 = -1 ORDER BY id LIMIT 1", p -> {
+                    List<Object[]> lignes = matchs.filtrer(m -> m[1].equals(p[2]) && m[2].equals(p[3])
+                            && entier(m[3]) == -1);
+                    return lignes.isEmpty() ? 0 : modifier(matchs, lignes.get(0)[0], 3, p[0], p[1]);
+                });
+        modifications.put("UPDATE `match` SET nbButsEquipe1 = ?, nbButsEquipe2 = ? WHERE id = ?",
+                p -> modifier(matchs, p[2], 3, p[0], p[1]));
+        modifications.put("UPDATE `match` SET nbButsEquipe1 = ?, nbButsEquipe2 = ? "
+                + "WHERE id = ? AND nbButsEquipe1 = -1", p -> {
+                    Object[] ligne = matchs.get(entier(p[2]));
+                    return ligne == null || entier(ligne[3]) != -1 ? 0 : modifier(matchs, p[2], 3, p[0], p[1]);
+                });
+
+        // UserDAO
+        selections.put("SELECT * FROM user WHERE username = ? AND password = ?",
+                p -> new Lignes(COLONNES_USER, users.filtrer(u -> u[1].equals(p[0]) && u[2].equals(p[1]))));
+        modifications.put("INSERT INTO user (username, password) VALUES (?, ?)", p -> {
+            // uk_user_username
+            if (!users.filtrer(u -> u[1].equals(p[0])).isEmpty()) {
+                throw new SQLIntegrityConstraintViolationException(
+                        "Duplicate entry for key 'uk_user_username'", "23000", 1062);
+            }
+            return inserer(users, p[0], p[1]);
+        });
+    }
+
+    /**
+     * Creates a database and makes it the source of connections of
+     * {@link DatabaseConnection}.
+     *
+     * @return the installed database.
+     */
+    public static InMemoryDatabase installer() {
+        InMemoryDatabase base = new InMemoryDatabase();
+        DatabaseConnection.setConnectionFactory(base::ouvrir);
+        return base;
+    }
+
+    /**
+     * Fills a league with teams of eleven players and a match history. The
+     * last tenth of the matches is left unplayed, except for a pair of teams
+     * that already has an upcoming match, which the database would refuse.
+     *
+     * @param nomLigue   the name of the league.
+     * @param nbEquipes  the number of teams.
+     * @param nbMatchs   the number of matches.
+     * @param graine     the seed of the random generator.
+     */
+    public synchronized void remplir(String nomLigue, int nbEquipes, int nbMatchs, long graine) {
+        Random random = new Random(graine);
+        int idLigue = inserer(ligues, nomLigue);
+        int[] ids = new int[nbEquipes];
+        for (int i = 0; i < nbEquipes; i++) {
+            ids[i] = inserer(equipes, nomLigue + " FC " + (i + 1), idLigue, 0, EloRatings.ELO_INITIAL);
+            for (int numero = 1; numero <= 11; numero++) {
+                inserer(joueurs, NOMS[random.nextInt(NOMS.length)], PRENOMS[random.nextInt(PRENOMS.length)],
+                        numero, ids[i]);
+            }
+        }
+        int joues = nbMatchs - nbMatchs / 10;
+        boolean[] aVenir = new boolean[nbEquipes * nbEquipes];
+        for (int i = 0; i < nbMatchs; i++) {
+            int equipe1 = random.nextInt(nbEquipes);
+            int equipe2 = (equipe1 + 1 + random.nextInt(nbEquipes - 1)) % nbEquipes;
+            int buts1 = random.nextInt(3);
+            int buts2 = random.nextInt(3);
+            if (i >= joues && !aVenir[equipe1 * nbEquipes + equipe2]) {
+                aVenir[equipe1 * nbEquipes + equipe2] = true;
+                buts1 = -1;
+                buts2 = -1;
+            }
+            inserer(matchs, ids[equipe1], ids[equipe2], buts1, buts2);
+        }
+        recalculerPoints(new Object[] { nomLigue });
+    }
+
+    /**
+     * Adds a user account.
+     *
+     * @param username the username.
+     * @param password the password.
+     */
+    public synchronized void ajouterUser(String username, String password) {
+        inserer(users, username, password);
+    }
+
+    /**
+     * Opens a connection to this database.
+     *
+     * @return a new {@link Connection}.
+     */
+    public Connection ouvrir() {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new Connexion());
+    }
+
+    private int idLigue(Object nom) {
+        for (Object[] ligue : ligues.lignes) {
+            if (ligue != null && ligue[1].equals(nom)) {
+                return entier(ligue[0]);
+            }
+        }
+        return 0;
+    }
+
+    private int recalculerPoints(Object[] p) {
+        int idLigue = idLigue(p[0]);
+        Map<Integer, Integer> points = new HashMap<>();
+        for (Object[] m : matchs.lignes) {
+            int buts1 = entier(m[3]);
+            int buts2 = entier(m[4]);
+            if (buts1 < 0 || buts2 < 0) {
+                continue;
+            }
+            points.merge(entier(m[1]), buts1 > buts2 ? 3 : buts1 == buts2 ? 1 : 0, Integer::sum);
+            points.merge(entier(m[2]), buts2 > buts1 ? 3 : buts1 == buts2 ? 1 : 0, Integer::sum);
+        }
+        int modifiees = 0;
+        for (Object[] e : equipes.lignes) {
+            if (e != null && entier(e[2]) == idLigue) {
+                e[3] = points.getOrDefault(entier(e[0]), 0);
+                modifiees++;
+            }
+        }
+        return modifiees;
+    }
+
+    private int inserer(Table table, Object... valeurs) {
+        derniereCle = table.inserer(valeurs);
+        return derniereCle;
+    }
+
+    private int modifier(Table table, Object id, int colonne, Object... valeurs) {
+        Object[] ligne = table.get(entier(id));
+        if (ligne == null) {
+            return 0;
+        }
+        System.arraycopy(valeurs, 0, ligne, colonne, valeurs.length);
+        return 1;
+    }
+
+    private static List<Object[]> projeter(List<Object[]> lignes, int... colonnes) {
+        List<Object[]> resultat = new ArrayList<>(lignes.size());
+        for (Object[] ligne : lignes) {
+            Object[] projection = new Object[colonnes.length];
+            for (int i = 0; i < colonnes.length; i++) {
+                projection[i] = ligne[colonnes[i]];
+            }
+            resultat.add(projection);
+        }
+        return resultat;
+    }
+
+    private static List<Object[]> limiter(List<Object[]> lignes, int limite) {
+        return lignes.size() > limite ? new ArrayList<>(lignes.subList(0, limite)) : lignes;
+    }
+
+    private static int entier(Object valeur) {
+        return valeur instanceof Number ? ((Number) valeur).intValue() : Integer.parseInt(valeur.toString());
+    }
+
+    private static double reel(Object valeur) {
+        return valeur instanceof Number ? ((Number) valeur).doubleValue() : Double.parseDouble(valeur.toString());
+    }
+
+    /**
+     * Returns the value a proxy returns for a method it does not implement.
+     */
+    private static Object defaut(Method method) throws SQLException {
+        Class<?> type = method.getReturnType();
+        if (type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type.isPrimitive()) {
+            return type == long.class ? (Object) 0L : type == double.class ? (Object) 0.0 : (Object) 0;
+        }
+        throw new SQLFeatureNotSupportedException(method.getName());
+    }
+
+    /**
+     * A table whose row ids are their position plus one.
+     */
+    private static final class Table {
+        final String[] colonnes;
+        final List<Object[]> lignes = new ArrayList<>();
+
+        Table(String[] colonnes) {
+            this.colonnes = colonnes;
+        }
+
+        int inserer(Object[] valeurs) {
+            Object[] ligne = new Object[colonnes.length];
+            ligne[0] = lignes.size() + 1;
+            System.arraycopy(valeurs, 0, ligne, 1, valeurs.length);
+            lignes.add(ligne);
+            return lignes.size();
+        }
+
+        Object[] get(int id) {
+            return id >= 1 && id <= lignes.size() ? lignes.get(id - 1) : null;
+        }
+
+        int supprimer(int id) {
+            if (get(id) == null) {
+                return 0;
+            }
+            lignes.set(id - 1, null);
+            return 1;
+        }
+
+        List<Object[]> filtrer(Predicate<Object[]> filtre) {
+            List<Object[]> resultat = new ArrayList<>();
+            for (Object[] ligne : lignes) {
+                if (ligne != null && filtre.test(ligne)) {
+                    resultat.add(ligne.clone());
+                }
+            }
+            return resultat;
+        }
+    }
+
+    /**
+     * Rows returned by a query.
+     */
+    private static final class Lignes {
+        final String[] colonnes;
+        final List<Object[]> lignes;
+
+        Lignes(String[] colonnes, List<Object[]> lignes) {
+            this.colonnes = colonnes;
+            this.lignes = lignes;
+        }
+    }
+
+    private interface Selection {
+        Lignes executer(Object[] parametres);
+    }
+
+    private interface Modification {
+        int executer(Object[] parametres) throws SQLException;
+    }
+
+    /**
+     * A connection: hands out statements and tracks the auto-commit flag.
+     */
+    private final class Connexion implements InvocationHandler {
+        private boolean autoCommit = true;
+        private boolean fermee;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                            new Class<?>[] { PreparedStatement.class }, new Instruction((String) args[0]));
+                case "setAutoCommit":
+                    autoCommit = (Boolean) args[0];
+                    return null;
+                case "getAutoCommit":
+                    return autoCommit;
+                case "isValid":
+                    return !fermee;
+                case "isClosed":
+                    return fermee;
+                case "close":
+                    fermee = true;
+                    return null;
+                case "commit":
+                case "rollback":
+                    return null;
+                default:
+                    return defaut(method);
+            }
+        }
+    }
+
+    /**
+     * A prepared statement bound to one of the known queries.
+     */
+    private final class Instruction implements InvocationHandler {
+        private final String sql;
+        private final Object[] parametres;
+        private final List<Object[]> lot = new ArrayList<>();
+        private final List<Object[]> cles = new ArrayList<>();
+        private boolean fermee;
+
+        Instruction(String sql) throws SQLException {
+            if (!selections.containsKey(sql) && !modifications.containsKey(sql)) {
+                throw new SQLException("Query not supported by InMemoryDatabase: " + sql);
+            }
+            this.sql = sql;
+            int nombre = 0;
+            for (int i = sql.indexOf('?'); i >= 0; i = sql.indexOf('?', i + 1)) {
+                nombre++;
+            }
+            this.parametres = new Object[nombre];
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nom = method.getName();
+            if (nom.startsWith("set") && args != null && args.length == 2 && args[0] instanceof Integer
+                    && !nom.equals("setFetchSize")) {
+                parametres[(Integer) args[0] - 1] = args[1];
+                return null;
+            }
+            switch (nom) {
+                case "executeQuery":
+                    return curseur(executerSelection(parametres));
+                case "executeUpdate":
+                    cles.clear();
+                    return executerModification(parametres);
+                case "addBatch":
+                    lot.add(parametres.clone());
+                    return null;
+                case "executeBatch": {
+                    cles.clear();
+                    int[] resultats = new int[lot.size()];
+                    for (int i = 0; i < resultats.length; i++) {
+                        resultats[i] = executerModification(lot.get(i));
+                    }
+                    lot.clear();
+                    return resultats;
+                }
+                case "getGeneratedKeys":
+                    return curseur(new Lignes(COLONNES_CLE, new ArrayList<>(cles)));
+                case "clearParameters":
+                    Arrays.fill(parametres, null);
+                    return null;
+                case "clearBatch":
+                    lot.clear();
+                    return null;
+                case "isClosed":
+                    return fermee;
+                case "close":
+                    fermee = true;
+                    return null;
+                default:
+                    return defaut(method);
+            }
+        }
+
+        private Lignes executerSelection(Object[] valeurs) throws SQLException {
+            Selection selection = selections.get(sql);
+            if (selection == null) {
+                throw new SQLException("Not a query: " + sql);
+            }
+            synchronized (InMemoryDatabase.this) {
+                return selection.executer(valeurs);
+            }
+        }
+
+        private int executerModification(Object[] valeurs) throws SQLException {
+            Modification modification = modifications.get(sql);
+            if (modification == null) {
+                throw new SQLException("Not an update: " + sql);
+            }
+            synchronized (InMemoryDatabase.this) {
+                int resultat = modification.executer(valeurs);
+                if (sql.startsWith("INSERT")) {
+                    cles.add(new Object[] { derniereCle });
+                }
+                return resultat;
+            }
+        }
+    }
+
+    private static ResultSet curseur(Lignes lignes) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class }, new Curseur(lignes));
+    }
+
+    /**
+     * A forward-only cursor over query results.
+     */
+    private static final class Curseur implements InvocationHandler {
+        private final Lignes lignes;
+        private int position = -1;
+        private boolean fermee;
+
+        Curseur(Lignes lignes) {
+            this.lignes = lignes;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next":
+                    return ++position < lignes.lignes.size();
+                case "getInt":
+                    return entier(valeur(args[0]));
+                case "getLong":
+                    return (long) entier(valeur(args[0]));
+                case "getDouble":
+                    return reel(valeur(args[0]));
+                case "getString": {
+                    Object valeur = valeur(args[0]);
+                    return valeur == null ? null : valeur.toString();
+                }
+                case "getObject":
+                    return valeur(args[0]);
+                case "wasNull":
+                    return false;
+                case "isClosed":
+                    return fermee;
+                case "close":
+                    fermee = true;
+                    return null;
+                default:
+                    return defaut(method);
+            }
+        }
+
+        private Object valeur(Object colonne) throws SQLException {
+            Object[] ligne = lignes.lignes.get(position);
+            if (colonne instanceof Integer) {
+                return ligne[(Integer) colonne - 1];
+            }
+            for (int i = 0; i < lignes.colonnes.length; i++) {
+                if (lignes.colonnes[i].equalsIgnoreCase((String) colonne)) {
+                    return ligne[i];
+                }
+            }
+            throw new SQLException("Unknown column: " + colonne);
+        }
+    }
+}
@@ -0,0 +1,314 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Headless multi-client load driver.
+ *
+ * <p>
+ * Runs many concurrent sessions, each repeating the flow of an operator: log
+ * in, load a league, open a few teams, then create, simulate and save matches
+ * between teams that have no upcoming match yet.
+ * Sessions run on virtual threads when the JVM provides them (Java 21+) and on
+ * a cached thread pool otherwise. At the end it reports the throughput, the
+ * latency percentiles of each step and of each DAO method, and checks that the
+ * database is still consistent: every team's points must equal the points
+ * earned in its played matches, and every match created by a session must
+ * have its result saved.
+ * </p>
+ *
+ * <p>
+ * Options, with their defaults: {@code --sessions=200}, {@code --tours=5}
+ * (flows per session), {@code --matchs=2} (matches per flow),
+ * {@code --equipes=3} (teams opened per flow), {@code --ligue=Ligue 1},
+ * {@code --user=charge}, {@code --password=charge}, and {@code --memoire=true}
+ * to run against an {@link InMemoryDatabase} instead of MySQL.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class LoadTest {
+
+    private static final String[] ETAPES = { "login", "chargerLigue", "ouvrirEquipe", "creerMatch",
+            "simulerMatch" };
+
+    private final String nomLigue;
+    private final String user;
+    private final String password;
+    private final int sessions;
+    private final int tours;
+    private final int matchsParTour;
+    private final int equipesParTour;
+
+    private final Map<String, LatencyHistogram> latences = new LinkedHashMap<>();
+    private final Set<Integer> matchsCrees = ConcurrentHashMap.newKeySet();
+    private final LongAdder flux = new LongAdder();
+    private final LongAdder echecs = new LongAdder();
+    private final LongAdder doublons = new LongAdder();
+
+    /**
+     * Constructs a LoadTest.
+     *
+     * @param nomLigue       the league the sessions work on.
+     * @param user           the username the sessions log in with.
+     * @param password       the password.
+     * @param sessions       the number of concurrent sessions.
+     * @param tours          the number of flows run by each session.
+     * @param matchsParTour  the number of matches created in each flow.
+     * @param equipesParTour the number of teams opened in each flow.
+     */
+    public LoadTest(String nomLigue, String user, String password, int sessions, int tours, int matchsParTour,
+            int equipesParTour) {
+        this.nomLigue = nomLigue;
+        this.user = user;
+        this.password = password;
+        this.sessions = sessions;
+        this.tours = tours;
+        this.matchsParTour = matchsParTour;
+        this.equipesParTour = equipesParTour;
+        for (String etape : ETAPES) {
+            latences.put(etape, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Runs the sessions and prints the report.
+     *
+     * @return the number of consistency problems found after the run.
+     * @throws InterruptedException if interrupted while waiting for the
+     *                              sessions.
+     */
+    public int executer() throws InterruptedException {
+        if (!UserDAO.getInstance().login(user, password)) {
+            UserDAO.getInstance().register(user, password);
+        }
+        System.out.println("Before: " + verifier(new Ligue(nomLigue), false));
+        for (DaoMethodStats stats : DaoMetrics.getStats()) {
+            stats.reset();
+        }
+
+        CountDownLatch depart = new CountDownLatch(1);
+        ExecutorService executeur = VirtualThreads.nouvelExecuteur();
+        for (int s = 0; s < sessions; s++) {
+            executeur.execute(() -> {
+                try {
+                    depart.await();
+                    for (int t = 0; t < tours; t++) {
+                        session();
+                        flux.increment();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    echecs.increment();
+                    e.printStackTrace();
+                }
+            });
+        }
+        long debut = System.nanoTime();
+        depart.countDown();
+        executeur.shutdown();
+        executeur.awaitTermination(1, TimeUnit.HOURS);
+        double secondes = (System.nanoTime() - debut) / 1_000_000_000.0;
+
+        System.out.println(String.format(Locale.ROOT,
+                "%d sessions x %d flows in %.2f s: %.1f flows/s, %d failed sessions, %d duplicate matches refused",
+                sessions, tours, secondes, flux.sum() / secondes, echecs.sum(), doublons.sum()));
+        System.out.println(String.format(Locale.ROOT, "%-32s %8s %10s %9s %9s %9s %9s", "Step", "Count", "Ops/s",
+                "p50 ms", "p90 ms", "p99 ms", "Max ms"));
+        for (Map.Entry<String, LatencyHistogram> entry : latences.entrySet()) {
+            imprimer(entry.getKey(), entry.getValue(), secondes);
+        }
+        for (DaoMethodStats stats : DaoMetrics.getStats()) {
+            if (stats.getCalls() > 0) {
+                imprimer(stats.getNom() + (stats.getErrors() > 0 ? " (" + stats.getErrors() + " err)" : ""),
+                        stats.getLatences(), secondes);
+            }
+        }
+
+        Verification apres = verifier(new Ligue(nomLigue), true);
+        System.out.println("After: " + apres);
+        return apres.problemes();
+    }
+
+    /**
+     * Runs one operator flow.
+     */
+    private void session() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long debut = System.nanoTime();
+        if (!UserDAO.getInstance().login(user, password)) {
+            throw new IllegalStateException("Login failed for " + user);
+        }
+        debut = mesurer("login", debut);
+
+        Ligue ligue = new Ligue(nomLigue);
+        List<Equipe> equipes = new ArrayList<>(ligue.getEquipes());
+        debut = mesurer("chargerLigue", debut);
+        if (equipes.size() < 2) {
+            throw new IllegalStateException("League " + nomLigue + " needs at least 2 teams");
+        }
+
+        for (int i = 0; i < equipesParTour; i++) {
+            equipes.get(random.nextInt(equipes.size())).populateJoueurs();
+            debut = mesurer("ouvrirEquipe", debut);
+        }
+
+        for (int i = 0; i < matchsParTour; i++) {
+            Match match = creerMatch(ligue, equipes, random);
+            debut = mesurer("creerMatch", debut);
+            if (match == null) {
+                continue;
+            }
+            matchsCrees.add(match.getId());
+
+            match.jouerMatch();
+            debut = mesurer("simulerMatch", debut);
+        }
+    }
+
+    /**
+     * Creates a match between two teams that have no upcoming match in that
+     * order, as an operator would pick them.
+     *
+     * @return the match, or null if no pair was free or another session
+     *         scheduled the same pair first.
+     */
+    private Match creerMatch(Ligue ligue, List<Equipe> equipes, ThreadLocalRandom random) {
+        HeadToHeadIndex confrontations = ligue.getConfrontations();
+        int n = equipes.size();
+        int depart = random.nextInt(n * n);
+        for (int k = 0; k < n * n; k++) {
+            int paire = (depart + k) % (n * n);
+            Equipe domicile = equipes.get(paire / n);
+            Equipe exterieur = equipes.get(paire % n);
+            if (domicile == exterieur || confrontations.getAVenir(domicile, exterieur) > 0) {
+                continue;
+            }
+            try {
+                return Match.creerMatch(domicile, exterieur);
+            } catch (IllegalArgumentException e) {
+                doublons.increment(); // Scheduled by another session since the league was loaded
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private long mesurer(String etape, long debut) {
+        long fin = System.nanoTime();
+        latences.get(etape).enregistrer(fin - debut);
+        return fin;
+    }
+
+    /**
+     * Checks a freshly loaded league against its match results.
+     *
+     * @param ligue   the league, loaded after the run.
+     * @param creees  whether to check the matches created by the sessions.
+     * @return the result of the checks.
+     */
+    private Verification verifier(Ligue ligue, boolean creees) {
+        Map<Integer, Integer> attendus = new HashMap<>();
+        Verification verification = new Verification();
+        for (Match match : ligue.getMatches()) {
+            int buts1 = match.getNbButsEquipe1();
+            int buts2 = match.getNbButsEquipe2();
+            if (creees && matchsCrees.contains(match.getId())) {
+                verification.creesTrouves++;
+                if (buts1 == -1 || buts2 == -1) {
+                    verification.nonSauves++;
+                }
+            }
+            if (buts1 == -1 || buts2 == -1) {
+                continue;
+            }
+            attendus.merge(match.getEquipe1().getId(), buts1 > buts2 ? 3 : buts1 == buts2 ? 1 : 0, Integer::sum);
+            attendus.merge(match.getEquipe2().getId(), buts2 > buts1 ? 3 : buts1 == buts2 ? 1 : 0, Integer::sum);
+        }
+        for (Equipe equipe : ligue.getEquipes()) {
+            int ecart = equipe.getPoints() - attendus.getOrDefault(equipe.getId(), 0);
+            if (ecart != 0) {
+                verification.equipesFausses++;
+                verification.pointsEcart += Math.abs(ecart);
+            }
+        }
+        verification.creesAttendus = creees ? matchsCrees.size() : 0;
+        return verification;
+    }
+
+    private static void imprimer(String nom, LatencyHistogram histogramme, double secondes) {
+        System.out.println(String.format(Locale.ROOT, "%-32s %8d %10.1f %9.2f %9.2f %9.2f %9.2f", nom,
+                histogramme.getCount(), histogramme.getCount() / secondes,
+                histogramme.getPercentile(50) / 1e6, histogramme.getPercentile(90) / 1e6,
+                histogramme.getPercentile(99) / 1e6, histogramme.getMax() / 1e6));
+    }
+
+    /**
+     * Result of the consistency checks.
+     */
+    private static final class Verification {
+        int equipesFausses;
+        int pointsEcart;
+        int creesAttendus;
+        int creesTrouves;
+        int nonSauves;
+
+        int problemes() {
+            return equipesFausses + nonSauves + (creesAttendus - creesTrouves);
+        }
+
+        @Override
+        public String toString() {
+            String resultat = equipesFausses + " teams whose points differ from their results (" + pointsEcart
+                    + " points off)";
+            if (creesAttendus > 0) {
+                resultat += ", " + creesTrouves + "/" + creesAttendus + " created matches found, " + nonSauves
+                        + " without a saved result";
+            }
+            return resultat;
+        }
+    }
+
+    /**
+     * Runs the load test from the command line.
+     *
+     * @param args the options.
+     * @throws InterruptedException if interrupted while waiting for the
+     *                              sessions.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int egal = arg.indexOf('=');
+            if (!arg.startsWith("--") || egal < 0) {
+                System.err.println("Usage: LoadTest [--sessions=N] [--tours=N] [--matchs=N] [--equipes=N] "
+                        + "[--ligue=NOM] [--user=NOM] [--password=MDP] [--memoire=true]");
+                System.exit(1);
+            }
+            options.put(arg.substring(2, egal), arg.substring(egal + 1));
+        }
+        String nomLigue = options.getOrDefault("ligue", "Ligue 1");
+        if (Boolean.parseBoolean(options.getOrDefault("memoire", "false"))) {
+            InMemoryDatabase.installer().remplir(nomLigue, 20, 1000, 42);
+        }
+        LoadTest test = new LoadTest(nomLigue, options.getOrDefault("user", "charge"),
+                options.getOrDefault("password", "charge"),
+                Integer.parseInt(options.getOrDefault("sessions", "200")),
+                Integer.parseInt(options.getOrDefault("tours", "5")),
+                Integer.parseInt(options.getOrDefault("matchs", "2")),
+                Integer.parseInt(options.getOrDefault("equipes", "3")));
+        System.exit(test.executer() > 0 ? 1 : 0);
+    }
+}
@@ -4,13 +4,40 @@ USE `football`;
 DROP TABLE IF EXISTS `joueur`;
 DROP TABLE IF EXISTS `match`;
 DROP TABLE IF EXISTS `equipe`;
+DROP TABLE IF EXISTS `ligue`;
 DROP TABLE IF EXISTS `user`;
+DROP TABLE IF EXISTS `schema_version`;
+
+-- Schema version, kept in sync with SchemaMigrator so fresh installs are not migrated.
+CREATE TABLE `schema_version` (
+  version INT UNSIGNED PRIMARY KEY,
+  description VARCHAR(255) NOT NULL,
+  applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=latin1;
+
+INSERT INTO `schema_version` (version, description) VALUES (1, 'Baseline schema');
+INSERT INTO `schema_version` (version, description) VALUES (2, 'Normalized ligue table referenced by an integer key');
+INSERT INTO `schema_version` (version, description) VALUES (3, 'Secondary indexes and unique usernames');
+INSERT INTO `schema_version` (version, description) VALUES (4, 'Season and matchday of matches');
+INSERT INTO `schema_version` (version, description) VALUES (5, 'Elo rating of teams');
+INSERT INTO `schema_version` (version, description) VALUES (6, 'One fixture per home and away team in each season');
+INSERT INTO `schema_version` (version, description) VALUES (7, 'One upcoming match per home and away team');
+
+CREATE TABLE `ligue` (
+  id INT UNSIGNED PRIMARY KEY AUTO_INCREMENT,
+  nom VARCHAR(100) NOT NULL,
+  UNIQUE KEY uk_ligue_nom (nom)
+) ENGINE=InnoDB DEFAULT CHARSET=latin1;
 
 CREATE TABLE `equipe` (
   id INT UNSIGNED PRIMARY KEY AUTO_INCREMENT,
   nom VARCHAR(100) NOT NULL,
-  ligue VARCHAR(100) NOT NULL,
-  points INT UNSIGNED DEFAULT 0
+  ligue_id INT UNSIGNED NOT NULL,
+  points INT UNSIGNED DEFAULT 0,
+  elo DOUBLE NOT NULL DEFAULT 1500,
+  INDEX idx_equipe_ligue (ligue_id),
+  INDEX idx_equipe_ligue_points (ligue_id, points),
+  CONSTRAINT fk_equipe_ligue FOREIGN KEY (ligue_id) REFERENCES `ligue`(id)
 ) ENGINE=InnoDB DEFAULT CHARSET=latin1;
 
 CREATE TABLE `joueur` (
@@ -19,6 +46,7 @@ CREATE TABLE `joueur` (
   prenom VARCHAR(100) NOT NULL,
   numeroMaillot TINYINT UNSIGNED NOT NULL,
   equipe_id INT UNSIGNED NOT NULL,
+  INDEX idx_joueur_equipe_numero (equipe_id, numeroMaillot),
   CONSTRAINT fk_joueur_equipe FOREIGN KEY (equipe_id) REFERENCES equipe(id)
 ) ENGINE=InnoDB DEFAULT CHARSET=latin1;
 
@@ -28,6 +56,16 @@ CREATE TABLE `match` (
   equipe2Id INT UNSIGNED NOT NULL,
   nbButsEquipe1 TINYINT,
   nbButsEquipe2 TINYINT,
+  saison SMALLINT UNSIGNED NOT NULL DEFAULT 0,
+  journee SMALLINT UNSIGNED NOT NULL DEFAULT 0,
+  -- Season 0 holds the matches created outside a schedule, which may repeat.
+  saison_calendrier SMALLINT UNSIGNED AS (NULLIF(saison, 0)) VIRTUAL,
+  UNIQUE KEY uk_match_saison_paire (saison_calendrier, equipe1Id, equipe2Id),
+  -- Whatever the season, a home and away team have at most one upcoming match.
+  a_venir TINYINT AS (IF(nbButsEquipe1 = -1, 1, NULL)) VIRTUAL,
+  UNIQUE KEY uk_match_a_venir_paire (a_venir, equipe1Id, equipe2Id),
+  INDEX idx_match_equipe1 (equipe1Id, nbButsEquipe1, nbButsEquipe2),
+  INDEX idx_match_equipe2 (equipe2Id, nbButsEquipe1, nbButsEquipe2),
   CONSTRAINT fk_match_equipe1 FOREIGN KEY (equipe1Id) REFERENCES equipe(id),
   CONSTRAINT fk_match_equipe2 FOREIGN KEY (equipe2Id) REFERENCES equipe(id)
 ) ENGINE=InnoDB DEFAULT CHARSET=latin1;
@@ -35,7 +73,8 @@ CREATE TABLE `match` (
 CREATE TABLE `user` (
   id INT UNSIGNED PRIMARY KEY AUTO_INCREMENT,
   username VARCHAR(100) NOT NULL,
-  password VARCHAR(255) NOT NULL
+  password VARCHAR(255) NOT NULL,
+  UNIQUE KEY uk_user_username (username)
 ) ENGINE=InnoDB DEFAULT CHARSET=latin1;
 
 -- Insert sample user
@@ -45,12 +84,14 @@ INSERT INTO `user` (username, password) VALUES ('admin', 'admin');
 -- Match 1: PSG beats Marseille (3-1): PSG = 3, Marseille = 0.
 -- Match 2: AS Monaco draws with Olympique Lyonnais (2-2): Monaco = 1, Lyon = 1.
 -- Match 3: LOSC Lille beats FC Nantes (1-0): Lille = 3, Nantes = 0.
-INSERT INTO `equipe` (nom, ligue, points) VALUES ('Paris Saint-Germain', 'Ligue 1', 3);
-INSERT INTO `equipe` (nom, ligue, points) VALUES ('Olympique de Marseille', 'Ligue 1', 0);
-INSERT INTO `equipe` (nom, ligue, points) VALUES ('AS Monaco', 'Ligue 1', 1);
-INSERT INTO `equipe` (nom, ligue, points) VALUES ('Olympique Lyonnais', 'Ligue 1', 1);
-INSERT INTO `equipe` (nom, ligue, points) VALUES ('LOSC Lille', 'Ligue 1', 3);
-INSERT INTO `equipe` (nom, ligue, points) VALUES ('FC Nantes', 'Ligue 1', 0);
+-- Elo ratings start at 1500 and are updated by the same three results.
+INSERT INTO `ligue` (nom) VALUES ('Ligue 1');
+INSERT INTO `equipe` (nom, ligue_id, points, elo) VALUES ('Paris Saint-Germain', 1, 3, 1512.2260);
+INSERT INTO `equipe` (nom, ligue_id, points, elo) VALUES ('Olympique de Marseille', 1, 0, 1487.7740);
+INSERT INTO `equipe` (nom, ligue_id, points, elo) VALUES ('AS Monaco', 1, 1, 1498.1507);
+INSERT INTO `equipe` (nom, ligue_id, points, elo) VALUES ('Olympique Lyonnais', 1, 1, 1501.8493);
+INSERT INTO `equipe` (nom, ligue_id, points, elo) VALUES ('LOSC Lille', 1, 3, 1508.1507);
+INSERT INTO `equipe` (nom, ligue_id, points, elo) VALUES ('FC Nantes', 1, 0, 1491.8493);
 
 -- Insert sample players for each team
 
@@ -0,0 +1,190 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import javax.swing.DefaultListModel;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import football.jmh.Fixtures;
+import football.jmh.Operation;
+
+/**
+ * The fixtures of the JMH benchmarks of {@code football.jmh}.
+ *
+ * <p>
+ * Every benchmark starts from a fresh {@link InMemoryDatabase} holding one
+ * league of the requested size and a user "bench". This class is in the
+ * default package so that it can reach the application; the benchmarks load
+ * it through {@link Fixtures#charger()}.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class FootballFixtures implements Fixtures {
+
+    private static final String LIGUE = "Bench";
+    private static final long GRAINE = 42;
+
+    @Override
+    public Operation preparer(String benchmark, int equipes, int matchs) {
+        switch (benchmark) {
+        // Model
+        case "ModeleBenchmarks.populate":
+            installer(equipes, matchs);
+            return trou -> new Ligue(LIGUE);
+        case "ModeleBenchmarks.getEquipes": {
+            Ligue ligue = ligue(equipes, 0);
+            Random random = new Random(GRAINE);
+            return new Operation() {
+                @Override
+                public Object executer(Blackhole trou) {
+                    return ligue.getEquipes();
+                }
+
+                @Override
+                public void reinitialiser() {
+                    for (Equipe equipe : ligue.equipes) {
+                        equipe.points = random.nextInt(100);
+                    }
+                }
+            };
+        }
+        case "ModeleBenchmarks.simulerMatch": {
+            Ligue ligue = ligue(2, 0);
+            Match match = new Match(ligue.equipes.get(0), ligue.equipes.get(1));
+            return trou -> {
+                match.simulerMatch();
+                return match;
+            };
+        }
+        case "ModeleBenchmarks.jouerJournee": {
+            Ligue ligue = ligue(equipes, 0);
+            List<Match> rencontres = new ArrayList<>();
+            for (int i = 0; i + 1 < ligue.equipes.size(); i += 2) {
+                rencontres.add(new Match(ligue.equipes.get(i), ligue.equipes.get(i + 1)));
+            }
+            Journee journee = new Journee(rencontres);
+            return trou -> {
+                journee.jouerJournee();
+                return journee;
+            };
+        }
+        case "ModeleBenchmarks.tirerUniforme":
+            return tirages(UniformMatchModel.INSTANCE, ligue(equipes, 0).equipes);
+        case "ModeleBenchmarks.tirerPoisson": {
+            Ligue ligue = ligue(equipes, 1000);
+            return tirages(PoissonMatchModel.estimer(ligue), ligue.equipes);
+        }
+        case "ModeleBenchmarks.probabilites": {
+            Ligue ligue = ligue(equipes, 0);
+            ProbabilityMatrix matrice = ligue.getProbabilites();
+            Random random = new Random(GRAINE);
+            return new Operation() {
+                @Override
+                public Object executer(Blackhole trou) {
+                    return matrice.instantane();
+                }
+
+                @Override
+                public void reinitialiser() {
+                    // One saved result between two reads: two rows and two columns to recompute.
+                    double variation = random.nextGaussian() * EloRatings.K / 2;
+                    ligue.equipes.get(0).ajusterElo(variation);
+                    ligue.equipes.get(1).ajusterElo(-variation);
+                }
+            };
+        }
+        case "ModeleBenchmarks.statistiques": {
+            Ligue ligue = ligue(equipes, matchs);
+            MatchColumns colonnes = ligue.getColonnes();
+            Equipe equipe = ligue.equipes.get(0);
+            // The benchmark matches are all outside a schedule: season 0 is a full, uncached scan.
+            return trou -> colonnes.getStatistiques(equipe, 0);
+        }
+        case "ModeleBenchmarks.confrontations": {
+            Ligue ligue = ligue(equipes, matchs);
+            MatchColumns colonnes = ligue.getColonnes();
+            Equipe equipe = ligue.equipes.get(0);
+            return trou -> colonnes.getConfrontations(equipe);
+        }
+
+        // League screen
+        case "EcranBenchmarks.remplirModeles": {
+            Ligue ligue = ligue(equipes, matchs);
+            DefaultListModel<String> equipesModel = new DefaultListModel<>();
+            DefaultListModel<String> passesModel = new DefaultListModel<>();
+            DefaultListModel<String> aVenirModel = new DefaultListModel<>();
+            return trou -> LiguePanel.remplirModeles(ligue, equipesModel, passesModel, aVenirModel);
+        }
+
+        // DAOs
+        case "DaoBenchmarks.getEquipes": {
+            Ligue ligue = ligue(equipes, 0);
+            return trou -> EquipeDAO.getInstance().getEquipes(ligue);
+        }
+        case "DaoBenchmarks.recalculerPoints":
+            installer(equipes, matchs);
+            return trou -> EquipeDAO.getInstance().recalculerPoints(LIGUE);
+        case "DaoBenchmarks.getJoueurs": {
+            Equipe equipe = ligue(equipes, 0).equipes.get(0);
+            return trou -> JoueurDAO.getInstance().getJoueurs(equipe);
+        }
+        case "DaoBenchmarks.parcourirMatches":
+            installer(equipes, matchs);
+            return trou -> MatchDAO.getInstance().parcourirMatches(LIGUE,
+                    (id, equipe1Id, equipe2Id, nbButsEquipe1, nbButsEquipe2) -> trou.consume(nbButsEquipe1));
+        case "DaoBenchmarks.getMatchesPage": {
+            installer(equipes, matchs);
+            int milieu = matchs / 2;
+            return trou -> MatchDAO.getInstance().getMatches(milieu, 50);
+        }
+        case "DaoBenchmarks.modifierButsMatch": {
+            Match match = ligue(equipes, matchs).getMatches().get(0);
+            return trou -> MatchDAO.getInstance().modifierButsMatch(match);
+        }
+        case "DaoBenchmarks.login":
+            installer(2, 0);
+            return trou -> UserDAO.getInstance().login("bench", "bench");
+        case "DaoBenchmarks.trouverOuCreerLigue":
+            installer(2, 0);
+            return trou -> LigueDAO.getInstance().trouverOuCreerLigue(LIGUE);
+        default:
+            throw new IllegalArgumentException("No fixture for " + benchmark);
+        }
+    }
+
+    /**
+     * Draws the scores of every pairing of a league in turn, so a benchmark of
+     * a model covers all its precomputed tables.
+     */
+    private static Operation tirages(MatchModel modele, List<Equipe> equipes) {
+        Random random = new Random(GRAINE);
+        int n = equipes.size();
+        int[] paire = new int[1];
+        return trou -> {
+            int k = paire[0]++ % (n * (n - 1));
+            int domicile = k / (n - 1);
+            int exterieur = (domicile + 1 + k % (n - 1)) % n;
+            return modele.tirer(equipes.get(domicile), equipes.get(exterieur), random);
+        };
+    }
+
+    /**
+     * Installs a fresh database holding one league and a user "bench".
+     */
+    private static InMemoryDatabase installer(int nbEquipes, int nbMatchs) {
+        InMemoryDatabase base = InMemoryDatabase.installer();
+        base.remplir(LIGUE, nbEquipes, nbMatchs, GRAINE);
+        base.ajouterUser("bench", "bench");
+        return base;
+    }
+
+    /**
+     * Installs a fresh database and loads its league.
+     */
+    private static Ligue ligue(int nbEquipes, int nbMatchs) {
+        installer(nbEquipes, nbMatchs);
+        return new Ligue(LIGUE);
+    }
+}
@@ -0,0 +1,95 @@
+package football.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the DAOs.
+ *
+ * <p>
+ * The DAOs run against an {@code InMemoryDatabase}, so the scores measure the
+ * Java side of each call (statement handling, row mapping, object building)
+ * without network or MySQL noise.
+ * </p>
+ *
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DaoBenchmarks {
+
+    /**
+     * {@code EquipeDAO.getEquipes}, which also loads every roster.
+     */
+    @Benchmark
+    public Object getEquipes(Etats.ParEquipes etat, Blackhole trou) throws Exception {
+        return etat.operation.executer(trou);
+    }
+
+    /**
+     * {@code EquipeDAO.recalculerPoints}.
+     */
+    @Benchmark
+    public Object recalculerPoints(Etats.ParTailles etat, Blackhole trou) throws Exception {
+        return etat.operation.executer(trou);
+    }
+
+    /**
+     * {@code JoueurDAO.getJoueurs}.
+     */
+    @Benchmark
+    public Object getJoueurs(Etats.Fixe etat, Blackhole trou) throws Exception {
+        return etat.operation.executer(trou);
+    }
+
+    /**
+     * {@code MatchDAO.parcourirMatches} over the matches of a league.
+     */
+    @Benchmark
+    public Object parcourirMatches(Etats.ParMatchs etat, Blackhole trou) throws Exception {
+        return etat.operation.executer(trou);
+    }
+
+    /**
+     * {@code MatchDAO.getMatches}, a page of 50 in the middle of the history.
+     */
+    @Benchmark
+    public Object getMatchesPage(Etats.ParMatchs etat, Blackhole trou) throws Exception {
+        return etat.operation.executer(trou);
+    }
+
+    /**
+     * {@code MatchDAO.modifierButsMatch}.
+     */
+    @Benchmark
+    public Object modifierButsMatch(Etats.Fixe etat, Blackhole trou) throws Exception {
+        return etat.operation.executer(trou);
+    }
+
+    /**
+     * {@code UserDAO.login}.
+     */
+    @Benchmark
+    public Object login(Etats.Fixe etat, Blackhole trou) throws Exception {
+        return etat.operation.executer(trou);
+    }
+
+    /**
+     * {@code LigueDAO.trouverOuCreerLigue} for an existing league.
+     */
+    @Benchmark
+    public Object trouverOuCreerLigue(Etats.Fixe etat, Blackhole trou) throws Exception {
+        return etat.operation.executer(trou);
+    }
+}
@@ -0,0 +1,105 @@
+package football.jmh;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * The states of the benchmarks, one per set of parameters.
+ *
+ * <p>
+ * A benchmark takes the state matching the sizes it depends on, so it only
+ * runs once per value of those. The operation is prepared once per trial,
+ * that is once per forked JVM and combination of parameters, by
+ * {@link Fixtures}. Sizes are overridden on the command line, for example
+ * {@code -p equipes=10,20,40 -p matchs=1000}.
+ * </p>
+ *
+ * @version 1.0
+ */
+public final class Etats {
+
+    /** The number of teams when a benchmark does not depend on it. */
+    private static final int EQUIPES = 20;
+    /** The number of matches when a benchmark does not depend on it. */
+    private static final int MATCHS = 1000;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private Etats() {
+    }
+
+    /**
+     * The operation of a benchmark and the sizes it was prepared with.
+     */
+    @State(Scope.Thread)
+    public abstract static class Base {
+        /** The operation to measure. */
+        public Operation operation;
+
+        /**
+         * Prepares the operation of the running benchmark.
+         *
+         * @param params the benchmark being run and its parameters.
+         * @throws Exception if the setup fails.
+         */
+        @Setup(Level.Trial)
+        public void preparer(BenchmarkParams params) throws Exception {
+            String nom = params.getBenchmark();
+            String benchmark = nom.substring(nom.lastIndexOf('.', nom.lastIndexOf('.') - 1) + 1);
+            operation = Fixtures.charger().preparer(benchmark, taille(params, "equipes", EQUIPES),
+                    taille(params, "matchs", MATCHS));
+        }
+
+        private static int taille(BenchmarkParams params, String nom, int defaut) {
+            String valeur = params.getParam(nom);
+            return valeur != null ? Integer.parseInt(valeur) : defaut;
+        }
+    }
+
+    /** A benchmark without parameters. */
+    public static class Fixe extends Base {
+    }
+
+    /** A benchmark over the number of teams. */
+    public static class ParEquipes extends Base {
+        /** The number of teams of the league. */
+        @Param({ "10", "20" })
+        public int equipes;
+    }
+
+    /** A benchmark over the size of the history. */
+    public static class ParMatchs extends Base {
+        /** The number of matches in the history. */
+        @Param({ "1000", "100000" })
+        public int matchs;
+    }
+
+    /** A benchmark over both sizes. */
+    public static class ParTailles extends Base {
+        /** The number of teams of the league. */
+        @Param({ "10", "20" })
+        public int equipes;
+        /** The number of matches in the history. */
+        @Param({ "1000", "100000" })
+        public int matchs;
+    }
+
+    /**
+     * A benchmark over the number of teams whose state is reset before every
+     * call, outside the measured time.
+     */
+    public static class ParEquipesReinitialise extends ParEquipes {
+        /**
+         * Resets the state of the operation.
+         */
+        @Setup(Level.Invocation)
+        public void reinitialiser() {
+            operation.reinitialiser();
+        }
+    }
+}
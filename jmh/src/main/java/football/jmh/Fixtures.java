@@ -0,0 +1,40 @@
+package football.jmh;
+
+/**
+ * Prepares the operations measured by the benchmarks.
+ *
+ * <p>
+ * The application lives in the default package, which JMH refuses for
+ * benchmark classes and which a named package cannot import. The
+ * implementation, {@code FootballFixtures}, is compiled in the default package
+ * next to the application and loaded by name; everything else in this package
+ * only sees this interface and {@link Operation}.
+ * </p>
+ *
+ * @version 1.0
+ */
+public interface Fixtures {
+
+    /**
+     * Installs a fresh {@code InMemoryDatabase} and prepares the operation of
+     * a benchmark.
+     *
+     * @param benchmark the benchmark, as {@code Class.method} without the
+     *                  package.
+     * @param equipes   the number of teams of the league.
+     * @param matchs    the number of matches in the history.
+     * @return the operation to measure.
+     * @throws Exception if the setup fails.
+     */
+    Operation preparer(String benchmark, int equipes, int matchs) throws Exception;
+
+    /**
+     * Loads the implementation.
+     *
+     * @return a new {@code FootballFixtures}.
+     * @throws ReflectiveOperationException if it is not on the class path.
+     */
+    static Fixtures charger() throws ReflectiveOperationException {
+        return Class.forName("FootballFixtures").asSubclass(Fixtures.class).getDeclaredConstructor().newInstance();
+    }
+}
@@ -0,0 +1,98 @@
+package football.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the league model: loading, standings, simulation, match
+ * models and statistics.
+ *
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ModeleBenchmarks {
+
+    /**
+     * Loads a league with its teams, rosters and matches.
+     */
+    @Benchmark
+    public Object populate(Etats.ParTailles etat, Blackhole trou) throws Exception {
+        return etat.operation.executer(trou);
+    }
+
+    /**
+     * Sorts the standings after the points of every team changed.
+     */
+    @Benchmark
+    public Object getEquipes(Etats.ParEquipesReinitialise etat, Blackhole trou) throws Exception {
+        return etat.operation.executer(trou);
+    }
+
+    /**
+     * Simulates a match in memory.
+     */
+    @Benchmark
+    public Object simulerMatch(Etats.Fixe etat, Blackhole trou) throws Exception {
+        return etat.operation.executer(trou);
+    }
+
+    /**
+     * Plays a journee of matches in memory.
+     */
+    @Benchmark
+    public Object jouerJournee(Etats.ParEquipes etat, Blackhole trou) throws Exception {
+        return etat.operation.executer(trou);
+    }
+
+    /**
+     * Draws a score with the uniform model.
+     */
+    @Benchmark
+    public Object tirerUniforme(Etats.Fixe etat, Blackhole trou) throws Exception {
+        return etat.operation.executer(trou);
+    }
+
+    /**
+     * Draws a score with the Poisson model estimated on the league.
+     */
+    @Benchmark
+    public Object tirerPoisson(Etats.ParEquipes etat, Blackhole trou) throws Exception {
+        return etat.operation.executer(trou);
+    }
+
+    /**
+     * Reads the win probabilities after two ratings changed.
+     */
+    @Benchmark
+    public Object probabilites(Etats.ParEquipesReinitialise etat, Blackhole trou) throws Exception {
+        return etat.operation.executer(trou);
+    }
+
+    /**
+     * Computes the record of a team over the whole history.
+     */
+    @Benchmark
+    public Object statistiques(Etats.ParTailles etat, Blackhole trou) throws Exception {
+        return etat.operation.executer(trou);
+    }
+
+    /**
+     * Computes the head-to-head records of a team over the whole history.
+     */
+    @Benchmark
+    public Object confrontations(Etats.ParTailles etat, Blackhole trou) throws Exception {
+        return etat.operation.executer(trou);
+    }
+}
@@ -0,0 +1,29 @@
+package football.jmh;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * An operation measured by a benchmark, with the state it runs on.
+ *
+ * @version 1.0
+ */
+public interface Operation {
+
+    /**
+     * Runs the operation once.
+     *
+     * @param trou receives the values the operation produces along the way;
+     *             the returned value is consumed by JMH.
+     * @return any value derived from the work done.
+     * @throws Exception if the operation fails.
+     */
+    Object executer(Blackhole trou) throws Exception;
+
+    /**
+     * Resets the state of the operation. Only called, outside the measured
+     * time, before every call of the benchmarks using
+     * {@link Etats.ParEquipesReinitialise}.
+     */
+    default void reinitialiser() {
+    }
+}
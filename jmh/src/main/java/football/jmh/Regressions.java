@@ -0,0 +1,106 @@
+package football.jmh;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares two JMH result files written with {@code -rf csv} and reports the
+ * benchmarks that got slower.
+ *
+ * <pre>
+ * java -cp jmh/target/benchmarks.jar football.jmh.Regressions reference.csv bench.csv 10
+ * </pre>
+ *
+ * <p>
+ * A benchmark is identified by its name and parameters; benchmarks missing
+ * from either file are ignored. Scores are times per operation, so a higher
+ * score is a regression. The process exits with status 1 if any benchmark is
+ * slower than the reference by more than the threshold, in percent (10 by
+ * default).
+ * </p>
+ *
+ * @version 1.0
+ */
+public final class Regressions {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private Regressions() {
+    }
+
+    /**
+     * Compares the results.
+     *
+     * @param args the reference file, the new results and an optional
+     *             threshold.
+     * @throws IOException if a file cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: Regressions REFERENCE.csv RESULTATS.csv [SEUIL]");
+            System.exit(2);
+        }
+        int seuil = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        Map<String, Double> reference = lire(args[0]);
+        int regressions = 0;
+        for (Map.Entry<String, Double> resultat : lire(args[1]).entrySet()) {
+            Double avant = reference.get(resultat.getKey());
+            if (avant == null) {
+                continue;
+            }
+            double ecart = (resultat.getValue() - avant) / avant * 100;
+            if (ecart > seuil) {
+                regressions++;
+                System.out.println(String.format(Locale.ROOT, "REGRESSION %s: %.3f -> %.3f (%+.1f%%)",
+                        resultat.getKey(), avant, resultat.getValue(), ecart));
+            }
+        }
+        System.out.println(regressions + " regression(s) above " + seuil + "% against " + args[0]);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    /**
+     * Reads the scores of a JMH CSV file.
+     *
+     * @return the score of each benchmark, keyed by its name followed by its
+     *         parameters.
+     */
+    private static Map<String, Double> lire(String fichier) throws IOException {
+        List<String> lignes = Files.readAllLines(Paths.get(fichier), StandardCharsets.UTF_8);
+        List<String> entete = champs(lignes.get(0));
+        int score = entete.indexOf("Score");
+        Map<String, Double> scores = new HashMap<>();
+        for (String ligne : lignes.subList(1, lignes.size())) {
+            List<String> valeurs = champs(ligne);
+            StringBuilder cle = new StringBuilder(valeurs.get(0));
+            for (int i = 0; i < entete.size(); i++) {
+                if (entete.get(i).startsWith("Param: ") && i < valeurs.size() && !valeurs.get(i).isEmpty()) {
+                    cle.append(' ').append(entete.get(i).substring(7)).append('=').append(valeurs.get(i));
+                }
+            }
+            scores.put(cle.toString(), Double.parseDouble(valeurs.get(score)));
+        }
+        return scores;
+    }
+
+    /**
+     * Splits a CSV line, removing the quotes around fields.
+     */
+    private static List<String> champs(String ligne) {
+        List<String> champs = new ArrayList<>();
+        for (String champ : ligne.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1)) {
+            champs.add(champ.startsWith("\"") && champ.endsWith("\"") && champ.length() > 1
+                    ? champ.substring(1, champ.length() - 1)
+                    : champ);
+        }
+        return champs;
+    }
+}
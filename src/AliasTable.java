@@ -0,0 +1,102 @@
+import java.util.Random;
+
+/**
+ * Walker's alias table for drawing from a fixed discrete distribution in
+ * constant time.
+ *
+ * <p>
+ * The table is built once in linear time with Vose's method. A draw then uses
+ * a single uniform double, scaled by the number of outcomes: its integer part
+ * picks a column and its fractional part chooses between the column's outcome
+ * and its alias. Instances are immutable and can be shared between threads.
+ * </p>
+ *
+ * @version 1.0
+ */
+public final class AliasTable {
+
+    private final double[] probabilites;
+    private final int[] alias;
+
+    /**
+     * Builds the table of a distribution.
+     *
+     * @param poids the non-negative weights of the outcomes; they do not need
+     *              to sum to 1.
+     * @throws IllegalArgumentException if there are no outcomes or the weights
+     *                                  do not have a positive sum.
+     */
+    public AliasTable(double[] poids) {
+        int n = poids.length;
+        double total = 0;
+        for (double p : poids) {
+            if (p < 0 || Double.isNaN(p)) {
+                throw new IllegalArgumentException("Negative weight: " + p);
+            }
+            total += p;
+        }
+        if (n == 0 || !(total > 0) || Double.isInfinite(total)) {
+            throw new IllegalArgumentException("Weights must have a positive sum");
+        }
+
+        probabilites = new double[n];
+        alias = new int[n];
+        double[] echelle = new double[n];
+        int[] petits = new int[n];
+        int[] grands = new int[n];
+        int nbPetits = 0;
+        int nbGrands = 0;
+        for (int i = 0; i < n; i++) {
+            echelle[i] = poids[i] * n / total;
+            if (echelle[i] < 1) {
+                petits[nbPetits++] = i;
+            } else {
+                grands[nbGrands++] = i;
+            }
+        }
+        while (nbPetits > 0 && nbGrands > 0) {
+            int petit = petits[--nbPetits];
+            int grand = grands[--nbGrands];
+            probabilites[petit] = echelle[petit];
+            alias[petit] = grand;
+            echelle[grand] = echelle[grand] + echelle[petit] - 1;
+            if (echelle[grand] < 1) {
+                petits[nbPetits++] = grand;
+            } else {
+                grands[nbGrands++] = grand;
+            }
+        }
+        // Whatever is left is 1 up to rounding errors.
+        while (nbGrands > 0) {
+            int i = grands[--nbGrands];
+            probabilites[i] = 1;
+            alias[i] = i;
+        }
+        while (nbPetits > 0) {
+            int i = petits[--nbPetits];
+            probabilites[i] = 1;
+            alias[i] = i;
+        }
+    }
+
+    /**
+     * Gets the number of outcomes.
+     *
+     * @return the size of the distribution.
+     */
+    public int taille() {
+        return alias.length;
+    }
+
+    /**
+     * Draws an outcome.
+     *
+     * @param random the source of the draw.
+     * @return the index of the outcome, between 0 and {@link #taille()} - 1.
+     */
+    public int tirer(Random random) {
+        double u = random.nextDouble() * alias.length;
+        int colonne = (int) u;
+        return u - colonne < probabilites[colonne] ? colonne : alias[colonne];
+    }
+}
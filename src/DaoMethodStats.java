@@ -0,0 +1,110 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, call, row and error statistics of one DAO method.
+ *
+ * <p>
+ * DAO methods call {@link #enregistrer(long, int)} when they return and
+ * {@link #erreur()} when they catch a database error, usually through
+ * {@code DaoMetrics.mesurer}. Recording is lock-free.
+ * Instances are created and registered by {@link DaoMetrics}.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class DaoMethodStats implements DaoMethodStatsMXBean {
+    private final String nom;
+    private final LatencyHistogram latences = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * Constructs the statistics of a DAO method.
+     *
+     * @param nom the qualified method name, for example MatchDAO.getMatches.
+     */
+    DaoMethodStats(String nom) {
+        this.nom = nom;
+    }
+
+    /**
+     * Records a completed call.
+     *
+     * @param debut  the {@link System#nanoTime()} value taken when the call
+     *               started.
+     * @param lignes the number of rows returned or affected.
+     */
+    public void enregistrer(long debut, int lignes) {
+        latences.enregistrer(System.nanoTime() - debut);
+        rows.add(lignes);
+    }
+
+    /**
+     * Records a database error. The call itself is still recorded by
+     * {@link #enregistrer(long, int)}.
+     */
+    public void erreur() {
+        errors.increment();
+        DaoMetrics.erreurDuThread();
+    }
+
+    /**
+     * Gets the qualified method name.
+     *
+     * @return the name.
+     */
+    public String getNom() {
+        return nom;
+    }
+
+    /**
+     * Gets the latency histogram of the method.
+     *
+     * @return the {@link LatencyHistogram}.
+     */
+    public LatencyHistogram getLatences() {
+        return latences;
+    }
+
+    @Override
+    public long getCalls() {
+        return latences.getCount();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRows() {
+        return rows.sum();
+    }
+
+    @Override
+    public double getP50Micros() {
+        return latences.getPercentile(50) / 1000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latences.getPercentile(99) / 1000.0;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return latences.getMax() / 1000.0;
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return latences.getMoyenne() / 1000.0;
+    }
+
+    @Override
+    public void reset() {
+        latences.reset();
+        rows.reset();
+        errors.reset();
+    }
+}
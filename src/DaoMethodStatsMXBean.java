@@ -0,0 +1,61 @@
+/**
+ * Management interface exposing the statistics of one DAO method over JMX.
+ *
+ * @version 1.0
+ */
+public interface DaoMethodStatsMXBean {
+
+    /**
+     * Gets the number of calls.
+     *
+     * @return the call count.
+     */
+    long getCalls();
+
+    /**
+     * Gets the number of calls that failed with a database error.
+     *
+     * @return the error count.
+     */
+    long getErrors();
+
+    /**
+     * Gets the number of rows returned or affected by all calls.
+     *
+     * @return the row count.
+     */
+    long getRows();
+
+    /**
+     * Gets the median latency.
+     *
+     * @return the 50th percentile in microseconds.
+     */
+    double getP50Micros();
+
+    /**
+     * Gets the 99th percentile latency.
+     *
+     * @return the 99th percentile in microseconds.
+     */
+    double getP99Micros();
+
+    /**
+     * Gets the largest latency.
+     *
+     * @return the maximum in microseconds.
+     */
+    double getMaxMicros();
+
+    /**
+     * Gets the mean latency.
+     *
+     * @return the mean in microseconds.
+     */
+    double getMeanMicros();
+
+    /**
+     * Clears the statistics.
+     */
+    void reset();
+}
@@ -0,0 +1,185 @@
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registry of the {@link DaoMethodStats} of every DAO method.
+ *
+ * <p>
+ * Each DAO keeps one statistics object per method in a static field, obtained
+ * once from {@link #methode(String, String)}. The statistics are registered as
+ * MBeans named {@code football:type=DAO,dao=<dao>,name=<method>}, so they can
+ * be read from JConsole or any JMX client. The hits and misses of the
+ * {@link StatementCache}s are registered next to them as
+ * {@code football:type=StatementCache}.
+ * </p>
+ *
+ * <p>
+ * DAO methods run their database work through
+ * {@link #mesurer(DaoMethodStats, Object, ToIntFunction, Requete)}, which
+ * times it, counts its rows and turns a {@link SQLException} into an error of
+ * the method and an empty result.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class DaoMetrics {
+
+    private static final Map<String, DaoMethodStats> stats = new ConcurrentHashMap<>();
+    /** Database errors recorded by each thread, whatever the method. */
+    private static final ThreadLocal<long[]> erreursDuThread = ThreadLocal.withInitial(() -> new long[1]);
+
+    static {
+        enregistrer(new StatementCacheStatsMXBean() {
+            @Override
+            public long getHits() {
+                return StatementCache.getHits();
+            }
+
+            @Override
+            public long getMisses() {
+                return StatementCache.getMisses();
+            }
+        }, "football:type=StatementCache");
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private DaoMetrics() {
+    }
+
+    /**
+     * Returns the statistics of a DAO method, registering them on first use.
+     *
+     * @param dao     the DAO class name.
+     * @param methode the method name.
+     * @return the {@link DaoMethodStats} of the method.
+     */
+    public static DaoMethodStats methode(String dao, String methode) {
+        return stats.computeIfAbsent(dao + "." + methode, nom -> {
+            DaoMethodStats methodStats = new DaoMethodStats(nom);
+            enregistrer(methodStats, "football:type=DAO,dao=" + dao + ",name=" + methode);
+            return methodStats;
+        });
+    }
+
+    /**
+     * Registers an MBean with the platform MBean server, unless one is already
+     * registered under that name.
+     *
+     * @param mbean the MBean.
+     * @param nom   its object name.
+     */
+    private static void enregistrer(Object mbean, String nom) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(nom);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(mbean, objectName);
+            }
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * The database work of a DAO method.
+     *
+     * @param <T> the type of its result.
+     */
+    @FunctionalInterface
+    public interface Requete<T> {
+        /**
+         * Runs the work.
+         *
+         * @return its result.
+         * @throws SQLException if the database fails.
+         */
+        T executer() throws SQLException;
+    }
+
+    /**
+     * Runs the database work of a DAO method and records the call in the
+     * method's statistics.
+     *
+     * <p>
+     * A {@link SQLException} is counted by {@link DaoMethodStats#erreur()},
+     * printed, and answered with the given fallback; the call is recorded
+     * either way.
+     * </p>
+     *
+     * @param <T>      the type of the result.
+     * @param stats    the statistics of the method.
+     * @param siErreur the result returned if the database fails.
+     * @param lignes   gives the number of rows returned or affected from the
+     *                 result.
+     * @param requete  the database work.
+     * @return the result of the work, or siErreur.
+     */
+    public static <T> T mesurer(DaoMethodStats stats, T siErreur, ToIntFunction<? super T> lignes,
+            Requete<T> requete) {
+        long debut = System.nanoTime();
+        T resultat;
+        try {
+            resultat = requete.executer();
+        } catch (SQLException e) {
+            stats.erreur();
+            e.printStackTrace();
+            resultat = siErreur;
+        }
+        stats.enregistrer(debut, lignes.applyAsInt(resultat));
+        return resultat;
+    }
+
+    /**
+     * Runs the database work of a DAO method that returns a number of rows.
+     *
+     * @param stats   the statistics of the method.
+     * @param requete the database work, returning the rows it read or wrote.
+     * @return the number of rows, 0 if the database fails.
+     * @see #mesurer(DaoMethodStats, Object, ToIntFunction, Requete)
+     */
+    public static int mesurer(DaoMethodStats stats, Requete<Integer> requete) {
+        return mesurer(stats, 0, Integer::intValue, requete);
+    }
+
+    /**
+     * Counts a database error against the current thread.
+     */
+    static void erreurDuThread() {
+        erreursDuThread.get()[0]++;
+    }
+
+    /**
+     * Gets the number of database errors recorded so far by the current thread,
+     * in any DAO method.
+     *
+     * <p>
+     * The DAOs answer a failure with an empty result; comparing two readings
+     * tells whether every DAO call made in between by this thread succeeded.
+     * </p>
+     *
+     * @return the number of errors of the current thread.
+     */
+    public static long getErreursDuThread() {
+        return erreursDuThread.get()[0];
+    }
+
+    /**
+     * Gets the statistics of every DAO method used so far.
+     *
+     * @return a list of {@link DaoMethodStats}.
+     */
+    public static List<DaoMethodStats> getStats() {
+        return new ArrayList<>(stats.values());
+    }
+}
@@ -0,0 +1,354 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generator of synthetic leagues for load and performance testing.
+ *
+ * <p>
+ * Fills the schema with a configurable number of leagues, each with its teams,
+ * 11-player rosters and several seasons of double round-robin fixtures. Every
+ * season but the last is fully played; the last one is played up to a given
+ * share of its matchdays and the remaining fixtures are left unplayed. Team
+ * points are recomputed from the results at the end.
+ * </p>
+ *
+ * <p>
+ * Rows are written with batched inserts, committed in chunks, and every value
+ * is drawn from a seeded {@link Random}, so two runs with the same settings
+ * produce the same data.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class DataGenerator {
+
+    private static final int TAILLE_LOT = 5000;
+    private static final int JOUEURS_PAR_EQUIPE = 11;
+    private static final double BUTS_DOMICILE = 1.5;
+    private static final double BUTS_EXTERIEUR = 1.15;
+
+    private static final String[] VILLES = { "Paris", "Marseille", "Lyon", "Toulouse", "Nice", "Nantes",
+            "Montpellier", "Strasbourg", "Bordeaux", "Lille", "Rennes", "Reims", "Toulon", "Grenoble", "Dijon",
+            "Angers", "Brest", "Metz", "Nancy", "Caen", "Lorient", "Amiens", "Tours", "Limoges", "Clermont",
+            "Besancon", "Orleans", "Rouen", "Le Havre", "Perpignan", "Ajaccio", "Bastia", "Auxerre", "Troyes" };
+    private static final String[] SUFFIXES = { "FC", "AC", "SC", "Olympique", "Racing", "Stade", "AS", "US" };
+    private static final String[] NOMS = { "Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard",
+            "Petit", "Durand", "Leroy", "Moreau", "Simon", "Laurent", "Lefebvre", "Michel", "Garcia", "David",
+            "Bertrand", "Roux", "Vincent", "Fournier", "Morel", "Girard", "Andre", "Mercier", "Dupont", "Lambert",
+            "Bonnet", "Francois", "Martinez", "Legrand", "Garnier", "Faure", "Rousseau", "Blanc", "Guerin" };
+    private static final String[] PRENOMS = { "Lucas", "Hugo", "Louis", "Nathan", "Enzo", "Jules", "Arthur",
+            "Adam", "Paul", "Noah", "Tom", "Leo", "Gabriel", "Raphael", "Theo", "Mael", "Sacha", "Nolan",
+            "Ethan", "Timeo", "Mathis", "Axel", "Yanis", "Kylian", "Antoine", "Maxime", "Baptiste", "Samuel" };
+
+    private final String prefixe;
+    private final int nbLigues;
+    private final int nbEquipes;
+    private final int nbSaisons;
+    private final int pourcentageJoue;
+    private final Random random;
+
+    /**
+     * Constructs a DataGenerator.
+     *
+     * @param prefixe         the prefix of the league names, followed by the
+     *                        league number.
+     * @param nbLigues        the number of leagues.
+     * @param nbEquipes       the number of teams per league, at least 2.
+     * @param nbSaisons       the number of seasons of fixtures per league.
+     * @param pourcentageJoue the share of the matchdays of the last season
+     *                        already played, from 0 to 100.
+     * @param graine          the seed of the random generator.
+     */
+    public DataGenerator(String prefixe, int nbLigues, int nbEquipes, int nbSaisons, int pourcentageJoue,
+            long graine) {
+        if (nbEquipes < 2) {
+            throw new IllegalArgumentException("A league needs at least 2 teams");
+        }
+        this.prefixe = prefixe;
+        this.nbLigues = nbLigues;
+        this.nbEquipes = nbEquipes;
+        this.nbSaisons = nbSaisons;
+        this.pourcentageJoue = Math.max(0, Math.min(100, pourcentageJoue));
+        this.random = new Random(graine);
+    }
+
+    /**
+     * Generates the leagues.
+     *
+     * @return a {@link Rapport} summarizing the generated rows.
+     * @throws SQLException if a database access error occurs, or if a league
+     *                      with one of the generated names already exists.
+     */
+    public Rapport generer() throws SQLException {
+        Rapport rapport = new Rapport();
+        long debut = System.nanoTime();
+
+        try (Connection con = DatabaseConnection.getConnection();
+                PreparedStatement ligue = con.prepareStatement("INSERT INTO ligue (nom) VALUES (?)",
+                        Statement.RETURN_GENERATED_KEYS);
+                PreparedStatement equipe = con.prepareStatement(
+                        "INSERT INTO equipe (nom, ligue_id, points) VALUES (?, ?, 0)", Statement.RETURN_GENERATED_KEYS);
+                PreparedStatement joueur = con.prepareStatement(
+                        "INSERT INTO joueur (nom, prenom, numeroMaillot, equipe_id) VALUES (?, ?, ?, ?)");
+                PreparedStatement match = con.prepareStatement("INSERT INTO `match` "
+                        + "(equipe1Id, equipe2Id, nbButsEquipe1, nbButsEquipe2, saison, journee) VALUES (?, ?, ?, ?, ?, ?)")) {
+
+            con.setAutoCommit(false);
+            Lot joueurs = new Lot(con, joueur);
+            Lot matchs = new Lot(con, match);
+
+            for (int l = 1; l <= nbLigues; l++) {
+                ligue.setString(1, prefixe + " " + l);
+                ligue.executeUpdate();
+                int idLigue = premiereCle(ligue);
+                rapport.ligues++;
+
+                int[] ids = genererEquipes(equipe, idLigue, l);
+                con.commit();
+                rapport.equipes += ids.length;
+
+                for (int id : ids) {
+                    int[] numeros = numeros();
+                    for (int numero : numeros) {
+                        joueur.setString(1, NOMS[random.nextInt(NOMS.length)]);
+                        joueur.setString(2, PRENOMS[random.nextInt(PRENOMS.length)]);
+                        joueur.setInt(3, numero);
+                        joueur.setInt(4, id);
+                        joueurs.ajouter();
+                    }
+                    rapport.joueurs += numeros.length;
+                }
+
+                rapport.matchs += genererSaisons(matchs, ids);
+            }
+            joueurs.vider();
+            matchs.vider();
+            con.setAutoCommit(true);
+        }
+
+        for (int l = 1; l <= nbLigues; l++) {
+            EquipeDAO.getInstance().recalculerPoints(prefixe + " " + l);
+            EloRatings.recalculer(prefixe + " " + l);
+        }
+        rapport.secondes = Math.max(System.nanoTime() - debut, 1) / 1_000_000_000.0;
+        return rapport;
+    }
+
+    /**
+     * Inserts the teams of a league in one batch.
+     *
+     * @return the ids of the new teams.
+     */
+    private int[] genererEquipes(PreparedStatement equipe, int idLigue, int numeroLigue) throws SQLException {
+        Map<String, Integer> utilises = new HashMap<>();
+        for (int e = 0; e < nbEquipes; e++) {
+            String nom = SUFFIXES[random.nextInt(SUFFIXES.length)] + " " + VILLES[random.nextInt(VILLES.length)];
+            int occurrences = utilises.merge(nom, 1, Integer::sum);
+            equipe.setString(1, (occurrences > 1 ? nom + " " + occurrences : nom) + " (" + numeroLigue + ")");
+            equipe.setInt(2, idLigue);
+            equipe.addBatch();
+        }
+        equipe.executeBatch();
+
+        int[] ids = new int[nbEquipes];
+        try (ResultSet rs = equipe.getGeneratedKeys()) {
+            for (int i = 0; i < ids.length && rs.next(); i++) {
+                ids[i] = rs.getInt(1);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Draws distinct shirt numbers between 1 and 99 for one roster.
+     */
+    private int[] numeros() {
+        boolean[] pris = new boolean[100];
+        int[] numeros = new int[JOUEURS_PAR_EQUIPE];
+        for (int i = 0; i < numeros.length; i++) {
+            int numero;
+            do {
+                numero = 1 + random.nextInt(99);
+            } while (pris[numero]);
+            pris[numero] = true;
+            numeros[i] = numero;
+        }
+        return numeros;
+    }
+
+    /**
+     * Queues the double round-robin fixtures of every season of a league.
+     *
+     * <p>
+     * Fixtures are paired with the circle method: one team stays in place and
+     * the others rotate by one position per matchday. The second half of the
+     * season replays the first with home and away swapped.
+     * </p>
+     *
+     * @return the number of matches queued.
+     */
+    private int genererSaisons(Lot matchs, int[] ids) throws SQLException {
+        int n = ids.length % 2 == 0 ? ids.length : ids.length + 1; // Odd sizes get a bye.
+        int journeesParManche = n - 1;
+        int journeesJouees = Math.round(2 * journeesParManche * pourcentageJoue / 100f);
+        int[] rotation = new int[n];
+        int total = 0;
+
+        for (int saison = 1; saison <= nbSaisons; saison++) {
+            for (int i = 0; i < n; i++) {
+                rotation[i] = i < ids.length ? ids[i] : 0;
+            }
+            for (int tour = 0; tour < journeesParManche; tour++) {
+                for (int i = 0; i < n / 2; i++) {
+                    int domicile = rotation[i];
+                    int exterieur = rotation[n - 1 - i];
+                    if (domicile == 0 || exterieur == 0) {
+                        continue;
+                    }
+                    if (i == 0 && tour % 2 == 1) {
+                        int t = domicile;
+                        domicile = exterieur;
+                        exterieur = t;
+                    }
+                    for (int manche = 0; manche < 2; manche++) {
+                        int journee = tour + 1 + manche * journeesParManche;
+                        boolean jouee = saison < nbSaisons || journee <= journeesJouees;
+                        matchs.statement.setInt(1, manche == 0 ? domicile : exterieur);
+                        matchs.statement.setInt(2, manche == 0 ? exterieur : domicile);
+                        matchs.statement.setInt(3, jouee ? poisson(BUTS_DOMICILE) : -1);
+                        matchs.statement.setInt(4, jouee ? poisson(BUTS_EXTERIEUR) : -1);
+                        matchs.statement.setInt(5, saison);
+                        matchs.statement.setInt(6, journee);
+                        matchs.ajouter();
+                        total++;
+                    }
+                }
+                // Keep the first team in place and rotate the others.
+                int dernier = rotation[n - 1];
+                System.arraycopy(rotation, 1, rotation, 2, n - 2);
+                rotation[1] = dernier;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Draws a number of goals from a Poisson distribution.
+     */
+    private int poisson(double moyenne) {
+        double limite = Math.exp(-moyenne);
+        double produit = random.nextDouble();
+        int buts = 0;
+        while (produit > limite) {
+            produit *= random.nextDouble();
+            buts++;
+        }
+        return buts;
+    }
+
+    private static int premiereCle(PreparedStatement ps) throws SQLException {
+        try (ResultSet rs = ps.getGeneratedKeys()) {
+            if (!rs.next()) {
+                throw new SQLException("No key generated");
+            }
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * A batched insert committed every {@value DataGenerator#TAILLE_LOT} rows.
+     */
+    private static final class Lot {
+        final Connection connexion;
+        final PreparedStatement statement;
+        int taille;
+
+        Lot(Connection connexion, PreparedStatement statement) {
+            this.connexion = connexion;
+            this.statement = statement;
+        }
+
+        void ajouter() throws SQLException {
+            statement.addBatch();
+            if (++taille == TAILLE_LOT) {
+                vider();
+            }
+        }
+
+        void vider() throws SQLException {
+            if (taille > 0) {
+                statement.executeBatch();
+                connexion.commit();
+                taille = 0;
+            }
+        }
+    }
+
+    /**
+     * Summary of a generation run.
+     */
+    public static class Rapport {
+        int ligues;
+        int equipes;
+        int joueurs;
+        int matchs;
+        double secondes;
+
+        /**
+         * Gets the number of rows written per second.
+         *
+         * @return the throughput of the generation.
+         */
+        public double getLignesParSeconde() {
+            return secondes > 0 ? (ligues + equipes + joueurs + matchs) / secondes : 0;
+        }
+
+        @Override
+        public String toString() {
+            return ligues + " leagues, " + equipes + " teams, " + joueurs + " players, " + matchs + " matches in "
+                    + String.format(Locale.ROOT, "%.2f", secondes) + " s (" + Math.round(getLignesParSeconde())
+                    + " rows/s)";
+        }
+    }
+
+    /**
+     * Generates leagues from the command line.
+     *
+     * <p>
+     * Options, with their defaults: {@code --prefixe=Ligue Synthetique},
+     * {@code --ligues=50}, {@code --equipes=20}, {@code --saisons=10},
+     * {@code --joue=50} (percent of the last season played),
+     * {@code --graine=42}.
+     * </p>
+     *
+     * @param args the options.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int egal = arg.indexOf('=');
+            if (!arg.startsWith("--") || egal < 0) {
+                System.err.println("Usage: DataGenerator [--prefixe=NOM] [--ligues=N] [--equipes=N] "
+                        + "[--saisons=N] [--joue=POURCENT] [--graine=N]");
+                System.exit(1);
+            }
+            options.put(arg.substring(2, egal), arg.substring(egal + 1));
+        }
+        SchemaMigrator.migrer();
+        DataGenerator generateur = new DataGenerator(options.getOrDefault("prefixe", "Ligue Synthetique"),
+                Integer.parseInt(options.getOrDefault("ligues", "50")),
+                Integer.parseInt(options.getOrDefault("equipes", "20")),
+                Integer.parseInt(options.getOrDefault("saisons", "10")),
+                Integer.parseInt(options.getOrDefault("joue", "50")),
+                Long.parseLong(options.getOrDefault("graine", "42")));
+        System.out.println(generateur.generer());
+    }
+}
@@ -1,6 +1,14 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Utility class for managing the database connection.
@@ -10,15 +18,34 @@ import java.sql.SQLException;
  * connection
  * to the specified database.
  * </p>
+ *
+ * <p>
+ * Physical connections are kept open in a small pool so that each one can
+ * carry a {@link StatementCache}. Closing a connection returned by
+ * {@link #getConnection()} hands it back to the pool. At most
+ * {@value #MAX_CONNEXIONS} connections are borrowed at once; nested borrows on
+ * a thread that already holds one are not counted, so they cannot deadlock.
+ * </p>
  * 
  * @version 1.0
  */
 public class DatabaseConnection {
 
-    private static final String URL = "jdbc:mysql://localhost:3306/football?useSSL=false&serverTimezone=UTC";
+    private static final String URL = "jdbc:mysql://localhost:3306/football?useSSL=false&serverTimezone=UTC"
+            + "&rewriteBatchedStatements=true&useServerPrepStmts=true";
     private static final String LOGIN = "root";
     private static final String PASS = "";
 
+    private static final int MAX_CONNEXIONS = 16;
+    private static final long ATTENTE_MAX_MS = 30_000;
+    private static final long VALIDATION_APRES_MS = 30_000;
+
+    private static final Deque<PooledConnection> libres = new ConcurrentLinkedDeque<>();
+    private static final Semaphore permis = new Semaphore(MAX_CONNEXIONS, true);
+    private static final ThreadLocal<int[]> emprunts = ThreadLocal.withInitial(() -> new int[1]);
+
+    private static volatile ConnectionFactory factory = () -> DriverManager.getConnection(URL, LOGIN, PASS);
+
     // Static block to load the JDBC driver.
     static {
         try {
@@ -35,6 +62,164 @@ public class DatabaseConnection {
      * @throws SQLException if a database access error occurs.
      */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, LOGIN, PASS);
+        int[] profondeur = emprunts.get();
+        boolean compte = profondeur[0] == 0;
+        if (compte) {
+            try {
+                if (!permis.tryAcquire(ATTENTE_MAX_MS, TimeUnit.MILLISECONDS)) {
+                    throw new SQLException("Timed out waiting for a database connection");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection", e);
+            }
+        }
+        try {
+            PooledConnection pooled = emprunter();
+            profondeur[0]++;
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, new Emprunt(pooled, compte));
+        } catch (SQLException | RuntimeException e) {
+            if (compte) {
+                permis.release();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Opens the physical connections of the pool.
+     */
+    public interface ConnectionFactory {
+        /**
+         * Opens a new physical connection.
+         *
+         * @return the new {@link Connection}.
+         * @throws SQLException if the connection cannot be opened.
+         */
+        Connection ouvrir() throws SQLException;
+    }
+
+    /**
+     * Replaces the source of physical connections, for example with an
+     * in-process stand-in for benchmarks. Idle pooled connections are closed.
+     *
+     * @param connectionFactory the {@link ConnectionFactory} to use from now on.
+     */
+    public static void setConnectionFactory(ConnectionFactory connectionFactory) {
+        factory = connectionFactory;
+        PooledConnection pooled;
+        while ((pooled = libres.pollFirst()) != null) {
+            pooled.fermer();
+        }
+    }
+
+    /**
+     * Takes an idle physical connection, validating it if it sat idle for a
+     * while, or opens a new one.
+     *
+     * @return a usable {@link PooledConnection}.
+     * @throws SQLException if a new connection cannot be opened.
+     */
+    private static PooledConnection emprunter() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = libres.pollFirst()) != null) {
+            boolean recent = System.currentTimeMillis() - pooled.rendueA < VALIDATION_APRES_MS;
+            if (recent || pooled.connexion.isValid(2)) {
+                return pooled;
+            }
+            pooled.fermer();
+        }
+        return new PooledConnection(factory.ouvrir());
+    }
+
+    /**
+     * Returns a physical connection to the pool after use.
+     *
+     * @param pooled the connection to return.
+     */
+    private static void rendre(PooledConnection pooled) {
+        try {
+            if (!pooled.connexion.isClosed() && !pooled.connexion.getAutoCommit()) {
+                // A failed batch may have left a transaction open.
+                pooled.connexion.rollback();
+                pooled.connexion.setAutoCommit(true);
+            }
+            if (pooled.connexion.isClosed() || libres.size() >= MAX_CONNEXIONS) {
+                pooled.fermer();
+                return;
+            }
+        } catch (SQLException e) {
+            pooled.fermer();
+            return;
+        }
+        pooled.rendueA = System.currentTimeMillis();
+        libres.offerFirst(pooled);
+    }
+
+    /**
+     * A physical connection with its statement cache.
+     */
+    private static class PooledConnection {
+        final Connection connexion;
+        final StatementCache statements;
+        long rendueA;
+
+        PooledConnection(Connection connexion) {
+            this.connexion = connexion;
+            this.statements = new StatementCache(connexion);
+        }
+
+        void fermer() {
+            statements.fermer();
+            try {
+                connexion.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * The connection handed to DAO code for one borrow. Statements are prepared
+     * through the cache and close() returns the connection to the pool.
+     */
+    private static class Emprunt implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final boolean compte;
+        private boolean ferme;
+
+        Emprunt(PooledConnection pooled, boolean compte) {
+            this.pooled = pooled;
+            this.compte = compte;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!ferme) {
+                        ferme = true;
+                        emprunts.get()[0]--;
+                        rendre(pooled);
+                        if (compte) {
+                            permis.release();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return ferme || pooled.connexion.isClosed();
+                case "prepareStatement":
+                    if (ferme) {
+                        throw new SQLException("Connection is closed");
+                    }
+                    return pooled.statements.preparer(method, args);
+                default:
+                    if (ferme) {
+                        throw new SQLException("Connection is closed");
+                    }
+                    return StatementCache.invoquer(method, pooled.connexion, args);
+            }
+        }
     }
 }
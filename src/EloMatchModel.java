@@ -0,0 +1,151 @@
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Match model driven by the current {@link EloRatings Elo ratings} of the
+ * teams.
+ *
+ * <p>
+ * Each team's goals follow a Poisson distribution whose mean is the league
+ * average, scaled by {@code 10^(ecart / 800)} for the home team and its inverse
+ * for the away team, where {@code ecart} is the rating difference. The ratings
+ * are read from the teams on every draw, so the model follows them as results
+ * are saved without being rebuilt; {@link #figer(Collection)} captures them
+ * instead, for a projection that must not move while it runs.
+ * </p>
+ *
+ * <p>
+ * Rating differences are rounded to {@value #PAS} points and clamped to
+ * &plusmn;{@value #ECART_MAX}; the {@link AliasTable} of each step is built on
+ * its first use and kept.
+ * </p>
+ *
+ * @version 1.0
+ */
+public final class EloMatchModel implements MatchModel {
+
+    /** The rating difference between two consecutive tables. */
+    public static final int PAS = 10;
+    /** The largest rating difference taken into account. */
+    public static final int ECART_MAX = 800;
+
+    private final double moyenneDomicile;
+    private final double moyenneExterieur;
+    private final AliasTable[] tables;
+    /** The ratings captured by {@link #figer(Collection)}, by team id; null to read the teams. */
+    private final Map<Integer, Double> elos;
+
+    /**
+     * Constructs a model from the average goals of the league.
+     *
+     * @param moyenneDomicile  the average goals of a home team.
+     * @param moyenneExterieur the average goals of an away team.
+     */
+    public EloMatchModel(double moyenneDomicile, double moyenneExterieur) {
+        this(moyenneDomicile, moyenneExterieur, new AliasTable[2 * ECART_MAX / PAS + 1], null);
+    }
+
+    private EloMatchModel(double moyenneDomicile, double moyenneExterieur, AliasTable[] tables,
+            Map<Integer, Double> elos) {
+        this.moyenneDomicile = moyenneDomicile;
+        this.moyenneExterieur = moyenneExterieur;
+        this.tables = tables;
+        this.elos = elos;
+    }
+
+    /**
+     * Estimates the average goals from the played matches of a league.
+     *
+     * @param ligue the {@link Ligue} whose history is used.
+     * @return the estimated model.
+     */
+    public static EloMatchModel estimer(Ligue ligue) {
+        long butsDomicile = 0;
+        long butsExterieur = 0;
+        int joues = 0;
+        for (Match match : ligue.getMatches()) {
+            int score = match.getScore();
+            if (score == Match.NON_JOUE) {
+                continue;
+            }
+            butsDomicile += MatchModel.butsEquipe1(score);
+            butsExterieur += MatchModel.butsEquipe2(score);
+            joues++;
+        }
+        return joues == 0 ? new EloMatchModel(PoissonMatchModel.MOYENNE_DOMICILE, PoissonMatchModel.MOYENNE_EXTERIEUR)
+                : new EloMatchModel((double) butsDomicile / joues, (double) butsExterieur / joues);
+    }
+
+    /**
+     * Computes the probabilities of a home win, a draw and an away win, without
+     * the clamping and rounding applied to draws.
+     *
+     * @param eloDomicile  the rating of the home team.
+     * @param eloExterieur the rating of the away team.
+     * @param issues       the array receiving the three probabilities.
+     * @param position     the index of the home win probability in the array.
+     */
+    public void issues(double eloDomicile, double eloExterieur, double[] issues, int position) {
+        double facteur = Math.pow(10, (eloDomicile - eloExterieur) / 800);
+        double[] scores = PoissonMatchModel.scores(moyenneDomicile * facteur, moyenneExterieur / facteur);
+        double domicile = 0;
+        double nul = 0;
+        double exterieur = 0;
+        for (int b1 = 0; b1 < PoissonMatchModel.SCORES; b1++) {
+            for (int b2 = 0; b2 < PoissonMatchModel.SCORES; b2++) {
+                double p = scores[b1 * PoissonMatchModel.SCORES + b2];
+                if (b1 > b2) {
+                    domicile += p;
+                } else if (b1 == b2) {
+                    nul += p;
+                } else {
+                    exterieur += p;
+                }
+            }
+        }
+        // Scores are capped, so renormalize as the alias tables do.
+        double total = domicile + nul + exterieur;
+        issues[position + ProbabilityMatrix.DOMICILE] = domicile / total;
+        issues[position + ProbabilityMatrix.NUL] = nul / total;
+        issues[position + ProbabilityMatrix.EXTERIEUR] = exterieur / total;
+    }
+
+    /**
+     * Gets a model drawing with the current ratings of some teams, which no
+     * longer follows the ratings as results are saved. The tables are shared
+     * with this model.
+     *
+     * @param equipes the teams whose ratings are captured; other teams are
+     *                still read on every draw.
+     * @return the frozen model.
+     */
+    @Override
+    public EloMatchModel figer(Collection<Equipe> equipes) {
+        Map<Integer, Double> captures = new HashMap<>();
+        for (Equipe equipe : equipes) {
+            captures.put(equipe.getId(), equipe.getElo());
+        }
+        return new EloMatchModel(moyenneDomicile, moyenneExterieur, tables, captures);
+    }
+
+    private double elo(Equipe equipe) {
+        Double elo = elos != null ? elos.get(equipe.getId()) : null;
+        return elo != null ? elo : equipe.getElo();
+    }
+
+    @Override
+    public int tirer(Equipe domicile, Equipe exterieur, Random random) {
+        double ecart = Math.max(-ECART_MAX, Math.min(ECART_MAX, elo(domicile) - elo(exterieur)));
+        int cle = (int) Math.round(ecart / PAS) + ECART_MAX / PAS;
+        AliasTable table = tables[cle];
+        if (table == null) {
+            double facteur = Math.pow(10, (cle * PAS - ECART_MAX) / 800.0);
+            table = new AliasTable(PoissonMatchModel.scores(moyenneDomicile * facteur, moyenneExterieur / facteur));
+            tables[cle] = table;
+        }
+        int tirage = table.tirer(random);
+        return MatchModel.score(tirage / PoissonMatchModel.SCORES, tirage % PoissonMatchModel.SCORES);
+    }
+}
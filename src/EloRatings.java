@@ -0,0 +1,126 @@
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Elo ratings of the teams.
+ *
+ * <p>
+ * Every team starts at {@value #ELO_INITIAL}. Each saved result moves the two
+ * teams' ratings by the same amount in opposite directions:
+ * {@code K * G * (resultat - attendu)}, where the expected result comes from
+ * the rating difference plus a home advantage for the first team, and
+ * {@code G} grows with the goal difference as in the World Football Elo
+ * ratings.
+ * </p>
+ *
+ * <p>
+ * Ratings are stored with the teams and updated incrementally in the same
+ * transaction as the result (see
+ * {@link MatchDAO#enregistrerResultat(Match, int, int, double)} and
+ * {@link MatchDAO#enregistrerResultats(java.util.List)}), so reading a rating is
+ * a field access. {@link #recalculer(String)} rebuilds the ratings of a league
+ * from its history in one streaming pass, in match id order.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class EloRatings {
+
+    /** The rating of a new team. */
+    public static final double ELO_INITIAL = 1500;
+    /** The weight of a single result. */
+    public static final double K = 20;
+    /** The rating points added to the first team, which plays at home. */
+    public static final double AVANTAGE_DOMICILE = 65;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private EloRatings() {
+    }
+
+    /**
+     * Gets the expected result of the first team of a match, between 0 (sure
+     * loss) and 1 (sure win).
+     *
+     * @param elo1 the rating of the first team, at home.
+     * @param elo2 the rating of the second team.
+     * @return the expected result.
+     */
+    public static double attendu(double elo1, double elo2) {
+        return 1 / (1 + Math.pow(10, (elo2 - elo1 - AVANTAGE_DOMICILE) / 400));
+    }
+
+    /**
+     * Computes the rating change of the first team of a match; the second team
+     * changes by the opposite amount.
+     *
+     * @param elo1  the rating of the first team before the match.
+     * @param elo2  the rating of the second team before the match.
+     * @param buts1 the goals of the first team.
+     * @param buts2 the goals of the second team.
+     * @return the change of the first team's rating.
+     */
+    public static double variation(double elo1, double elo2, int buts1, int buts2) {
+        double resultat = buts1 > buts2 ? 1 : buts1 == buts2 ? 0.5 : 0;
+        int ecart = Math.abs(buts1 - buts2);
+        double g = ecart <= 1 ? 1 : ecart == 2 ? 1.5 : (11 + ecart) / 8.0;
+        return K * g * (resultat - attendu(elo1, elo2));
+    }
+
+    /**
+     * Rebuilds the ratings of the teams of a league from their played matches.
+     *
+     * @param nomLigue the name of the league.
+     * @return the rating of every team of the league, by team id.
+     */
+    public static Map<Integer, Double> reconstruire(String nomLigue) {
+        Map<Integer, double[]> elos = new HashMap<>();
+        for (int id : EquipeDAO.getInstance().getIdsEquipes(nomLigue).values()) {
+            elos.put(id, new double[] { ELO_INITIAL });
+        }
+        MatchDAO.getInstance().parcourirMatches(nomLigue, (id, equipe1Id, equipe2Id, buts1, buts2) -> {
+            double[] elo1 = elos.get(equipe1Id);
+            double[] elo2 = elos.get(equipe2Id);
+            if (buts1 < 0 || buts2 < 0 || elo1 == null || elo2 == null) {
+                return; // Unplayed, or against a team of another league
+            }
+            double variation = variation(elo1[0], elo2[0], buts1, buts2);
+            elo1[0] += variation;
+            elo2[0] -= variation;
+        });
+
+        Map<Integer, Double> resultat = new HashMap<>();
+        for (Map.Entry<Integer, double[]> entry : elos.entrySet()) {
+            resultat.put(entry.getKey(), entry.getValue()[0]);
+        }
+        return resultat;
+    }
+
+    /**
+     * Rebuilds and saves the ratings of the teams of a league.
+     *
+     * @param nomLigue the name of the league.
+     * @return the number of teams updated.
+     */
+    public static int recalculer(String nomLigue) {
+        return EquipeDAO.getInstance().modifierElos(reconstruire(nomLigue), nomLigue);
+    }
+
+    /**
+     * Rebuilds the ratings of the leagues given on the command line, for
+     * example after the migration that introduced them.
+     *
+     * @param args the names of the leagues.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: EloRatings LIGUE...");
+            System.exit(1);
+        }
+        SchemaMigrator.migrer();
+        for (String nomLigue : args) {
+            System.out.println(nomLigue + ": " + recalculer(nomLigue) + " teams rated");
+        }
+    }
+}
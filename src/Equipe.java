@@ -1,4 +1,6 @@
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
  * Represents a team (Equipe) in the league.
@@ -8,15 +10,25 @@ import java.util.List;
  * provides
  * functionality for creating a team and modifying its roster.
  * </p>
+ *
+ * <p>
+ * A team may be shared between threads: points and the Elo rating are updated
+ * atomically, and the roster is a copy-on-write list, so it can be iterated
+ * without locking while players are added or removed.
+ * </p>
  * 
  * @version 1.0
  */
 public class Equipe {
-	int id;
-	String nom;
+	private static final AtomicIntegerFieldUpdater<Equipe> POINTS = AtomicIntegerFieldUpdater
+			.newUpdater(Equipe.class, "points");
+
+	volatile int id;
+	volatile String nom;
 	Ligue ligue;
-	List<Joueur> joueurs;
-	int points;
+	volatile List<Joueur> joueurs;
+	volatile int points;
+	volatile double elo = EloRatings.ELO_INITIAL;
 
 	/**
 	 * Constructs an Equipe with a specified id, name, league, and points.
@@ -56,6 +68,24 @@ public class Equipe {
 		this.id = id;
 	}
 
+	/**
+	 * Constructs an Equipe read from the database without loading its players.
+	 * The roster stays empty until {@link #populateJoueurs()} is called.
+	 *
+	 * @param id     the team identifier
+	 * @param nom    the team name
+	 * @param ligue  the {@link Ligue} to which the team belongs
+	 * @param points the points of the team
+	 * @return the team, with an empty roster
+	 */
+	static Equipe sansJoueurs(int id, String nom, Ligue ligue, int points) {
+		Equipe equipe = new Equipe(nom, ligue);
+		equipe.id = id;
+		equipe.points = points;
+		equipe.joueurs = new CopyOnWriteArrayList<>();
+		return equipe;
+	}
+
 	/**
 	 * Creates a new Equipe in the database with a list of players.
 	 *
@@ -74,6 +104,8 @@ public class Equipe {
 		nouvelleEquipe.modifyJoueurs(joueurs);
 
 		ligue.addEquipe(nouvelleEquipe);
+		// Bumped again now that the team is visible in the league.
+		LigueRevisions.incrementer(ligue.getNom());
 
 		return nouvelleEquipe;
 	}
@@ -119,7 +151,7 @@ public class Equipe {
 	 * Loads the list of players for this team from the database.
 	 */
 	public void populateJoueurs() {
-		this.joueurs = JoueurDAO.getInstance().getJoueurs(this);
+		this.joueurs = new CopyOnWriteArrayList<>(JoueurDAO.getInstance().getJoueurs(this));
 	}
 
 	/**
@@ -182,7 +214,7 @@ public class Equipe {
 	 * @param joueurs the new list of players
 	 */
 	public void modifyJoueurs(List<Joueur> joueurs) {
-		this.joueurs = joueurs;
+		this.joueurs = new CopyOnWriteArrayList<>(joueurs);
 	}
 
 	/**
@@ -200,6 +232,50 @@ public class Equipe {
 	 * @param points the points to add
 	 */
 	public void addPoints(int points) {
-		this.points += points;
+		POINTS.addAndGet(this, points);
+	}
+
+	/**
+	 * Gets the team's Elo rating.
+	 *
+	 * @return the rating
+	 * @see EloRatings
+	 */
+	public double getElo() {
+		return elo;
+	}
+
+	/**
+	 * Sets the team's Elo rating.
+	 *
+	 * @param elo the new rating
+	 */
+	public void setElo(double elo) {
+		this.elo = elo;
+		eloModifie();
+	}
+
+	/**
+	 * Adds a change to the team's Elo rating.
+	 *
+	 * @param variation the change, negative for a loss of rating
+	 */
+	public void ajusterElo(double variation) {
+		synchronized (this) {
+			elo += variation;
+		}
+		eloModifie();
+	}
+
+	/**
+	 * Tells the team's league that its rating changed, so that the cached
+	 * {@link Ligue#getProbabilites() probabilities} involving it are
+	 * recomputed.
+	 */
+	private void eloModifie() {
+		Ligue ligue = this.ligue;
+		if (ligue != null) {
+			ligue.eloModifie(this);
+		}
 	}
 }
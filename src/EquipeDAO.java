@@ -4,7 +4,10 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
 
 /**
  * Data Access Object (DAO) for managing Equipe records in the database.
@@ -17,7 +20,19 @@ import java.util.List;
  * @version 1.0
  */
 public class EquipeDAO {
-    private static EquipeDAO instance; // Singleton instance
+    private static final EquipeDAO instance = new EquipeDAO(); // Singleton instance
+
+    private static final DaoMethodStats GET_EQUIPES = DaoMetrics.methode("EquipeDAO", "getEquipes");
+    private static final DaoMethodStats GET_IDS_EQUIPES = DaoMetrics.methode("EquipeDAO", "getIdsEquipes");
+    private static final DaoMethodStats CREER_EQUIPE = DaoMetrics.methode("EquipeDAO", "creerEquipe");
+    private static final DaoMethodStats MODIFIER_NOM_EQUIPE = DaoMetrics.methode("EquipeDAO", "modifierNomEquipe");
+    private static final DaoMethodStats MODIFIER_POINTS_EQUIPE = DaoMetrics.methode("EquipeDAO",
+            "modifierPointsEquipe");
+    private static final DaoMethodStats RECALCULER_POINTS = DaoMetrics.methode("EquipeDAO", "recalculerPoints");
+    private static final DaoMethodStats MODIFIER_ELOS = DaoMetrics.methode("EquipeDAO", "modifierElos");
+    private static final DaoMethodStats GET_EQUIPES_PAR_ID = DaoMetrics.methode("EquipeDAO", "getEquipesParId");
+    private static final DaoMethodStats GET_EQUIPES_PAR_POINTS = DaoMetrics.methode("EquipeDAO",
+            "getEquipesParPoints");
 
     /**
      * Private constructor to prevent instantiation.
@@ -31,9 +46,6 @@ public class EquipeDAO {
      * @return the EquipeDAO instance.
      */
     public static EquipeDAO getInstance() {
-        if (instance == null) {
-            instance = new EquipeDAO();
-        }
         return instance;
     }
 
@@ -44,26 +56,57 @@ public class EquipeDAO {
      * @return a list of {@link Equipe} objects.
      */
     public List<Equipe> getEquipes(Ligue ligue) {
-        String query = "SELECT * FROM equipe WHERE ligue = ?";
-        List<Equipe> equipes = new ArrayList<>();
-
-        try (Connection con = DatabaseConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(query)) {
-
-            ps.setString(1, ligue.getNom());
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    int id = rs.getInt("id");
-                    String nom = rs.getString("nom");
-                    int points = rs.getInt("points");
-                    Equipe equipe = new Equipe(id, nom, ligue, points);
-                    equipes.add(equipe);
+        String query = "SELECT * FROM equipe WHERE ligue_id = ?";
+
+        return DaoMetrics.mesurer(GET_EQUIPES, new ArrayList<>(), List::size, () -> {
+            List<Equipe> equipes = new ArrayList<>();
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query)) {
+
+                ps.setInt(1, ligue.getId());
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int id = rs.getInt("id");
+                        String nom = rs.getString("nom");
+                        int points = rs.getInt("points");
+                        Equipe equipe = new Equipe(id, nom, ligue, points);
+                        equipe.setElo(rs.getDouble("elo"));
+                        equipes.add(equipe);
+                    }
                 }
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return equipes;
+            return equipes;
+        });
+    }
+
+    /**
+     * Retrieves the ids of all teams of a league, keyed by team name.
+     *
+     * <p>
+     * Unlike {@link #getEquipes(Ligue)}, this does not load the players of each
+     * team, which makes it suitable for building lookup indexes.
+     * </p>
+     *
+     * @param nomLigue the name of the league.
+     * @return a map of team names to team ids.
+     */
+    public Map<String, Integer> getIdsEquipes(String nomLigue) {
+        String query = "SELECT e.id, e.nom FROM equipe e JOIN ligue l ON l.id = e.ligue_id WHERE l.nom = ?";
+
+        return DaoMetrics.mesurer(GET_IDS_EQUIPES, new HashMap<>(), Map::size, () -> {
+            Map<String, Integer> ids = new HashMap<>();
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query)) {
+
+                ps.setString(1, nomLigue);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        ids.put(rs.getString("nom"), rs.getInt("id"));
+                    }
+                }
+            }
+            return ids;
+        });
     }
 
     /**
@@ -73,26 +116,29 @@ public class EquipeDAO {
      * @return the generated id for the new team.
      */
     public int creerEquipe(Equipe equipe) {
-        String query = "INSERT INTO equipe (nom, ligue, points) VALUES (?, ?, ?)";
-        int idEquipe = 0;
+        String query = "INSERT INTO equipe (nom, ligue_id, points) VALUES (?, ?, ?)";
 
-        try (Connection con = DatabaseConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        int idEquipe = DaoMetrics.mesurer(CREER_EQUIPE, 0, id -> id != 0 ? 1 : 0, () -> {
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
 
-            ps.setString(1, equipe.getNom());
-            ps.setString(2, equipe.getLigue().getNom());
-            ps.setInt(3, equipe.getPoints());
+                ps.setString(1, equipe.getNom());
+                ps.setInt(2, equipe.getLigue().getId());
+                ps.setInt(3, equipe.getPoints());
 
-            int affectedRows = ps.executeUpdate();
-            if (affectedRows > 0) {
-                try (ResultSet rs = ps.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        idEquipe = rs.getInt(1);
+                int affectedRows = ps.executeUpdate();
+                if (affectedRows > 0) {
+                    try (ResultSet rs = ps.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            return rs.getInt(1);
+                        }
                     }
                 }
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
+            return 0;
+        });
+        if (idEquipe != 0) {
+            LigueRevisions.incrementer(equipe);
         }
         return idEquipe;
     }
@@ -105,14 +151,17 @@ public class EquipeDAO {
     public void modifierNomEquipe(Equipe equipe) {
         String query = "UPDATE equipe SET nom = ? WHERE id = ?";
 
-        try (Connection con = DatabaseConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(query)) {
+        int rows = DaoMetrics.mesurer(MODIFIER_NOM_EQUIPE, () -> {
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query)) {
 
-            ps.setString(1, equipe.getNom());
-            ps.setInt(2, equipe.getId());
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
+                ps.setString(1, equipe.getNom());
+                ps.setInt(2, equipe.getId());
+                return ps.executeUpdate();
+            }
+        });
+        if (rows > 0) {
+            LigueRevisions.incrementer(equipe);
         }
     }
 
@@ -120,18 +169,182 @@ public class EquipeDAO {
      * Updates the points of an existing Equipe in the database.
      *
      * @param equipe the {@link Equipe} whose points are to be updated.
+     * @return the number of rows updated.
      */
-    public void modifierPointsEquipe(Equipe equipe) {
+    public int modifierPointsEquipe(Equipe equipe) {
         String query = "UPDATE equipe SET points = ? WHERE id = ?";
 
-        try (Connection con = DatabaseConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(query)) {
+        int rows = DaoMetrics.mesurer(MODIFIER_POINTS_EQUIPE, () -> {
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query)) {
+
+                ps.setInt(1, equipe.getPoints());
+                ps.setInt(2, equipe.getId());
+                return ps.executeUpdate();
+            }
+        });
+        if (rows > 0) {
+            LigueRevisions.incrementer(equipe);
+        }
+        return rows;
+    }
+
+    /**
+     * Recomputes the points of every team of a league from its played matches
+     * in a single statement.
+     *
+     * <p>
+     * A win is worth 3 points and a draw 1 point, as in
+     * {@link Match#simulerMatch()}. This is meant to run once after bulk writes
+     * instead of updating points row by row.
+     * </p>
+     *
+     * @param nomLigue the name of the league.
+     * @return the number of teams updated.
+     */
+    public int recalculerPoints(String nomLigue) {
+        String query = "UPDATE equipe e SET e.points = (SELECT COALESCE(SUM(CASE "
+                + "WHEN m.nbButsEquipe1 = m.nbButsEquipe2 THEN 1 "
+                + "WHEN m.equipe1Id = e.id AND m.nbButsEquipe1 > m.nbButsEquipe2 THEN 3 "
+                + "WHEN m.equipe2Id = e.id AND m.nbButsEquipe2 > m.nbButsEquipe1 THEN 3 "
+                + "ELSE 0 END), 0) FROM `match` m "
+                + "WHERE (m.equipe1Id = e.id OR m.equipe2Id = e.id) AND m.nbButsEquipe1 >= 0 AND m.nbButsEquipe2 >= 0) "
+                + "WHERE e.ligue_id = (SELECT id FROM ligue WHERE nom = ?)";
+
+        int updated = DaoMetrics.mesurer(RECALCULER_POINTS, () -> {
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query)) {
+
+                ps.setString(1, nomLigue);
+                return ps.executeUpdate();
+            }
+        });
+        if (updated > 0) {
+            LigueRevisions.incrementer(nomLigue);
+        }
+        return updated;
+    }
+
+    /**
+     * Overwrites the Elo ratings of teams in a single transaction using batch
+     * processing.
+     *
+     * @param elos     the new rating of each team, by team id.
+     * @param nomLigue the name of the league the teams belong to.
+     * @return the number of teams updated.
+     * @see EloRatings#recalculer(String)
+     */
+    public int modifierElos(Map<Integer, Double> elos, String nomLigue) {
+        String query = "UPDATE equipe SET elo = ? WHERE id = ?";
+
+        int updated = DaoMetrics.mesurer(MODIFIER_ELOS, () -> {
+            int rows = 0;
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query)) {
 
-            ps.setInt(1, equipe.getPoints());
-            ps.setInt(2, equipe.getId());
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
+                con.setAutoCommit(false);
+                for (Map.Entry<Integer, Double> elo : elos.entrySet()) {
+                    ps.setDouble(1, elo.getValue());
+                    ps.setInt(2, elo.getKey());
+                    ps.addBatch();
+                }
+                if (!elos.isEmpty()) {
+                    for (int count : ps.executeBatch()) {
+                        rows += Math.max(count, 0);
+                    }
+                }
+                con.commit();
+            }
+            return rows;
+        });
+        if (updated > 0) {
+            LigueRevisions.incrementer(nomLigue);
         }
+        return updated;
+    }
+
+    /**
+     * Retrieves a page of the teams of a league ordered by id, using keyset
+     * pagination.
+     *
+     * <p>
+     * Like every page of teams, the teams are read without their players; use
+     * {@link Equipe#populateJoueurs()} to load the roster of one of them.
+     * </p>
+     *
+     * @param ligue   the {@link Ligue} for which teams are to be retrieved.
+     * @param apresId the id of the last team of the previous page, 0 for the
+     *                first page.
+     * @param taille  the maximum number of teams in the page.
+     * @return a {@link Page} of {@link Equipe} objects.
+     */
+    public Page<Equipe> getEquipesParId(Ligue ligue, int apresId, int taille) {
+        String query = "SELECT * FROM equipe WHERE ligue_id = ? AND id > ? ORDER BY id LIMIT ?";
+        return getPageEquipes(GET_EQUIPES_PAR_ID, ligue, query, taille, Equipe::getId, ligue.getId(), apresId,
+                taille + 1);
+    }
+
+    /**
+     * Retrieves a page of the teams of a league ordered by points then id,
+     * both descending, using keyset pagination.
+     *
+     * <p>
+     * Both keys run in the same direction, so the page starts right after the
+     * (points, id) pair of the previous one and is read by a single backward
+     * range scan of {@code idx_equipe_ligue_points}, which holds the id after
+     * the points.
+     * </p>
+     *
+     * @param ligue       the {@link Ligue} for which teams are to be retrieved.
+     * @param apresPoints the points of the last team of the previous page,
+     *                    {@link Integer#MAX_VALUE} for the first page.
+     * @param apresId     the id of the last team of the previous page,
+     *                    {@link Integer#MAX_VALUE} for the first page.
+     * @param taille      the maximum number of teams in the page.
+     * @return a {@link Page} of {@link Equipe} objects.
+     */
+    public Page<Equipe> getEquipesParPoints(Ligue ligue, int apresPoints, int apresId, int taille) {
+        String query = "SELECT * FROM equipe WHERE ligue_id = ? AND (points, id) < (?, ?) "
+                + "ORDER BY points DESC, id DESC LIMIT ?";
+        return getPageEquipes(GET_EQUIPES_PAR_POINTS, ligue, query, taille, Equipe::getPoints, ligue.getId(),
+                apresPoints, apresId, taille + 1);
+    }
+
+    /**
+     * Runs a keyset page query on the equipe table.
+     *
+     * @param stats  the statistics of the calling method.
+     * @param ligue  the {@link Ligue} the teams belong to.
+     * @param query  the page query.
+     * @param taille the page size.
+     * @param cle    extracts the sort key of a team.
+     * @param params the integer query parameters, in order.
+     * @return a {@link Page} of {@link Equipe} objects.
+     */
+    private Page<Equipe> getPageEquipes(DaoMethodStats stats, Ligue ligue, String query, int taille,
+            ToIntFunction<Equipe> cle, int... params) {
+        Page<Equipe> vide = new Page<>(new ArrayList<>(), taille, cle, Equipe::getId);
+
+        return DaoMetrics.mesurer(stats, vide, page -> page.getElements().size(), () -> {
+            List<Equipe> equipes = new ArrayList<>();
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query)) {
+
+                for (int i = 0; i < params.length; i++) {
+                    ps.setInt(i + 1, params[i]);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int id = rs.getInt("id");
+                        String nom = rs.getString("nom");
+                        int points = rs.getInt("points");
+                        Equipe equipe = Equipe.sansJoueurs(id, nom, ligue, points);
+                        equipe.setElo(rs.getDouble("elo"));
+                        equipes.add(equipe);
+                    }
+                }
+            }
+            return new Page<>(equipes, taille, cle, Equipe::getId);
+        });
     }
 }
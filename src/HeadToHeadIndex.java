@@ -0,0 +1,207 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The matches of a league grouped by pair of teams, with the record of each
+ * pair.
+ *
+ * <p>
+ * A pair is keyed by the ids of its two teams, whatever the order they play
+ * in, so finding every meeting of two teams is a single lookup instead of a
+ * scan of {@link Ligue#getMatches()}. The record of each pair is kept up to
+ * date as matches are added and played, which makes head-to-head views and
+ * tie-breaks as cheap as reading a few counters. The upcoming matches of each
+ * pair are counted by home team too, so {@link Match#creerMatch(Equipe, Equipe)}
+ * can refuse a fixture that is already scheduled without a scan.
+ * </p>
+ *
+ * <p>
+ * The index belongs to its {@link Ligue}, which feeds it; it can be read from
+ * any thread.
+ * </p>
+ *
+ * @version 1.0
+ */
+public final class HeadToHeadIndex {
+
+    private final ConcurrentHashMap<Long, Confrontation> paires = new ConcurrentHashMap<>();
+
+    /**
+     * Builds the index of some matches.
+     *
+     * @param matchs the matches, played or not.
+     */
+    HeadToHeadIndex(Collection<Match> matchs) {
+        for (Match match : matchs) {
+            ajouter(match);
+        }
+    }
+
+    private static long cle(int id1, int id2) {
+        int premier = Math.min(id1, id2);
+        int second = Math.max(id1, id2);
+        return (long) premier << 32 | (second & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Adds a match, and its result if it has one.
+     *
+     * @param match the new match.
+     */
+    void ajouter(Match match) {
+        int id1 = match.getEquipe1().getId();
+        int id2 = match.getEquipe2().getId();
+        paires.computeIfAbsent(cle(id1, id2), cle -> new Confrontation(id1, id2)).ajouter(match);
+    }
+
+    /**
+     * Records the result of a match of the index, replacing the previous one
+     * if the match had already been played.
+     *
+     * @param match   the match.
+     * @param ancien1 the previous goals of the first team, -1 if not played.
+     * @param ancien2 the previous goals of the second team, -1 if not played.
+     * @param buts1   the goals of the first team, -1 if the result was taken
+     *                back.
+     * @param buts2   the goals of the second team, -1 if the result was taken
+     *                back.
+     */
+    void jouer(Match match, int ancien1, int ancien2, int buts1, int buts2) {
+        Confrontation confrontation = paires.get(cle(match.getEquipe1().getId(), match.getEquipe2().getId()));
+        if (confrontation != null) {
+            confrontation.jouer(match, ancien1, ancien2, buts1, buts2);
+        }
+    }
+
+    /**
+     * Gets the meetings of two teams.
+     *
+     * @param equipe     a team.
+     * @param adversaire the other team.
+     * @return their {@link Confrontation}, empty if they never met.
+     */
+    public Confrontation getConfrontation(Equipe equipe, Equipe adversaire) {
+        Confrontation confrontation = paires.get(cle(equipe.getId(), adversaire.getId()));
+        return confrontation != null ? confrontation : new Confrontation(equipe.getId(), adversaire.getId());
+    }
+
+    /**
+     * Gets the number of upcoming matches of one team at home against another.
+     *
+     * @param domicile  the home team.
+     * @param exterieur the away team.
+     * @return the number of matches between them, in that order, that have no
+     *         result yet.
+     */
+    public int getAVenir(Equipe domicile, Equipe exterieur) {
+        Confrontation confrontation = paires.get(cle(domicile.getId(), exterieur.getId()));
+        return confrontation != null ? confrontation.getAVenir(domicile.getId()) : 0;
+    }
+
+    /**
+     * Gets the number of pairs of teams that have at least one match.
+     *
+     * @return the number of pairs.
+     */
+    public int getNombrePaires() {
+        return paires.size();
+    }
+
+    /**
+     * The matches between two teams and their record, home and away together.
+     */
+    public static final class Confrontation {
+        /** The team with the lower id. */
+        private final int premier;
+        private final int second;
+        private final List<Match> matchs = new ArrayList<>();
+        private int victoiresPremier;
+        private int victoiresSecond;
+        private int nuls;
+        private int butsPremier;
+        private int butsSecond;
+        /** Upcoming matches with the first team at home. */
+        private int aVenirPremier;
+        private int aVenirSecond;
+
+        private Confrontation(int id1, int id2) {
+            this.premier = Math.min(id1, id2);
+            this.second = Math.max(id1, id2);
+        }
+
+        private synchronized void ajouter(Match match) {
+            matchs.add(match);
+            int score = match.getScore();
+            if (score != Match.NON_JOUE) {
+                compter(match, MatchModel.butsEquipe1(score), MatchModel.butsEquipe2(score), 1);
+            } else {
+                planifier(match, 1);
+            }
+        }
+
+        private synchronized void jouer(Match match, int ancien1, int ancien2, int buts1, int buts2) {
+            if (ancien1 >= 0 && ancien2 >= 0) {
+                compter(match, ancien1, ancien2, -1);
+            } else {
+                planifier(match, -1);
+            }
+            if (buts1 >= 0 && buts2 >= 0) {
+                compter(match, buts1, buts2, 1);
+            } else {
+                planifier(match, 1);
+            }
+        }
+
+        private void planifier(Match match, int signe) {
+            if (match.getEquipe1().getId() == premier) {
+                aVenirPremier += signe;
+            } else {
+                aVenirSecond += signe;
+            }
+        }
+
+        private synchronized int getAVenir(int domicile) {
+            return domicile == premier ? aVenirPremier : aVenirSecond;
+        }
+
+        private void compter(Match match, int buts1, int buts2, int signe) {
+            boolean premierDomicile = match.getEquipe1().getId() == premier;
+            int butsP = premierDomicile ? buts1 : buts2;
+            int butsS = premierDomicile ? buts2 : buts1;
+            victoiresPremier += butsP > butsS ? signe : 0;
+            victoiresSecond += butsS > butsP ? signe : 0;
+            nuls += butsP == butsS ? signe : 0;
+            butsPremier += signe * butsP;
+            butsSecond += signe * butsS;
+        }
+
+        /**
+         * Gets the matches between the two teams.
+         *
+         * @return a copy of the matches, in the order they were added.
+         */
+        public synchronized List<Match> getMatchs() {
+            return Collections.unmodifiableList(new ArrayList<>(matchs));
+        }
+
+        /**
+         * Gets the record of one of the two teams against the other.
+         *
+         * @param equipe one of the two teams.
+         * @return its record over the played matches.
+         * @throws IllegalArgumentException if the team is not one of the two.
+         */
+        public synchronized MatchColumns.Bilan getBilan(Equipe equipe) {
+            if (equipe.getId() == premier) {
+                return new MatchColumns.Bilan(victoiresPremier, nuls, victoiresSecond, butsPremier, butsSecond);
+            }
+            if (equipe.getId() == second) {
+                return new MatchColumns.Bilan(victoiresSecond, nuls, victoiresPremier, butsSecond, butsPremier);
+            }
+            throw new IllegalArgumentException("Team " + equipe.getId() + " is not part of the pair");
+        }
+    }
+}
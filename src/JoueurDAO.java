@@ -1,6 +1,7 @@
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.ToIntFunction;
 
 /**
  * Data Access Object (DAO) for managing Joueur records in the database.
@@ -14,7 +15,16 @@ import java.util.List;
  */
 public class JoueurDAO {
 
-    private static JoueurDAO instance; // Singleton instance
+    private static final JoueurDAO instance = new JoueurDAO(); // Singleton instance
+
+    private static final DaoMethodStats GET_JOUEURS = DaoMetrics.methode("JoueurDAO", "getJoueurs");
+    private static final DaoMethodStats AJOUTER_JOUEUR = DaoMetrics.methode("JoueurDAO", "ajouterJoueur");
+    private static final DaoMethodStats AJOUTER_JOUEURS = DaoMetrics.methode("JoueurDAO", "ajouterJoueurs");
+    private static final DaoMethodStats MODIFIER_JOUEUR = DaoMetrics.methode("JoueurDAO", "modifierJoueur");
+    private static final DaoMethodStats SUPPRIMER_JOUEUR = DaoMetrics.methode("JoueurDAO", "supprimerJoueur");
+    private static final DaoMethodStats GET_JOUEURS_PAR_ID = DaoMetrics.methode("JoueurDAO", "getJoueursParId");
+    private static final DaoMethodStats GET_JOUEURS_PAR_NUMERO = DaoMetrics.methode("JoueurDAO",
+            "getJoueursParNumero");
 
     /**
      * Private constructor to prevent external instantiation.
@@ -28,9 +38,6 @@ public class JoueurDAO {
      * @return the JoueurDAO instance.
      */
     public static JoueurDAO getInstance() {
-        if (instance == null) {
-            instance = new JoueurDAO();
-        }
         return instance;
     }
 
@@ -42,29 +49,28 @@ public class JoueurDAO {
      */
     public List<Joueur> getJoueurs(Equipe equipe) {
         String query = "SELECT * FROM joueur WHERE equipe_id = ?";
-        List<Joueur> joueurs = new ArrayList<>();
 
-        try (Connection con = DatabaseConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(query)) {
+        return DaoMetrics.mesurer(GET_JOUEURS, new ArrayList<>(), List::size, () -> {
+            List<Joueur> joueurs = new ArrayList<>();
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query)) {
 
-            ps.setInt(1, equipe.getId());
+                ps.setInt(1, equipe.getId());
 
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    int id = rs.getInt("id");
-                    String nom = rs.getString("nom");
-                    String prenom = rs.getString("prenom");
-                    int numeroMaillot = rs.getInt("numeroMaillot");
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int id = rs.getInt("id");
+                        String nom = rs.getString("nom");
+                        String prenom = rs.getString("prenom");
+                        int numeroMaillot = rs.getInt("numeroMaillot");
 
-                    Joueur joueur = new Joueur(id, nom, prenom, numeroMaillot);
-                    joueurs.add(joueur);
+                        Joueur joueur = new Joueur(id, nom, prenom, numeroMaillot);
+                        joueurs.add(joueur);
+                    }
                 }
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-
-        return joueurs;
+            return joueurs;
+        });
     }
 
     /**
@@ -76,28 +82,27 @@ public class JoueurDAO {
      */
     public int ajouterJoueur(Joueur joueur, Equipe equipe) {
         String query = "INSERT INTO joueur (nom, prenom, numeroMaillot, equipe_id) VALUES (?, ?, ?, ?)";
-        int idJoueur = 0;
 
-        try (Connection con = DatabaseConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        return DaoMetrics.mesurer(AJOUTER_JOUEUR, 0, idJoueur -> idJoueur != 0 ? 1 : 0, () -> {
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
 
-            ps.setString(1, joueur.getNom());
-            ps.setString(2, joueur.getPrenom());
-            ps.setInt(3, joueur.getNumeroMaillot());
-            ps.setInt(4, equipe.getId());
+                ps.setString(1, joueur.getNom());
+                ps.setString(2, joueur.getPrenom());
+                ps.setInt(3, joueur.getNumeroMaillot());
+                ps.setInt(4, equipe.getId());
 
-            int affectedRows = ps.executeUpdate();
-            if (affectedRows > 0) {
-                try (ResultSet rs = ps.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        idJoueur = rs.getInt(1);
+                int affectedRows = ps.executeUpdate();
+                if (affectedRows > 0) {
+                    try (ResultSet rs = ps.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            return rs.getInt(1);
+                        }
                     }
                 }
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return idJoueur;
+            return 0;
+        });
     }
 
     /**
@@ -110,46 +115,45 @@ public class JoueurDAO {
      */
     public List<Integer> ajouterJoueurs(List<Joueur> joueurs, Equipe equipe) {
         String query = "INSERT INTO joueur (nom, prenom, numeroMaillot, equipe_id) VALUES (?, ?, ?, ?)";
-        List<Integer> generatedIds = new ArrayList<>();
 
-        try (Connection con = DatabaseConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        return DaoMetrics.mesurer(AJOUTER_JOUEURS, new ArrayList<>(), List::size, () -> {
+            List<Integer> generatedIds = new ArrayList<>();
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
 
-            con.setAutoCommit(false); // Use a transaction
+                con.setAutoCommit(false); // Use a transaction
 
-            // Prepare the batch
-            for (Joueur joueur : joueurs) {
-                ps.setString(1, joueur.getNom());
-                ps.setString(2, joueur.getPrenom());
-                ps.setInt(3, joueur.getNumeroMaillot());
-                ps.setInt(4, equipe.getId());
-                ps.addBatch();
-            }
+                // Prepare the batch
+                for (Joueur joueur : joueurs) {
+                    ps.setString(1, joueur.getNom());
+                    ps.setString(2, joueur.getPrenom());
+                    ps.setInt(3, joueur.getNumeroMaillot());
+                    ps.setInt(4, equipe.getId());
+                    ps.addBatch();
+                }
 
-            // Execute the batch
-            ps.executeBatch();
+                // Execute the batch
+                ps.executeBatch();
 
-            // Retrieve generated keys
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                int index = 0;
-                while (rs.next()) {
-                    int id = rs.getInt(1);
-                    generatedIds.add(id);
+                // Retrieve generated keys
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    int index = 0;
+                    while (rs.next()) {
+                        int id = rs.getInt(1);
+                        generatedIds.add(id);
 
-                    // Optionally assign the generated id to the corresponding Joueur
-                    if (index < joueurs.size()) {
-                        joueurs.get(index).setId(id);
+                        // Optionally assign the generated id to the corresponding Joueur
+                        if (index < joueurs.size()) {
+                            joueurs.get(index).setId(id);
+                        }
+                        index++;
                     }
-                    index++;
                 }
-            }
-
-            con.commit();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
 
-        return generatedIds;
+                con.commit();
+            }
+            return generatedIds;
+        });
     }
 
     /**
@@ -160,18 +164,18 @@ public class JoueurDAO {
     public void modifierJoueur(Joueur joueur) {
         String query = "UPDATE joueur SET nom = ?, prenom = ?, numeroMaillot = ? WHERE id = ?";
 
-        try (Connection con = DatabaseConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(query)) {
+        DaoMetrics.mesurer(MODIFIER_JOUEUR, () -> {
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query)) {
 
-            ps.setString(1, joueur.getNom());
-            ps.setString(2, joueur.getPrenom());
-            ps.setInt(3, joueur.getNumeroMaillot());
-            ps.setInt(4, joueur.getId());
+                ps.setString(1, joueur.getNom());
+                ps.setString(2, joueur.getPrenom());
+                ps.setInt(3, joueur.getNumeroMaillot());
+                ps.setInt(4, joueur.getId());
 
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+                return ps.executeUpdate();
+            }
+        });
     }
 
     /**
@@ -182,13 +186,84 @@ public class JoueurDAO {
     public void supprimerJoueur(Joueur joueur) {
         String query = "DELETE FROM joueur WHERE id = ?";
 
-        try (Connection con = DatabaseConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(query)) {
+        DaoMetrics.mesurer(SUPPRIMER_JOUEUR, () -> {
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query)) {
 
-            ps.setInt(1, joueur.getId());
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+                ps.setInt(1, joueur.getId());
+                return ps.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * Retrieves a page of the players of an Equipe ordered by id, using keyset
+     * pagination.
+     *
+     * @param equipe  the {@link Equipe} whose players are to be retrieved.
+     * @param apresId the id of the last player of the previous page, 0 for the
+     *                first page.
+     * @param taille  the maximum number of players in the page.
+     * @return a {@link Page} of {@link Joueur} objects.
+     */
+    public Page<Joueur> getJoueursParId(Equipe equipe, int apresId, int taille) {
+        String query = "SELECT * FROM joueur WHERE equipe_id = ? AND id > ? ORDER BY id LIMIT ?";
+        return getPageJoueurs(GET_JOUEURS_PAR_ID, query, taille, Joueur::getId, equipe.getId(), apresId,
+                taille + 1);
+    }
+
+    /**
+     * Retrieves a page of the players of an Equipe ordered by jersey number then
+     * id, using keyset pagination.
+     *
+     * @param equipe      the {@link Equipe} whose players are to be retrieved.
+     * @param apresNumero the jersey number of the last player of the previous
+     *                    page, -1 for the first page.
+     * @param apresId     the id of the last player of the previous page, 0 for
+     *                    the first page.
+     * @param taille      the maximum number of players in the page.
+     * @return a {@link Page} of {@link Joueur} objects.
+     */
+    public Page<Joueur> getJoueursParNumero(Equipe equipe, int apresNumero, int apresId, int taille) {
+        String query = "SELECT * FROM joueur WHERE equipe_id = ? "
+                + "AND (numeroMaillot > ? OR (numeroMaillot = ? AND id > ?)) ORDER BY numeroMaillot, id LIMIT ?";
+        return getPageJoueurs(GET_JOUEURS_PAR_NUMERO, query, taille, Joueur::getNumeroMaillot, equipe.getId(),
+                apresNumero, apresNumero, apresId, taille + 1);
+    }
+
+    /**
+     * Runs a keyset page query on the joueur table.
+     *
+     * @param stats  the statistics of the calling method.
+     * @param query  the page query.
+     * @param taille the page size.
+     * @param cle    extracts the sort key of a player.
+     * @param params the integer query parameters, in order.
+     * @return a {@link Page} of {@link Joueur} objects.
+     */
+    private Page<Joueur> getPageJoueurs(DaoMethodStats stats, String query, int taille, ToIntFunction<Joueur> cle,
+            int... params) {
+        Page<Joueur> vide = new Page<>(new ArrayList<>(), taille, cle, Joueur::getId);
+
+        return DaoMetrics.mesurer(stats, vide, page -> page.getElements().size(), () -> {
+            List<Joueur> joueurs = new ArrayList<>();
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query)) {
+
+                for (int i = 0; i < params.length; i++) {
+                    ps.setInt(i + 1, params[i]);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int id = rs.getInt("id");
+                        String nom = rs.getString("nom");
+                        String prenom = rs.getString("prenom");
+                        int numeroMaillot = rs.getInt("numeroMaillot");
+                        joueurs.add(new Joueur(id, nom, prenom, numeroMaillot));
+                    }
+                }
+            }
+            return new Page<>(joueurs, taille, cle, Joueur::getId);
+        });
     }
 }
@@ -1,4 +1,5 @@
 import java.util.List;
+import java.util.Random;
 
 /**
  * Represents a day (Journee) of matches in the league.
@@ -27,8 +28,53 @@ public class Journee {
 	 * Simulates all matches in this journee.
 	 */
 	void jouerJournee() {
+		SimulationEvent event = new SimulationEvent();
+		event.begin();
 		for (Match match : matchs) {
 			match.simulerMatch();
 		}
+		event.end();
+		if (event.shouldCommit()) {
+			event.ligue = matchs.isEmpty() ? "" : matchs.get(0).getNomLigue();
+			event.matches = matchs.size();
+			event.journee = true;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Simulates all matches in this journee with reproducible draws.
+	 *
+	 * <p>
+	 * Each match draws from its own generator, seeded from the given seed and
+	 * the match id, so a result depends neither on the order in which the
+	 * matches are played nor on the thread playing them. No team plays twice
+	 * in a journee, so the matches can be played in parallel.
+	 * </p>
+	 *
+	 * @param graine    the seed of the season.
+	 * @param parallele whether to play the matches in parallel.
+	 */
+	void jouerJournee(long graine, boolean parallele) {
+		SimulationEvent event = new SimulationEvent();
+		event.begin();
+		if (parallele) {
+			matchs.parallelStream().forEach(match -> match.simulerMatch(generateur(graine, match)));
+		} else {
+			for (Match match : matchs) {
+				match.simulerMatch(generateur(graine, match));
+			}
+		}
+		event.end();
+		if (event.shouldCommit()) {
+			event.ligue = matchs.isEmpty() ? "" : matchs.get(0).getNomLigue();
+			event.matches = matchs.size();
+			event.journee = true;
+			event.commit();
+		}
+	}
+
+	private static Random generateur(long graine, Match match) {
+		return new Random(graine ^ (match.getId() * 0x9E3779B97F4A7C15L));
 	}
 }
@@ -0,0 +1,235 @@
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal streaming JSON writer.
+ *
+ * <p>
+ * Values are appended to an internal buffer in document order; commas between
+ * members and array elements are inserted automatically. Only the types the
+ * API needs are supported: objects, arrays, strings, integers, booleans and
+ * null.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class JsonWriter {
+
+    private final StringBuilder sb = new StringBuilder(256);
+    /** Whether the next value at the current level needs a comma before it. */
+    private boolean virgule;
+
+    /**
+     * Opens an object.
+     *
+     * @return this writer.
+     */
+    public JsonWriter debutObjet() {
+        separer();
+        sb.append('{');
+        virgule = false;
+        return this;
+    }
+
+    /**
+     * Closes the current object.
+     *
+     * @return this writer.
+     */
+    public JsonWriter finObjet() {
+        sb.append('}');
+        virgule = true;
+        return this;
+    }
+
+    /**
+     * Opens an array.
+     *
+     * @return this writer.
+     */
+    public JsonWriter debutTableau() {
+        separer();
+        sb.append('[');
+        virgule = false;
+        return this;
+    }
+
+    /**
+     * Closes the current array.
+     *
+     * @return this writer.
+     */
+    public JsonWriter finTableau() {
+        sb.append(']');
+        virgule = true;
+        return this;
+    }
+
+    /**
+     * Writes the name of the next object member.
+     *
+     * @param nom the member name.
+     * @return this writer.
+     */
+    public JsonWriter nom(String nom) {
+        separer();
+        chaine(nom);
+        sb.append(':');
+        virgule = false;
+        return this;
+    }
+
+    /**
+     * Writes a string value, or null.
+     *
+     * @param valeur the value.
+     * @return this writer.
+     */
+    public JsonWriter valeur(String valeur) {
+        separer();
+        if (valeur == null) {
+            sb.append("null");
+        } else {
+            chaine(valeur);
+        }
+        virgule = true;
+        return this;
+    }
+
+    /**
+     * Writes an integer value.
+     *
+     * @param valeur the value.
+     * @return this writer.
+     */
+    public JsonWriter valeur(long valeur) {
+        separer();
+        sb.append(valeur);
+        virgule = true;
+        return this;
+    }
+
+    /**
+     * Writes a decimal value; NaN and infinities are written as null.
+     *
+     * @param valeur the value.
+     * @return this writer.
+     */
+    public JsonWriter valeur(double valeur) {
+        separer();
+        if (Double.isNaN(valeur) || Double.isInfinite(valeur)) {
+            sb.append("null");
+        } else {
+            sb.append(valeur);
+        }
+        virgule = true;
+        return this;
+    }
+
+    /**
+     * Writes a boolean value.
+     *
+     * @param valeur the value.
+     * @return this writer.
+     */
+    public JsonWriter valeur(boolean valeur) {
+        separer();
+        sb.append(valeur);
+        virgule = true;
+        return this;
+    }
+
+    /**
+     * Writes a member with a string value.
+     *
+     * @param nom    the member name.
+     * @param valeur the value.
+     * @return this writer.
+     */
+    public JsonWriter membre(String nom, String valeur) {
+        return nom(nom).valeur(valeur);
+    }
+
+    /**
+     * Writes a member with an integer value.
+     *
+     * @param nom    the member name.
+     * @param valeur the value.
+     * @return this writer.
+     */
+    public JsonWriter membre(String nom, long valeur) {
+        return nom(nom).valeur(valeur);
+    }
+
+    /**
+     * Writes a member with a decimal value.
+     *
+     * @param nom    the member name.
+     * @param valeur the value.
+     * @return this writer.
+     */
+    public JsonWriter membre(String nom, double valeur) {
+        return nom(nom).valeur(valeur);
+    }
+
+    /**
+     * Writes a member with a boolean value.
+     *
+     * @param nom    the member name.
+     * @param valeur the value.
+     * @return this writer.
+     */
+    public JsonWriter membre(String nom, boolean valeur) {
+        return nom(nom).valeur(valeur);
+    }
+
+    /**
+     * Gets the document written so far as UTF-8 bytes.
+     *
+     * @return the encoded document.
+     */
+    public byte[] toBytes() {
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return sb.toString();
+    }
+
+    private void separer() {
+        if (virgule) {
+            sb.append(',');
+        }
+    }
+
+    private void chaine(String valeur) {
+        sb.append('"');
+        for (int i = 0; i < valeur.length(); i++) {
+            char c = valeur.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+}
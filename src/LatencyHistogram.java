@@ -0,0 +1,127 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds.
+ *
+ * <p>
+ * Values are counted in log-linear buckets: each power of two is split into
+ * {@value #SOUS_BUCKETS} linear sub-buckets, which bounds the relative error of
+ * percentiles to about 12%. Recording is a few arithmetic operations and
+ * atomic increments, with no locking and no allocation.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class LatencyHistogram {
+
+    private static final int BITS_SOUS_BUCKETS = 3;
+    private static final int SOUS_BUCKETS = 1 << BITS_SOUS_BUCKETS;
+    private static final int PUISSANCES = 64 - BITS_SOUS_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray((PUISSANCES + 1) * SOUS_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos the latency in nanoseconds.
+     */
+    public void enregistrer(long nanos) {
+        long valeur = Math.max(nanos, 0);
+        buckets.incrementAndGet(index(valeur));
+        count.increment();
+        total.add(valeur);
+        max.accumulate(valeur);
+    }
+
+    /**
+     * Gets the number of recorded latencies.
+     *
+     * @return the count.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the largest recorded latency.
+     *
+     * @return the maximum in nanoseconds.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the mean recorded latency.
+     *
+     * @return the mean in nanoseconds, 0 if nothing was recorded.
+     */
+    public double getMoyenne() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) total.sum() / n;
+    }
+
+    /**
+     * Estimates a percentile of the recorded latencies.
+     *
+     * @param percentile the percentile, between 0 and 100.
+     * @return the upper bound of the bucket holding that percentile, in
+     *         nanoseconds, 0 if nothing was recorded.
+     */
+    public long getPercentile(double percentile) {
+        long[] snapshot = new long[buckets.length()];
+        long n = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = buckets.get(i);
+            n += snapshot[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long rang = (long) Math.ceil(n * percentile / 100.0);
+        long cumul = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            cumul += snapshot[i];
+            if (cumul >= Math.max(rang, 1)) {
+                return Math.min(borneSuperieure(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Clears the histogram. Values recorded concurrently may be lost.
+     */
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        total.reset();
+        max.reset();
+    }
+
+    private static int index(long valeur) {
+        if (valeur < SOUS_BUCKETS) {
+            return (int) valeur;
+        }
+        int puissance = 63 - Long.numberOfLeadingZeros(valeur);
+        int sousBucket = (int) (valeur >>> (puissance - BITS_SOUS_BUCKETS)) & (SOUS_BUCKETS - 1);
+        return (puissance - BITS_SOUS_BUCKETS + 1) * SOUS_BUCKETS + sousBucket;
+    }
+
+    private static long borneSuperieure(int index) {
+        if (index < SOUS_BUCKETS) {
+            return index;
+        }
+        int puissance = index / SOUS_BUCKETS + BITS_SOUS_BUCKETS - 1;
+        int sousBucket = index % SOUS_BUCKETS;
+        long largeur = 1L << (puissance - BITS_SOUS_BUCKETS);
+        return (1L << puissance) + (sousBucket + 1) * largeur - 1;
+    }
+}
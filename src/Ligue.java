@@ -1,5 +1,11 @@
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Represents a league (Ligue) in the soccer application.
@@ -9,13 +15,27 @@ import java.util.List;
  * data from
  * the database and sorting teams by points.
  * </p>
+ *
+ * <p>
+ * A league may be read by many threads while it is updated. Teams and matches
+ * are held in copy-on-write lists: readers iterate a consistent snapshot
+ * without locking, and the rare writers are serialized on the league.
+ * </p>
  * 
  * @version 1.0
  */
 public class Ligue {
-	String nom;
-	List<Equipe> equipes;
-	List<Match> matches;
+	volatile int id;
+	final String nom;
+	volatile CopyOnWriteArrayList<Equipe> equipes;
+	volatile CopyOnWriteArrayList<Match> matches;
+	private volatile MatchModel modele = UniformMatchModel.INSTANCE;
+	private volatile ProbabilityMatrix probabilites;
+	private volatile StandingsHistory historique;
+	private volatile MatchColumns colonnes;
+	private volatile HeadToHeadIndex confrontations;
+	/** Serializes the check and the insert of the matches created in this league. */
+	final ReentrantLock creations = new ReentrantLock();
 
 	/**
 	 * Constructs a Ligue with the specified name and populates its teams and
@@ -28,49 +48,109 @@ public class Ligue {
 		populate();
 	}
 
+	/**
+	 * Constructs a Ligue from data loaded elsewhere, without touching the
+	 * database.
+	 *
+	 * @param id      the league id
+	 * @param nom     the name of the league
+	 * @param equipes the teams, which are attached to the league
+	 * @param matches the matches of the league
+	 * @see LigueSnapshot
+	 */
+	Ligue(int id, String nom, List<Equipe> equipes, List<Match> matches) {
+		this.id = id;
+		this.nom = nom;
+		for (Equipe equipe : equipes) {
+			equipe.ligue = this;
+		}
+		this.equipes = new CopyOnWriteArrayList<>(equipes);
+		this.matches = new CopyOnWriteArrayList<>(matches);
+		this.confrontations = new HeadToHeadIndex(this.matches);
+	}
+
+	/**
+	 * Replaces the teams and matches of the league with those of another copy
+	 * of it, typically one freshly loaded from the database. Views holding this
+	 * league see the new data on their next read.
+	 *
+	 * @param source the copy whose data is taken; its teams are moved to this
+	 *               league.
+	 */
+	synchronized void recharger(Ligue source) {
+		for (Equipe equipe : source.equipes) {
+			equipe.ligue = this;
+		}
+		id = source.id;
+		equipes = source.equipes;
+		matches = source.matches;
+		confrontations = source.confrontations;
+		probabilites = null;
+		historique = null;
+		colonnes = null;
+	}
+
 	/**
 	 * Populates the league data including teams and matches.
 	 */
 	private void populate() {
+		LigueLoadEvent event = new LigueLoadEvent();
+		event.begin();
+		id = LigueDAO.getInstance().trouverOuCreerLigue(nom);
 		populateEquipes();
 		populateMatches();
+		event.end();
+		if (event.shouldCommit()) {
+			event.ligue = nom;
+			event.equipes = equipes.size();
+			event.matches = matches.size();
+			event.commit();
+		}
 	}
 
 	/**
 	 * Populates the list of teams from the database.
 	 */
 	private void populateEquipes() {
-		equipes = EquipeDAO.getInstance().getEquipes(this);
+		equipes = new CopyOnWriteArrayList<>(EquipeDAO.getInstance().getEquipes(this));
 	}
 
 	/**
-	 * Populates the list of matches by filtering from all matches in the database.
+	 * Populates the list of matches of the league.
+	 *
+	 * <p>
+	 * Matches are streamed from the database and only those involving a team of
+	 * the league are materialized, with their team references resolved through
+	 * an id index.
+	 * </p>
 	 */
 	private void populateMatches() {
-		List<Match> allMatches = MatchDAO.getInstance().getMatches();
-		List<Match> filteredMatches = new ArrayList<>();
+		Map<Integer, Equipe> equipesParId = new HashMap<>();
+		for (Equipe equipe : equipes) {
+			equipesParId.put(equipe.getId(), equipe);
+		}
 
-		for (Match match : allMatches) {
-			// Check if either team in the match is part of the league.
-			boolean equipe1InLigue = equipes.stream().anyMatch(equipe -> equipe.getId() == match.getEquipe1().getId());
-			boolean equipe2InLigue = equipes.stream().anyMatch(equipe -> equipe.getId() == match.getEquipe2().getId());
-
-			if (equipe1InLigue || equipe2InLigue) {
-				// Replace the match's team references with the proper Equipe objects from the
-				// league.
-				for (Equipe equipe : equipes) {
-					if (equipe.getId() == match.getEquipe1().getId()) {
-						match.equipe1 = equipe;
-					}
-					if (equipe.getId() == match.getEquipe2().getId()) {
-						match.equipe2 = equipe;
-					}
-				}
-				filteredMatches.add(match);
+		List<Match> filteredMatches = new ArrayList<>();
+		MatchDAO.getInstance().parcourirMatches(nom, (id, equipe1Id, equipe2Id, nbButsEquipe1, nbButsEquipe2) -> {
+			Equipe equipe1 = equipesParId.get(equipe1Id);
+			Equipe equipe2 = equipesParId.get(equipe2Id);
+			if (equipe1 != null || equipe2 != null) {
+				filteredMatches.add(new Match(id, equipe1 != null ? equipe1 : new Equipe(equipe1Id),
+						equipe2 != null ? equipe2 : new Equipe(equipe2Id), nbButsEquipe1, nbButsEquipe2));
 			}
-		}
+		});
 
-		matches = filteredMatches;
+		matches = new CopyOnWriteArrayList<>(filteredMatches);
+		confrontations = new HeadToHeadIndex(filteredMatches);
+	}
+
+	/**
+	 * Gets the league id.
+	 *
+	 * @return the league id.
+	 */
+	public int getId() {
+		return id;
 	}
 
 	/**
@@ -83,36 +163,223 @@ public class Ligue {
 	}
 
 	/**
-	 * Gets the list of teams in the league, sorted by points.
+	 * Gets the model used to simulate the matches of the league.
+	 *
+	 * @return the {@link MatchModel}, {@link UniformMatchModel} by default.
+	 */
+	public MatchModel getModele() {
+		return modele;
+	}
+
+	/**
+	 * Sets the model used to simulate the matches of the league.
+	 *
+	 * @param modele the new {@link MatchModel}.
+	 */
+	public void setModele(MatchModel modele) {
+		this.modele = modele;
+		probabilites = null;
+	}
+
+	/**
+	 * Gets the outcome probabilities of every pair of teams of the league.
+	 *
+	 * <p>
+	 * The matrix is built on first use, with the averages of the league's
+	 * {@link EloMatchModel} if it has one and estimated from its history
+	 * otherwise. It then follows the rating changes of the teams and is
+	 * rebuilt when teams are added or removed.
+	 * </p>
+	 *
+	 * @return the {@link ProbabilityMatrix} of the league.
+	 */
+	public ProbabilityMatrix getProbabilites() {
+		ProbabilityMatrix matrice = probabilites;
+		if (matrice == null) {
+			synchronized (this) {
+				matrice = probabilites;
+				if (matrice == null) {
+					MatchModel courant = modele;
+					matrice = new ProbabilityMatrix(equipes, courant instanceof EloMatchModel
+							? (EloMatchModel) courant : EloMatchModel.estimer(this));
+					probabilites = matrice;
+				}
+			}
+		}
+		return matrice;
+	}
+
+	/**
+	 * Gets the standings of the league after each played journee.
+	 *
+	 * <p>
+	 * The history is built on first use. Once the league has changed, as told
+	 * by {@link LigueRevisions}, the results saved since are added to it; it is
+	 * only built again from all the matches when they cannot be.
+	 * </p>
+	 *
+	 * @return the {@link StandingsHistory} of the league.
+	 */
+	public StandingsHistory getHistorique() {
+		StandingsHistory courant = historique;
+		if (courant == null) {
+			courant = StandingsHistory.construire(this);
+			historique = courant;
+		} else if (courant.getRevision() != LigueRevisions.getRevision(nom)) {
+			courant = courant.mettreAJour(this);
+			historique = courant;
+		}
+		return courant;
+	}
+
+	/**
+	 * Gets the played matches of the league as columns, for statistics over the
+	 * whole history.
+	 *
+	 * <p>
+	 * Like the history, the columns are built on first use and rebuilt once the
+	 * league has changed.
+	 * </p>
+	 *
+	 * @return the {@link MatchColumns} of the league.
+	 */
+	public MatchColumns getColonnes() {
+		MatchColumns courant = colonnes;
+		if (courant == null || courant.getRevision() != LigueRevisions.getRevision(nom)) {
+			courant = MatchColumns.construire(this);
+			colonnes = courant;
+		}
+		return courant;
+	}
+
+	/**
+	 * Notifies the league that the rating of one of its teams changed.
+	 *
+	 * @param equipe the team whose rating changed.
+	 */
+	void eloModifie(Equipe equipe) {
+		ProbabilityMatrix matrice = probabilites;
+		if (matrice != null) {
+			matrice.marquer(equipe);
+		}
+	}
+
+	/**
+	 * Gets the teams of the league, sorted by points.
+	 *
+	 * <p>
+	 * Teams with equal points are ranked by their head-to-head results against
+	 * each other, as told by {@link #getConfrontations()}: points first, then
+	 * goal difference. Teams still tied keep their current order.
+	 * </p>
+	 *
+	 * <p>
+	 * The result is an unmodifiable snapshot, ranked without locking. Points
+	 * may keep changing while it is read, but the ranking uses one reading of
+	 * each team's points, so it is always consistent.
+	 * </p>
 	 *
 	 * @return a sorted list of {@link Equipe} objects.
 	 */
 	public List<Equipe> getEquipes() {
-		sortEquipes();
-		return equipes;
+		return classer(equipes, confrontations);
 	}
 
-	public void addEquipe(Equipe equipe) {
+	/**
+	 * Adds a team to the league.
+	 *
+	 * @param equipe the {@link Equipe} to add.
+	 */
+	public synchronized void addEquipe(Equipe equipe) {
 		equipes.add(equipe);
+		probabilites = null;
 		sortEquipes();
 	}
 
 	/**
 	 * Gets the list of matches in the league.
 	 *
-	 * @return a list of {@link Match} objects.
+	 * @return a list of {@link Match} objects, safe to iterate while matches
+	 *         are added.
 	 */
 	public List<Match> getMatches() {
 		return matches;
 	}
 
+	/**
+	 * Adds a match created in the database to the league.
+	 *
+	 * @param match the new {@link Match}.
+	 */
+	public void addMatch(Match match) {
+		confrontations.ajouter(match);
+		matches.add(match);
+	}
+
+	/**
+	 * Gets the matches of the league grouped by pair of teams.
+	 *
+	 * @return the {@link HeadToHeadIndex} of the league.
+	 */
+	public HeadToHeadIndex getConfrontations() {
+		return confrontations;
+	}
+
+	/**
+	 * Notifies the league that one of its matches got a result, or lost the one
+	 * it had.
+	 *
+	 * @param match   the match.
+	 * @param ancien1 the previous goals of the first team, -1 if not played.
+	 * @param ancien2 the previous goals of the second team, -1 if not played.
+	 */
+	void matchJoue(Match match, int ancien1, int ancien2) {
+		int score = match.score;
+		confrontations.jouer(match, ancien1, ancien2, MatchModel.butsEquipe1(score), MatchModel.butsEquipe2(score));
+	}
+
+	/**
+	 * Applies a result saved elsewhere to this league's copy of a match.
+	 *
+	 * <p>
+	 * Nothing changes if the match is unknown here or already has a result, so
+	 * a result published by this league's own {@link Match#jouerMatch()} is not
+	 * counted twice.
+	 * </p>
+	 *
+	 * @param idMatch     the match id.
+	 * @param butsEquipe1 the goals of the first team.
+	 * @param butsEquipe2 the goals of the second team.
+	 * @return true if the match was updated.
+	 */
+	public boolean appliquerResultat(int idMatch, int butsEquipe1, int butsEquipe2) {
+		for (Match match : matches) {
+			if (match.id != idMatch) {
+				continue;
+			}
+			if (!match.jouerSiNonJoue(MatchModel.score(butsEquipe1, butsEquipe2))) {
+				return false;
+			}
+			confrontations.jouer(match, -1, -1, butsEquipe1, butsEquipe2);
+			match.equipe1.addPoints(Match.points(butsEquipe1, butsEquipe2));
+			match.equipe2.addPoints(Match.points(butsEquipe2, butsEquipe1));
+			double variation = EloRatings.variation(match.equipe1.getElo(), match.equipe2.getElo(), butsEquipe1,
+					butsEquipe2);
+			match.equipe1.ajusterElo(variation);
+			match.equipe2.ajusterElo(-variation);
+			return true;
+		}
+		return false;
+	}
+
 	/**
 	 * Updates the list of teams.
 	 *
 	 * @param equipes the new list of teams.
 	 */
-	public void modifyEquipes(List<Equipe> equipes) {
-		this.equipes = equipes;
+	public synchronized void modifyEquipes(List<Equipe> equipes) {
+		this.equipes = new CopyOnWriteArrayList<>(equipes);
+		probabilites = null;
 	}
 
 	/**
@@ -120,14 +387,91 @@ public class Ligue {
 	 *
 	 * @param equipe the {@link Equipe} to remove.
 	 */
-	public void removeEquipes(Equipe equipe) {
+	public synchronized void removeEquipes(Equipe equipe) {
 		equipes.remove(equipe);
+		probabilites = null;
 	}
 
 	/**
-	 * Sorts the teams in descending order of points.
+	 * Sorts the stored teams in descending order of points.
+	 */
+	public synchronized void sortEquipes() {
+		equipes = new CopyOnWriteArrayList<>(classer(equipes, confrontations));
+	}
+
+	/**
+	 * Ranks teams by descending points, then by head-to-head results among the
+	 * teams with equal points, keeping the current order of teams still tied.
+	 *
+	 * <p>
+	 * Each team's points are read once into a sort key (points in the high
+	 * bits, position in the low bits), so teams whose points change during the
+	 * sort cannot break the ordering. The head-to-head records of a group of
+	 * tied teams are likewise read once, before the group is sorted.
+	 * </p>
+	 *
+	 * @param equipes        the teams to rank.
+	 * @param confrontations the head-to-head index, or null to rank by points
+	 *                       only.
+	 * @return an unmodifiable ranked copy.
 	 */
-	public void sortEquipes() {
-		equipes.sort((equipe1, equipe2) -> Integer.compare(equipe2.points, equipe1.points));
+	private static List<Equipe> classer(List<Equipe> equipes, HeadToHeadIndex confrontations) {
+		Equipe[] snapshot = equipes.toArray(new Equipe[0]);
+		long[] cles = new long[snapshot.length];
+		for (int i = 0; i < snapshot.length; i++) {
+			cles[i] = ((long) (Integer.MAX_VALUE - snapshot[i].points) << 32) | i;
+		}
+		Arrays.sort(cles);
+		if (confrontations != null) {
+			int debut = 0;
+			for (int i = 1; i <= cles.length; i++) {
+				if (i == cles.length || cles[i] >>> 32 != cles[debut] >>> 32) {
+					if (i - debut > 1) {
+						departager(snapshot, cles, debut, i, confrontations);
+					}
+					debut = i;
+				}
+			}
+		}
+		Equipe[] classement = new Equipe[snapshot.length];
+		for (int i = 0; i < cles.length; i++) {
+			classement[i] = snapshot[(int) cles[i]];
+		}
+		return Collections.unmodifiableList(Arrays.asList(classement));
+	}
+
+	/**
+	 * Sorts a group of teams with equal points by the points, then the goal
+	 * difference, of the matches between them.
+	 */
+	private static void departager(Equipe[] snapshot, long[] cles, int debut, int fin,
+			HeadToHeadIndex confrontations) {
+		int taille = fin - debut;
+		int[] points = new int[taille];
+		int[] difference = new int[taille];
+		for (int a = 0; a < taille; a++) {
+			Equipe equipe = snapshot[(int) cles[debut + a]];
+			for (int b = a + 1; b < taille; b++) {
+				MatchColumns.Bilan bilan = confrontations.getConfrontation(equipe, snapshot[(int) cles[debut + b]])
+						.getBilan(equipe);
+				int ecart = bilan.getButsMarques() - bilan.getButsEncaisses();
+				points[a] += bilan.getPoints();
+				points[b] += Match.points(0, 1) * bilan.getVictoires() + Match.points(1, 1) * bilan.getNuls()
+						+ Match.points(1, 0) * bilan.getDefaites();
+				difference[a] += ecart;
+				difference[b] -= ecart;
+			}
+		}
+		Integer[] ordre = new Integer[taille];
+		for (int a = 0; a < taille; a++) {
+			ordre[a] = a;
+		}
+		// Stable: teams still tied keep the order of their keys.
+		Arrays.sort(ordre, (a, b) -> points[a] != points[b] ? Integer.compare(points[b], points[a])
+				: Integer.compare(difference[b], difference[a]));
+		long[] groupe = Arrays.copyOfRange(cles, debut, fin);
+		for (int a = 0; a < taille; a++) {
+			cles[debut + a] = groupe[ordre[a]];
+		}
 	}
 }
@@ -0,0 +1,99 @@
+import java.sql.*;
+
+/**
+ * Data Access Object (DAO) for managing Ligue records in the database.
+ *
+ * <p>
+ * This singleton class resolves league names to the integer keys referenced by
+ * the equipe table.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class LigueDAO {
+
+    private static final LigueDAO instance = new LigueDAO();
+
+    private static final DaoMethodStats TROUVER_OU_CREER_LIGUE = DaoMetrics.methode("LigueDAO",
+            "trouverOuCreerLigue");
+    private static final DaoMethodStats GET_ID_LIGUE = DaoMetrics.methode("LigueDAO", "getIdLigue");
+
+    /**
+     * Private constructor to prevent external instantiation.
+     */
+    private LigueDAO() {
+    }
+
+    /**
+     * Returns the singleton instance of LigueDAO.
+     *
+     * @return the LigueDAO instance.
+     */
+    public static LigueDAO getInstance() {
+        return instance;
+    }
+
+    /**
+     * Retrieves the id of an existing league.
+     *
+     * @param nom the name of the league.
+     * @return the league id, or 0 if there is no such league.
+     */
+    public int getIdLigue(String nom) {
+        String query = "SELECT id FROM ligue WHERE nom = ?";
+
+        return DaoMetrics.mesurer(GET_ID_LIGUE, 0, idLigue -> idLigue != 0 ? 1 : 0, () -> {
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query)) {
+
+                ps.setString(1, nom);
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next() ? rs.getInt("id") : 0;
+                }
+            }
+        });
+    }
+
+    /**
+     * Retrieves the id of a league, creating the league if it does not exist
+     * yet.
+     *
+     * <p>
+     * When another client creates the same league between the lookup and the
+     * insert, the unique key {@code uk_ligue_nom} turns the insert into an
+     * update that only reports the id of the existing row, so both clients get
+     * that id.
+     * </p>
+     *
+     * @param nom the name of the league.
+     * @return the league id, or 0 if it could not be resolved.
+     */
+    public int trouverOuCreerLigue(String nom) {
+        String selectQuery = "SELECT id FROM ligue WHERE nom = ?";
+        String insertQuery = "INSERT INTO ligue (nom) VALUES (?) ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id)";
+
+        return DaoMetrics.mesurer(TROUVER_OU_CREER_LIGUE, 0, idLigue -> idLigue != 0 ? 1 : 0, () -> {
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement select = con.prepareStatement(selectQuery)) {
+
+                select.setString(1, nom);
+                try (ResultSet rs = select.executeQuery()) {
+                    if (rs.next()) {
+                        return rs.getInt("id");
+                    }
+                }
+                try (PreparedStatement insert = con.prepareStatement(insertQuery,
+                        Statement.RETURN_GENERATED_KEYS)) {
+                    insert.setString(1, nom);
+                    insert.executeUpdate();
+                    try (ResultSet rs = insert.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            return rs.getInt(1);
+                        }
+                    }
+                }
+                return 0;
+            }
+        });
+    }
+}
@@ -0,0 +1,26 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event covering the loading of a {@link Ligue} from the
+ * database.
+ *
+ * @version 1.0
+ */
+@Name("football.LigueLoad")
+@Label("Ligue Load")
+@Category({ "Football", "Persistence" })
+@Description("Loading of a league's teams and matches from the database")
+public class LigueLoadEvent extends jdk.jfr.Event {
+
+    @Label("Ligue")
+    String ligue;
+
+    @Label("Equipes")
+    int equipes;
+
+    @Label("Matches")
+    int matches;
+}
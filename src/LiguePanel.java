@@ -4,6 +4,7 @@ import java.awt.*;
 import java.awt.event.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Panel for displaying league details including teams and matches.
@@ -13,6 +14,13 @@ import java.util.List;
  * provides
  * buttons to create new teams, view team details, and create matches.
  * </p>
+ *
+ * <p>
+ * The panel subscribes to {@link LiveResults} for the displayed league, so
+ * results saved from another screen or thread show up without reloading the
+ * league. A burst of results leads to a single refresh on the event dispatch
+ * thread.
+ * </p>
  * 
  * @version 1.0
  */
@@ -32,6 +40,10 @@ public class LiguePanel extends JPanel {
 
     // The current Ligue.
     private Ligue ligue;
+    // Live results of the current Ligue.
+    private LiveResults.Abonnement direct;
+    // Whether the current Ligue is being reloaded after missed live results.
+    private boolean rechargement;
 
     /**
      * Constructs a LiguePanel and initializes its UI components.
@@ -70,12 +82,6 @@ public class LiguePanel extends JPanel {
                 BorderFactory.createLineBorder(Color.WHITE), "Equipes", TitledBorder.DEFAULT_JUSTIFICATION,
                 TitledBorder.DEFAULT_POSITION, null, Color.WHITE));
         equipesListModel = new DefaultListModel<>();
-        if (ligue != null) {
-            List<Equipe> equipes = ligue.getEquipes(); // Assumes sorted by points.
-            for (Equipe equipe : equipes) {
-                equipesListModel.addElement(equipe.getNom() + " - Score: " + equipe.getPoints());
-            }
-        }
         equipesList = new JList<>(equipesListModel);
         equipesList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         equipesList.setBackground(Color.WHITE);
@@ -93,16 +99,6 @@ public class LiguePanel extends JPanel {
                 BorderFactory.createLineBorder(Color.WHITE), "Past Matches", TitledBorder.DEFAULT_JUSTIFICATION,
                 TitledBorder.DEFAULT_POSITION, null, Color.WHITE));
         pastMatchesListModel = new DefaultListModel<>();
-        if (ligue != null) {
-            List<Match> matches = ligue.getMatches();
-            for (Match match : matches) {
-                if (match.getNbButsEquipe1() != -1 && match.getNbButsEquipe2() != -1) {
-                    String matchInfo = match.getEquipe1().getNom() + " " + match.getNbButsEquipe1() +
-                            " - " + match.getNbButsEquipe2() + " " + match.getEquipe2().getNom();
-                    pastMatchesListModel.addElement(matchInfo);
-                }
-            }
-        }
         pastMatchesList = new JList<>(pastMatchesListModel);
         pastMatchesList.setBackground(Color.WHITE);
         pastMatchesList.setSelectionModel(new DefaultListSelectionModel() {
@@ -123,14 +119,8 @@ public class LiguePanel extends JPanel {
                 TitledBorder.DEFAULT_POSITION, null, Color.WHITE));
         upcomingMatchesListModel = new DefaultListModel<>();
         if (ligue != null) {
-            List<Match> matches = ligue.getMatches();
-            for (Match match : matches) {
-                if (match.getNbButsEquipe1() == -1 && match.getNbButsEquipe2() == -1) {
-                    String matchInfo = match.getEquipe1().getNom() + " vs " + match.getEquipe2().getNom()
-                            + " (Not played)";
-                    upcomingMatchesListModel.addElement(matchInfo);
-                }
-            }
+            remplirModeles(ligue, equipesListModel, pastMatchesListModel, upcomingMatchesListModel);
+            suivre(ligue);
         }
         upcomingMatchesList = new JList<>(upcomingMatchesListModel);
         upcomingMatchesList.setBackground(Color.WHITE);
@@ -181,7 +171,7 @@ public class LiguePanel extends JPanel {
                     index = upcomingMatchesList.getSelectedIndex();
                     List<Match> upcomingMatches = new ArrayList<>();
                     for (Match match : ligue.getMatches()) {
-                        if (match.getNbButsEquipe1() == -1 && match.getNbButsEquipe2() == -1) {
+                        if (match.getScore() == Match.NON_JOUE) {
                             upcomingMatches.add(match);
                         }
                     }
@@ -191,7 +181,7 @@ public class LiguePanel extends JPanel {
                     index = pastMatchesList.getSelectedIndex();
                     List<Match> pastMatches = new ArrayList<>();
                     for (Match match : ligue.getMatches()) {
-                        if (match.getNbButsEquipe1() != -1 && match.getNbButsEquipe2() != -1) {
+                        if (match.getScore() != Match.NON_JOUE) {
                             pastMatches.add(match);
                         }
                     }
@@ -238,7 +228,14 @@ public class LiguePanel extends JPanel {
                 }
                 Equipe equipe1 = equipes.get(team1Combo.getSelectedIndex());
                 Equipe equipe2 = equipes.get(team2Combo.getSelectedIndex());
-                Match newMatch = Match.creerMatch(equipe1, equipe2);
+                Match newMatch;
+                try {
+                    newMatch = Match.creerMatch(equipe1, equipe2);
+                } catch (IllegalArgumentException ex) {
+                    JOptionPane.showMessageDialog(this, "A match between " + equipe1.getNom() + " and "
+                            + equipe2.getNom() + " is already scheduled.");
+                    return;
+                }
                 JOptionPane.showMessageDialog(this,
                         "Match created between " + equipe1.getNom() + " and " + equipe2.getNom());
                 // Refresh the league data.
@@ -260,25 +257,132 @@ public class LiguePanel extends JPanel {
             JOptionPane.showMessageDialog(this, "No league data available.");
             return;
         }
+        suivre(ligue);
+        LigueRefreshEvent event = new LigueRefreshEvent();
+        event.begin();
+        int rows = remplirModeles(ligue, equipesListModel, pastMatchesListModel, upcomingMatchesListModel);
+        event.end();
+        if (event.shouldCommit()) {
+            event.ligue = ligue.getNom();
+            event.equipes = equipesListModel.size();
+            event.matches = pastMatchesListModel.size() + upcomingMatchesListModel.size();
+            event.rows = rows;
+            event.commit();
+        }
+    }
+
+    /**
+     * Subscribes to the live results of a league, replacing the subscription
+     * to the previously displayed one.
+     *
+     * @param ligue the displayed {@link Ligue}.
+     */
+    private void suivre(Ligue ligue) {
+        if (direct != null && direct.getNomLigue().equals(ligue.getNom())) {
+            return;
+        }
+        LiveResults.getInstance().desabonner(direct);
+        direct = LiveResults.getInstance().abonner(ligue.getNom(), LiveResults.CAPACITE_DEFAUT,
+                () -> SwingUtilities.invokeLater(this::appliquerDirect));
+    }
+
+    /**
+     * Applies the pending live results to the current Ligue and refreshes the
+     * lists. Runs on the event dispatch thread.
+     *
+     * <p>
+     * Results published while the league is reloaded stay pending and are
+     * applied to the reloaded league.
+     * </p>
+     */
+    private void appliquerDirect() {
+        if (rechargement) {
+            return;
+        }
+        LiveResults.Abonnement abonnement = direct;
+        LiveResults.Lot lot = abonnement != null ? abonnement.prendre() : null;
+        Ligue courante = MainWindow.getInstance().getCurrentLigue();
+        if (lot == null || courante == null || !courante.getNom().equals(abonnement.getNomLigue())) {
+            return;
+        }
+        if (lot.isDeborde()) {
+            // Too many results were missed: reload the league instead.
+            recharger(courante.getNom());
+            return;
+        }
+        for (LiveResults.Resultat resultat : lot.getResultats()) {
+            courante.appliquerResultat(resultat.getIdMatch(), resultat.getButsEquipe1(),
+                    resultat.getButsEquipe2());
+        }
+        updateContent();
+    }
+
+    /**
+     * Loads a league from the database in the background, then makes it the
+     * current one and refreshes the lists on the event dispatch thread.
+     *
+     * @param nom the name of the league.
+     */
+    private void recharger(String nom) {
+        rechargement = true;
+        new SwingWorker<Ligue, Void>() {
+            @Override
+            protected Ligue doInBackground() {
+                return new Ligue(nom);
+            }
+
+            @Override
+            protected void done() {
+                rechargement = false;
+                Ligue courante = MainWindow.getInstance().getCurrentLigue();
+                if (courante == null || !courante.getNom().equals(nom)) {
+                    return; // Another league was opened in the meantime
+                }
+                try {
+                    MainWindow.getInstance().setCurrentLigue(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                    return;
+                }
+                updateContent();
+                appliquerDirect();
+            }
+        }.execute();
+    }
+
+    /**
+     * Rebuilds the team, past match and upcoming match list models from a Ligue.
+     *
+     * @param ligue                    the {@link Ligue} to display.
+     * @param equipesListModel         the model of the teams list.
+     * @param pastMatchesListModel     the model of the past matches list.
+     * @param upcomingMatchesListModel the model of the upcoming matches list.
+     * @return the total number of rows in the three models.
+     */
+    static int remplirModeles(Ligue ligue, DefaultListModel<String> equipesListModel,
+            DefaultListModel<String> pastMatchesListModel, DefaultListModel<String> upcomingMatchesListModel) {
         // Update Equipes list.
         equipesListModel.clear();
-        List<Equipe> equipes = ligue.getEquipes();
+        List<Equipe> equipes = ligue.getEquipes(); // Sorted by points.
         for (Equipe equipe : equipes) {
-            equipesListModel.addElement(equipe.getNom() + " - Score: " + equipe.getPoints());
+            equipesListModel.addElement(equipe.getNom() + " - Score: " + equipe.getPoints() + " - Elo: "
+                    + Math.round(equipe.getElo()));
         }
         // Update Matches lists.
         pastMatchesListModel.clear();
         upcomingMatchesListModel.clear();
         List<Match> matches = ligue.getMatches();
         for (Match match : matches) {
-            if (match.getNbButsEquipe1() != -1 && match.getNbButsEquipe2() != -1) {
-                String matchInfo = match.getEquipe1().getNom() + " " + match.getNbButsEquipe1() +
-                        " - " + match.getNbButsEquipe2() + " " + match.getEquipe2().getNom();
+            int score = match.getScore();
+            if (score != Match.NON_JOUE) {
+                String matchInfo = match.getEquipe1().getNom() + " " + MatchModel.butsEquipe1(score) +
+                        " - " + MatchModel.butsEquipe2(score) + " " + match.getEquipe2().getNom();
                 pastMatchesListModel.addElement(matchInfo);
-            } else if (match.getNbButsEquipe1() == -1 && match.getNbButsEquipe2() == -1) {
+            } else {
                 String matchInfo = match.getEquipe1().getNom() + " vs " + match.getEquipe2().getNom() + " (Not played)";
                 upcomingMatchesListModel.addElement(matchInfo);
             }
         }
+        return equipesListModel.size() + pastMatchesListModel.size() + upcomingMatchesListModel.size();
     }
 }
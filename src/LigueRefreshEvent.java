@@ -0,0 +1,30 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event covering the refresh of the {@link LiguePanel} lists on
+ * the Event Dispatch Thread.
+ *
+ * @version 1.0
+ */
+@Name("football.LigueRefresh")
+@Label("Ligue Panel Refresh")
+@Category({ "Football", "UI" })
+@Description("Rebuild of the team and match lists of the league panel")
+public class LigueRefreshEvent extends jdk.jfr.Event {
+
+    @Label("Ligue")
+    String ligue;
+
+    @Label("Equipes")
+    int equipes;
+
+    @Label("Matches")
+    int matches;
+
+    @Label("Rows")
+    @Description("Number of list rows rebuilt")
+    int rows;
+}
@@ -0,0 +1,64 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the leagues loaded by a server process.
+ *
+ * <p>
+ * Each league is loaded from the database once, on first request, and then
+ * shared by every request thread; {@link Ligue} is safe for concurrent reads
+ * and updates. Names that do not match an existing league are not cached and
+ * never create a league.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class LigueRegistry {
+
+    private static final LigueRegistry instance = new LigueRegistry();
+
+    private final Map<String, Ligue> ligues = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor to prevent external instantiation.
+     */
+    private LigueRegistry() {
+    }
+
+    /**
+     * Returns the singleton instance of LigueRegistry.
+     *
+     * @return the LigueRegistry instance.
+     */
+    public static LigueRegistry getInstance() {
+        return instance;
+    }
+
+    /**
+     * Gets a league, loading it on first use.
+     *
+     * @param nom the name of the league.
+     * @return the {@link Ligue}, or null if no league has this name.
+     */
+    public Ligue getLigue(String nom) {
+        Ligue ligue = ligues.get(nom);
+        if (ligue != null) {
+            return ligue;
+        }
+        if (!LigueSnapshot.existe(nom) && LigueDAO.getInstance().getIdLigue(nom) == 0) {
+            return null;
+        }
+        return ligues.computeIfAbsent(nom, cle -> LigueSnapshot.ouvrir(cle, null));
+    }
+
+    /**
+     * Drops a league from the registry so that the next request reloads it.
+     * Its revision is bumped so views derived from it are rebuilt.
+     *
+     * @param nom the name of the league.
+     */
+    public void oublier(String nom) {
+        ligues.remove(nom);
+        LigueRevisions.incrementer(nom);
+    }
+}
@@ -0,0 +1,70 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Revision numbers of the leagues, bumped by every write that changes what a
+ * league displays.
+ *
+ * <p>
+ * The DAOs increment the revision of a league after each successful write to
+ * its teams or matches. Readers compare revisions to tell whether something
+ * derived from a league, such as serialized standings, is still current.
+ * Revisions are kept in memory and only see writes made by this process.
+ * </p>
+ *
+ * <p>
+ * A reader that builds something between the DAO's bump and the update of
+ * the open {@link Ligue} would tag the old state with the new revision and
+ * keep it. Code that applies a write to the league after the DAO returns
+ * therefore increments the revision again once the league shows it, as
+ * {@link Match#jouerMatch()} and {@link Match#creerMatch(Equipe, Equipe)} do.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class LigueRevisions {
+
+    private static final Map<String, AtomicLong> revisions = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private LigueRevisions() {
+    }
+
+    /**
+     * Gets the current revision of a league.
+     *
+     * @param nomLigue the name of the league.
+     * @return the revision, 0 if the league was never modified.
+     */
+    public static long getRevision(String nomLigue) {
+        AtomicLong revision = revisions.get(nomLigue);
+        return revision != null ? revision.get() : 0;
+    }
+
+    /**
+     * Records a change to a league.
+     *
+     * @param nomLigue the name of the league, ignored if null or empty.
+     * @return the new revision.
+     */
+    public static long incrementer(String nomLigue) {
+        if (nomLigue == null || nomLigue.isEmpty()) {
+            return 0;
+        }
+        return revisions.computeIfAbsent(nomLigue, nom -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Records a change to the league of a team.
+     *
+     * @param equipe the modified team.
+     */
+    static void incrementer(Equipe equipe) {
+        if (equipe != null && equipe.getLigue() != null) {
+            incrementer(equipe.getLigue().getNom());
+        }
+    }
+}
@@ -0,0 +1,409 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Binary snapshot of a league, to start without loading it from the database.
+ *
+ * <p>
+ * A snapshot holds the teams in standings order with their points, ratings and
+ * rosters, and the matches of the league. Strings are written once in a
+ * string table and referenced by index; everything else is stored as
+ * primitive arrays, one per column. Loading maps the file and copies the
+ * arrays in bulk, so a league comes back in milliseconds.
+ * </p>
+ *
+ * <p>
+ * Snapshots are kept in the directory named by the {@value #PROPRIETE} system
+ * property. {@link #ouvrir(String, Runnable)} loads a league from its snapshot
+ * and then reconciles it with the database on a background thread: the league
+ * is reloaded with the DAOs, swapped into the already-open {@link Ligue} and
+ * saved as the new snapshot. A reload during which the database fails is
+ * thrown away, leaving the league and its snapshot as they were. Without the
+ * property, or without a usable snapshot, leagues are loaded from the database
+ * as before.
+ * </p>
+ *
+ * <p>
+ * Format, version {@value #VERSION}, big-endian:
+ * </p>
+ *
+ * <pre>
+ * long magic "FOOTLIG1", int version, long written at (ms), int league id
+ * int n, n x (int length, UTF-8 bytes)         string table
+ * int league name
+ * int e, int[e] ids, int[e] names, int[e] points, double[e] ratings,
+ *        int[e + 1] first player of each team
+ * int j, int[j] ids, int[j] names, int[j] first names, int[j] numbers
+ * int m, int[m] ids, int[m] first teams, int[m] second teams,
+ *        byte[m] goals of the first team, byte[m] goals of the second team
+ * </pre>
+ *
+ * @version 1.0
+ */
+public final class LigueSnapshot {
+
+    /** The system property holding the directory of the snapshots. */
+    public static final String PROPRIETE = "football.instantanes";
+    /** The version of the format written. */
+    public static final int VERSION = 1;
+
+    private static final long MAGIE = 0x464F4F544C494731L; // "FOOTLIG1"
+    private static final String EXTENSION = ".ligue";
+    /** Reloads allowed when the league keeps changing during reconciliation. */
+    private static final int ESSAIS_RECONCILIATION = 3;
+
+    private static final ExecutorService reconciliations = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "LigueSnapshot-reconciliation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private LigueSnapshot() {
+    }
+
+    /**
+     * Gets the snapshot file of a league in the configured directory.
+     *
+     * @param nomLigue the name of the league.
+     * @return the file, which may not exist, or null if snapshots are
+     *         disabled.
+     */
+    public static Path fichier(String nomLigue) {
+        String repertoire = System.getProperty(PROPRIETE);
+        if (repertoire == null || repertoire.isEmpty()) {
+            return null;
+        }
+        try {
+            return Paths.get(repertoire, URLEncoder.encode(nomLigue, "UTF-8") + EXTENSION);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Tells whether a league has a snapshot in the configured directory.
+     *
+     * @param nomLigue the name of the league.
+     * @return true if a snapshot file exists.
+     */
+    public static boolean existe(String nomLigue) {
+        Path fichier = fichier(nomLigue);
+        return fichier != null && Files.isRegularFile(fichier);
+    }
+
+    /**
+     * Opens a league, from its snapshot when there is a usable one.
+     *
+     * <p>
+     * A league read from a snapshot is reconciled with the database in the
+     * background, after which its revision is bumped and
+     * {@code apresReconciliation} runs on the background thread. A league read
+     * from the database gets a snapshot written in the background for the next
+     * start.
+     * </p>
+     *
+     * @param nomLigue            the name of the league.
+     * @param apresReconciliation run once the league holds the database data,
+     *                            or null.
+     * @return the league.
+     */
+    public static Ligue ouvrir(String nomLigue, Runnable apresReconciliation) {
+        Path fichier = fichier(nomLigue);
+        if (fichier == null) {
+            return new Ligue(nomLigue);
+        }
+        Ligue ligue = null;
+        if (Files.isRegularFile(fichier)) {
+            try {
+                ligue = lire(fichier);
+            } catch (IOException | RuntimeException e) {
+                e.printStackTrace(); // Unusable snapshot: load from the database
+            }
+        }
+        if (ligue == null || !ligue.getNom().equals(nomLigue)) {
+            long erreurs = DaoMetrics.getErreursDuThread();
+            Ligue chargee = new Ligue(nomLigue);
+            if (chargee.getId() != 0 && DaoMetrics.getErreursDuThread() == erreurs) {
+                reconciliations.execute(() -> sauver(chargee, fichier));
+            }
+            return chargee;
+        }
+        Ligue ouverte = ligue;
+        reconciliations.execute(() -> {
+            if (reconcilier(ouverte, fichier) && apresReconciliation != null) {
+                apresReconciliation.run();
+            }
+        });
+        return ouverte;
+    }
+
+    /**
+     * Reloads a league opened from its snapshot and saves it again.
+     *
+     * <p>
+     * The DAOs answer a failure with an empty result, so a load during which
+     * any DAO call failed is thrown away: the league keeps the data of its
+     * snapshot, and the snapshot is left as it was, until the next start.
+     * </p>
+     *
+     * @return true if the league now holds the database data.
+     */
+    private static boolean reconcilier(Ligue ligue, Path fichier) {
+        String nom = ligue.getNom();
+        for (int essai = 0; essai < ESSAIS_RECONCILIATION; essai++) {
+            long revision = LigueRevisions.getRevision(nom);
+            long erreurs = DaoMetrics.getErreursDuThread();
+            Ligue fraiche = new Ligue(nom);
+            if (fraiche.getId() == 0 || DaoMetrics.getErreursDuThread() != erreurs) {
+                System.err.println("League " + nom + " could not be loaded from the database; keeping its snapshot");
+                return false;
+            }
+            ligue.recharger(fraiche);
+            if (LigueRevisions.getRevision(nom) == revision) {
+                break; // Nothing was saved while loading, so nothing was missed
+            }
+        }
+        LigueRevisions.incrementer(nom);
+        if (fichier != null) {
+            sauver(ligue, fichier);
+        }
+        return true;
+    }
+
+    private static void sauver(Ligue ligue, Path fichier) {
+        try {
+            ecrire(ligue, fichier);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Writes the snapshot of a league. The file is replaced atomically, so
+     * readers see either the old or the new snapshot.
+     *
+     * @param ligue   the league.
+     * @param fichier the snapshot file.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void ecrire(Ligue ligue, Path fichier) throws IOException {
+        List<Equipe> equipes = ligue.getEquipes();
+        List<Match> matchs = new ArrayList<>(ligue.getMatches());
+        List<String> chaines = new ArrayList<>();
+        Map<String, Integer> index = new HashMap<>();
+
+        int nomLigue = chaine(ligue.getNom(), chaines, index);
+        int[] nomsEquipes = new int[equipes.size()];
+        int[] premiers = new int[equipes.size() + 1];
+        List<Joueur> joueurs = new ArrayList<>();
+        for (int i = 0; i < equipes.size(); i++) {
+            Equipe equipe = equipes.get(i);
+            nomsEquipes[i] = chaine(equipe.getNom(), chaines, index);
+            premiers[i] = joueurs.size();
+            if (equipe.getJoueurs() != null) {
+                joueurs.addAll(equipe.getJoueurs());
+            }
+        }
+        premiers[equipes.size()] = joueurs.size();
+        int[] nomsJoueurs = new int[joueurs.size()];
+        int[] prenoms = new int[joueurs.size()];
+        for (int i = 0; i < joueurs.size(); i++) {
+            nomsJoueurs[i] = chaine(joueurs.get(i).getNom(), chaines, index);
+            prenoms[i] = chaine(joueurs.get(i).getPrenom(), chaines, index);
+        }
+
+        Path fichierTemporaire = fichier.resolveSibling(fichier.getFileName() + ".tmp");
+        if (fichier.getParent() != null) {
+            Files.createDirectories(fichier.getParent());
+        }
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(fichierTemporaire), 1 << 16))) {
+            out.writeLong(MAGIE);
+            out.writeInt(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(ligue.getId());
+            out.writeInt(chaines.size());
+            for (String chaine : chaines) {
+                byte[] octets = chaine.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(octets.length);
+                out.write(octets);
+            }
+            out.writeInt(nomLigue);
+
+            out.writeInt(equipes.size());
+            for (Equipe equipe : equipes) {
+                out.writeInt(equipe.getId());
+            }
+            ecrire(out, nomsEquipes);
+            for (Equipe equipe : equipes) {
+                out.writeInt(equipe.getPoints());
+            }
+            for (Equipe equipe : equipes) {
+                out.writeDouble(equipe.getElo());
+            }
+            ecrire(out, premiers);
+
+            out.writeInt(joueurs.size());
+            for (Joueur joueur : joueurs) {
+                out.writeInt(joueur.getId());
+            }
+            ecrire(out, nomsJoueurs);
+            ecrire(out, prenoms);
+            for (Joueur joueur : joueurs) {
+                out.writeInt(joueur.getNumeroMaillot());
+            }
+
+            int[] buts = new int[2 * matchs.size()];
+            for (int i = 0; i < matchs.size(); i++) {
+                Match match = matchs.get(i);
+                int score = match.getScore();
+                buts[2 * i] = MatchModel.butsEquipe1(score);
+                buts[2 * i + 1] = MatchModel.butsEquipe2(score);
+                if (buts[2 * i] > Match.BUTS_MAX || buts[2 * i + 1] > Match.BUTS_MAX) {
+                    throw new IOException("Goals out of range for match " + match.getId() + ": " + buts[2 * i]
+                            + "-" + buts[2 * i + 1]);
+                }
+            }
+            out.writeInt(matchs.size());
+            for (Match match : matchs) {
+                out.writeInt(match.getId());
+            }
+            for (Match match : matchs) {
+                out.writeInt(match.getEquipe1().getId());
+            }
+            for (Match match : matchs) {
+                out.writeInt(match.getEquipe2().getId());
+            }
+            for (int i = 0; i < matchs.size(); i++) {
+                out.writeByte(buts[2 * i]);
+            }
+            for (int i = 0; i < matchs.size(); i++) {
+                out.writeByte(buts[2 * i + 1]);
+            }
+        }
+        Files.move(fichierTemporaire, fichier, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int chaine(String chaine, List<String> chaines, Map<String, Integer> index) {
+        String valeur = chaine != null ? chaine : "";
+        Integer i = index.get(valeur);
+        if (i == null) {
+            i = chaines.size();
+            chaines.add(valeur);
+            index.put(valeur, i);
+        }
+        return i;
+    }
+
+    private static void ecrire(DataOutputStream out, int[] valeurs) throws IOException {
+        for (int valeur : valeurs) {
+            out.writeInt(valeur);
+        }
+    }
+
+    /**
+     * Reads a league from a snapshot, without touching the database.
+     *
+     * @param fichier the snapshot file.
+     * @return the league as it was when the snapshot was written.
+     * @throws IOException if the file cannot be read, is not a snapshot or
+     *                     has another version.
+     */
+    public static Ligue lire(Path fichier) throws IOException {
+        try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (buffer.remaining() < 24 || buffer.getLong() != MAGIE) {
+                throw new IOException("Not a league snapshot: " + fichier);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported league snapshot version " + version + ": " + fichier);
+            }
+            buffer.getLong(); // Written at
+            int idLigue = buffer.getInt();
+            String[] chaines = new String[buffer.getInt()];
+            for (int i = 0; i < chaines.length; i++) {
+                byte[] octets = new byte[buffer.getInt()];
+                buffer.get(octets);
+                chaines[i] = new String(octets, StandardCharsets.UTF_8);
+            }
+            String nomLigue = chaines[buffer.getInt()];
+
+            int nbEquipes = buffer.getInt();
+            int[] idsEquipes = entiers(buffer, nbEquipes);
+            int[] nomsEquipes = entiers(buffer, nbEquipes);
+            int[] points = entiers(buffer, nbEquipes);
+            double[] elos = new double[nbEquipes];
+            buffer.asDoubleBuffer().get(elos);
+            buffer.position(buffer.position() + 8 * nbEquipes);
+            int[] premiers = entiers(buffer, nbEquipes + 1);
+
+            int nbJoueurs = buffer.getInt();
+            int[] idsJoueurs = entiers(buffer, nbJoueurs);
+            int[] nomsJoueurs = entiers(buffer, nbJoueurs);
+            int[] prenoms = entiers(buffer, nbJoueurs);
+            int[] numeros = entiers(buffer, nbJoueurs);
+
+            int nbMatchs = buffer.getInt();
+            int[] idsMatchs = entiers(buffer, nbMatchs);
+            int[] equipes1 = entiers(buffer, nbMatchs);
+            int[] equipes2 = entiers(buffer, nbMatchs);
+            byte[] buts1 = new byte[nbMatchs];
+            buffer.get(buts1);
+            byte[] buts2 = new byte[nbMatchs];
+            buffer.get(buts2);
+
+            List<Equipe> equipes = new ArrayList<>(nbEquipes);
+            Map<Integer, Equipe> equipesParId = new HashMap<>();
+            for (int i = 0; i < nbEquipes; i++) {
+                Equipe equipe = new Equipe(idsEquipes[i]);
+                equipe.setNom(chaines[nomsEquipes[i]]);
+                equipe.points = points[i];
+                equipe.elo = elos[i];
+                List<Joueur> joueurs = new ArrayList<>(premiers[i + 1] - premiers[i]);
+                for (int j = premiers[i]; j < premiers[i + 1]; j++) {
+                    joueurs.add(new Joueur(idsJoueurs[j], chaines[nomsJoueurs[j]], chaines[prenoms[j]], numeros[j]));
+                }
+                equipe.modifyJoueurs(joueurs);
+                equipes.add(equipe);
+                equipesParId.put(equipe.getId(), equipe);
+            }
+            List<Match> matchs = new ArrayList<>(nbMatchs);
+            for (int i = 0; i < nbMatchs; i++) {
+                Equipe equipe1 = equipesParId.get(equipes1[i]);
+                Equipe equipe2 = equipesParId.get(equipes2[i]);
+                matchs.add(new Match(idsMatchs[i], equipe1 != null ? equipe1 : new Equipe(equipes1[i]),
+                        equipe2 != null ? equipe2 : new Equipe(equipes2[i]), buts1[i], buts2[i]));
+            }
+            return new Ligue(idLigue, nomLigue, equipes, matchs);
+        }
+    }
+
+    private static int[] entiers(ByteBuffer buffer, int taille) {
+        int[] valeurs = new int[taille];
+        buffer.asIntBuffer().get(valeurs);
+        buffer.position(buffer.position() + 4 * taille);
+        return valeurs;
+    }
+}
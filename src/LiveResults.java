@@ -0,0 +1,354 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Broadcasts saved match results to the viewers of a league.
+ *
+ * <p>
+ * {@link Match#jouerMatch()} publishes each result once; the hub builds a single
+ * immutable {@link Resultat} and offers it to every subscriber of the league.
+ * Offering never blocks: each {@link Abonnement} has its own bounded buffer in
+ * which results are keyed by match, so a result saved again replaces the
+ * pending one. When a buffer is full its pending results are dropped and the
+ * subscription is flagged as overflowed; the subscriber then reloads the
+ * league instead of replaying every update. A slow viewer therefore only ever
+ * delays itself.
+ * </p>
+ *
+ * <p>
+ * Subscribers either block in {@link Abonnement#attendre(long)} (one thread
+ * per stream, such as the server-sent events of {@link ServerMain}) or give a
+ * signal that is run once each time their buffer stops being empty (such as
+ * {@link LiguePanel}, which schedules a refresh on the event dispatch thread).
+ * </p>
+ *
+ * @version 1.0
+ */
+public class LiveResults {
+
+    /** Buffer size used when a subscriber does not choose one. */
+    public static final int CAPACITE_DEFAUT = 256;
+
+    private static final LiveResults instance = new LiveResults();
+
+    private final Map<String, List<Abonnement>> abonnes = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor to prevent external instantiation.
+     */
+    private LiveResults() {
+    }
+
+    /**
+     * Returns the singleton instance of LiveResults.
+     *
+     * @return the LiveResults instance.
+     */
+    public static LiveResults getInstance() {
+        return instance;
+    }
+
+    /**
+     * Subscribes to the results of a league.
+     *
+     * @param nomLigue the name of the league.
+     * @param capacite the maximum number of pending results before the
+     *                 subscription overflows.
+     * @param signal   run, on the publishing thread, each time the buffer
+     *                 receives a result while empty; null for subscribers that
+     *                 use {@link Abonnement#attendre(long)}. It must not block.
+     * @return the subscription.
+     */
+    public Abonnement abonner(String nomLigue, int capacite, Runnable signal) {
+        Abonnement abonnement = new Abonnement(nomLigue, capacite, signal);
+        abonnes.computeIfAbsent(nomLigue, nom -> new CopyOnWriteArrayList<>()).add(abonnement);
+        return abonnement;
+    }
+
+    /**
+     * Cancels a subscription. A thread waiting on it is woken up.
+     *
+     * @param abonnement the subscription, ignored if null.
+     */
+    public void desabonner(Abonnement abonnement) {
+        if (abonnement == null) {
+            return;
+        }
+        abonnement.fermer();
+        List<Abonnement> liste = abonnes.get(abonnement.nomLigue);
+        if (liste != null) {
+            liste.remove(abonnement);
+        }
+    }
+
+    /**
+     * Gets the number of subscribers of a league.
+     *
+     * @param nomLigue the name of the league.
+     * @return the number of open subscriptions.
+     */
+    public int getNombreAbonnes(String nomLigue) {
+        List<Abonnement> liste = abonnes.get(nomLigue);
+        return liste != null ? liste.size() : 0;
+    }
+
+    /**
+     * Publishes the saved result of a match to the subscribers of its league.
+     *
+     * @param match the played match.
+     */
+    public void publier(Match match) {
+        String nomLigue = match.getNomLigue();
+        List<Abonnement> liste = abonnes.get(nomLigue);
+        if (liste == null || liste.isEmpty()) {
+            return;
+        }
+        int score = match.getScore();
+        Resultat resultat = new Resultat(match.getId(), match.getEquipe1().getId(), match.getEquipe2().getId(),
+                MatchModel.butsEquipe1(score), MatchModel.butsEquipe2(score), LigueRevisions.getRevision(nomLigue));
+        for (Abonnement abonnement : liste) {
+            if (abonnement.offrir(resultat) && abonnement.signal != null) {
+                abonnement.signal.run();
+            }
+        }
+    }
+
+    /**
+     * A saved match result, shared by all the subscribers it is delivered to.
+     */
+    public static final class Resultat {
+        private final int idMatch;
+        private final int equipe1Id;
+        private final int equipe2Id;
+        private final int butsEquipe1;
+        private final int butsEquipe2;
+        private final long revision;
+        /** The JSON form, built once on first use. */
+        private volatile byte[] json;
+
+        Resultat(int idMatch, int equipe1Id, int equipe2Id, int butsEquipe1, int butsEquipe2, long revision) {
+            this.idMatch = idMatch;
+            this.equipe1Id = equipe1Id;
+            this.equipe2Id = equipe2Id;
+            this.butsEquipe1 = butsEquipe1;
+            this.butsEquipe2 = butsEquipe2;
+            this.revision = revision;
+        }
+
+        public int getIdMatch() {
+            return idMatch;
+        }
+
+        public int getEquipe1Id() {
+            return equipe1Id;
+        }
+
+        public int getEquipe2Id() {
+            return equipe2Id;
+        }
+
+        public int getButsEquipe1() {
+            return butsEquipe1;
+        }
+
+        public int getButsEquipe2() {
+            return butsEquipe2;
+        }
+
+        /**
+         * Gets the revision of the league right after this result was saved.
+         *
+         * @return the league revision.
+         */
+        public long getRevision() {
+            return revision;
+        }
+
+        /**
+         * Gets the result as a UTF-8 JSON object.
+         *
+         * @return the encoded result; callers must not modify it.
+         */
+        public byte[] toJson() {
+            byte[] octets = json;
+            if (octets == null) {
+                octets = new JsonWriter().debutObjet().membre("id", idMatch).membre("equipe1", equipe1Id)
+                        .membre("equipe2", equipe2Id).membre("butsEquipe1", butsEquipe1)
+                        .membre("butsEquipe2", butsEquipe2).membre("revision", revision).finObjet().toBytes();
+                json = octets;
+            }
+            return octets;
+        }
+    }
+
+    /**
+     * The results taken from a subscription at once.
+     */
+    public static final class Lot {
+        private final List<Resultat> resultats;
+        private final boolean deborde;
+
+        Lot(List<Resultat> resultats, boolean deborde) {
+            this.resultats = resultats;
+            this.deborde = deborde;
+        }
+
+        /**
+         * Gets the results, oldest first.
+         *
+         * @return the results; empty if the subscription overflowed.
+         */
+        public List<Resultat> getResultats() {
+            return resultats;
+        }
+
+        /**
+         * Tells whether results were dropped since the previous batch, in which
+         * case the subscriber must reload the league.
+         *
+         * @return true if the subscription overflowed.
+         */
+        public boolean isDeborde() {
+            return deborde;
+        }
+    }
+
+    /**
+     * A subscription to the results of one league, with its bounded buffer.
+     *
+     * <p>
+     * The buffer is guarded by a {@link ReentrantLock} rather than a monitor:
+     * a stream handler parks in {@link #attendre(long)} on a virtual thread,
+     * and waiting on a {@link Condition} releases its carrier thread where
+     * {@link Object#wait()} would pin it.
+     * </p>
+     */
+    public static final class Abonnement {
+        private final String nomLigue;
+        private final int capacite;
+        private final Runnable signal;
+        private final ReentrantLock verrou = new ReentrantLock();
+        private final Condition arrivee = verrou.newCondition();
+        private final Map<Integer, Resultat> enAttente = new LinkedHashMap<>();
+        private boolean deborde;
+        private boolean fermee;
+
+        private Abonnement(String nomLigue, int capacite, Runnable signal) {
+            this.nomLigue = nomLigue;
+            this.capacite = Math.max(1, capacite);
+            this.signal = signal;
+        }
+
+        /**
+         * Gets the name of the subscribed league.
+         *
+         * @return the league name.
+         */
+        public String getNomLigue() {
+            return nomLigue;
+        }
+
+        /**
+         * Adds a result to the buffer.
+         *
+         * @return true if the buffer was empty, so the subscriber needs a
+         *         signal.
+         */
+        private boolean offrir(Resultat resultat) {
+            verrou.lock();
+            try {
+                if (fermee || deborde) {
+                    return false;
+                }
+                boolean vide = enAttente.isEmpty();
+                enAttente.put(resultat.idMatch, resultat);
+                if (enAttente.size() > capacite) {
+                    enAttente.clear();
+                    deborde = true;
+                }
+                arrivee.signalAll();
+                return vide;
+            } finally {
+                verrou.unlock();
+            }
+        }
+
+        /**
+         * Takes the pending results without waiting.
+         *
+         * @return the pending results, or null if there are none.
+         */
+        public Lot prendre() {
+            verrou.lock();
+            try {
+                if (enAttente.isEmpty() && !deborde) {
+                    return null;
+                }
+                Lot lot = new Lot(deborde ? Collections.<Resultat>emptyList() : new ArrayList<>(enAttente.values()),
+                        deborde);
+                enAttente.clear();
+                deborde = false;
+                return lot;
+            } finally {
+                verrou.unlock();
+            }
+        }
+
+        /**
+         * Waits for results and takes them.
+         *
+         * @param millis the maximum time to wait, in milliseconds.
+         * @return the pending results, or null if none arrived in time or the
+         *         subscription is closed.
+         * @throws InterruptedException if interrupted while waiting.
+         */
+        public Lot attendre(long millis) throws InterruptedException {
+            verrou.lock();
+            try {
+                long reste = TimeUnit.MILLISECONDS.toNanos(millis);
+                while (!fermee && enAttente.isEmpty() && !deborde) {
+                    if (reste <= 0) {
+                        return null;
+                    }
+                    reste = arrivee.awaitNanos(reste);
+                }
+                return fermee ? null : prendre();
+            } finally {
+                verrou.unlock();
+            }
+        }
+
+        /**
+         * Tells whether the subscription was cancelled.
+         *
+         * @return true once closed.
+         */
+        public boolean isFermee() {
+            verrou.lock();
+            try {
+                return fermee;
+            } finally {
+                verrou.unlock();
+            }
+        }
+
+        private void fermer() {
+            verrou.lock();
+            try {
+                fermee = true;
+                enAttente.clear();
+                arrivee.signalAll();
+            } finally {
+                verrou.unlock();
+            }
+        }
+    }
+}
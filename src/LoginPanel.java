@@ -110,7 +110,7 @@ public class LoginPanel extends JPanel implements ActionListener {
             errorLabel.setText("");
             // Initialize the current league and navigate to LiguePanel.
             MainWindow mainWindow = MainWindow.getInstance();
-            mainWindow.setCurrentLigue(new Ligue("Ligue 1"));
+            mainWindow.ouvrirLigue("Ligue 1");
             mainWindow.showPanel(MainWindow.LIGUE_PANEL);
         } else {
             errorLabel.setText("Invalid credentials, please try again.");
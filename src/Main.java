@@ -2,7 +2,8 @@
  * Entry point for the Soccer League Application.
  * 
  * <p>
- * This class initializes the application by launching the main window.
+ * This class initializes the application by migrating the database schema and
+ * launching the main window.
  * </p>
  * 
  * @version 1.0
@@ -14,7 +15,9 @@ public class Main {
 	 * @param args command-line arguments (not used).
 	 */
 	public static void main(String[] args) {
+		// Bring the database schema up to date before any DAO is used.
+		SchemaMigrator.migrer();
 		// Launch the MainWindow on the Event Dispatch Thread.
-		javax.swing.SwingUtilities.invokeLater(() -> new MainWindow());
+		javax.swing.SwingUtilities.invokeLater(MainWindow::getInstance);
 	}
 }
@@ -29,12 +29,13 @@ public class MainWindow extends JFrame {
     public static final String MATCH_PANEL = "MATCH";
 
     // Centrally maintained current Ligue.
-    private Ligue currentLigue;
+    private volatile Ligue currentLigue;
 
     /**
      * Constructs the MainWindow and initializes all panels.
      */
-    public MainWindow() {
+    private MainWindow() {
+        // Published before the panels are built: their constructors call getInstance().
         instance = this;
         setTitle("Soccer League App");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -81,11 +82,17 @@ public class MainWindow extends JFrame {
     }
 
     /**
-     * Returns the singleton instance of MainWindow.
+     * Returns the singleton instance of MainWindow, creating it on first use.
+     *
+     * <p>
+     * Creation is synchronized so that two threads cannot build two windows.
+     * The panels built by the constructor get the window under construction
+     * back, since the lock is reentrant.
+     * </p>
      *
      * @return the MainWindow instance.
      */
-    public static MainWindow getInstance() {
+    public static synchronized MainWindow getInstance() {
         if (instance == null) {
             instance = new MainWindow();
         }
@@ -127,6 +134,26 @@ public class MainWindow extends JFrame {
         this.currentLigue = ligue;
     }
 
+    /**
+     * Opens a league and makes it current.
+     *
+     * <p>
+     * The league comes from its {@link LigueSnapshot} when there is one, and
+     * the league screen is refreshed once the snapshot has been reconciled
+     * with the database in the background.
+     * </p>
+     *
+     * @param nom the name of the league.
+     */
+    public void ouvrirLigue(String nom) {
+        setCurrentLigue(LigueSnapshot.ouvrir(nom, () -> SwingUtilities.invokeLater(() -> {
+            Component panel = getPanel(LIGUE_PANEL);
+            if (panel instanceof LiguePanel) {
+                ((LiguePanel) panel).updateContent();
+            }
+        })));
+    }
+
     /**
      * Gets the current league.
      *
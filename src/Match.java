@@ -1,3 +1,7 @@
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 /**
  * Represents a soccer match between two teams.
  * 
@@ -6,15 +10,33 @@
  * of goals,
  * and provides methods to simulate and save the match result.
  * </p>
+ *
+ * <p>
+ * The goals of both teams are held in one volatile int, encoded with
+ * {@link MatchModel#score(int, int)}, so a thread reading the match never sees
+ * the goals of one result with those of another. A reader that needs both
+ * goals reads {@link #getScore()} once and decodes it.
+ * </p>
  * 
  * @version 1.0
  */
 public class Match {
-	int id;
-	Equipe equipe1;
-	Equipe equipe2;
-	int nbButsEquipe1;
-	int nbButsEquipe2;
+	/**
+	 * The most goals a team can score in a match: the database stores them as
+	 * a TINYINT, the {@link MatchEventLog} and the {@link LigueSnapshot} as a
+	 * byte.
+	 */
+	public static final int BUTS_MAX = 127;
+	/** The score of a match not played yet: -1 goals for both teams. */
+	public static final int NON_JOUE = MatchModel.score(-1, -1);
+
+	private static final AtomicIntegerFieldUpdater<Match> SCORE = AtomicIntegerFieldUpdater
+			.newUpdater(Match.class, "score");
+
+	volatile int id;
+	final Equipe equipe1;
+	final Equipe equipe2;
+	volatile int score;
 
 	/**
 	 * Constructs a Match with the specified parameters.
@@ -29,8 +51,7 @@ public class Match {
 		this.id = id;
 		this.equipe1 = equipe1;
 		this.equipe2 = equipe2;
-		this.nbButsEquipe1 = nbButsEquipe1;
-		this.nbButsEquipe2 = nbButsEquipe2;
+		this.score = MatchModel.score(nbButsEquipe1, nbButsEquipe2);
 	}
 
 	/**
@@ -43,53 +64,247 @@ public class Match {
 	public Match(Equipe equipe1, Equipe equipe2) {
 		this.equipe1 = equipe1;
 		this.equipe2 = equipe2;
-		this.nbButsEquipe1 = -1;
-		this.nbButsEquipe2 = -1;
+		this.score = NON_JOUE;
 	}
 
 	/**
-	 * Creates a new Match in the database between two teams.
+	 * Creates a new Match in the database between two teams and adds it to
+	 * their league.
 	 *
-	 * @param equipe1 the first team
+	 * <p>
+	 * A league holds at most one upcoming match per home and away team: the
+	 * pair is looked up in the league's {@link HeadToHeadIndex} before anything
+	 * is written, and creations in the same league are serialized so two of
+	 * them cannot both pass the check. Other copies of the league and other
+	 * processes are stopped by the database, whose unique key on upcoming
+	 * matches refuses the second insert.
+	 * </p>
+	 *
+	 * @param equipe1 the first team, at home
 	 * @param equipe2 the second team
-	 * @return the newly created {@link Match} with an assigned id.
+	 * @return the newly created {@link Match} with an assigned id, 0 if it
+	 *         could not be saved.
+	 * @throws IllegalArgumentException if the league or the database already
+	 *                                  has an upcoming match of equipe1 at
+	 *                                  home against equipe2.
 	 */
 	public static Match creerMatch(Equipe equipe1, Equipe equipe2) {
 		Match nouveauMatch = new Match(equipe1, equipe2);
-		// Create the match in the database and update its id.
-		int idMatch = MatchDAO.getInstance().creerMatch(nouveauMatch);
-		nouveauMatch.setId(idMatch);
+		Ligue ligue = nouveauMatch.getLigue();
+		if (ligue == null) {
+			nouveauMatch.setId(inserer(nouveauMatch));
+			return nouveauMatch;
+		}
+		ligue.creations.lock();
+		try {
+			if (ligue.getConfrontations().getAVenir(equipe1, equipe2) > 0) {
+				throw dejaPrevu(equipe1, equipe2);
+			}
+			nouveauMatch.setId(inserer(nouveauMatch));
+			if (nouveauMatch.id != 0) {
+				ligue.addMatch(nouveauMatch);
+				// Bumped again now that the match is visible in the league.
+				LigueRevisions.incrementer(ligue.getNom());
+			}
+		} finally {
+			ligue.creations.unlock();
+		}
 		return nouveauMatch;
 	}
 
+	/**
+	 * Creates the match in the database.
+	 *
+	 * @return the id of the match, 0 if it could not be created.
+	 * @throws IllegalArgumentException if the database already has an upcoming
+	 *                                  match between the same teams.
+	 */
+	private static int inserer(Match match) {
+		int idMatch = MatchDAO.getInstance().creerMatch(match);
+		if (idMatch == MatchDAO.DOUBLON) {
+			throw dejaPrevu(match.equipe1, match.equipe2);
+		}
+		return idMatch;
+	}
+
+	private static IllegalArgumentException dejaPrevu(Equipe equipe1, Equipe equipe2) {
+		return new IllegalArgumentException(
+				"Upcoming match already scheduled: " + equipe1.getNom() + " - " + equipe2.getNom());
+	}
+
 	/**
 	 * Simulates the match by generating random goals for each team and awarding
 	 * points.
 	 * The winning team receives 3 points; in case of a draw, both teams receive 1
 	 * point.
+	 *
+	 * <p>
+	 * The goals are drawn by the {@link MatchModel} of the league, the first
+	 * team playing at home. The result is only kept in memory;
+	 * {@link #jouerMatch()} simulates a match and saves it.
+	 * </p>
 	 */
 	public void simulerMatch() {
-		nbButsEquipe1 = (int) (Math.random() * 3); // generates 0, 1, or 2 goals
-		nbButsEquipe2 = (int) (Math.random() * 3);
-
-		if (nbButsEquipe1 > nbButsEquipe2) {
-			equipe1.addPoints(3);
-		} else if (nbButsEquipe1 < nbButsEquipe2) {
-			equipe2.addPoints(3);
-		} else {
-			equipe1.addPoints(1);
-			equipe2.addPoints(1);
+		simulerMatch(ThreadLocalRandom.current());
+	}
+
+	/**
+	 * Simulates the match, drawing the goals from the given generator.
+	 *
+	 * @param random the source of the draws; a seeded generator gives a
+	 *               reproducible result.
+	 */
+	void simulerMatch(Random random) {
+		SimulationEvent event = new SimulationEvent();
+		event.begin();
+		int score = getModele().tirer(equipe1, equipe2, random);
+		int buts1 = MatchModel.butsEquipe1(score);
+		int buts2 = MatchModel.butsEquipe2(score);
+		int ancien = SCORE.getAndSet(this, score);
+		int ancien1 = MatchModel.butsEquipe1(ancien);
+		int ancien2 = MatchModel.butsEquipe2(ancien);
+
+		equipe1.addPoints(points(buts1, buts2));
+		equipe2.addPoints(points(buts2, buts1));
+		Ligue ligue = getLigue();
+		if (ligue != null) {
+			ligue.matchJoue(this, ancien1, ancien2);
+		}
+		event.end();
+		if (event.shouldCommit()) {
+			event.ligue = getNomLigue();
+			event.matches = 1;
+			event.commit();
 		}
 	}
 
 	/**
-	 * Saves the match result by updating team points and match scores in the
-	 * database.
+	 * Takes back a result simulated by {@link #simulerMatch()} that could not be
+	 * saved, leaving the match unplayed again.
 	 */
-	public void saveMatch() {
-		EquipeDAO.getInstance().modifierPointsEquipe(equipe1);
-		EquipeDAO.getInstance().modifierPointsEquipe(equipe2);
-		MatchDAO.getInstance().modifierButsMatch(this);
+	void annulerResultat() {
+		int ancien = SCORE.getAndSet(this, NON_JOUE);
+		if (ancien == NON_JOUE) {
+			return;
+		}
+		int buts1 = MatchModel.butsEquipe1(ancien);
+		int buts2 = MatchModel.butsEquipe2(ancien);
+		equipe1.addPoints(-points(buts1, buts2));
+		equipe2.addPoints(-points(buts2, buts1));
+		Ligue ligue = getLigue();
+		if (ligue != null) {
+			ligue.matchJoue(this, buts1, buts2);
+		}
+	}
+
+	/**
+	 * Gets the points a team earns from a result.
+	 *
+	 * @param buts           the goals of the team
+	 * @param butsAdversaire the goals of its opponent
+	 * @return 3 for a win, 1 for a draw, 0 for a loss
+	 */
+	static int points(int buts, int butsAdversaire) {
+		return buts > butsAdversaire ? 3 : buts == butsAdversaire ? 1 : 0;
+	}
+
+	/**
+	 * Simulates the match and saves its result, updating team points and match
+	 * scores in the database.
+	 *
+	 * <p>
+	 * The score is drawn first and only reaches the teams, the league and its
+	 * viewers once it is saved: if the match was played elsewhere in the
+	 * meantime or the database cannot be reached, nothing changes in memory.
+	 * </p>
+	 *
+	 * <p>
+	 * The points earned in this match are added to the stored points rather
+	 * than overwriting them, so results saved at the same time by other
+	 * clients are not lost. A result already saved for this match is not
+	 * counted twice. The Elo ratings of both teams are updated in the same
+	 * transaction.
+	 * </p>
+	 *
+	 * <p>
+	 * Once saved, the result is published to the viewers of the league through
+	 * {@link LiveResults}.
+	 * </p>
+	 *
+	 * @return the number of rows written, 0 if the match was already played,
+	 *         -1 if the result could not be saved.
+	 */
+	public int jouerMatch() {
+		MatchSaveEvent event = new MatchSaveEvent();
+		event.begin();
+		int score = getModele().tirer(equipe1, equipe2, ThreadLocalRandom.current());
+		int buts1 = MatchModel.butsEquipe1(score);
+		int buts2 = MatchModel.butsEquipe2(score);
+		double variationElo = EloRatings.variation(equipe1.getElo(), equipe2.getElo(), buts1, buts2);
+		Match resultat = new Match(id, equipe1, equipe2, buts1, buts2);
+		int rows = MatchDAO.getInstance().enregistrerResultat(resultat, points(buts1, buts2),
+				points(buts2, buts1), variationElo);
+		event.end();
+		if (event.shouldCommit()) {
+			event.ligue = getNomLigue();
+			event.matchId = id;
+			event.matches = 1;
+			event.rows = rows;
+			event.commit();
+		}
+		if (rows > 0) {
+			int ancien = SCORE.getAndSet(this, score);
+			int ancien1 = MatchModel.butsEquipe1(ancien);
+			int ancien2 = MatchModel.butsEquipe2(ancien);
+			if (ancien1 >= 0 && ancien2 >= 0) {
+				equipe1.addPoints(-points(ancien1, ancien2));
+				equipe2.addPoints(-points(ancien2, ancien1));
+			}
+			equipe1.addPoints(points(buts1, buts2));
+			equipe2.addPoints(points(buts2, buts1));
+			Ligue ligue = getLigue();
+			if (ligue != null) {
+				ligue.matchJoue(this, ancien1, ancien2);
+			}
+			equipe1.ajusterElo(variationElo);
+			equipe2.ajusterElo(-variationElo);
+			// Bumped again now that the result is visible in the league.
+			LigueRevisions.incrementer(getNomLigue());
+			LiveResults.getInstance().publier(this);
+		}
+		return rows;
+	}
+
+	/**
+	 * Gets the league the match belongs to.
+	 *
+	 * @return the league of the first team, or of the second if the first is
+	 *         not attached to one; null if neither is.
+	 */
+	private Ligue getLigue() {
+		return equipe1.getLigue() != null ? equipe1.getLigue() : equipe2.getLigue();
+	}
+
+	/**
+	 * Gets the model of the league the match belongs to.
+	 *
+	 * @return the model of the league, or the uniform model if neither team is
+	 *         attached to a league.
+	 */
+	private MatchModel getModele() {
+		Ligue ligue = getLigue();
+		return ligue != null ? ligue.getModele() : UniformMatchModel.INSTANCE;
+	}
+
+	/**
+	 * Gets the name of the league the match belongs to.
+	 *
+	 * @return the league name, or an empty string if neither team is attached
+	 *         to a league.
+	 */
+	String getNomLigue() {
+		Ligue ligue = getLigue();
+		return ligue != null ? ligue.getNom() : "";
 	}
 
 	/**
@@ -116,7 +331,7 @@ public class Match {
 	 * @return the goals for equipe1.
 	 */
 	public int getNbButsEquipe1() {
-		return nbButsEquipe1;
+		return MatchModel.butsEquipe1(score);
 	}
 
 	/**
@@ -125,7 +340,27 @@ public class Match {
 	 * @return the goals for equipe2.
 	 */
 	public int getNbButsEquipe2() {
-		return nbButsEquipe2;
+		return MatchModel.butsEquipe2(score);
+	}
+
+	/**
+	 * Gets the goals of both teams, read together.
+	 *
+	 * @return the score, encoded with {@link MatchModel#score(int, int)};
+	 *         {@link #NON_JOUE} if the match was not played.
+	 */
+	public int getScore() {
+		return score;
+	}
+
+	/**
+	 * Sets the score of a match that was not played yet.
+	 *
+	 * @param score the score, encoded with {@link MatchModel#score(int, int)}.
+	 * @return true if the match was not played and now has this score.
+	 */
+	boolean jouerSiNonJoue(int score) {
+		return SCORE.compareAndSet(this, NON_JOUE, score);
 	}
 
 	/**
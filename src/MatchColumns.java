@@ -0,0 +1,541 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * The played matches of a league stored column by column, for statistics
+ * over the whole history.
+ *
+ * <p>
+ * Each match is a row spread over plain int arrays: the two teams (as indexes
+ * into the league's teams), the two scores, the season and the journee. Rows
+ * are in schedule order, like {@link StandingsHistory}, so a season is a
+ * contiguous range and streaks follow the order the matches were played in.
+ * </p>
+ *
+ * <p>
+ * Aggregations cut the rows into blocks that are scanned in parallel, each
+ * into its own counters, and then merged in order. The scans touch only the
+ * arrays they need, without walking {@link Match} or {@link Equipe} objects,
+ * and their loops are simple enough for the JIT to unroll. They stay scalar:
+ * the Vector API is an incubator module of JDK 16 and later, enabled with
+ * {@code --add-modules jdk.incubator.vector}, and the build targets Java 11.
+ * The full-history statistics are computed on first use and kept; the
+ * columns themselves are immutable, and {@link Ligue#getColonnes()} rebuilds
+ * them when the league changes.
+ * </p>
+ *
+ * @version 1.0
+ */
+public final class MatchColumns {
+
+    /** Rows per block of a parallel scan. */
+    private static final int BLOC = 1 << 16;
+
+    // Counters of a team, at equipe * CHAMPS + offset
+    private static final int DOMICILE = 0;
+    private static final int EXTERIEUR = 5;
+    private static final int VICTOIRES = 0;
+    private static final int NULS = 1;
+    private static final int DEFAITES = 2;
+    private static final int MARQUES = 3;
+    private static final int ENCAISSES = 4;
+    private static final int CHAMPS = 10;
+
+    private final Equipe[] equipes;
+    private final Map<Integer, Integer> indexEquipes = new HashMap<>();
+    private final long revision;
+    private final int taille;
+    private final int[] equipe1;
+    private final int[] equipe2;
+    private final int[] buts1;
+    private final int[] buts2;
+    private final int[] saisons;
+    private final int[] journees;
+    private volatile Bloc total;
+
+    private MatchColumns(Ligue ligue, long revision) {
+        this.revision = revision;
+        this.equipes = ligue.getEquipes().toArray(new Equipe[0]);
+        for (int i = 0; i < equipes.length; i++) {
+            indexEquipes.put(equipes[i].getId(), i);
+        }
+        Map<Integer, Match> matchs = new HashMap<>();
+        for (Match match : ligue.getMatches()) {
+            matchs.put(match.getId(), match);
+        }
+        List<int[]> calendrier = MatchDAO.getInstance().getCalendrierJoue(ligue.getNom());
+        int n = calendrier.size();
+        int[] e1 = new int[n];
+        int[] e2 = new int[n];
+        int[] b1 = new int[n];
+        int[] b2 = new int[n];
+        int[] s = new int[n];
+        int[] j = new int[n];
+        int r = 0;
+        for (int[] ligne : calendrier) {
+            Match match = matchs.get(ligne[0]);
+            if (match == null) {
+                continue;
+            }
+            Integer i1 = indexEquipes.get(match.getEquipe1().getId());
+            Integer i2 = indexEquipes.get(match.getEquipe2().getId());
+            int score = match.getScore();
+            int a = MatchModel.butsEquipe1(score);
+            int b = MatchModel.butsEquipe2(score);
+            if (i1 == null || i2 == null || a < 0 || b < 0) {
+                continue; // Not played in this copy of the league, or against another league
+            }
+            e1[r] = i1;
+            e2[r] = i2;
+            b1[r] = a;
+            b2[r] = b;
+            s[r] = ligne[1];
+            j[r] = ligne[2];
+            r++;
+        }
+        this.taille = r;
+        this.equipe1 = Arrays.copyOf(e1, r);
+        this.equipe2 = Arrays.copyOf(e2, r);
+        this.buts1 = Arrays.copyOf(b1, r);
+        this.buts2 = Arrays.copyOf(b2, r);
+        this.saisons = Arrays.copyOf(s, r);
+        this.journees = Arrays.copyOf(j, r);
+    }
+
+    /**
+     * Builds the columns of a league from its played matches.
+     *
+     * @param ligue the league.
+     * @return the columns.
+     */
+    public static MatchColumns construire(Ligue ligue) {
+        // As for the history, the revision is read before the data it describes.
+        return new MatchColumns(ligue, LigueRevisions.getRevision(ligue.getNom()));
+    }
+
+    /**
+     * Gets the revision of the league the columns were built from.
+     *
+     * @return the {@link LigueRevisions} revision.
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Gets the number of played matches.
+     *
+     * @return the number of rows.
+     */
+    public int getTaille() {
+        return taille;
+    }
+
+    /**
+     * Gets the season of a row.
+     *
+     * @param ligne the row, in schedule order.
+     * @return the season, 0 for matches outside a schedule.
+     */
+    public int getSaison(int ligne) {
+        return saisons[ligne];
+    }
+
+    /**
+     * Gets the journee of a row.
+     *
+     * @param ligne the row, in schedule order.
+     * @return the journee in its season, 0 for matches outside a schedule.
+     */
+    public int getJournee(int ligne) {
+        return journees[ligne];
+    }
+
+    /**
+     * Gets the statistics of a team over the whole history.
+     *
+     * @param equipe the team.
+     * @return its statistics.
+     * @throws IllegalArgumentException if the team is not part of the league.
+     */
+    public Statistiques getStatistiques(Equipe equipe) {
+        Bloc courant = total;
+        if (courant == null) {
+            courant = agreger(0, taille);
+            total = courant;
+        }
+        return courant.statistiques(index(equipe));
+    }
+
+    /**
+     * Gets the statistics of a team over one season.
+     *
+     * @param equipe the team.
+     * @param saison the season.
+     * @return its statistics in that season, empty if it has no played match.
+     * @throws IllegalArgumentException if the team is not part of the league.
+     */
+    public Statistiques getStatistiques(Equipe equipe, int saison) {
+        int i = index(equipe);
+        return agreger(debut(saison), debut(saison + 1)).statistiques(i);
+    }
+
+    /**
+     * Gets the record of a team against each opponent it has played.
+     *
+     * @param equipe the team.
+     * @return the records from the team's side, by opponent in the league's
+     *         order.
+     * @throws IllegalArgumentException if the team is not part of the league.
+     */
+    public Map<Equipe, Bilan> getConfrontations(Equipe equipe) {
+        int t = index(equipe);
+        int n = equipes.length;
+        int[] compteurs = IntStream.range(0, blocs(0, taille)).parallel()
+                .mapToObj(b -> confrontations(t, b * BLOC, Math.min(taille, (b + 1) * BLOC)))
+                .reduce(new int[n * 5], MatchColumns::additionner);
+        Map<Equipe, Bilan> confrontations = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            Bilan bilan = new Bilan(compteurs, i * 5);
+            if (bilan.getJoues() > 0) {
+                confrontations.put(equipes[i], bilan);
+            }
+        }
+        return Collections.unmodifiableMap(confrontations);
+    }
+
+    /**
+     * Gets the record of a team against another.
+     *
+     * @param equipe     the team.
+     * @param adversaire the opponent.
+     * @return the record from the first team's side, home and away together.
+     * @throws IllegalArgumentException if a team is not part of the league.
+     */
+    public Bilan getConfrontation(Equipe equipe, Equipe adversaire) {
+        Bilan bilan = getConfrontations(equipe).get(equipes[index(adversaire)]);
+        return bilan != null ? bilan : new Bilan(new int[5], 0);
+    }
+
+    private int[] confrontations(int t, int debut, int fin) {
+        int[] compteurs = new int[equipes.length * 5];
+        for (int r = debut; r < fin; r++) {
+            int adversaire;
+            int marques;
+            int encaisses;
+            if (equipe1[r] == t) {
+                adversaire = equipe2[r];
+                marques = buts1[r];
+                encaisses = buts2[r];
+            } else if (equipe2[r] == t) {
+                adversaire = equipe1[r];
+                marques = buts2[r];
+                encaisses = buts1[r];
+            } else {
+                continue;
+            }
+            compter(compteurs, adversaire * 5, marques, encaisses);
+        }
+        return compteurs;
+    }
+
+    /**
+     * Adds a result to the five counters of a {@link Bilan} at some offset.
+     */
+    private static void compter(int[] compteurs, int k, int marques, int encaisses) {
+        compteurs[k + VICTOIRES] += marques > encaisses ? 1 : 0;
+        compteurs[k + NULS] += marques == encaisses ? 1 : 0;
+        compteurs[k + DEFAITES] += marques < encaisses ? 1 : 0;
+        compteurs[k + MARQUES] += marques;
+        compteurs[k + ENCAISSES] += encaisses;
+    }
+
+    private static int[] additionner(int[] a, int[] b) {
+        int[] somme = new int[a.length];
+        for (int i = 0; i < somme.length; i++) {
+            somme[i] = a[i] + b[i];
+        }
+        return somme;
+    }
+
+    /**
+     * Scans rows in parallel blocks and merges the blocks in row order.
+     */
+    private Bloc agreger(int debut, int fin) {
+        int n = equipes.length;
+        return IntStream.range(0, blocs(debut, fin)).parallel()
+                .mapToObj(b -> new Bloc(n).scanner(this, debut + b * BLOC, Math.min(fin, debut + (b + 1) * BLOC)))
+                .reduce(Bloc::suivi)
+                .orElseGet(() -> new Bloc(n));
+    }
+
+    private static int blocs(int debut, int fin) {
+        return (fin - debut + BLOC - 1) / BLOC;
+    }
+
+    /**
+     * Gets the first row of a season, or the end of the rows.
+     */
+    private int debut(int saison) {
+        int bas = 0;
+        int haut = taille;
+        while (bas < haut) {
+            int milieu = (bas + haut) >>> 1;
+            if (saisons[milieu] < saison) {
+                bas = milieu + 1;
+            } else {
+                haut = milieu;
+            }
+        }
+        return bas;
+    }
+
+    private int index(Equipe equipe) {
+        Integer i = indexEquipes.get(equipe.getId());
+        if (i == null) {
+            throw new IllegalArgumentException("Unknown team: " + equipe.getId());
+        }
+        return i;
+    }
+
+    /**
+     * The counters of a range of rows.
+     *
+     * <p>
+     * Win streaks are kept as the wins that open the range, the wins that
+     * close it and the longest run inside it, so two consecutive ranges merge
+     * without seeing their rows again.
+     * </p>
+     */
+    private static final class Bloc {
+        final int[] compteurs;
+        /** Wins from the start of the range until the first match not won. */
+        final int[] prefixe;
+        /** Wins at the end of the range, after the last match not won. */
+        final int[] suffixe;
+        final int[] meilleure;
+        /** 1 if the team won every one of its matches in the range, 0 otherwise. */
+        final int[] complet;
+
+        Bloc(int n) {
+            compteurs = new int[n * CHAMPS];
+            prefixe = new int[n];
+            suffixe = new int[n];
+            meilleure = new int[n];
+            complet = new int[n];
+            Arrays.fill(complet, 1);
+        }
+
+        Bloc scanner(MatchColumns colonnes, int debut, int fin) {
+            int[] e1 = colonnes.equipe1;
+            int[] e2 = colonnes.equipe2;
+            int[] b1 = colonnes.buts1;
+            int[] b2 = colonnes.buts2;
+            for (int r = debut; r < fin; r++) {
+                int i = e1[r];
+                int j = e2[r];
+                int a = b1[r];
+                int b = b2[r];
+                compter(compteurs, i * CHAMPS + DOMICILE, a, b);
+                compter(compteurs, j * CHAMPS + EXTERIEUR, b, a);
+                serie(i, a > b ? 1 : 0);
+                serie(j, b > a ? 1 : 0);
+            }
+            return this;
+        }
+
+        /**
+         * Counts a match in the streaks of a team, without branching on the
+         * result: random results would defeat the branch predictor.
+         */
+        private void serie(int i, int gagne) {
+            int longueur = (suffixe[i] + 1) * gagne;
+            suffixe[i] = longueur;
+            prefixe[i] += gagne & complet[i];
+            complet[i] &= gagne;
+            meilleure[i] = Math.max(meilleure[i], longueur);
+        }
+
+        /**
+         * Merges this range with the one that follows it.
+         */
+        Bloc suivi(Bloc suite) {
+            Bloc fusion = new Bloc(prefixe.length);
+            for (int k = 0; k < compteurs.length; k++) {
+                fusion.compteurs[k] = compteurs[k] + suite.compteurs[k];
+            }
+            for (int i = 0; i < prefixe.length; i++) {
+                fusion.prefixe[i] = prefixe[i] + complet[i] * suite.prefixe[i];
+                fusion.suffixe[i] = suite.suffixe[i] + suite.complet[i] * suffixe[i];
+                fusion.meilleure[i] = Math.max(Math.max(meilleure[i], suite.meilleure[i]),
+                        suffixe[i] + suite.prefixe[i]);
+                fusion.complet[i] = complet[i] & suite.complet[i];
+            }
+            return fusion;
+        }
+
+        Statistiques statistiques(int i) {
+            return new Statistiques(new Bilan(compteurs, i * CHAMPS + DOMICILE),
+                    new Bilan(compteurs, i * CHAMPS + EXTERIEUR), meilleure[i], suffixe[i]);
+        }
+    }
+
+    /**
+     * The results of a team over a set of matches, from its own side.
+     */
+    public static final class Bilan {
+        private final int victoires;
+        private final int nuls;
+        private final int defaites;
+        private final int butsMarques;
+        private final int butsEncaisses;
+
+        private Bilan(int[] compteurs, int k) {
+            this(compteurs[k + VICTOIRES], compteurs[k + NULS], compteurs[k + DEFAITES], compteurs[k + MARQUES],
+                    compteurs[k + ENCAISSES]);
+        }
+
+        Bilan(int victoires, int nuls, int defaites, int butsMarques, int butsEncaisses) {
+            this.victoires = victoires;
+            this.nuls = nuls;
+            this.defaites = defaites;
+            this.butsMarques = butsMarques;
+            this.butsEncaisses = butsEncaisses;
+        }
+
+        private Bilan plus(Bilan autre) {
+            return new Bilan(victoires + autre.victoires, nuls + autre.nuls, defaites + autre.defaites,
+                    butsMarques + autre.butsMarques, butsEncaisses + autre.butsEncaisses);
+        }
+
+        /**
+         * Gets the number of matches.
+         *
+         * @return the matches played.
+         */
+        public int getJoues() {
+            return victoires + nuls + defaites;
+        }
+
+        /**
+         * Gets the number of wins.
+         *
+         * @return the wins.
+         */
+        public int getVictoires() {
+            return victoires;
+        }
+
+        /**
+         * Gets the number of draws.
+         *
+         * @return the draws.
+         */
+        public int getNuls() {
+            return nuls;
+        }
+
+        /**
+         * Gets the number of losses.
+         *
+         * @return the losses.
+         */
+        public int getDefaites() {
+            return defaites;
+        }
+
+        /**
+         * Gets the goals scored.
+         *
+         * @return the goals scored.
+         */
+        public int getButsMarques() {
+            return butsMarques;
+        }
+
+        /**
+         * Gets the goals conceded.
+         *
+         * @return the goals conceded.
+         */
+        public int getButsEncaisses() {
+            return butsEncaisses;
+        }
+
+        /**
+         * Gets the points earned, as counted by {@link Match#points(int, int)}.
+         *
+         * @return the points.
+         */
+        public int getPoints() {
+            return Match.points(1, 0) * victoires + Match.points(0, 0) * nuls;
+        }
+    }
+
+    /**
+     * The statistics of a team over a range of matches.
+     */
+    public static final class Statistiques {
+        private final Bilan domicile;
+        private final Bilan exterieur;
+        private final int meilleureSerie;
+        private final int serieEnCours;
+
+        private Statistiques(Bilan domicile, Bilan exterieur, int meilleureSerie, int serieEnCours) {
+            this.domicile = domicile;
+            this.exterieur = exterieur;
+            this.meilleureSerie = meilleureSerie;
+            this.serieEnCours = serieEnCours;
+        }
+
+        /**
+         * Gets the record of all the matches.
+         *
+         * @return the home and away records added up.
+         */
+        public Bilan getTotal() {
+            return domicile.plus(exterieur);
+        }
+
+        /**
+         * Gets the record of the matches played at home.
+         *
+         * @return the home record.
+         */
+        public Bilan getDomicile() {
+            return domicile;
+        }
+
+        /**
+         * Gets the record of the matches played away.
+         *
+         * @return the away record.
+         */
+        public Bilan getExterieur() {
+            return exterieur;
+        }
+
+        /**
+         * Gets the longest run of consecutive wins.
+         *
+         * @return the number of wins in the longest run.
+         */
+        public int getMeilleureSerie() {
+            return meilleureSerie;
+        }
+
+        /**
+         * Gets the run of wins that ends with the last match.
+         *
+         * @return the number of wins since the last match not won.
+         */
+        public int getSerieEnCours() {
+            return serieEnCours;
+        }
+    }
+}
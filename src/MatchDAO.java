@@ -1,6 +1,9 @@
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Data Access Object (DAO) for managing Match records in the database.
@@ -14,7 +17,32 @@ import java.util.List;
  */
 public class MatchDAO {
 
-    private static MatchDAO instance;
+    private static final MatchDAO instance = new MatchDAO();
+
+    /**
+     * Returned by {@link #creerMatch(Match)} when the two teams already have an
+     * upcoming match in that order.
+     */
+    public static final int DOUBLON = -1;
+    /** MySQL error code of a duplicate key. */
+    private static final int ERREUR_DOUBLON = 1062;
+
+    private static final DaoMethodStats GET_MATCHES = DaoMetrics.methode("MatchDAO", "getMatches");
+    private static final DaoMethodStats PARCOURIR_MATCHES = DaoMetrics.methode("MatchDAO", "parcourirMatches");
+    private static final DaoMethodStats CREER_MATCH = DaoMetrics.methode("MatchDAO", "creerMatch");
+    private static final DaoMethodStats IMPORTER_MATCHS = DaoMetrics.methode("MatchDAO", "importerMatchs");
+    private static final DaoMethodStats MODIFIER_BUTS_MATCH = DaoMetrics.methode("MatchDAO", "modifierButsMatch");
+    private static final DaoMethodStats ENREGISTRER_RESULTAT = DaoMetrics.methode("MatchDAO",
+            "enregistrerResultat");
+    private static final DaoMethodStats ENREGISTRER_RESULTATS = DaoMetrics.methode("MatchDAO",
+            "enregistrerResultats");
+    private static final DaoMethodStats GET_CALENDRIER_A_VENIR = DaoMetrics.methode("MatchDAO",
+            "getCalendrierAVenir");
+    private static final DaoMethodStats GET_CALENDRIER_JOUE = DaoMetrics.methode("MatchDAO",
+            "getCalendrierJoue");
+    private static final DaoMethodStats GET_A_VENIR_PAR_PAIRE = DaoMetrics.methode("MatchDAO",
+            "getAVenirParPaire");
+    private static final DaoMethodStats GET_MATCHES_PAGE = DaoMetrics.methode("MatchDAO", "getMatchesPage");
 
     /**
      * Private constructor to prevent external instantiation.
@@ -28,9 +56,6 @@ public class MatchDAO {
      * @return the MatchDAO instance.
      */
     public static MatchDAO getInstance() {
-        if (instance == null) {
-            instance = new MatchDAO();
-        }
         return instance;
     }
 
@@ -40,78 +65,519 @@ public class MatchDAO {
      * @return a list of {@link Match} objects.
      */
     public List<Match> getMatches() {
-        List<Match> matches = new ArrayList<>();
         String query = "SELECT * FROM `match`;";
 
-        try (Connection con = DatabaseConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(query);
-                ResultSet rs = ps.executeQuery()) {
+        return DaoMetrics.mesurer(GET_MATCHES, new ArrayList<>(), List::size, () -> {
+            List<Match> matches = new ArrayList<>();
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query);
+                    ResultSet rs = ps.executeQuery()) {
 
-            while (rs.next()) {
-                int id = rs.getInt("id");
-                int equipe1Id = rs.getInt("equipe1Id");
-                int equipe2Id = rs.getInt("equipe2Id");
-                int nbButsEquipe1 = rs.getInt("nbButsEquipe1");
-                int nbButsEquipe2 = rs.getInt("nbButsEquipe2");
+                while (rs.next()) {
+                    int id = rs.getInt("id");
+                    int equipe1Id = rs.getInt("equipe1Id");
+                    int equipe2Id = rs.getInt("equipe2Id");
+                    int nbButsEquipe1 = rs.getInt("nbButsEquipe1");
+                    int nbButsEquipe2 = rs.getInt("nbButsEquipe2");
 
-                matches.add(new Match(id, new Equipe(equipe1Id), new Equipe(equipe2Id), nbButsEquipe1, nbButsEquipe2));
+                    matches.add(new Match(id, new Equipe(equipe1Id), new Equipe(equipe2Id), nbButsEquipe1,
+                            nbButsEquipe2));
+                }
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+            return matches;
+        });
+    }
 
-        return matches;
+    /**
+     * Callback receiving match rows one at a time from a streaming read.
+     *
+     * <p>
+     * Rows are passed as primitive values so that a full pass over the match
+     * history does not allocate per row.
+     * </p>
+     */
+    public interface MatchHandler {
+        /**
+         * Handles one match row.
+         *
+         * @param id            the match id
+         * @param equipe1Id     the id of the first team
+         * @param equipe2Id     the id of the second team
+         * @param nbButsEquipe1 the goals of the first team, -1 if not played
+         * @param nbButsEquipe2 the goals of the second team, -1 if not played
+         */
+        void match(int id, int equipe1Id, int equipe2Id, int nbButsEquipe1, int nbButsEquipe2);
+    }
+
+    /**
+     * Streams every match of the database, ordered by id, to a handler.
+     *
+     * <p>
+     * Unlike {@link #getMatches()}, rows are fetched one at a time using the
+     * driver's streaming mode, so memory use does not grow with the history.
+     * The handler must not issue other queries on this thread while the stream
+     * is open.
+     * </p>
+     *
+     * @param handler the {@link MatchHandler} receiving each row.
+     * @return the number of rows streamed.
+     */
+    public int parcourirMatches(MatchHandler handler) {
+        String query = "SELECT id, equipe1Id, equipe2Id, nbButsEquipe1, nbButsEquipe2 FROM `match` ORDER BY id";
+        return parcourir(query, handler);
+    }
+
+    /**
+     * Streams the matches involving at least one team of a league, ordered by
+     * id, to a handler.
+     *
+     * @param nomLigue the name of the league.
+     * @param handler  the {@link MatchHandler} receiving each row.
+     * @return the number of rows streamed.
+     * @see #parcourirMatches(MatchHandler)
+     */
+    public int parcourirMatches(String nomLigue, MatchHandler handler) {
+        String query = "SELECT id, equipe1Id, equipe2Id, nbButsEquipe1, nbButsEquipe2 FROM `match` "
+                + "WHERE equipe1Id IN (SELECT e.id FROM equipe e JOIN ligue l ON l.id = e.ligue_id WHERE l.nom = ?) "
+                + "OR equipe2Id IN (SELECT e.id FROM equipe e JOIN ligue l ON l.id = e.ligue_id WHERE l.nom = ?) "
+                + "ORDER BY id";
+        return parcourir(query, handler, nomLigue, nomLigue);
+    }
+
+    /**
+     * Runs a match query in streaming mode and passes each row to a handler.
+     *
+     * @param query   the query to run.
+     * @param handler the {@link MatchHandler} receiving each row.
+     * @param params  the string parameters of the query, in order.
+     * @return the number of rows streamed.
+     */
+    private int parcourir(String query, MatchHandler handler, String... params) {
+        int[] rows = new int[1]; // Kept on failure: the handler has seen these rows
+
+        DaoMetrics.mesurer(PARCOURIR_MATCHES, 0, lus -> rows[0], () -> {
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY,
+                            ResultSet.CONCUR_READ_ONLY)) {
+
+                // Integer.MIN_VALUE makes the MySQL driver stream rows instead of buffering them.
+                ps.setFetchSize(Integer.MIN_VALUE);
+                for (int i = 0; i < params.length; i++) {
+                    ps.setString(i + 1, params[i]);
+                }
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        handler.match(rs.getInt("id"), rs.getInt("equipe1Id"), rs.getInt("equipe2Id"),
+                                rs.getInt("nbButsEquipe1"), rs.getInt("nbButsEquipe2"));
+                        rows[0]++;
+                    }
+                }
+            }
+            return rows[0];
+        });
+        return rows[0];
     }
 
     /**
      * Creates a new match record in the database.
      *
+     * <p>
+     * The unique key {@code uk_match_a_venir_paire} allows one upcoming match
+     * per home and away team, so a second one is refused by the database even
+     * when it is created by another client at the same time.
+     * </p>
+     *
      * @param match the {@link Match} to create.
-     * @return the generated match id.
+     * @return the generated match id, {@link #DOUBLON} if the teams already
+     *         have an upcoming match in that order, 0 if the match could not
+     *         be created.
      */
     public int creerMatch(Match match) {
         String query = "INSERT INTO `match` (equipe1Id, equipe2Id, nbButsEquipe1, nbButsEquipe2) VALUES (?, ?, ?, ?)";
-        int idMatch = 0;
 
-        try (Connection con = DatabaseConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        int idMatch = DaoMetrics.mesurer(CREER_MATCH, 0, id -> id > 0 ? 1 : 0, () -> {
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
 
-            ps.setInt(1, match.getEquipe1().getId());
-            ps.setInt(2, match.getEquipe2().getId());
-            ps.setInt(3, match.getNbButsEquipe1());
-            ps.setInt(4, match.getNbButsEquipe2());
+                ps.setInt(1, match.getEquipe1().getId());
+                ps.setInt(2, match.getEquipe2().getId());
+                ps.setInt(3, match.getNbButsEquipe1());
+                ps.setInt(4, match.getNbButsEquipe2());
 
-            int affectedRows = ps.executeUpdate();
-            if (affectedRows > 0) {
-                try (ResultSet rs = ps.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        idMatch = rs.getInt(1);
+                int affectedRows = ps.executeUpdate();
+                if (affectedRows > 0) {
+                    try (ResultSet rs = ps.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            return rs.getInt(1);
+                        }
                     }
                 }
+            } catch (SQLIntegrityConstraintViolationException e) {
+                if (e.getErrorCode() != ERREUR_DOUBLON) {
+                    throw e;
+                }
+                return DOUBLON;
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
+            return 0;
+        });
+        if (idMatch > 0) {
+            LigueRevisions.incrementer(match.getNomLigue());
+            MatchEventLog.journaliser(MatchEventLog.CREATION, idMatch, match);
         }
         return idMatch;
     }
 
+    /**
+     * Writes a chunk of imported matches in a single transaction using batch
+     * processing.
+     *
+     * <p>
+     * Unplayed matches (-1 goals) are inserted as new fixtures. Played matches
+     * first complete the oldest pending fixture between the same two teams; only
+     * results without such a fixture are inserted as new played matches.
+     * </p>
+     *
+     * @param matches the {@link Match} objects of the chunk.
+     * @return an array holding the number of inserted rows and the number of
+     *         updated fixtures, in that order.
+     */
+    public int[] importerMatchs(List<Match> matches) {
+        String insertQuery = "INSERT INTO `match` (equipe1Id, equipe2Id, nbButsEquipe1, nbButsEquipe2) VALUES (?, ?, ?, ?)";
+        String updateQuery = "UPDATE `match` SET nbButsEquipe1 = ?, nbButsEquipe2 = ? "
+                + "WHERE equipe1Id = ? AND equipe2Id = ? AND nbButsEquipe1 = -1 ORDER BY id LIMIT 1";
+
+        return DaoMetrics.mesurer(IMPORTER_MATCHS, new int[2], counts -> counts[0] + counts[1], () -> {
+            int[] counts = new int[2];
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement insert = con.prepareStatement(insertQuery);
+                    PreparedStatement update = con.prepareStatement(updateQuery)) {
+
+                con.setAutoCommit(false); // One transaction per chunk
+
+                // Results try to complete an existing fixture first.
+                List<Match> resultats = new ArrayList<>();
+                for (Match match : matches) {
+                    if (match.getNbButsEquipe1() != -1 && match.getNbButsEquipe2() != -1) {
+                        update.setInt(1, match.getNbButsEquipe1());
+                        update.setInt(2, match.getNbButsEquipe2());
+                        update.setInt(3, match.getEquipe1().getId());
+                        update.setInt(4, match.getEquipe2().getId());
+                        update.addBatch();
+                        resultats.add(match);
+                    }
+                }
+                int[] updateCounts = resultats.isEmpty() ? new int[0] : update.executeBatch();
+
+                // Fixtures, and results that had no pending fixture, are inserted.
+                int resultatIndex = 0;
+                for (Match match : matches) {
+                    boolean resultat = match.getNbButsEquipe1() != -1 && match.getNbButsEquipe2() != -1;
+                    if (resultat && updateCounts[resultatIndex++] != 0) {
+                        counts[1]++;
+                        continue;
+                    }
+                    insert.setInt(1, match.getEquipe1().getId());
+                    insert.setInt(2, match.getEquipe2().getId());
+                    insert.setInt(3, match.getNbButsEquipe1());
+                    insert.setInt(4, match.getNbButsEquipe2());
+                    insert.addBatch();
+                    counts[0]++;
+                }
+                if (counts[0] > 0) {
+                    insert.executeBatch();
+                }
+
+                con.commit();
+            }
+            return counts;
+        });
+    }
+
     /**
      * Updates the number of goals for a match in the database.
      *
      * @param match the {@link Match} with updated scores.
+     * @return the number of rows updated.
      */
-    public void modifierButsMatch(Match match) {
+    public int modifierButsMatch(Match match) {
         String query = "UPDATE `match` SET nbButsEquipe1 = ?, nbButsEquipe2 = ? WHERE id = ?";
 
-        try (Connection con = DatabaseConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(query)) {
+        int rows = DaoMetrics.mesurer(MODIFIER_BUTS_MATCH, () -> {
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query)) {
+
+                ps.setInt(1, match.getNbButsEquipe1());
+                ps.setInt(2, match.getNbButsEquipe2());
+                ps.setInt(3, match.getId());
+                return ps.executeUpdate();
+            }
+        });
+        if (rows > 0) {
+            LigueRevisions.incrementer(match.getNomLigue());
+            MatchEventLog.journaliser(MatchEventLog.CORRECTION, match.getId(), match);
+        }
+        return rows;
+    }
+
+    /**
+     * Saves the result of an unplayed match and adds the points and Elo change
+     * it earned to both teams, in one transaction.
+     *
+     * <p>
+     * The score is only written if the match is still unplayed, so concurrent
+     * saves of the same match count its points once. Points and ratings are
+     * added to the stored values instead of overwriting them, and the two
+     * teams are updated in id order so that concurrent transactions lock them
+     * in the same order.
+     * </p>
+     *
+     * @param match         the played {@link Match}.
+     * @param pointsEquipe1 the points earned by the first team.
+     * @param pointsEquipe2 the points earned by the second team.
+     * @param variationElo  the Elo change of the first team; the second team
+     *                      gets the opposite change.
+     * @return the number of rows updated, 0 if the match was already played,
+     *         -1 if the database could not be reached.
+     */
+    public int enregistrerResultat(Match match, int pointsEquipe1, int pointsEquipe2, double variationElo) {
+        String matchQuery = "UPDATE `match` SET nbButsEquipe1 = ?, nbButsEquipe2 = ? "
+                + "WHERE id = ? AND nbButsEquipe1 = -1";
+        String pointsQuery = "UPDATE equipe SET points = points + ?, elo = elo + ? WHERE id = ?";
+
+        int rows = DaoMetrics.mesurer(ENREGISTRER_RESULTAT, -1, ecrites -> Math.max(ecrites, 0), () -> {
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement score = con.prepareStatement(matchQuery);
+                    PreparedStatement points = con.prepareStatement(pointsQuery)) {
 
-            ps.setInt(1, match.getNbButsEquipe1());
-            ps.setInt(2, match.getNbButsEquipe2());
-            ps.setInt(3, match.getId());
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
+                con.setAutoCommit(false);
+                score.setInt(1, match.getNbButsEquipe1());
+                score.setInt(2, match.getNbButsEquipe2());
+                score.setInt(3, match.getId());
+                if (score.executeUpdate() == 0) {
+                    con.rollback();
+                    return 0;
+                }
+                boolean ordre = match.getEquipe1().getId() <= match.getEquipe2().getId();
+                Equipe premiere = ordre ? match.getEquipe1() : match.getEquipe2();
+                Equipe seconde = ordre ? match.getEquipe2() : match.getEquipe1();
+                points.setInt(1, ordre ? pointsEquipe1 : pointsEquipe2);
+                points.setDouble(2, ordre ? variationElo : -variationElo);
+                points.setInt(3, premiere.getId());
+                points.addBatch();
+                points.setInt(1, ordre ? pointsEquipe2 : pointsEquipe1);
+                points.setDouble(2, ordre ? -variationElo : variationElo);
+                points.setInt(3, seconde.getId());
+                points.addBatch();
+                int ecrites = 1;
+                for (int count : points.executeBatch()) {
+                    ecrites += Math.max(count, 0);
+                }
+                con.commit();
+                return ecrites;
+            }
+        });
+        if (rows > 0) {
+            LigueRevisions.incrementer(match.getNomLigue());
+            MatchEventLog.journaliser(MatchEventLog.RESULTAT, match.getId(), match);
         }
+        return rows;
+    }
+
+    /**
+     * Saves the results of a chunk of played matches of one league in a single
+     * transaction using batch processing.
+     *
+     * <p>
+     * As in {@link #enregistrerResultat(Match, int, int, double)}, a score is
+     * only written if the match is still unplayed. The points and Elo changes
+     * of the saved matches are then summed per team and added with one update
+     * per team, in id order. Elo changes are chained in the order of the
+     * chunk, each match seeing the ratings left by the previous ones; they are
+     * applied to the {@link Equipe} objects once the transaction commits.
+     * </p>
+     *
+     * @param matches the played {@link Match} objects of the chunk.
+     * @return the matches saved, in chunk order; empty if the transaction
+     *         failed.
+     */
+    public List<Match> enregistrerResultats(List<Match> matches) {
+        String matchQuery = "UPDATE `match` SET nbButsEquipe1 = ?, nbButsEquipe2 = ? "
+                + "WHERE id = ? AND nbButsEquipe1 = -1";
+        String pointsQuery = "UPDATE equipe SET points = points + ?, elo = elo + ? WHERE id = ?";
+        Map<Equipe, double[]> elos = new HashMap<>(); // Rating before the chunk, then change
+
+        List<Match> sauvegardes = DaoMetrics.mesurer(ENREGISTRER_RESULTATS, new ArrayList<>(), List::size, () -> {
+            List<Match> enregistres = new ArrayList<>();
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement score = con.prepareStatement(matchQuery);
+                    PreparedStatement points = con.prepareStatement(pointsQuery)) {
+
+                con.setAutoCommit(false); // One transaction per chunk
+                for (Match match : matches) {
+                    score.setInt(1, match.getNbButsEquipe1());
+                    score.setInt(2, match.getNbButsEquipe2());
+                    score.setInt(3, match.getId());
+                    score.addBatch();
+                }
+                int[] counts = matches.isEmpty() ? new int[0] : score.executeBatch();
+
+                Map<Integer, Integer> deltas = new TreeMap<>();
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) {
+                        continue; // Already played
+                    }
+                    Match match = matches.get(i);
+                    int buts1 = match.getNbButsEquipe1();
+                    int buts2 = match.getNbButsEquipe2();
+                    deltas.merge(match.getEquipe1().getId(), Match.points(buts1, buts2), Integer::sum);
+                    deltas.merge(match.getEquipe2().getId(), Match.points(buts2, buts1), Integer::sum);
+                    double[] elo1 = elos.computeIfAbsent(match.getEquipe1(), e -> new double[] { e.getElo(), 0 });
+                    double[] elo2 = elos.computeIfAbsent(match.getEquipe2(), e -> new double[] { e.getElo(), 0 });
+                    double variation = EloRatings.variation(elo1[0] + elo1[1], elo2[0] + elo2[1], buts1, buts2);
+                    elo1[1] += variation;
+                    elo2[1] -= variation;
+                    enregistres.add(match);
+                }
+                Map<Integer, Double> variations = new HashMap<>();
+                for (Map.Entry<Equipe, double[]> elo : elos.entrySet()) {
+                    variations.merge(elo.getKey().getId(), elo.getValue()[1], Double::sum);
+                }
+                for (Map.Entry<Integer, Integer> delta : deltas.entrySet()) {
+                    points.setInt(1, delta.getValue());
+                    points.setDouble(2, variations.getOrDefault(delta.getKey(), 0.0));
+                    points.setInt(3, delta.getKey());
+                    points.addBatch();
+                }
+                if (!deltas.isEmpty()) {
+                    points.executeBatch();
+                }
+                con.commit();
+            }
+            return enregistres;
+        });
+        if (!sauvegardes.isEmpty()) {
+            for (Map.Entry<Equipe, double[]> elo : elos.entrySet()) {
+                elo.getKey().ajusterElo(elo.getValue()[1]);
+            }
+            LigueRevisions.incrementer(matches.get(0).getNomLigue());
+            for (Match match : sauvegardes) {
+                MatchEventLog.journaliser(MatchEventLog.RESULTAT, match.getId(), match);
+            }
+        }
+        return sauvegardes;
+    }
+
+    /**
+     * Retrieves the schedule of the unplayed matches of a league.
+     *
+     * @param nomLigue the name of the league.
+     * @return one row per unplayed match holding its id, season and matchday,
+     *         ordered by season, matchday and id. Matches created outside a
+     *         generated schedule have season and matchday 0.
+     */
+    public List<int[]> getCalendrierAVenir(String nomLigue) {
+        return calendrier(nomLigue, "SELECT m.id, m.saison, m.journee FROM `match` m "
+                + "JOIN equipe e ON e.id = m.equipe1Id JOIN ligue l ON l.id = e.ligue_id "
+                + "WHERE l.nom = ? AND m.nbButsEquipe1 = -1 ORDER BY m.saison, m.journee, m.id",
+                GET_CALENDRIER_A_VENIR);
+    }
+
+    /**
+     * Retrieves the schedule of the played matches of a league.
+     *
+     * @param nomLigue the name of the league.
+     * @return one row per played match holding its id, season and matchday,
+     *         ordered by season, matchday and id. Matches created outside a
+     *         generated schedule have season and matchday 0.
+     */
+    public List<int[]> getCalendrierJoue(String nomLigue) {
+        return calendrier(nomLigue, "SELECT m.id, m.saison, m.journee FROM `match` m "
+                + "JOIN equipe e ON e.id = m.equipe1Id JOIN ligue l ON l.id = e.ligue_id "
+                + "WHERE l.nom = ? AND m.nbButsEquipe1 <> -1 ORDER BY m.saison, m.journee, m.id",
+                GET_CALENDRIER_JOUE);
+    }
+
+    /**
+     * Counts the unplayed matches of a league by home and away team.
+     *
+     * @param nomLigue the name of the league.
+     * @return one row per pair of teams with at least one unplayed match,
+     *         holding the home team id, the away team id and the number of
+     *         such matches.
+     */
+    public List<int[]> getAVenirParPaire(String nomLigue) {
+        String query = "SELECT m.equipe1Id, m.equipe2Id, COUNT(*) AS nombre FROM `match` m "
+                + "JOIN equipe e ON e.id = m.equipe1Id JOIN ligue l ON l.id = e.ligue_id "
+                + "WHERE l.nom = ? AND m.nbButsEquipe1 = -1 GROUP BY m.equipe1Id, m.equipe2Id";
+
+        return DaoMetrics.mesurer(GET_A_VENIR_PAR_PAIRE, new ArrayList<>(), List::size, () -> {
+            List<int[]> paires = new ArrayList<>();
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query)) {
+
+                ps.setString(1, nomLigue);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        paires.add(new int[] { rs.getInt("equipe1Id"), rs.getInt("equipe2Id"), rs.getInt("nombre") });
+                    }
+                }
+            }
+            return paires;
+        });
+    }
+
+    private List<int[]> calendrier(String nomLigue, String query, DaoMethodStats stats) {
+        return DaoMetrics.mesurer(stats, new ArrayList<>(), List::size, () -> {
+            List<int[]> calendrier = new ArrayList<>();
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query)) {
+
+                ps.setString(1, nomLigue);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        calendrier.add(new int[] { rs.getInt("id"), rs.getInt("saison"), rs.getInt("journee") });
+                    }
+                }
+            }
+            return calendrier;
+        });
+    }
+
+    /**
+     * Retrieves a page of matches ordered by id, using keyset pagination.
+     *
+     * @param apresId the id of the last match of the previous page, 0 for the
+     *                first page.
+     * @param taille  the maximum number of matches in the page.
+     * @return a {@link Page} of {@link Match} objects.
+     */
+    public Page<Match> getMatches(int apresId, int taille) {
+        String query = "SELECT id, equipe1Id, equipe2Id, nbButsEquipe1, nbButsEquipe2 FROM `match` "
+                + "WHERE id > ? ORDER BY id LIMIT ?";
+        Page<Match> vide = new Page<>(new ArrayList<>(), taille, Match::getId, Match::getId);
+
+        return DaoMetrics.mesurer(GET_MATCHES_PAGE, vide, page -> page.getElements().size(), () -> {
+            List<Match> matches = new ArrayList<>();
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query)) {
+
+                ps.setInt(1, apresId);
+                ps.setInt(2, taille + 1);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int id = rs.getInt("id");
+                        int equipe1Id = rs.getInt("equipe1Id");
+                        int equipe2Id = rs.getInt("equipe2Id");
+                        int nbButsEquipe1 = rs.getInt("nbButsEquipe1");
+                        int nbButsEquipe2 = rs.getInt("nbButsEquipe2");
+
+                        matches.add(new Match(id, new Equipe(equipe1Id), new Equipe(equipe2Id), nbButsEquipe1,
+                                nbButsEquipe2));
+                    }
+                }
+            }
+            return new Page<>(matches, taille, Match::getId, Match::getId);
+        });
     }
 }
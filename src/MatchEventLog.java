@@ -0,0 +1,701 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Append-only log of the match events of the application.
+ *
+ * <p>
+ * Every match creation, saved result and score correction is appended as a
+ * fixed-size record of {@value #TAILLE_ENREGISTREMENT} bytes to a
+ * memory-mapped file, after the database write it mirrors succeeded. Nothing
+ * is ever overwritten, so the state at any point of the log can be rebuilt,
+ * and a bad write can be undone by replaying up to the event before it. The
+ * log is enabled by pointing the {@value #PROPRIETE} system property at a
+ * file; without it, {@link #getInstance()} returns null and nothing is
+ * written. Bulk loads that bypass {@link MatchDAO} one match at a time
+ * (generated data, CSV imports) are not logged; {@code MatchEventLog amorcer}
+ * seeds the log with the current matches of some leagues.
+ * </p>
+ *
+ * <p>
+ * The log keeps the {@link Etat state} its events lead to: results, points and
+ * Elo ratings, indexed by id in plain arrays. Every
+ * {@value #INTERVALLE_INSTANTANE} events a copy of that state is written in the
+ * background to a compact snapshot file next to the log, so that opening the
+ * log only replays the events after the last snapshot. Replay reads the
+ * mapped file sequentially and needs neither the database nor any object per
+ * event; see {@link #lire(Path, long)}.
+ * </p>
+ *
+ * <p>
+ * The type byte of a record is written last and each record carries a
+ * checksum, so a record torn by a crash is detected and the log ends before it.
+ * Mapped pages survive a crash of the process; {@link #synchroniser()} also
+ * makes them survive a crash of the machine.
+ * </p>
+ *
+ * @version 1.0
+ */
+public final class MatchEventLog {
+
+    /** The system property holding the path of the log file. */
+    public static final String PROPRIETE = "football.journal";
+
+    /** A match was created, with its score if it was already played. */
+    public static final byte CREATION = 1;
+    /** An unplayed match got its result; ignored if it already had one. */
+    public static final byte RESULTAT = 2;
+    /** The score of a match was overwritten. */
+    public static final byte CORRECTION = 3;
+
+    /** The size of a record, in bytes. */
+    public static final int TAILLE_ENREGISTREMENT = 32;
+    /** The number of events between two snapshots. */
+    public static final long INTERVALLE_INSTANTANE = 1 << 20;
+
+    private static final long MAGIE = 0x464F4F544C4F4731L; // "FOOTLOG1"
+    private static final long MAGIE_INSTANTANE = 0x464F4F54534E4131L; // "FOOTSNA1"
+    private static final int VERSION = 1;
+    /** The header takes the place of two records, so records never straddle a region. */
+    private static final int ENTETE = 2 * TAILLE_ENREGISTREMENT;
+    private static final int TAILLE_REGION = 1 << 26;
+
+    private final Path fichier;
+    private final FileChannel canal;
+    private final long identifiant;
+    private final List<MappedByteBuffer> regions = new ArrayList<>();
+    private final Etat etat;
+    private final ExecutorService instantanes = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "MatchEventLog-instantane");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** The offset of the next record. */
+    private long fin;
+
+    private MatchEventLog(Path fichier) throws IOException {
+        this.fichier = fichier;
+        this.canal = FileChannel.open(fichier, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (canal.size() == 0) {
+            MappedByteBuffer entete = region(0);
+            entete.putLong(0, MAGIE);
+            entete.putInt(8, VERSION);
+            entete.putInt(12, TAILLE_ENREGISTREMENT);
+            entete.putLong(16, System.nanoTime() ^ System.currentTimeMillis() << 20);
+        }
+        this.identifiant = verifierEntete(canal);
+        Etat instantane = lireInstantane(instantane(fichier), identifiant);
+        this.etat = instantane != null && contient(canal, instantane.sequence - 1) ? instantane : new Etat();
+        this.fin = rejouer(canal, ENTETE + etat.sequence * TAILLE_ENREGISTREMENT, Long.MAX_VALUE, etat);
+    }
+
+    private static final class Instance {
+        static final MatchEventLog JOURNAL = ouvrirConfigure();
+    }
+
+    private static MatchEventLog ouvrirConfigure() {
+        String chemin = System.getProperty(PROPRIETE);
+        if (chemin == null || chemin.isEmpty()) {
+            return null;
+        }
+        try {
+            return ouvrir(Paths.get(chemin));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Gets the log named by the {@value #PROPRIETE} system property, opened on
+     * first use.
+     *
+     * @return the log, or null if it is disabled or cannot be opened.
+     */
+    public static MatchEventLog getInstance() {
+        return Instance.JOURNAL;
+    }
+
+    /**
+     * Opens a log for appending, creating the file if needed.
+     *
+     * @param fichier the log file.
+     * @return the log, with its state replayed.
+     * @throws IOException if the file cannot be opened or is not a log.
+     */
+    public static MatchEventLog ouvrir(Path fichier) throws IOException {
+        return new MatchEventLog(fichier);
+    }
+
+    /**
+     * Appends an event about a match to the configured log, if any.
+     *
+     * @param type    {@link #CREATION}, {@link #RESULTAT} or
+     *                {@link #CORRECTION}.
+     * @param idMatch the match id, which the {@link Match} may not hold yet.
+     * @param match   the match, with its teams and current score.
+     */
+    static void journaliser(byte type, int idMatch, Match match) {
+        MatchEventLog journal = getInstance();
+        if (journal == null) {
+            return;
+        }
+        Ligue ligue = match.getEquipe1().getLigue() != null ? match.getEquipe1().getLigue()
+                : match.getEquipe2().getLigue();
+        int score = match.getScore();
+        journal.ajouter(type, ligue != null ? ligue.getId() : 0, idMatch, match.getEquipe1().getId(),
+                match.getEquipe2().getId(), MatchModel.butsEquipe1(score), MatchModel.butsEquipe2(score));
+    }
+
+    /**
+     * Appends an event.
+     *
+     * @param type    {@link #CREATION}, {@link #RESULTAT} or
+     *                {@link #CORRECTION}.
+     * @param idLigue the league id of the match, 0 if unknown.
+     * @param idMatch the match id.
+     * @param equipe1 the id of the first team.
+     * @param equipe2 the id of the second team.
+     * @param buts1   the goals of the first team, -1 if unplayed.
+     * @param buts2   the goals of the second team, -1 if unplayed.
+     * @throws IllegalArgumentException if the goals do not fit in a record,
+     *                                  that is are below -1 or above
+     *                                  {@link Match#BUTS_MAX}.
+     */
+    public synchronized void ajouter(byte type, int idLigue, int idMatch, int equipe1, int equipe2, int buts1,
+            int buts2) {
+        if (buts1 < -1 || buts2 < -1 || buts1 > Match.BUTS_MAX || buts2 > Match.BUTS_MAX) {
+            throw new IllegalArgumentException("Goals out of range for match " + idMatch + ": " + buts1 + "-" + buts2);
+        }
+        long horodatage = System.currentTimeMillis();
+        MappedByteBuffer region;
+        try {
+            region = region(fin);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        int o = (int) (fin % TAILLE_REGION);
+        region.put(o + 1, (byte) buts1);
+        region.put(o + 2, (byte) buts2);
+        region.putInt(o + 4, idLigue);
+        region.putInt(o + 8, idMatch);
+        region.putInt(o + 12, equipe1);
+        region.putInt(o + 16, equipe2);
+        region.putLong(o + 20, horodatage);
+        region.putInt(o + 28, controle(type, (byte) buts1, (byte) buts2, idLigue, idMatch, equipe1, equipe2,
+                horodatage));
+        region.put(o, type); // Last: the record exists from here on
+        fin += TAILLE_ENREGISTREMENT;
+        etat.appliquer(type, idLigue, idMatch, equipe1, equipe2, (byte) buts1, (byte) buts2);
+        if (etat.sequence % INTERVALLE_INSTANTANE == 0) {
+            Etat copie = etat.copie();
+            instantanes.execute(() -> ecrireInstantane(copie));
+        }
+    }
+
+    /**
+     * Gets a copy of the state the logged events lead to.
+     *
+     * @return the current {@link Etat}.
+     */
+    public synchronized Etat getEtat() {
+        return etat.copie();
+    }
+
+    /**
+     * Writes a snapshot of the current state now.
+     *
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public void instantane() throws IOException {
+        Etat copie;
+        synchronized (this) {
+            copie = etat.copie();
+        }
+        ecrireInstantane(copie, identifiant, instantane(fichier));
+    }
+
+    private void ecrireInstantane(Etat copie) {
+        try {
+            ecrireInstantane(copie, identifiant, instantane(fichier));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Forces the appended events to the storage device.
+     */
+    public synchronized void synchroniser() {
+        for (MappedByteBuffer region : regions) {
+            region.force();
+        }
+    }
+
+    /**
+     * Forces the log to the storage device and closes it.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    public synchronized void fermer() throws IOException {
+        synchroniser();
+        instantanes.shutdown();
+        canal.close();
+    }
+
+    /**
+     * Maps the region holding an offset, growing the file if needed.
+     */
+    private MappedByteBuffer region(long position) throws IOException {
+        int i = (int) (position / TAILLE_REGION);
+        while (regions.size() <= i) {
+            regions.add(canal.map(FileChannel.MapMode.READ_WRITE, (long) regions.size() * TAILLE_REGION,
+                    TAILLE_REGION));
+        }
+        return regions.get(i);
+    }
+
+    /**
+     * Replays a log file without opening it for writing, from its last usable
+     * snapshot.
+     *
+     * @param fichier     the log file.
+     * @param sequenceMax the number of events to replay at most; use
+     *                    {@link Long#MAX_VALUE} for the whole log, or the
+     *                    sequence number of a bad event to undo it and the
+     *                    events after it.
+     * @return the state after the replayed events.
+     * @throws IOException if the file cannot be read or is not a log.
+     */
+    public static Etat lire(Path fichier, long sequenceMax) throws IOException {
+        try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)) {
+            long identifiant = verifierEntete(canal);
+            Etat etat = lireInstantane(instantane(fichier), identifiant);
+            if (etat == null || etat.sequence > sequenceMax || !contient(canal, etat.sequence - 1)) {
+                etat = new Etat();
+            }
+            rejouer(canal, ENTETE + etat.sequence * TAILLE_ENREGISTREMENT, sequenceMax, etat);
+            return etat;
+        }
+    }
+
+    private static long verifierEntete(FileChannel canal) throws IOException {
+        if (canal.size() < ENTETE) {
+            throw new IOException("Not a match event log: too short");
+        }
+        MappedByteBuffer entete = canal.map(FileChannel.MapMode.READ_ONLY, 0, ENTETE);
+        if (entete.getLong(0) != MAGIE || entete.getInt(8) != VERSION
+                || entete.getInt(12) != TAILLE_ENREGISTREMENT) {
+            throw new IOException("Not a match event log, or an unsupported version");
+        }
+        return entete.getLong(16);
+    }
+
+    /**
+     * Applies the records of a log from an offset until its end, a torn record
+     * or the given number of events.
+     *
+     * @return the offset after the last applied record.
+     */
+    private static long rejouer(FileChannel canal, long position, long sequenceMax, Etat etat) throws IOException {
+        long taille = canal.size();
+        while (position + TAILLE_ENREGISTREMENT <= taille && etat.sequence < sequenceMax) {
+            long debutRegion = position / TAILLE_REGION * TAILLE_REGION;
+            MappedByteBuffer region = canal.map(FileChannel.MapMode.READ_ONLY, debutRegion,
+                    Math.min(TAILLE_REGION, taille - debutRegion));
+            int o = (int) (position - debutRegion);
+            for (; o + TAILLE_ENREGISTREMENT <= region.limit() && etat.sequence < sequenceMax;
+                    o += TAILLE_ENREGISTREMENT) {
+                byte type = region.get(o);
+                byte buts1 = region.get(o + 1);
+                byte buts2 = region.get(o + 2);
+                int idLigue = region.getInt(o + 4);
+                int idMatch = region.getInt(o + 8);
+                int equipe1 = region.getInt(o + 12);
+                int equipe2 = region.getInt(o + 16);
+                long horodatage = region.getLong(o + 20);
+                if (type == 0 || region.getInt(o + 28) != controle(type, buts1, buts2, idLigue, idMatch, equipe1,
+                        equipe2, horodatage)) {
+                    return debutRegion + o; // End of the log, or a torn record
+                }
+                etat.appliquer(type, idLigue, idMatch, equipe1, equipe2, buts1, buts2);
+            }
+            position = debutRegion + o;
+        }
+        return position;
+    }
+
+    /**
+     * Tells whether the log holds a complete record with a given sequence
+     * number, so that a snapshot taken after it can be trusted.
+     */
+    private static boolean contient(FileChannel canal, long sequence) throws IOException {
+        long position = ENTETE + sequence * TAILLE_ENREGISTREMENT;
+        if (sequence < 0 || position + TAILLE_ENREGISTREMENT > canal.size()) {
+            return sequence < 0;
+        }
+        MappedByteBuffer r = canal.map(FileChannel.MapMode.READ_ONLY, position, TAILLE_ENREGISTREMENT);
+        return r.get(0) != 0 && r.getInt(28) == controle(r.get(0), r.get(1), r.get(2), r.getInt(4), r.getInt(8),
+                r.getInt(12), r.getInt(16), r.getLong(20));
+    }
+
+    private static int controle(byte type, byte buts1, byte buts2, int idLigue, int idMatch, int equipe1,
+            int equipe2, long horodatage) {
+        long h = 0x9E3779B97F4A7C15L;
+        h = (h ^ (type & 0xFF | (buts1 & 0xFF) << 8 | (buts2 & 0xFF) << 16)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ idLigue) * 0x94D049BB133111EBL;
+        h = (h ^ idMatch) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ ((long) equipe1 << 32 | equipe2 & 0xFFFFFFFFL)) * 0x94D049BB133111EBL;
+        h = (h ^ horodatage) * 0xBF58476D1CE4E5B9L;
+        return (int) (h ^ h >>> 32);
+    }
+
+    private static Path instantane(Path fichier) {
+        return fichier.resolveSibling(fichier.getFileName() + ".instantane");
+    }
+
+    /**
+     * Writes a snapshot to a temporary file, then moves it over the previous
+     * one, so a crash leaves either snapshot whole.
+     */
+    private static void ecrireInstantane(Etat etat, long identifiant, Path cible) throws IOException {
+        Path temporaire = cible.resolveSibling(cible.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporaire), 1 << 16))) {
+            out.writeLong(MAGIE_INSTANTANE);
+            out.writeLong(identifiant);
+            etat.ecrire(out);
+        }
+        Files.move(temporaire, cible, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a snapshot, or returns null if there is none for this log.
+     */
+    private static Etat lireInstantane(Path fichier, long identifiant) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(fichier), 1 << 16))) {
+            if (in.readLong() != MAGIE_INSTANTANE || in.readLong() != identifiant) {
+                return null; // Left by another log
+            }
+            return Etat.lire(in);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The state the events of a log lead to.
+     *
+     * <p>
+     * Matches and teams are stored in arrays indexed by their id, which the
+     * database hands out densely. Points follow the results, corrections
+     * included, as {@link EquipeDAO#recalculerPoints(String)} would compute
+     * them. Elo ratings move with each result, in log order, as they do when
+     * results are saved; like the database, a correction does not move them.
+     * </p>
+     */
+    public static final class Etat {
+        private long sequence;
+        private int[] liguesMatchs = new int[1024];
+        private int[] equipes1 = new int[1024];
+        private int[] equipes2 = new int[1024];
+        private byte[] buts1 = new byte[1024];
+        private byte[] buts2 = new byte[1024];
+        private int[] liguesEquipes = new int[256];
+        private int[] points = new int[256];
+        /** The difference to {@link EloRatings#ELO_INITIAL}, so that new teams need no initialization. */
+        private double[] elos = new double[256];
+
+        private Etat() {
+        }
+
+        void appliquer(byte type, int idLigue, int idMatch, int equipe1, int equipe2, byte b1, byte b2) {
+            sequence++;
+            if (idMatch <= 0 || equipe1 <= 0 || equipe2 <= 0) {
+                return;
+            }
+            agrandirMatchs(idMatch);
+            agrandirEquipes(Math.max(equipe1, equipe2));
+            boolean connu = equipes1[idMatch] != 0;
+            boolean joue = connu && buts1[idMatch] >= 0 && buts2[idMatch] >= 0;
+            if (type == RESULTAT && joue) {
+                return; // As in the database, a result never overwrites another
+            }
+            if (!connu || type == CREATION) {
+                liguesMatchs[idMatch] = idLigue;
+                equipes1[idMatch] = equipe1;
+                equipes2[idMatch] = equipe2;
+                if (idLigue != 0) {
+                    liguesEquipes[equipe1] = idLigue;
+                    liguesEquipes[equipe2] = idLigue;
+                }
+            }
+            if (joue) {
+                points[equipes1[idMatch]] -= Match.points(buts1[idMatch], buts2[idMatch]);
+                points[equipes2[idMatch]] -= Match.points(buts2[idMatch], buts1[idMatch]);
+            }
+            buts1[idMatch] = b1;
+            buts2[idMatch] = b2;
+            if (b1 < 0 || b2 < 0) {
+                return;
+            }
+            int e1 = equipes1[idMatch];
+            int e2 = equipes2[idMatch];
+            points[e1] += Match.points(b1, b2);
+            points[e2] += Match.points(b2, b1);
+            if (type != CORRECTION && !joue) {
+                double variation = EloRatings.variation(EloRatings.ELO_INITIAL + elos[e1],
+                        EloRatings.ELO_INITIAL + elos[e2], b1, b2);
+                elos[e1] += variation;
+                elos[e2] -= variation;
+            }
+        }
+
+        private void agrandirMatchs(int id) {
+            if (id >= equipes1.length) {
+                int taille = Math.max(id + 1, equipes1.length * 2);
+                liguesMatchs = Arrays.copyOf(liguesMatchs, taille);
+                equipes1 = Arrays.copyOf(equipes1, taille);
+                equipes2 = Arrays.copyOf(equipes2, taille);
+                buts1 = Arrays.copyOf(buts1, taille);
+                buts2 = Arrays.copyOf(buts2, taille);
+            }
+        }
+
+        private void agrandirEquipes(int id) {
+            if (id >= points.length) {
+                int taille = Math.max(id + 1, points.length * 2);
+                liguesEquipes = Arrays.copyOf(liguesEquipes, taille);
+                points = Arrays.copyOf(points, taille);
+                elos = Arrays.copyOf(elos, taille);
+            }
+        }
+
+        Etat copie() {
+            Etat copie = new Etat();
+            copie.sequence = sequence;
+            copie.liguesMatchs = liguesMatchs.clone();
+            copie.equipes1 = equipes1.clone();
+            copie.equipes2 = equipes2.clone();
+            copie.buts1 = buts1.clone();
+            copie.buts2 = buts2.clone();
+            copie.liguesEquipes = liguesEquipes.clone();
+            copie.points = points.clone();
+            copie.elos = elos.clone();
+            return copie;
+        }
+
+        /**
+         * Gets the number of events applied.
+         *
+         * @return the sequence number of the next event.
+         */
+        public long getSequence() {
+            return sequence;
+        }
+
+        /**
+         * Tells whether a match was seen in the log.
+         *
+         * @param idMatch the match id.
+         * @return true if an event named the match.
+         */
+        public boolean contientMatch(int idMatch) {
+            return idMatch > 0 && idMatch < equipes1.length && equipes1[idMatch] != 0;
+        }
+
+        /**
+         * Gets the goals of the first team of a match.
+         *
+         * @param idMatch the match id.
+         * @return the goals, -1 if unplayed or unknown.
+         */
+        public int getButsEquipe1(int idMatch) {
+            return contientMatch(idMatch) ? buts1[idMatch] : -1;
+        }
+
+        /**
+         * Gets the goals of the second team of a match.
+         *
+         * @param idMatch the match id.
+         * @return the goals, -1 if unplayed or unknown.
+         */
+        public int getButsEquipe2(int idMatch) {
+            return contientMatch(idMatch) ? buts2[idMatch] : -1;
+        }
+
+        /**
+         * Gets the points of a team.
+         *
+         * @param idEquipe the team id.
+         * @return the points earned in the logged results.
+         */
+        public int getPoints(int idEquipe) {
+            return idEquipe > 0 && idEquipe < points.length ? points[idEquipe] : 0;
+        }
+
+        /**
+         * Gets the Elo rating of a team.
+         *
+         * @param idEquipe the team id.
+         * @return the rating after the logged results.
+         */
+        public double getElo(int idEquipe) {
+            return EloRatings.ELO_INITIAL + (idEquipe > 0 && idEquipe < elos.length ? elos[idEquipe] : 0);
+        }
+
+        /**
+         * Gets the standings of a league.
+         *
+         * @param idLigue the league id.
+         * @return the ids of the league's teams, by descending points and
+         *         ascending id.
+         */
+        public int[] getClassement(int idLigue) {
+            long[] cles = new long[points.length];
+            int n = 0;
+            for (int id = 1; id < points.length; id++) {
+                if (idLigue != 0 && liguesEquipes[id] == idLigue) {
+                    cles[n++] = ((long) (Integer.MAX_VALUE - points[id]) << 32) | id;
+                }
+            }
+            Arrays.sort(cles, 0, n);
+            int[] classement = new int[n];
+            for (int r = 0; r < n; r++) {
+                classement[r] = (int) cles[r];
+            }
+            return classement;
+        }
+
+        /**
+         * Writes the known matches and teams, skipping unused ids.
+         */
+        void ecrire(DataOutputStream out) throws IOException {
+            out.writeLong(sequence);
+            int matchs = 0;
+            for (int id = 1; id < equipes1.length; id++) {
+                matchs += equipes1[id] != 0 ? 1 : 0;
+            }
+            out.writeInt(equipes1.length);
+            out.writeInt(matchs);
+            for (int id = 1; id < equipes1.length; id++) {
+                if (equipes1[id] != 0) {
+                    out.writeInt(id);
+                    out.writeInt(liguesMatchs[id]);
+                    out.writeInt(equipes1[id]);
+                    out.writeInt(equipes2[id]);
+                    out.writeByte(buts1[id]);
+                    out.writeByte(buts2[id]);
+                }
+            }
+            int equipes = 0;
+            for (int id = 1; id < points.length; id++) {
+                equipes += points[id] != 0 || elos[id] != 0 || liguesEquipes[id] != 0 ? 1 : 0;
+            }
+            out.writeInt(points.length);
+            out.writeInt(equipes);
+            for (int id = 1; id < points.length; id++) {
+                if (points[id] != 0 || elos[id] != 0 || liguesEquipes[id] != 0) {
+                    out.writeInt(id);
+                    out.writeInt(liguesEquipes[id]);
+                    out.writeInt(points[id]);
+                    out.writeDouble(elos[id]);
+                }
+            }
+        }
+
+        static Etat lire(DataInputStream in) throws IOException {
+            Etat etat = new Etat();
+            etat.sequence = in.readLong();
+            etat.agrandirMatchs(in.readInt() - 1);
+            for (int n = in.readInt(); n > 0; n--) {
+                int id = in.readInt();
+                etat.liguesMatchs[id] = in.readInt();
+                etat.equipes1[id] = in.readInt();
+                etat.equipes2[id] = in.readInt();
+                etat.buts1[id] = in.readByte();
+                etat.buts2[id] = in.readByte();
+            }
+            etat.agrandirEquipes(in.readInt() - 1);
+            for (int n = in.readInt(); n > 0; n--) {
+                int id = in.readInt();
+                etat.liguesEquipes[id] = in.readInt();
+                etat.points[id] = in.readInt();
+                etat.elos[id] = in.readDouble();
+            }
+            return etat;
+        }
+    }
+
+    /**
+     * Seeds a log from the database or replays one without it.
+     *
+     * <p>
+     * {@code MatchEventLog amorcer FICHIER LIGUE...} appends a creation event,
+     * with its score, for every current match of the leagues.
+     * {@code MatchEventLog rejouer FICHIER [SEQUENCE]} replays the log, or its
+     * first events, and prints the replay rate and the standings of each
+     * league, by team id.
+     * </p>
+     *
+     * @param args the command and its arguments.
+     * @throws IOException if the log cannot be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || !args[0].equals("amorcer") && !args[0].equals("rejouer")) {
+            System.err.println("Usage: MatchEventLog amorcer FICHIER LIGUE...");
+            System.err.println("       MatchEventLog rejouer FICHIER [SEQUENCE]");
+            System.exit(1);
+        }
+        Path fichier = Paths.get(args[1]);
+        if (args[0].equals("amorcer")) {
+            SchemaMigrator.migrer();
+            MatchEventLog journal = ouvrir(fichier);
+            for (int i = 2; i < args.length; i++) {
+                int idLigue = LigueDAO.getInstance().getIdLigue(args[i]);
+                int evenements = MatchDAO.getInstance().parcourirMatches(args[i],
+                        (id, equipe1Id, equipe2Id, buts1, buts2) -> journal.ajouter(CREATION, idLigue, id, equipe1Id,
+                                equipe2Id, buts1, buts2));
+                System.out.println(args[i] + ": " + evenements + " matches logged");
+            }
+            journal.instantane();
+            journal.fermer();
+            return;
+        }
+
+        long sequenceMax = args.length > 2 ? Long.parseLong(args[2]) : Long.MAX_VALUE;
+        long debut = System.nanoTime();
+        Etat etat = lire(fichier, sequenceMax);
+        double secondes = Math.max(System.nanoTime() - debut, 1) / 1_000_000_000.0;
+        System.out.println(String.format(Locale.ROOT, "%d events in %.3f s (%.0f events/s)", etat.getSequence(),
+                secondes, etat.getSequence() / secondes));
+        int[] ligues = Arrays.stream(etat.liguesEquipes).filter(id -> id != 0).distinct().sorted().toArray();
+        for (int idLigue : ligues) {
+            System.out.println("Ligue " + idLigue + ":");
+            for (int idEquipe : etat.getClassement(idLigue)) {
+                System.out.println(String.format(Locale.ROOT, "  %6d %5d pts  elo %.1f", idEquipe,
+                        etat.getPoints(idEquipe), etat.getElo(idEquipe)));
+            }
+        }
+    }
+}
@@ -0,0 +1,301 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming importer for fixture lists and results received as CSV files.
+ *
+ * <p>
+ * Each line holds {@code equipe1,equipe2} for a fixture or
+ * {@code equipe1,equipe2,buts1,buts2} for a result. The file is read line by
+ * line, team names are resolved through an in-memory index of the league, and
+ * rows are written in chunks through {@link MatchDAO#importerMatchs(List)}, one
+ * transaction per chunk. Team points are recomputed once at the end.
+ * </p>
+ *
+ * <p>
+ * A fixture is skipped, and counted as a duplicate, when the same home and
+ * away teams already have an upcoming match, in the database or earlier in the
+ * file. The upcoming matches are counted per pair in a matrix over the teams
+ * of the league, loaded once at the start of the import, so the check does not
+ * depend on the size of the history.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class MatchImporter {
+
+    private static final int TAILLE_LOT = 1000;
+    private static final int LOTS_PAR_RAPPORT = 50;
+
+    private final String nomLigue;
+    private final Map<String, Equipe> index;
+    /** The position of each team in the pair matrices. */
+    private final Map<Integer, Integer> positions = new HashMap<>();
+    /** Upcoming matches of each pair, at position(home) * teams + position(away). */
+    private int[] aVenir;
+    /** Pairs with a fixture in the chunk being filled. */
+    private final BitSet fixturesDuLot = new BitSet();
+
+    /**
+     * Constructs a MatchImporter for the given league and builds its team index.
+     *
+     * @param nomLigue the name of the league the matches belong to.
+     */
+    public MatchImporter(String nomLigue) {
+        this.nomLigue = nomLigue;
+        this.index = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : EquipeDAO.getInstance().getIdsEquipes(nomLigue).entrySet()) {
+            index.put(normaliser(entry.getKey()), new Equipe(entry.getValue()));
+            positions.put(entry.getValue(), positions.size());
+        }
+    }
+
+    /**
+     * Imports a CSV file of fixtures and results.
+     *
+     * @param fichier the path of the CSV file.
+     * @return a {@link Rapport} summarizing the import.
+     * @throws IOException if the file cannot be read.
+     */
+    public Rapport importer(Path fichier) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(fichier, StandardCharsets.UTF_8)) {
+            return importer(reader);
+        }
+    }
+
+    /**
+     * Imports fixtures and results from a reader, one CSV row per line.
+     *
+     * @param reader the source of the CSV rows.
+     * @return a {@link Rapport} summarizing the import.
+     * @throws IOException if the source cannot be read.
+     */
+    public Rapport importer(BufferedReader reader) throws IOException {
+        Rapport rapport = new Rapport();
+        long debut = System.nanoTime();
+        List<Match> lot = new ArrayList<>(TAILLE_LOT);
+        List<String> champs = new ArrayList<>(4);
+        char separateur = 0;
+        int numeroLigne = 0;
+        int lots = 0;
+        String ligne;
+        chargerAVenir();
+
+        while ((ligne = reader.readLine()) != null) {
+            numeroLigne++;
+            if (ligne.trim().isEmpty()) {
+                continue;
+            }
+            if (separateur == 0) {
+                separateur = ligne.indexOf(';') >= 0 && ligne.indexOf(',') < 0 ? ';' : ',';
+            }
+            decouper(ligne, separateur, champs);
+            if (numeroLigne == 1 && champs.get(0).equalsIgnoreCase("equipe1")) {
+                continue; // Header row
+            }
+            rapport.lignes++;
+
+            Match match = lireMatch(champs);
+            if (match == null) {
+                rapport.rejetees++;
+                System.err.println("Line " + numeroLigne + " rejected: " + ligne);
+                continue;
+            }
+            int paire = paire(match);
+            if (match.getNbButsEquipe1() == -1) {
+                if (aVenir[paire] > 0) {
+                    rapport.doublons++;
+                    continue;
+                }
+                aVenir[paire]++;
+                fixturesDuLot.set(paire);
+            } else if (aVenir[paire] > 0) {
+                // The result completes that fixture, which must be written before it.
+                if (fixturesDuLot.get(paire)) {
+                    ecrire(lot, rapport);
+                }
+                aVenir[paire]--;
+            }
+            lot.add(match);
+
+            if (lot.size() == TAILLE_LOT) {
+                ecrire(lot, rapport);
+                if (++lots % LOTS_PAR_RAPPORT == 0) {
+                    System.out.println(rapport.lignes + " rows, "
+                            + Math.round(rapport.lignes / secondesDepuis(debut)) + " rows/s");
+                }
+            }
+        }
+        if (!lot.isEmpty()) {
+            ecrire(lot, rapport);
+        }
+
+        // Points and ratings are derived from the imported results once, not per row.
+        EquipeDAO.getInstance().recalculerPoints(nomLigue);
+        EloRatings.recalculer(nomLigue);
+
+        rapport.secondes = secondesDepuis(debut);
+        return rapport;
+    }
+
+    /**
+     * Counts the upcoming matches of the league by pair of teams.
+     */
+    private void chargerAVenir() {
+        int n = positions.size();
+        aVenir = new int[n * n];
+        for (int[] ligne : MatchDAO.getInstance().getAVenirParPaire(nomLigue)) {
+            Integer domicile = positions.get(ligne[0]);
+            Integer exterieur = positions.get(ligne[1]);
+            if (domicile != null && exterieur != null) {
+                aVenir[domicile * n + exterieur] = ligne[2];
+            }
+        }
+    }
+
+    private int paire(Match match) {
+        return positions.get(match.getEquipe1().getId()) * positions.size()
+                + positions.get(match.getEquipe2().getId());
+    }
+
+    /**
+     * Builds a match from the fields of a CSV row.
+     *
+     * @param champs the fields of the row.
+     * @return the {@link Match}, or null if the row is invalid, including goals
+     *         that are negative or above {@link Match#BUTS_MAX}.
+     */
+    private Match lireMatch(List<String> champs) {
+        if (champs.size() != 2 && champs.size() != 4) {
+            return null;
+        }
+        Equipe equipe1 = index.get(normaliser(champs.get(0)));
+        Equipe equipe2 = index.get(normaliser(champs.get(1)));
+        if (equipe1 == null || equipe2 == null || equipe1 == equipe2) {
+            return null;
+        }
+        if (champs.size() == 2) {
+            return new Match(equipe1, equipe2);
+        }
+        try {
+            int buts1 = Integer.parseInt(champs.get(2).trim());
+            int buts2 = Integer.parseInt(champs.get(3).trim());
+            if (buts1 < 0 || buts2 < 0 || buts1 > Match.BUTS_MAX || buts2 > Match.BUTS_MAX) {
+                return null;
+            }
+            return new Match(0, equipe1, equipe2, buts1, buts2);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes a chunk of matches and clears it.
+     *
+     * @param lot     the chunk to write.
+     * @param rapport the report to update.
+     */
+    private void ecrire(List<Match> lot, Rapport rapport) {
+        int[] counts = MatchDAO.getInstance().importerMatchs(lot);
+        rapport.inseres += counts[0];
+        rapport.modifies += counts[1];
+        if (counts[0] + counts[1] < lot.size()) {
+            rapport.echecs += lot.size() - counts[0] - counts[1];
+        }
+        lot.clear();
+        fixturesDuLot.clear();
+    }
+
+    /**
+     * Splits a CSV line into fields, honouring double-quoted values.
+     *
+     * @param ligne      the line to split.
+     * @param separateur the field separator.
+     * @param champs     the list receiving the fields, cleared first.
+     */
+    static void decouper(String ligne, char separateur, List<String> champs) {
+        champs.clear();
+        StringBuilder champ = new StringBuilder();
+        boolean guillemets = false;
+        for (int i = 0; i < ligne.length(); i++) {
+            char c = ligne.charAt(i);
+            if (c == '"') {
+                if (guillemets && i + 1 < ligne.length() && ligne.charAt(i + 1) == '"') {
+                    champ.append('"');
+                    i++;
+                } else {
+                    guillemets = !guillemets;
+                }
+            } else if (c == separateur && !guillemets) {
+                champs.add(champ.toString());
+                champ.setLength(0);
+            } else {
+                champ.append(c);
+            }
+        }
+        champs.add(champ.toString());
+    }
+
+    private static String normaliser(String nom) {
+        return nom.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static double secondesDepuis(long debut) {
+        return Math.max(System.nanoTime() - debut, 1) / 1_000_000_000.0;
+    }
+
+    /**
+     * Summary of an import run.
+     */
+    public static class Rapport {
+        int lignes;
+        int inseres;
+        int modifies;
+        int rejetees;
+        int doublons;
+        int echecs;
+        double secondes;
+
+        /**
+         * Gets the number of rows processed per second.
+         *
+         * @return the throughput of the import.
+         */
+        public double getLignesParSeconde() {
+            return secondes > 0 ? lignes / secondes : 0;
+        }
+
+        @Override
+        public String toString() {
+            return lignes + " rows in " + String.format(Locale.ROOT, "%.2f", secondes) + " s ("
+                    + Math.round(getLignesParSeconde()) + " rows/s): " + inseres + " inserted, " + modifies
+                    + " fixtures completed, " + rejetees + " rejected, " + doublons + " duplicate fixtures skipped, "
+                    + echecs + " failed";
+        }
+    }
+
+    /**
+     * Imports a CSV file from the command line.
+     *
+     * @param args the league name and the path of the CSV file.
+     * @throws IOException if the file cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: MatchImporter <ligue> <fichier.csv>");
+            System.exit(1);
+        }
+        Rapport rapport = new MatchImporter(args[0]).importer(Paths.get(args[1]));
+        System.out.println(rapport);
+    }
+}
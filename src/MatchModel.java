@@ -0,0 +1,71 @@
+import java.util.Collection;
+import java.util.Random;
+
+/**
+ * Model drawing the score of a simulated match.
+ *
+ * <p>
+ * {@link Match#simulerMatch()} asks the model of the league for a score. A
+ * score is returned as a single int, built with {@link #score(int, int)}, so
+ * that a draw allocates nothing; the first team of a match is the home team.
+ * Implementations must be safe for concurrent use.
+ * </p>
+ *
+ * @version 1.0
+ */
+public interface MatchModel {
+
+    /**
+     * Draws the score of a match.
+     *
+     * @param domicile  the home team, first team of the match.
+     * @param exterieur the away team.
+     * @param random    the source of the draw.
+     * @return the score, encoded with {@link #score(int, int)}.
+     */
+    int tirer(Equipe domicile, Equipe exterieur, Random random);
+
+    /**
+     * Gets a model that draws as this one does now, whatever happens to the
+     * teams afterwards. A model reading live team data, such as the ratings of
+     * {@link EloMatchModel}, captures it; others return themselves.
+     *
+     * @param equipes the teams whose data is captured.
+     * @return the frozen model.
+     */
+    default MatchModel figer(Collection<Equipe> equipes) {
+        return this;
+    }
+
+    /**
+     * Encodes a score. The goals of an unplayed match, -1, are kept, so a
+     * {@link Match} holds its score in this form too.
+     *
+     * @param butsEquipe1 the goals of the first team, from -1 to 32767.
+     * @param butsEquipe2 the goals of the second team, from -1 to 32767.
+     * @return the encoded score.
+     */
+    static int score(int butsEquipe1, int butsEquipe2) {
+        return butsEquipe1 << 16 | butsEquipe2 & 0xFFFF;
+    }
+
+    /**
+     * Gets the goals of the first team from an encoded score.
+     *
+     * @param score the encoded score.
+     * @return the goals of the first team.
+     */
+    static int butsEquipe1(int score) {
+        return score >> 16;
+    }
+
+    /**
+     * Gets the goals of the second team from an encoded score.
+     *
+     * @param score the encoded score.
+     * @return the goals of the second team.
+     */
+    static int butsEquipe2(int score) {
+        return (short) score;
+    }
+}
@@ -15,7 +15,7 @@ import java.awt.event.ActionListener;
  * @version 1.0
  */
 public class MatchPanel extends JPanel {
-    private JLabel team1Label, team2Label, scoreLabel, statusLabel;
+    private JLabel team1Label, team2Label, scoreLabel, statusLabel, headToHeadLabel;
     private JButton simulateButton, backButton;
     private Match currentMatch; // the match to display
 
@@ -82,6 +82,15 @@ public class MatchPanel extends JPanel {
         statusLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         matchDetailsPanel.add(statusLabel);
 
+        matchDetailsPanel.add(Box.createVerticalStrut(10));
+
+        // Head-to-head label
+        headToHeadLabel = new JLabel("Head-to-head: ", SwingConstants.CENTER);
+        headToHeadLabel.setFont(new Font("SansSerif", Font.PLAIN, 18));
+        headToHeadLabel.setForeground(Color.WHITE);
+        headToHeadLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        matchDetailsPanel.add(headToHeadLabel);
+
         centerWrapper.add(matchDetailsPanel);
         centerWrapper.add(Box.createVerticalGlue());
         add(centerWrapper, BorderLayout.CENTER);
@@ -97,8 +106,14 @@ public class MatchPanel extends JPanel {
             public void actionPerformed(ActionEvent e) {
                 if (currentMatch != null &&
                         (currentMatch.getNbButsEquipe1() == -1 || currentMatch.getNbButsEquipe2() == -1)) {
-                    currentMatch.simulerMatch();
-                    currentMatch.saveMatch();
+                    int rows = currentMatch.jouerMatch();
+                    if (rows == 0) {
+                        JOptionPane.showMessageDialog(MatchPanel.this, "This match has already been played.",
+                                "Simulate Match", JOptionPane.WARNING_MESSAGE);
+                    } else if (rows < 0) {
+                        JOptionPane.showMessageDialog(MatchPanel.this, "The result could not be saved.",
+                                "Simulate Match", JOptionPane.ERROR_MESSAGE);
+                    }
                     updateMatchDetails();
                 }
             }
@@ -131,8 +146,9 @@ public class MatchPanel extends JPanel {
         if (currentMatch != null) {
             team1Label.setText(currentMatch.getEquipe1().getNom());
             team2Label.setText(currentMatch.getEquipe2().getNom());
-            int score1 = currentMatch.getNbButsEquipe1();
-            int score2 = currentMatch.getNbButsEquipe2();
+            int score = currentMatch.getScore();
+            int score1 = MatchModel.butsEquipe1(score);
+            int score2 = MatchModel.butsEquipe2(score);
             if (score1 == -1 || score2 == -1) {
                 scoreLabel.setText("Score: Not played yet");
                 statusLabel.setText("Status: Upcoming");
@@ -142,6 +158,25 @@ public class MatchPanel extends JPanel {
                 statusLabel.setText("Status: Finished");
                 simulateButton.setEnabled(false);
             }
+            headToHeadLabel.setText("Head-to-head: " + headToHead(currentMatch));
+        }
+    }
+
+    /**
+     * Describes the previous results between the two teams of a match, from
+     * the first team's side.
+     */
+    private static String headToHead(Match match) {
+        Ligue ligue = match.getEquipe1().getLigue();
+        if (ligue == null) {
+            return "-";
+        }
+        MatchColumns.Bilan bilan = ligue.getConfrontations().getConfrontation(match.getEquipe1(), match.getEquipe2())
+                .getBilan(match.getEquipe1());
+        if (bilan.getJoues() == 0) {
+            return "first meeting";
         }
+        return bilan.getVictoires() + " W - " + bilan.getNuls() + " D - " + bilan.getDefaites() + " L ("
+                + bilan.getButsMarques() + " - " + bilan.getButsEncaisses() + ")";
     }
 }
@@ -0,0 +1,30 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event covering the persistence of a match result by
+ * {@link Match#jouerMatch()}.
+ *
+ * @version 1.0
+ */
+@Name("football.MatchSave")
+@Label("Match Save")
+@Category({ "Football", "Persistence" })
+@Description("Persistence of a match result and of the points of both teams")
+public class MatchSaveEvent extends jdk.jfr.Event {
+
+    @Label("Ligue")
+    String ligue;
+
+    @Label("Match Id")
+    int matchId;
+
+    @Label("Matches")
+    int matches;
+
+    @Label("Rows")
+    @Description("Number of rows written")
+    int rows;
+}
@@ -0,0 +1,83 @@
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * A page of results read with keyset (seek-based) pagination.
+ *
+ * <p>
+ * A page remembers the sort key and the id of its last element. Passing them
+ * back to the DAO method that produced the page fetches the next one with an
+ * index seek, so deep pages cost the same as the first one, unlike OFFSET.
+ * </p>
+ *
+ * @param <T> the type of the elements.
+ * @version 1.0
+ */
+public class Page<T> {
+    private final List<T> elements;
+    private final int derniereCle;
+    private final int dernierId;
+    private final boolean suivante;
+
+    /**
+     * Constructs a Page from rows read with a limit of one more than the page
+     * size. The extra row, if present, is dropped and only signals that a next
+     * page exists.
+     *
+     * @param rows   the rows read, at most {@code taille + 1}.
+     * @param taille the page size.
+     * @param cle    extracts the sort key of an element.
+     * @param id     extracts the id of an element.
+     */
+    Page(List<T> rows, int taille, ToIntFunction<T> cle, ToIntFunction<T> id) {
+        this.suivante = rows.size() > taille;
+        if (suivante) {
+            rows.remove(rows.size() - 1);
+        }
+        this.elements = rows;
+        if (rows.isEmpty()) {
+            this.derniereCle = 0;
+            this.dernierId = 0;
+        } else {
+            T dernier = rows.get(rows.size() - 1);
+            this.derniereCle = cle.applyAsInt(dernier);
+            this.dernierId = id.applyAsInt(dernier);
+        }
+    }
+
+    /**
+     * Gets the elements of the page.
+     *
+     * @return the elements, in sort order.
+     */
+    public List<T> getElements() {
+        return elements;
+    }
+
+    /**
+     * Gets the sort key of the last element, to pass back for the next page.
+     *
+     * @return the last sort key.
+     */
+    public int getDerniereCle() {
+        return derniereCle;
+    }
+
+    /**
+     * Gets the id of the last element, to pass back for the next page.
+     *
+     * @return the last id.
+     */
+    public int getDernierId() {
+        return dernierId;
+    }
+
+    /**
+     * Tells whether another page follows this one.
+     *
+     * @return true if there are more elements.
+     */
+    public boolean hasSuivante() {
+        return suivante;
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Immutable array of ints whose updates return a new array sharing most of its
+ * structure with the old one.
+ *
+ * <p>
+ * Values are stored in the leaves of a tree of branching factor 32. Setting a
+ * value copies only the nodes on the path to its leaf, so an update costs
+ * {@code O(log32 n)} time and memory, and any number of versions of a large
+ * array can be kept side by side. Instances are immutable and can be shared
+ * between threads.
+ * </p>
+ *
+ * @version 1.0
+ */
+public final class PersistentIntArray {
+
+    private static final int BITS = 5;
+    private static final int LARGEUR = 1 << BITS;
+    private static final int MASQUE = LARGEUR - 1;
+
+    private final int taille;
+    /** Bit shift of the root level: 0 when the root is a leaf. */
+    private final int decalage;
+    /** An int[] leaf, or an Object[] of child nodes. */
+    private final Object racine;
+
+    private PersistentIntArray(int taille, int decalage, Object racine) {
+        this.taille = taille;
+        this.decalage = decalage;
+        this.racine = racine;
+    }
+
+    /**
+     * Creates an array holding a copy of some values.
+     *
+     * @param valeurs the values.
+     * @return the new array.
+     */
+    public static PersistentIntArray de(int[] valeurs) {
+        int decalage = 0;
+        while ((long) LARGEUR << decalage < valeurs.length) {
+            decalage += BITS;
+        }
+        return new PersistentIntArray(valeurs.length, decalage, construire(valeurs, 0, decalage));
+    }
+
+    private static Object construire(int[] valeurs, int debut, int decalage) {
+        if (decalage == 0) {
+            int[] feuille = new int[LARGEUR];
+            System.arraycopy(valeurs, debut, feuille, 0, Math.max(0, Math.min(LARGEUR, valeurs.length - debut)));
+            return feuille;
+        }
+        Object[] noeud = new Object[LARGEUR];
+        int pas = 1 << decalage;
+        for (int i = 0; i < LARGEUR && debut + i * pas < valeurs.length; i++) {
+            noeud[i] = construire(valeurs, debut + i * pas, decalage - BITS);
+        }
+        return noeud;
+    }
+
+    /**
+     * Gets the number of values.
+     *
+     * @return the size of the array.
+     */
+    public int taille() {
+        return taille;
+    }
+
+    /**
+     * Gets a value.
+     *
+     * @param index the index of the value.
+     * @return the value.
+     * @throws IndexOutOfBoundsException if the index is outside the array.
+     */
+    public int get(int index) {
+        verifier(index);
+        Object noeud = racine;
+        for (int d = decalage; d > 0; d -= BITS) {
+            noeud = ((Object[]) noeud)[(index >>> d) & MASQUE];
+        }
+        return ((int[]) noeud)[index & MASQUE];
+    }
+
+    /**
+     * Gets an array with one value replaced. This array is unchanged.
+     *
+     * @param index  the index of the value.
+     * @param valeur the new value.
+     * @return the new array, or this one if the value is unchanged.
+     * @throws IndexOutOfBoundsException if the index is outside the array.
+     */
+    public PersistentIntArray set(int index, int valeur) {
+        if (get(index) == valeur) {
+            return this;
+        }
+        return new PersistentIntArray(taille, decalage, remplacer(racine, decalage, index, valeur));
+    }
+
+    private static Object remplacer(Object noeud, int decalage, int index, int valeur) {
+        if (decalage == 0) {
+            int[] feuille = ((int[]) noeud).clone();
+            feuille[index & MASQUE] = valeur;
+            return feuille;
+        }
+        Object[] copie = ((Object[]) noeud).clone();
+        int i = (index >>> decalage) & MASQUE;
+        copie[i] = remplacer(copie[i], decalage - BITS, index, valeur);
+        return copie;
+    }
+
+    /**
+     * Copies the values into a new plain array.
+     *
+     * @return the values.
+     */
+    public int[] toArray() {
+        int[] valeurs = new int[taille];
+        copier(racine, decalage, 0, valeurs);
+        return valeurs;
+    }
+
+    private static void copier(Object noeud, int decalage, int debut, int[] valeurs) {
+        if (decalage == 0) {
+            System.arraycopy((int[]) noeud, 0, valeurs, debut, Math.min(LARGEUR, valeurs.length - debut));
+            return;
+        }
+        Object[] enfants = (Object[]) noeud;
+        int pas = 1 << decalage;
+        for (int i = 0; i < LARGEUR && enfants[i] != null; i++) {
+            copier(enfants[i], decalage - BITS, debut + i * pas, valeurs);
+        }
+    }
+
+    private void verifier(int index) {
+        if (index < 0 || index >= taille) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + taille);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Match model in which each team's goals follow a Poisson distribution
+ * driven by attack and defense ratings.
+ *
+ * <p>
+ * The home team scores on average {@code moyenneDomicile * attaque(domicile) *
+ * defense(exterieur)} goals and the away team
+ * {@code moyenneExterieur * attaque(exterieur) * defense(domicile)}. A rating
+ * of 1 is the league average; an attack above 1 scores more, a defense above 1
+ * concedes more. Scores are capped at {@value #BUTS_MAX} goals per team.
+ * </p>
+ *
+ * <p>
+ * The score distribution of each ordered pair of teams is turned into an
+ * {@link AliasTable} on its first draw and kept, so a draw costs one binary
+ * search per team and one uniform double. Tables are published without
+ * locking: two threads may build the same table once, which is harmless since
+ * tables are immutable.
+ * </p>
+ *
+ * @version 1.0
+ */
+public final class PoissonMatchModel implements MatchModel {
+
+    /** The highest number of goals a team can score. */
+    public static final int BUTS_MAX = 10;
+
+    /** Home goals per match used when there is no history. */
+    public static final double MOYENNE_DOMICILE = 1.5;
+    /** Away goals per match used when there is no history. */
+    public static final double MOYENNE_EXTERIEUR = 1.15;
+
+    /** Weight, in average matches, pulling the ratings of teams with few matches towards 1. */
+    private static final double MATCHS_A_PRIORI = 5;
+
+    static final int SCORES = BUTS_MAX + 1;
+
+    private final double moyenneDomicile;
+    private final double moyenneExterieur;
+    /** Team ids, sorted; the ratings are stored at the same index. */
+    private final int[] ids;
+    private final double[] attaques;
+    private final double[] defenses;
+    /** The table of the pair (i, j) is at i * (ids.length + 1) + j; index ids.length is an average team. */
+    private final AliasTable[] tables;
+
+    /**
+     * Constructs a model from explicit ratings.
+     *
+     * @param moyenneDomicile  the average goals of a home team.
+     * @param moyenneExterieur the average goals of an away team.
+     * @param attaques         the attack rating of each team, by team id.
+     * @param defenses         the defense rating of each team, by team id;
+     *                         teams missing here have a defense of 1.
+     */
+    public PoissonMatchModel(double moyenneDomicile, double moyenneExterieur, Map<Integer, Double> attaques,
+            Map<Integer, Double> defenses) {
+        this.moyenneDomicile = moyenneDomicile;
+        this.moyenneExterieur = moyenneExterieur;
+        this.ids = attaques.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        this.attaques = new double[ids.length + 1];
+        this.defenses = new double[ids.length + 1];
+        for (int i = 0; i < ids.length; i++) {
+            this.attaques[i] = attaques.get(ids[i]);
+            this.defenses[i] = defenses.getOrDefault(ids[i], 1.0);
+        }
+        this.attaques[ids.length] = 1;
+        this.defenses[ids.length] = 1;
+        this.tables = new AliasTable[(ids.length + 1) * (ids.length + 1)];
+    }
+
+    /**
+     * Estimates the ratings of the teams of a league from its played matches.
+     *
+     * <p>
+     * A team's attack is its goals scored per match divided by the league
+     * average, and its defense its goals conceded per match divided by the
+     * same average. Both are computed as if each team had also played a few
+     * average matches, so that a team with little history stays close to 1.
+     * </p>
+     *
+     * @param ligue the {@link Ligue} whose history is used.
+     * @return the estimated model.
+     */
+    public static PoissonMatchModel estimer(Ligue ligue) {
+        Map<Integer, int[]> totaux = new HashMap<>(); // Matches, goals scored, goals conceded
+        for (Equipe equipe : ligue.getEquipes()) {
+            totaux.put(equipe.getId(), new int[3]);
+        }
+        long butsDomicile = 0;
+        long butsExterieur = 0;
+        int joues = 0;
+        for (Match match : ligue.getMatches()) {
+            int score = match.getScore();
+            if (score == Match.NON_JOUE) {
+                continue;
+            }
+            int buts1 = MatchModel.butsEquipe1(score);
+            int buts2 = MatchModel.butsEquipe2(score);
+            ajouter(totaux, match.getEquipe1().getId(), buts1, buts2);
+            ajouter(totaux, match.getEquipe2().getId(), buts2, buts1);
+            butsDomicile += buts1;
+            butsExterieur += buts2;
+            joues++;
+        }
+
+        double moyenneDomicile = joues > 0 ? (double) butsDomicile / joues : MOYENNE_DOMICILE;
+        double moyenneExterieur = joues > 0 ? (double) butsExterieur / joues : MOYENNE_EXTERIEUR;
+        double moyenne = Math.max((moyenneDomicile + moyenneExterieur) / 2, 0.01);
+        Map<Integer, Double> attaques = new HashMap<>();
+        Map<Integer, Double> defenses = new HashMap<>();
+        for (Map.Entry<Integer, int[]> entry : totaux.entrySet()) {
+            int[] t = entry.getValue();
+            double matchs = t[0] + MATCHS_A_PRIORI;
+            attaques.put(entry.getKey(), (t[1] + MATCHS_A_PRIORI * moyenne) / matchs / moyenne);
+            defenses.put(entry.getKey(), (t[2] + MATCHS_A_PRIORI * moyenne) / matchs / moyenne);
+        }
+        return new PoissonMatchModel(moyenneDomicile, moyenneExterieur, attaques, defenses);
+    }
+
+    private static void ajouter(Map<Integer, int[]> totaux, int id, int marques, int encaisses) {
+        int[] t = totaux.computeIfAbsent(id, cle -> new int[3]);
+        t[0]++;
+        t[1] += marques;
+        t[2] += encaisses;
+    }
+
+    @Override
+    public int tirer(Equipe domicile, Equipe exterieur, Random random) {
+        int i = index(domicile.getId());
+        int j = index(exterieur.getId());
+        int cle = i * (ids.length + 1) + j;
+        AliasTable table = tables[cle];
+        if (table == null) {
+            table = new AliasTable(scores(moyenneDomicile * attaques[i] * defenses[j],
+                    moyenneExterieur * attaques[j] * defenses[i]));
+            tables[cle] = table;
+        }
+        int tirage = table.tirer(random);
+        return MatchModel.score(tirage / SCORES, tirage % SCORES);
+    }
+
+    /**
+     * Gets the average goals of the home team in a match.
+     *
+     * @param domicile  the home team.
+     * @param exterieur the away team.
+     * @return the expected goals of the home team.
+     */
+    public double getButsAttendusDomicile(Equipe domicile, Equipe exterieur) {
+        return moyenneDomicile * attaques[index(domicile.getId())] * defenses[index(exterieur.getId())];
+    }
+
+    /**
+     * Gets the average goals of the away team in a match.
+     *
+     * @param domicile  the home team.
+     * @param exterieur the away team.
+     * @return the expected goals of the away team.
+     */
+    public double getButsAttendusExterieur(Equipe domicile, Equipe exterieur) {
+        return moyenneExterieur * attaques[index(exterieur.getId())] * defenses[index(domicile.getId())];
+    }
+
+    /**
+     * Gets the rating index of a team, or the index of the average team if it
+     * has no ratings.
+     */
+    private int index(int id) {
+        int i = Arrays.binarySearch(ids, id);
+        return i >= 0 ? i : ids.length;
+    }
+
+    /**
+     * Computes the probability of every score from the two expected goal
+     * counts, both teams scoring independently.
+     */
+    static double[] scores(double lambda1, double lambda2) {
+        double[] p1 = poisson(lambda1);
+        double[] p2 = poisson(lambda2);
+        double[] scores = new double[SCORES * SCORES];
+        for (int b1 = 0; b1 < SCORES; b1++) {
+            for (int b2 = 0; b2 < SCORES; b2++) {
+                scores[b1 * SCORES + b2] = p1[b1] * p2[b2];
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Computes the Poisson probabilities of 0 to {@value #BUTS_MAX} goals. The
+     * tail beyond the cap is dropped and the rest renormalized by the alias
+     * table.
+     */
+    private static double[] poisson(double lambda) {
+        double[] p = new double[SCORES];
+        p[0] = Math.exp(-lambda);
+        for (int k = 1; k < SCORES; k++) {
+            p[k] = p[k - 1] * lambda / k;
+        }
+        return p;
+    }
+}
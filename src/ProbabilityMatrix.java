@@ -0,0 +1,187 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Outcome probabilities of every ordered pair of teams of a league.
+ *
+ * <p>
+ * For each pair (domicile, exterieur) the matrix holds the probabilities of a
+ * home win, a draw and an away win, computed by
+ * {@link EloMatchModel#issues(double, double, double[], int)} from the
+ * teams' Elo ratings. They are stored in one flat array, three doubles per
+ * pair, at {@code ((i * n) + j) * 3}, where {@code i} and {@code j} are the
+ * indexes of the teams in the sorted id array.
+ * </p>
+ *
+ * <p>
+ * The matrix is published as an immutable {@link Instantane} that any number
+ * of threads can read without locking. A rating change only marks the team as
+ * stale; the next reader copies the array and recomputes the row and the
+ * column of each stale team, then publishes the copy. Several results saved
+ * between two reads therefore cost a single copy.
+ * </p>
+ *
+ * @version 1.0
+ */
+public final class ProbabilityMatrix {
+
+    /** Offset of the home win probability of a pair. */
+    public static final int DOMICILE = 0;
+    /** Offset of the draw probability of a pair. */
+    public static final int NUL = 1;
+    /** Offset of the away win probability of a pair. */
+    public static final int EXTERIEUR = 2;
+
+    private final EloMatchModel modele;
+    private final Equipe[] equipes;
+    private final int[] ids;
+    /** Indexes of the teams whose rating changed since the last snapshot. */
+    private final BitSet perimes;
+    /** Whether {@link #perimes} is not empty, read without locking. */
+    private volatile boolean perime;
+    private volatile Instantane instantane;
+
+    /**
+     * Builds the matrix of a set of teams.
+     *
+     * @param equipes the teams; their current ratings are used.
+     * @param modele  the model whose averages turn ratings into probabilities.
+     */
+    public ProbabilityMatrix(List<Equipe> equipes, EloMatchModel modele) {
+        this.modele = modele;
+        Equipe[] triees = equipes.toArray(new Equipe[0]);
+        Arrays.sort(triees, (e1, e2) -> Integer.compare(e1.getId(), e2.getId()));
+        this.equipes = triees;
+        this.ids = new int[triees.length];
+        for (int i = 0; i < triees.length; i++) {
+            ids[i] = triees[i].getId();
+        }
+        this.perimes = new BitSet(triees.length);
+        perimes.set(0, triees.length);
+        this.instantane = actualiser(new Instantane(ids, new double[triees.length],
+                new double[triees.length * triees.length * 3]));
+    }
+
+    /**
+     * Marks the rating of a team as changed. The probabilities involving the
+     * team are recomputed on the next read.
+     *
+     * @param equipe the team whose rating changed; ignored if it is not part
+     *               of the matrix.
+     */
+    public void marquer(Equipe equipe) {
+        int i = Arrays.binarySearch(ids, equipe.getId());
+        if (i >= 0) {
+            synchronized (perimes) {
+                perimes.set(i);
+                perime = true;
+            }
+        }
+    }
+
+    /**
+     * Gets the current probabilities, after recomputing those of the teams
+     * whose rating changed.
+     *
+     * @return an immutable snapshot of the matrix.
+     */
+    public Instantane instantane() {
+        if (perime) {
+            synchronized (perimes) {
+                if (perime) {
+                    instantane = actualiser(instantane);
+                }
+            }
+        }
+        return instantane;
+    }
+
+    /**
+     * Copies a snapshot and recomputes the rows and columns of the stale
+     * teams. Called with the lock on {@link #perimes} held.
+     */
+    private Instantane actualiser(Instantane courant) {
+        int n = ids.length;
+        double[] elos = courant.elos.clone();
+        double[] probabilites = courant.probabilites.clone();
+        for (int i = perimes.nextSetBit(0); i >= 0; i = perimes.nextSetBit(i + 1)) {
+            elos[i] = equipes[i].getElo();
+        }
+        for (int i = perimes.nextSetBit(0); i >= 0; i = perimes.nextSetBit(i + 1)) {
+            for (int j = 0; j < n; j++) {
+                modele.issues(elos[i], elos[j], probabilites, (i * n + j) * 3);
+                modele.issues(elos[j], elos[i], probabilites, (j * n + i) * 3);
+            }
+        }
+        perimes.clear();
+        perime = false;
+        return new Instantane(ids, elos, probabilites);
+    }
+
+    /**
+     * An immutable state of the matrix.
+     */
+    public static final class Instantane {
+        private final int[] ids;
+        private final double[] elos;
+        private final double[] probabilites;
+
+        private Instantane(int[] ids, double[] elos, double[] probabilites) {
+            this.ids = ids;
+            this.elos = elos;
+            this.probabilites = probabilites;
+        }
+
+        /**
+         * Gets one outcome probability of a match.
+         *
+         * @param domicile  the home team.
+         * @param exterieur the away team.
+         * @param issue     {@link #DOMICILE}, {@link #NUL} or
+         *                  {@link #EXTERIEUR}.
+         * @return the probability, or NaN if a team is not part of the matrix.
+         */
+        public double getProbabilite(Equipe domicile, Equipe exterieur, int issue) {
+            int i = Arrays.binarySearch(ids, domicile.getId());
+            int j = Arrays.binarySearch(ids, exterieur.getId());
+            if (i < 0 || j < 0) {
+                return Double.NaN;
+            }
+            return probabilites[(i * ids.length + j) * 3 + issue];
+        }
+
+        /**
+         * Gets the probability that the home team wins.
+         *
+         * @param domicile  the home team.
+         * @param exterieur the away team.
+         * @return the probability, or NaN if a team is not part of the matrix.
+         */
+        public double getVictoireDomicile(Equipe domicile, Equipe exterieur) {
+            return getProbabilite(domicile, exterieur, DOMICILE);
+        }
+
+        /**
+         * Gets the probability of a draw.
+         *
+         * @param domicile  the home team.
+         * @param exterieur the away team.
+         * @return the probability, or NaN if a team is not part of the matrix.
+         */
+        public double getNul(Equipe domicile, Equipe exterieur) {
+            return getProbabilite(domicile, exterieur, NUL);
+        }
+
+        /**
+         * Gets the probability that the away team wins.
+         *
+         * @param domicile  the home team.
+         * @param exterieur the away team.
+         * @return the probability, or NaN if a team is not part of the matrix.
+         */
+        public double getVictoireExterieur(Equipe domicile, Equipe exterieur) {
+            return getProbabilite(domicile, exterieur, EXTERIEUR);
+        }
+    }
+}
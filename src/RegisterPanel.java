@@ -121,12 +121,18 @@ public class RegisterPanel extends JPanel implements ActionListener {
         if (username.isEmpty() || password.isEmpty() || !password.equals(confirmPassword)) {
             errorLabel.setText("Please fill all fields correctly.");
         } else {
-            errorLabel.setText("");
-            UserDAO.getInstance().register(username, password);
-            // Set the current league and navigate to LiguePanel.
-            MainWindow mainWindow = MainWindow.getInstance();
-            mainWindow.setCurrentLigue(new Ligue("Ligue 1"));
-            mainWindow.showPanel(MainWindow.LIGUE_PANEL);
+            int resultat = UserDAO.getInstance().register(username, password);
+            if (resultat == UserDAO.DOUBLON) {
+                errorLabel.setText("This username is already taken.");
+            } else if (resultat <= 0) {
+                errorLabel.setText("Registration failed, please try again.");
+            } else {
+                errorLabel.setText("");
+                // Set the current league and navigate to LiguePanel.
+                MainWindow mainWindow = MainWindow.getInstance();
+                mainWindow.ouvrirLigue("Ligue 1");
+                mainWindow.showPanel(MainWindow.LIGUE_PANEL);
+            }
         }
     }
 }
@@ -0,0 +1,337 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * A hypothetical state of a league, for "what if" questions.
+ *
+ * <p>
+ * A scenario is forked from the live {@link Ligue} with {@link #de(Ligue)} or
+ * {@link #de(Ligue, MatchModel)} and then changed by fixing or simulating
+ * results. Every change returns a new
+ * scenario and leaves the old one untouched; the live teams and matches are
+ * only read, and nothing is ever saved.
+ * </p>
+ *
+ * <p>
+ * The teams, the fixtures and the match model are captured once and shared by
+ * every scenario of the fork. Points and results are held in
+ * {@link PersistentIntArray}s, so fixing a result copies a few small nodes
+ * rather than the league, and thousands of branches can live side by side.
+ * Scenarios are immutable and can be used from any thread;
+ * {@link #projeter(int, long)} plays many branches in parallel.
+ * </p>
+ *
+ * @version 1.0
+ */
+public final class Scenario {
+
+    /** The result of a match that has not been played. */
+    private static final int NON_JOUE = Match.NON_JOUE;
+
+    private final Base base;
+    private final PersistentIntArray points;
+    private final PersistentIntArray resultats;
+
+    private Scenario(Base base, PersistentIntArray points, PersistentIntArray resultats) {
+        this.base = base;
+        this.points = points;
+        this.resultats = resultats;
+    }
+
+    /**
+     * Forks a scenario from the current state of a league, simulating with a
+     * {@link PoissonMatchModel} estimated from its played matches.
+     *
+     * @param ligue the league.
+     * @return a scenario with the league's points and results.
+     */
+    public static Scenario de(Ligue ligue) {
+        return de(ligue, PoissonMatchModel.estimer(ligue));
+    }
+
+    /**
+     * Forks a scenario from the current state of a league, simulating with the
+     * given model. The model is frozen with {@link MatchModel#figer}, so the
+     * ratings it reads are those of the fork.
+     *
+     * @param ligue  the league.
+     * @param modele the model drawing the simulated results.
+     * @return a scenario with the league's points and results.
+     */
+    public static Scenario de(Ligue ligue, MatchModel modele) {
+        Base base = new Base(ligue, modele);
+        int[] points = new int[base.equipes.length];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = base.equipes[i].getPoints();
+        }
+        int[] resultats = new int[base.matchs.length];
+        for (int k = 0; k < resultats.length; k++) {
+            resultats[k] = base.matchs[k].getScore();
+        }
+        return new Scenario(base, PersistentIntArray.de(points), PersistentIntArray.de(resultats));
+    }
+
+    /**
+     * Gets a scenario in which a match ends with the given score. A result the
+     * match already had in this scenario is replaced.
+     *
+     * @param idMatch     the match id.
+     * @param butsEquipe1 the goals of the first team.
+     * @param butsEquipe2 the goals of the second team.
+     * @return the new scenario.
+     * @throws IllegalArgumentException if the match is not part of the league
+     *                                  or a score is negative.
+     */
+    public Scenario fixer(int idMatch, int butsEquipe1, int butsEquipe2) {
+        int k = Arrays.binarySearch(base.idsMatchs, idMatch);
+        if (k < 0) {
+            throw new IllegalArgumentException("Unknown match: " + idMatch);
+        }
+        if (butsEquipe1 < 0 || butsEquipe2 < 0 || butsEquipe1 > 0xFFFF || butsEquipe2 > 0xFFFF) {
+            throw new IllegalArgumentException("Invalid score: " + butsEquipe1 + "-" + butsEquipe2);
+        }
+        return jouer(k, MatchModel.score(butsEquipe1, butsEquipe2));
+    }
+
+    /**
+     * Gets a scenario in which every match without a result is simulated with
+     * the model of the fork.
+     *
+     * @param random the source of the draws.
+     * @return the new scenario.
+     */
+    public Scenario simuler(Random random) {
+        Scenario scenario = this;
+        for (int k = 0; k < base.matchs.length; k++) {
+            if (resultats.get(k) == NON_JOUE) {
+                Match match = base.matchs[k];
+                scenario = scenario.jouer(k, base.modele.tirer(match.getEquipe1(), match.getEquipe2(), random));
+            }
+        }
+        return scenario;
+    }
+
+    /**
+     * Records a result, taking back the points of the previous one if any.
+     */
+    private Scenario jouer(int k, int score) {
+        PersistentIntArray nouveauxPoints = points;
+        int ancien = resultats.get(k);
+        if (ancien != NON_JOUE) {
+            nouveauxPoints = crediter(nouveauxPoints, k, ancien, -1);
+        }
+        nouveauxPoints = crediter(nouveauxPoints, k, score, 1);
+        return new Scenario(base, nouveauxPoints, resultats.set(k, score));
+    }
+
+    private PersistentIntArray crediter(PersistentIntArray points, int k, int score, int signe) {
+        int buts1 = MatchModel.butsEquipe1(score);
+        int buts2 = MatchModel.butsEquipe2(score);
+        int i = base.equipe1[k];
+        int j = base.equipe2[k];
+        if (i >= 0) {
+            points = points.set(i, points.get(i) + signe * Match.points(buts1, buts2));
+        }
+        if (j >= 0) {
+            points = points.set(j, points.get(j) + signe * Match.points(buts2, buts1));
+        }
+        return points;
+    }
+
+    /**
+     * Gets the points of a team in this scenario.
+     *
+     * @param equipe the team.
+     * @return its points.
+     * @throws IllegalArgumentException if the team is not part of the league.
+     */
+    public int getPoints(Equipe equipe) {
+        return points.get(base.index(equipe));
+    }
+
+    /**
+     * Tells whether a match has a result in this scenario.
+     *
+     * @param idMatch the match id.
+     * @return true if the match was played, fixed or simulated.
+     * @throws IllegalArgumentException if the match is not part of the league.
+     */
+    public boolean isJoue(int idMatch) {
+        int k = Arrays.binarySearch(base.idsMatchs, idMatch);
+        if (k < 0) {
+            throw new IllegalArgumentException("Unknown match: " + idMatch);
+        }
+        return resultats.get(k) != NON_JOUE;
+    }
+
+    /**
+     * Gets the standings of this scenario.
+     *
+     * @return the teams by descending points; teams with equal points keep
+     *         their order in the league when the scenario was forked.
+     */
+    public List<Equipe> getClassement() {
+        int[] ordre = classer(points);
+        Equipe[] classement = new Equipe[ordre.length];
+        for (int r = 0; r < ordre.length; r++) {
+            classement[r] = base.equipes[ordre[r]];
+        }
+        return Collections.unmodifiableList(Arrays.asList(classement));
+    }
+
+    /**
+     * Ranks the teams of a scenario, as indexes into {@link Base#equipes}.
+     */
+    private static int[] classer(PersistentIntArray points) {
+        int[] valeurs = points.toArray();
+        long[] cles = new long[valeurs.length];
+        for (int i = 0; i < valeurs.length; i++) {
+            cles[i] = ((long) (Integer.MAX_VALUE - valeurs[i]) << 32) | i;
+        }
+        Arrays.sort(cles);
+        int[] ordre = new int[cles.length];
+        for (int r = 0; r < cles.length; r++) {
+            ordre[r] = (int) cles[r];
+        }
+        return ordre;
+    }
+
+    /**
+     * Simulates the rest of the season many times from this scenario and
+     * counts where each team finishes.
+     *
+     * <p>
+     * Branches run in parallel and are discarded as soon as they are ranked.
+     * Branch {@code b} draws from a generator seeded with {@code graine} and
+     * {@code b}, so a projection is reproducible whatever the number of
+     * threads.
+     * </p>
+     *
+     * @param branches the number of simulated seasons.
+     * @param graine   the seed of the projection.
+     * @return the finishing positions of the teams.
+     */
+    public Projection projeter(int branches, long graine) {
+        int n = base.equipes.length;
+        int[] positions = IntStream.range(0, branches).parallel()
+                .mapToObj(b -> classer(simuler(new Random(graine ^ (b * 0x9E3779B97F4A7C15L))).points))
+                .collect(() -> new int[n * n], (compte, ordre) -> {
+                    for (int r = 0; r < ordre.length; r++) {
+                        compte[ordre[r] * n + r]++;
+                    }
+                }, (a, b) -> {
+                    for (int i = 0; i < a.length; i++) {
+                        a[i] += b[i];
+                    }
+                });
+        return new Projection(base, branches, positions);
+    }
+
+    /**
+     * The finishing positions of the teams over the branches of a projection.
+     */
+    public static final class Projection {
+        private final Base base;
+        private final int branches;
+        /** The count of team i finishing at rank r is at i * n + r. */
+        private final int[] positions;
+
+        private Projection(Base base, int branches, int[] positions) {
+            this.base = base;
+            this.branches = branches;
+            this.positions = positions;
+        }
+
+        /**
+         * Gets the number of simulated seasons.
+         *
+         * @return the number of branches.
+         */
+        public int getBranches() {
+            return branches;
+        }
+
+        /**
+         * Gets the share of branches in which a team finishes at a position.
+         *
+         * @param equipe   the team.
+         * @param position the position, 1 for the first.
+         * @return the probability, between 0 and 1.
+         * @throws IllegalArgumentException if the team is not part of the
+         *                                  league.
+         */
+        public double getProbabilite(Equipe equipe, int position) {
+            int n = base.equipes.length;
+            if (position < 1 || position > n || branches == 0) {
+                return 0;
+            }
+            return (double) positions[base.index(equipe) * n + position - 1] / branches;
+        }
+
+        /**
+         * Gets the average finishing position of a team.
+         *
+         * @param equipe the team.
+         * @return the average position, 1 for the first; NaN without branches.
+         * @throws IllegalArgumentException if the team is not part of the
+         *                                  league.
+         */
+        public double getPositionMoyenne(Equipe equipe) {
+            int n = base.equipes.length;
+            int i = base.index(equipe);
+            long somme = 0;
+            for (int r = 0; r < n; r++) {
+                somme += (long) positions[i * n + r] * (r + 1);
+            }
+            return (double) somme / branches;
+        }
+    }
+
+    /**
+     * What the scenarios of a fork share: the teams, the fixtures and the
+     * model, captured when the fork is made.
+     */
+    private static final class Base {
+        /** The teams, in the league's order at the time of the fork. */
+        final Equipe[] equipes;
+        final Map<Integer, Integer> indexEquipes = new HashMap<>();
+        /** The matches, by ascending id. */
+        final Match[] matchs;
+        final int[] idsMatchs;
+        /** The index of each match's first team, or -1 if it plays in another league. */
+        final int[] equipe1;
+        final int[] equipe2;
+        final MatchModel modele;
+
+        Base(Ligue ligue, MatchModel modele) {
+            equipes = ligue.getEquipes().toArray(new Equipe[0]);
+            for (int i = 0; i < equipes.length; i++) {
+                indexEquipes.put(equipes[i].getId(), i);
+            }
+            matchs = ligue.getMatches().toArray(new Match[0]);
+            Arrays.sort(matchs, (m1, m2) -> Integer.compare(m1.getId(), m2.getId()));
+            idsMatchs = new int[matchs.length];
+            equipe1 = new int[matchs.length];
+            equipe2 = new int[matchs.length];
+            for (int k = 0; k < matchs.length; k++) {
+                idsMatchs[k] = matchs[k].getId();
+                equipe1[k] = indexEquipes.getOrDefault(matchs[k].getEquipe1().getId(), -1);
+                equipe2[k] = indexEquipes.getOrDefault(matchs[k].getEquipe2().getId(), -1);
+            }
+            this.modele = modele.figer(Arrays.asList(equipes));
+        }
+
+        int index(Equipe equipe) {
+            Integer i = indexEquipes.get(equipe.getId());
+            if (i == null) {
+                throw new IllegalArgumentException("Unknown team: " + equipe.getId());
+            }
+            return i;
+        }
+    }
+}
@@ -0,0 +1,376 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Versioned schema migration runner.
+ *
+ * <p>
+ * The applied version is recorded in the {@code schema_version} table. On
+ * startup, every migration newer than that version is applied in order, so
+ * databases created from an older football.sql are brought up to the current
+ * schema. When migrations run, a few representative queries are timed before
+ * and after so the effect of the new schema can be checked.
+ * </p>
+ *
+ * <p>
+ * MySQL commits each DDL statement on its own, so a migration that fails
+ * midway cannot be rolled back. Every step can therefore be run again: it is
+ * either idempotent, or skipped when information_schema shows that the
+ * column, index or constraint it adds is already there. A migration
+ * interrupted midway is simply run again from its first step on the next
+ * start. Steps never delete user accounts; a conflict that needs a decision
+ * fails the migration with the rows to fix.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class SchemaMigrator {
+
+    /**
+     * Ordered migrations. Version 1 is the original schema of football.sql.
+     */
+    private static final Migration[] MIGRATIONS = {
+            new Migration(1, "Baseline schema"),
+            new Migration(2, "Normalized ligue table referenced by an integer key",
+                    toujours("CREATE TABLE IF NOT EXISTS `ligue` (id INT UNSIGNED PRIMARY KEY AUTO_INCREMENT, "
+                            + "nom VARCHAR(100) NOT NULL, UNIQUE KEY uk_ligue_nom (nom)) "
+                            + "ENGINE=InnoDB DEFAULT CHARSET=latin1"),
+                    siColonnePresente("equipe", "ligue",
+                            "INSERT IGNORE INTO `ligue` (nom) SELECT DISTINCT ligue FROM equipe"),
+                    siColonneAbsente("equipe", "ligue_id",
+                            "ALTER TABLE equipe ADD COLUMN ligue_id INT UNSIGNED NULL AFTER nom"),
+                    siColonnePresente("equipe", "ligue",
+                            "UPDATE equipe e JOIN `ligue` l ON l.nom = e.ligue SET e.ligue_id = l.id"),
+                    toujours("ALTER TABLE equipe MODIFY ligue_id INT UNSIGNED NOT NULL"),
+                    siColonnePresente("equipe", "ligue", "ALTER TABLE equipe DROP COLUMN ligue"),
+                    siIndexAbsent("equipe", "idx_equipe_ligue",
+                            "ALTER TABLE equipe ADD INDEX idx_equipe_ligue (ligue_id)"),
+                    siIndexAbsent("equipe", "idx_equipe_ligue_points",
+                            "ALTER TABLE equipe ADD INDEX idx_equipe_ligue_points (ligue_id, points)"),
+                    siContrainteAbsente("equipe", "fk_equipe_ligue", "ALTER TABLE equipe "
+                            + "ADD CONSTRAINT fk_equipe_ligue FOREIGN KEY (ligue_id) REFERENCES `ligue`(id)")),
+            new Migration(3, "Secondary indexes and unique usernames",
+                    siIndexAbsent("match", "idx_match_equipe1", "ALTER TABLE `match` "
+                            + "ADD INDEX idx_match_equipe1 (equipe1Id, nbButsEquipe1, nbButsEquipe2)"),
+                    siIndexAbsent("match", "idx_match_equipe2", "ALTER TABLE `match` "
+                            + "ADD INDEX idx_match_equipe2 (equipe2Id, nbButsEquipe1, nbButsEquipe2)"),
+                    siIndexAbsent("joueur", "idx_joueur_equipe_numero",
+                            "ALTER TABLE joueur ADD INDEX idx_joueur_equipe_numero (equipe_id, numeroMaillot)"),
+                    // Accounts are never deleted: duplicates must be renamed or merged by hand first.
+                    siIndexAbsent("user", "uk_user_username", aucuneLigne(
+                            "SELECT username FROM `user` GROUP BY username HAVING COUNT(*) > 1 ORDER BY username",
+                            "Usernames shared by several accounts must be renamed or merged before they can be "
+                                    + "made unique")),
+                    siIndexAbsent("user", "uk_user_username",
+                            "ALTER TABLE `user` ADD UNIQUE KEY uk_user_username (username)")),
+            new Migration(4, "Season and matchday of matches",
+                    siColonneAbsente("match", "saison",
+                            "ALTER TABLE `match` ADD COLUMN saison SMALLINT UNSIGNED NOT NULL DEFAULT 0"),
+                    siColonneAbsente("match", "journee",
+                            "ALTER TABLE `match` ADD COLUMN journee SMALLINT UNSIGNED NOT NULL DEFAULT 0")),
+            new Migration(5, "Elo rating of teams",
+                    siColonneAbsente("equipe", "elo",
+                            "ALTER TABLE equipe ADD COLUMN elo DOUBLE NOT NULL DEFAULT 1500 AFTER points")),
+            new Migration(6, "One fixture per home and away team in each season",
+                    // Unplayed duplicates go; played ones are kept, outside the schedule.
+                    toujours("DELETE m1 FROM `match` m1 JOIN `match` m2 ON m2.saison = m1.saison "
+                            + "AND m2.equipe1Id = m1.equipe1Id AND m2.equipe2Id = m1.equipe2Id AND m2.id <> m1.id "
+                            + "WHERE m1.saison <> 0 AND m1.nbButsEquipe1 = -1 "
+                            + "AND (m2.nbButsEquipe1 <> -1 OR m2.id < m1.id)"),
+                    toujours("UPDATE `match` m1 JOIN `match` m2 ON m2.saison = m1.saison "
+                            + "AND m2.equipe1Id = m1.equipe1Id AND m2.equipe2Id = m1.equipe2Id AND m2.id < m1.id "
+                            + "SET m1.saison = 0, m1.journee = 0 WHERE m1.saison <> 0"),
+                    siColonneAbsente("match", "saison_calendrier", "ALTER TABLE `match` "
+                            + "ADD COLUMN saison_calendrier SMALLINT UNSIGNED AS (NULLIF(saison, 0)) VIRTUAL"),
+                    siIndexAbsent("match", "uk_match_saison_paire", "ALTER TABLE `match` "
+                            + "ADD UNIQUE KEY uk_match_saison_paire (saison_calendrier, equipe1Id, equipe2Id)")),
+            new Migration(7, "One upcoming match per home and away team",
+                    // The oldest upcoming match of each pair stays; played matches are never touched.
+                    toujours("DELETE m1 FROM `match` m1 JOIN `match` m2 ON m2.equipe1Id = m1.equipe1Id "
+                            + "AND m2.equipe2Id = m1.equipe2Id AND m2.id < m1.id AND m2.nbButsEquipe1 = -1 "
+                            + "WHERE m1.nbButsEquipe1 = -1"),
+                    siColonneAbsente("match", "a_venir", "ALTER TABLE `match` "
+                            + "ADD COLUMN a_venir TINYINT AS (IF(nbButsEquipe1 = -1, 1, NULL)) VIRTUAL"),
+                    siIndexAbsent("match", "uk_match_a_venir_paire", "ALTER TABLE `match` "
+                            + "ADD UNIQUE KEY uk_match_a_venir_paire (a_venir, equipe1Id, equipe2Id)")),
+    };
+
+    private static final int ITERATIONS_SONDE = 20;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private SchemaMigrator() {
+    }
+
+    /**
+     * Gets the schema version this code expects.
+     *
+     * @return the latest migration version.
+     */
+    public static int getVersionCourante() {
+        return MIGRATIONS[MIGRATIONS.length - 1].version;
+    }
+
+    /**
+     * Applies every pending migration in order.
+     *
+     * <p>
+     * Migration stops at the first failure; the failed migration and the later
+     * ones are retried on the next start.
+     * </p>
+     *
+     * @return the schema version after migration, or -1 if the database could
+     *         not be reached or a migration failed.
+     */
+    public static int migrer() {
+        try (Connection con = DatabaseConnection.getConnection();
+                Statement st = con.createStatement()) {
+
+            st.executeUpdate("CREATE TABLE IF NOT EXISTS schema_version (version INT UNSIGNED PRIMARY KEY, "
+                    + "description VARCHAR(255) NOT NULL, applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP) "
+                    + "ENGINE=InnoDB DEFAULT CHARSET=latin1");
+
+            int version = 0;
+            try (ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+                if (rs.next()) {
+                    version = rs.getInt(1);
+                }
+            }
+            if (version >= getVersionCourante()) {
+                return version;
+            }
+
+            Map<String, Double> avant = mesurer(con);
+
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version <= version) {
+                    continue;
+                }
+                long debut = System.nanoTime();
+                for (Etape etape : migration.etapes) {
+                    etape.appliquer(con);
+                }
+                try (PreparedStatement ps = con
+                        .prepareStatement("INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                    ps.setInt(1, migration.version);
+                    ps.setString(2, migration.description);
+                    ps.executeUpdate();
+                }
+                version = migration.version;
+                System.out.println("Schema migrated to version " + migration.version + " ("
+                        + migration.description + ") in " + (System.nanoTime() - debut) / 1_000_000 + " ms");
+            }
+
+            Map<String, Double> apres = mesurer(con);
+            for (Map.Entry<String, Double> entry : avant.entrySet()) {
+                System.out.println(String.format(Locale.ROOT, "  %-12s before %9.1f us, after %9.1f us",
+                        entry.getKey(), entry.getValue(), apres.get(entry.getKey())));
+            }
+            return version;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Times the queries behind the most frequent DAO calls on the current
+     * schema.
+     *
+     * @param con the connection to use.
+     * @return the average time of each query, in microseconds.
+     * @throws SQLException if a database access error occurs.
+     */
+    private static Map<String, Double> mesurer(Connection con) throws SQLException {
+        boolean normalise = colonneExiste(con, "equipe", "ligue_id");
+        String requeteLigue = normalise ? "SELECT nom FROM `ligue` ORDER BY id LIMIT 1"
+                : "SELECT ligue FROM equipe ORDER BY id LIMIT 1";
+
+        Map<String, Double> temps = new LinkedHashMap<>();
+        temps.put("login", chronometrer(con, "SELECT id FROM `user` WHERE username = ?",
+                premiereValeur(con, "SELECT username FROM `user` ORDER BY id DESC LIMIT 1")));
+        temps.put("getEquipes", chronometrer(con,
+                normalise ? "SELECT e.* FROM equipe e JOIN `ligue` l ON l.id = e.ligue_id WHERE l.nom = ?"
+                        : "SELECT * FROM equipe WHERE ligue = ?",
+                premiereValeur(con, requeteLigue)));
+        String idEquipe = premiereValeur(con, "SELECT id FROM equipe ORDER BY id DESC LIMIT 1");
+        temps.put("getJoueurs", chronometrer(con,
+                "SELECT * FROM joueur WHERE equipe_id = ? ORDER BY numeroMaillot", idEquipe));
+        temps.put("matchsEquipe", chronometrer(con,
+                "SELECT nbButsEquipe1, nbButsEquipe2 FROM `match` WHERE equipe1Id = ? "
+                        + "UNION ALL SELECT nbButsEquipe1, nbButsEquipe2 FROM `match` WHERE equipe2Id = ?",
+                idEquipe));
+        return temps;
+    }
+
+    /**
+     * Runs a query several times and returns its average duration.
+     *
+     * @param con    the connection to use.
+     * @param query  the query, whose parameters all receive the same value.
+     * @param valeur the parameter value.
+     * @return the average duration in microseconds.
+     * @throws SQLException if a database access error occurs.
+     */
+    private static double chronometrer(Connection con, String query, String valeur) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(query)) {
+            int index = 1;
+            for (int i = query.indexOf('?'); i >= 0; i = query.indexOf('?', i + 1)) {
+                ps.setString(index++, valeur);
+            }
+            long debut = System.nanoTime();
+            for (int i = 0; i < ITERATIONS_SONDE; i++) {
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        // Drain the rows so transfer time is included.
+                    }
+                }
+            }
+            return (System.nanoTime() - debut) / 1000.0 / ITERATIONS_SONDE;
+        }
+    }
+
+    private static String premiereValeur(Connection con, String query) throws SQLException {
+        try (Statement st = con.createStatement();
+                ResultSet rs = st.executeQuery(query)) {
+            return rs.next() ? rs.getString(1) : "";
+        }
+    }
+
+    private static boolean colonneExiste(Connection con, String table, String colonne) throws SQLException {
+        return existe(con, "COLUMNS", "COLUMN_NAME", table, colonne);
+    }
+
+    private static boolean indexExiste(Connection con, String table, String index) throws SQLException {
+        return existe(con, "STATISTICS", "INDEX_NAME", table, index);
+    }
+
+    private static boolean contrainteExiste(Connection con, String table, String contrainte) throws SQLException {
+        return existe(con, "TABLE_CONSTRAINTS", "CONSTRAINT_NAME", table, contrainte);
+    }
+
+    /**
+     * Looks an object of a table of the current database up in
+     * information_schema.
+     */
+    private static boolean existe(Connection con, String vue, String colonneNom, String table, String nom)
+            throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement("SELECT COUNT(*) FROM information_schema." + vue
+                + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND " + colonneNom + " = ?")) {
+            ps.setString(1, table);
+            ps.setString(2, nom);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    private static void executer(Connection con, String sql) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            st.executeUpdate(sql);
+        }
+    }
+
+    /**
+     * A step that runs a statement which can be run again, such as
+     * {@code CREATE TABLE IF NOT EXISTS} or an {@code UPDATE}.
+     */
+    private static Etape toujours(String sql) {
+        return con -> executer(con, sql);
+    }
+
+    private static Etape siColonneAbsente(String table, String colonne, String sql) {
+        return con -> {
+            if (!colonneExiste(con, table, colonne)) {
+                executer(con, sql);
+            }
+        };
+    }
+
+    private static Etape siColonnePresente(String table, String colonne, String sql) {
+        return con -> {
+            if (colonneExiste(con, table, colonne)) {
+                executer(con, sql);
+            }
+        };
+    }
+
+    private static Etape siIndexAbsent(String table, String index, String sql) {
+        return siIndexAbsent(table, index, toujours(sql));
+    }
+
+    private static Etape siIndexAbsent(String table, String index, Etape etape) {
+        return con -> {
+            if (!indexExiste(con, table, index)) {
+                etape.appliquer(con);
+            }
+        };
+    }
+
+    private static Etape siContrainteAbsente(String table, String contrainte, String sql) {
+        return con -> {
+            if (!contrainteExiste(con, table, contrainte)) {
+                executer(con, sql);
+            }
+        };
+    }
+
+    /**
+     * A step that fails the migration if a query returns rows, listing the
+     * first column of each.
+     */
+    private static Etape aucuneLigne(String requete, String message) {
+        return con -> {
+            List<String> lignes = new ArrayList<>();
+            try (Statement st = con.createStatement();
+                    ResultSet rs = st.executeQuery(requete)) {
+                while (rs.next()) {
+                    lignes.add(rs.getString(1));
+                }
+            }
+            if (!lignes.isEmpty()) {
+                throw new SQLException(message + ": " + String.join(", ", lignes));
+            }
+        };
+    }
+
+    /**
+     * A step of a migration.
+     */
+    private interface Etape {
+        void appliquer(Connection con) throws SQLException;
+    }
+
+    /**
+     * A schema version and the steps that lead to it.
+     */
+    private static final class Migration {
+        final int version;
+        final String description;
+        final Etape[] etapes;
+
+        Migration(int version, String description, Etape... etapes) {
+            this.version = version;
+            this.description = description;
+            this.etapes = etapes;
+        }
+    }
+
+    /**
+     * Migrates the database from the command line.
+     *
+     * @param args command-line arguments (not used).
+     */
+    public static void main(String[] args) {
+        System.out.println("Schema version: " + migrer());
+    }
+}
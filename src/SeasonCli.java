@@ -0,0 +1,387 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command-line simulation of the rest of a season, without the GUI.
+ *
+ * <p>
+ * Loads a league, groups its unplayed matches into journees and plays them in
+ * order. Matches keep the season and matchday written by
+ * {@link DataGenerator}; matches created outside a schedule are packed into
+ * extra journees in which no team plays twice. Draws are seeded per match (see
+ * {@link Journee#jouerJournee(long, boolean)}), so a seed replays the same
+ * season whether or not the matches of a journee are played in parallel.
+ * </p>
+ *
+ * <p>
+ * Scores are drawn by a {@link PoissonMatchModel} estimated from the played
+ * matches of the league, or by the original {@link UniformMatchModel} on
+ * request.
+ * </p>
+ *
+ * <p>
+ * Results are saved in chunks through {@link MatchDAO#enregistrerResultats(List)},
+ * one transaction per chunk, unless the run is dry. The final standings and the
+ * simulated results can be written as CSV or JSON; the results CSV can be
+ * imported again with {@link MatchImporter}.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class SeasonCli {
+
+    private static final int TAILLE_LOT = 1000;
+
+    private final String nomLigue;
+    private final String modele;
+    private final long graine;
+    private final boolean parallele;
+    private final boolean aBlanc;
+    private final int tailleLot;
+
+    private Ligue ligue;
+    private final List<Match> joues = new ArrayList<>();
+
+    /**
+     * Constructs a SeasonCli.
+     *
+     * @param nomLigue  the name of the league to simulate.
+     * @param modele    the match model: "poisson", "elo" or "uniforme".
+     * @param graine    the seed of the season.
+     * @param parallele whether to play the matches of a journee in parallel.
+     * @param aBlanc    whether to skip saving the results (dry run).
+     * @param tailleLot the number of results saved per transaction.
+     */
+    public SeasonCli(String nomLigue, String modele, long graine, boolean parallele, boolean aBlanc,
+            int tailleLot) {
+        this.nomLigue = nomLigue;
+        this.modele = modele;
+        this.graine = graine;
+        this.parallele = parallele;
+        this.aBlanc = aBlanc;
+        this.tailleLot = Math.max(1, tailleLot);
+    }
+
+    /**
+     * Plays every remaining journee of the league.
+     *
+     * @return a {@link Rapport} summarizing the run.
+     * @throws IllegalArgumentException if the league or the model does not
+     *                                  exist.
+     */
+    public Rapport executer() {
+        Rapport rapport = new Rapport();
+        long debut = System.nanoTime();
+        if (!modele.equals("poisson") && !modele.equals("elo") && !modele.equals("uniforme")) {
+            throw new IllegalArgumentException("Unknown model: " + modele);
+        }
+        if (LigueDAO.getInstance().getIdLigue(nomLigue) == 0) {
+            throw new IllegalArgumentException("Unknown league: " + nomLigue);
+        }
+        ligue = new Ligue(nomLigue);
+        if (modele.equals("poisson")) {
+            ligue.setModele(PoissonMatchModel.estimer(ligue));
+        } else if (modele.equals("elo")) {
+            // Ratings move as each batch is saved, not after every simulated match.
+            ligue.setModele(EloMatchModel.estimer(ligue));
+        }
+        List<Journee> journees = journees(ligue);
+        rapport.chargement = secondesDepuis(debut);
+
+        List<Match> lot = new ArrayList<>(tailleLot);
+        for (Journee journee : journees) {
+            long simulation = System.nanoTime();
+            journee.jouerJournee(graine, parallele);
+            rapport.simulation += secondesDepuis(simulation);
+            rapport.journees++;
+            rapport.matchs += journee.matchs.size();
+            joues.addAll(journee.matchs);
+            if (!aBlanc) {
+                lot.addAll(journee.matchs);
+                if (lot.size() >= tailleLot) {
+                    enregistrer(lot, rapport);
+                }
+            }
+        }
+        if (!lot.isEmpty()) {
+            enregistrer(lot, rapport);
+        }
+        rapport.aBlanc = aBlanc;
+        rapport.secondes = secondesDepuis(debut);
+        return rapport;
+    }
+
+    /**
+     * Groups the unplayed matches of a league into journees, in schedule order.
+     *
+     * @param ligue the loaded {@link Ligue}.
+     * @return the journees to play.
+     */
+    private static List<Journee> journees(Ligue ligue) {
+        Map<Integer, Match> aVenir = new HashMap<>();
+        for (Match match : ligue.getMatches()) {
+            if (match.getNbButsEquipe1() == -1 && match.getNbButsEquipe2() == -1) {
+                aVenir.put(match.getId(), match);
+            }
+        }
+
+        List<Journee> journees = new ArrayList<>();
+        List<Match> horsCalendrier = new ArrayList<>();
+        List<Match> courante = null;
+        int saison = -1;
+        int numero = -1;
+        for (int[] ligne : MatchDAO.getInstance().getCalendrierAVenir(ligue.getNom())) {
+            Match match = aVenir.get(ligne[0]);
+            if (match == null) {
+                continue;
+            }
+            if (ligne[2] == 0) {
+                horsCalendrier.add(match);
+                continue;
+            }
+            if (courante == null || ligne[1] != saison || ligne[2] != numero) {
+                courante = new ArrayList<>();
+                journees.add(new Journee(courante));
+                saison = ligne[1];
+                numero = ligne[2];
+            }
+            courante.add(match);
+        }
+        journees.addAll(repartir(horsCalendrier));
+        return journees;
+    }
+
+    /**
+     * Packs matches into journees in which no team plays twice, placing each
+     * match in the first journee where both its teams are free.
+     */
+    private static List<Journee> repartir(List<Match> matches) {
+        List<List<Match>> rencontres = new ArrayList<>();
+        List<Set<Integer>> occupees = new ArrayList<>();
+        for (Match match : matches) {
+            int equipe1 = match.getEquipe1().getId();
+            int equipe2 = match.getEquipe2().getId();
+            int j = 0;
+            while (j < occupees.size() && (occupees.get(j).contains(equipe1) || occupees.get(j).contains(equipe2))) {
+                j++;
+            }
+            if (j == occupees.size()) {
+                rencontres.add(new ArrayList<>());
+                occupees.add(new HashSet<>());
+            }
+            rencontres.get(j).add(match);
+            occupees.get(j).add(equipe1);
+            occupees.get(j).add(equipe2);
+        }
+        List<Journee> journees = new ArrayList<>(rencontres.size());
+        for (List<Match> journee : rencontres) {
+            journees.add(new Journee(journee));
+        }
+        return journees;
+    }
+
+    /**
+     * Saves a chunk of results and clears it. The results that could not be
+     * saved are taken back, so the standings written afterwards only count
+     * what reached the database.
+     */
+    private void enregistrer(List<Match> lot, Rapport rapport) {
+        long debut = System.nanoTime();
+        List<Match> enregistres = MatchDAO.getInstance().enregistrerResultats(lot);
+        rapport.persistance += secondesDepuis(debut);
+        rapport.enregistres += enregistres.size();
+        rapport.echecs += lot.size() - enregistres.size();
+        if (enregistres.size() < lot.size()) {
+            Set<Match> echecs = new HashSet<>(lot);
+            echecs.removeAll(enregistres);
+            for (Match match : echecs) {
+                match.annulerResultat();
+            }
+            joues.removeAll(echecs);
+            // The failed results were counted by the standings read since the save.
+            LigueRevisions.incrementer(ligue.getNom());
+        }
+        lot.clear();
+    }
+
+    /**
+     * Writes the final standings, as JSON if the file name ends with
+     * {@code .json} and as CSV otherwise.
+     *
+     * @param fichier the output file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void ecrireClassement(Path fichier) throws IOException {
+        List<Equipe> classement = ligue.getEquipes();
+        if (estJson(fichier)) {
+            JsonWriter json = new JsonWriter().debutObjet().membre("ligue", ligue.getNom()).nom("classement")
+                    .debutTableau();
+            int rang = 0;
+            for (Equipe equipe : classement) {
+                json.debutObjet().membre("rang", ++rang).membre("id", equipe.getId())
+                        .membre("nom", equipe.getNom()).membre("points", equipe.getPoints()).finObjet();
+            }
+            Files.write(fichier, json.finTableau().finObjet().toBytes());
+            return;
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(fichier, StandardCharsets.UTF_8)) {
+            writer.write("rang,equipe,points\n");
+            int rang = 0;
+            for (Equipe equipe : classement) {
+                writer.write(++rang + "," + csv(equipe.getNom()) + "," + equipe.getPoints() + "\n");
+            }
+        }
+    }
+
+    /**
+     * Writes the results simulated by the run, as JSON if the file name ends
+     * with {@code .json} and as CSV otherwise.
+     *
+     * @param fichier the output file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void ecrireResultats(Path fichier) throws IOException {
+        if (estJson(fichier)) {
+            JsonWriter json = new JsonWriter().debutObjet().membre("ligue", ligue.getNom()).nom("resultats")
+                    .debutTableau();
+            for (Match match : joues) {
+                json.debutObjet().membre("id", match.getId())
+                        .membre("equipe1", match.getEquipe1().getNom())
+                        .membre("equipe2", match.getEquipe2().getNom())
+                        .membre("butsEquipe1", match.getNbButsEquipe1())
+                        .membre("butsEquipe2", match.getNbButsEquipe2()).finObjet();
+            }
+            Files.write(fichier, json.finTableau().finObjet().toBytes());
+            return;
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(fichier, StandardCharsets.UTF_8)) {
+            writer.write("equipe1,equipe2,buts1,buts2\n");
+            for (Match match : joues) {
+                writer.write(csv(match.getEquipe1().getNom()) + "," + csv(match.getEquipe2().getNom()) + ","
+                        + match.getNbButsEquipe1() + "," + match.getNbButsEquipe2() + "\n");
+            }
+        }
+    }
+
+    private static boolean estJson(Path fichier) {
+        return fichier.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json");
+    }
+
+    /**
+     * Quotes a CSV field when it holds a separator, a quote or a line break.
+     */
+    private static String csv(String valeur) {
+        if (valeur.indexOf(',') < 0 && valeur.indexOf('"') < 0 && valeur.indexOf('\n') < 0) {
+            return valeur;
+        }
+        return '"' + valeur.replace("\"", "\"\"") + '"';
+    }
+
+    private static double secondesDepuis(long debut) {
+        return Math.max(System.nanoTime() - debut, 1) / 1_000_000_000.0;
+    }
+
+    /**
+     * Summary of a season run.
+     */
+    public static class Rapport {
+        int journees;
+        int matchs;
+        int enregistres;
+        int echecs;
+        boolean aBlanc;
+        double chargement;
+        double simulation;
+        double persistance;
+        double secondes;
+
+        /**
+         * Gets the number of results that could not be saved.
+         *
+         * @return the number of failed saves.
+         */
+        public int getEchecs() {
+            return echecs;
+        }
+
+        @Override
+        public String toString() {
+            String resultat = String.format(Locale.ROOT,
+                    "%d journees, %d matches: loaded in %.2f s, simulated in %.3f s (%.0f matches/s)", journees,
+                    matchs, chargement, simulation, matchs / Math.max(simulation, 1e-9));
+            if (aBlanc) {
+                resultat += ", dry run";
+            } else {
+                resultat += String.format(Locale.ROOT, ", %d saved in %.2f s (%.0f matches/s), %d failed",
+                        enregistres, persistance, enregistres / Math.max(persistance, 1e-9), echecs);
+            }
+            return resultat + String.format(Locale.ROOT, ", total %.2f s", secondes);
+        }
+    }
+
+    /**
+     * Simulates a season from the command line.
+     *
+     * <p>
+     * Options, with their defaults: {@code --ligue=Ligue 1},
+     * {@code --modele=poisson} (or {@code elo}, {@code uniforme}), {@code --graine=N}
+     * (random when absent, printed so the run can be replayed),
+     * {@code --parallele=false}, {@code --a-blanc=false} (dry run),
+     * {@code --lot=1000} (results per transaction), and
+     * {@code --classement=FICHIER} and {@code --resultats=FICHIER} to export the
+     * standings and the results.
+     * </p>
+     *
+     * @param args the options.
+     * @throws IOException if an export file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int egal = arg.indexOf('=');
+            if (!arg.startsWith("--") || egal < 0) {
+                System.err.println("Usage: SeasonCli [--ligue=NOM] [--modele=poisson|elo|uniforme] [--graine=N] "
+                        + "[--parallele=true] [--a-blanc=true] [--lot=N] [--classement=FICHIER] "
+                        + "[--resultats=FICHIER]");
+                System.exit(1);
+            }
+            options.put(arg.substring(2, egal), arg.substring(egal + 1));
+        }
+        long graine = options.containsKey("graine") ? Long.parseLong(options.get("graine")) : System.nanoTime();
+        System.out.println("Seed: " + graine);
+
+        SchemaMigrator.migrer();
+        SeasonCli cli = new SeasonCli(options.getOrDefault("ligue", "Ligue 1"),
+                options.getOrDefault("modele", "poisson"), graine,
+                Boolean.parseBoolean(options.getOrDefault("parallele", "false")),
+                Boolean.parseBoolean(options.getOrDefault("a-blanc", "false")),
+                Integer.parseInt(options.getOrDefault("lot", String.valueOf(TAILLE_LOT))));
+        Rapport rapport;
+        try {
+            rapport = cli.executer();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+        System.out.println(rapport);
+        if (options.containsKey("classement")) {
+            cli.ecrireClassement(Paths.get(options.get("classement")));
+        }
+        if (options.containsKey("resultats")) {
+            cli.ecrireResultats(Paths.get(options.get("resultats")));
+        }
+        System.exit(rapport.getEchecs() > 0 ? 1 : 0);
+    }
+}
@@ -0,0 +1,653 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Entry point of the headless HTTP API.
+ *
+ * <p>
+ * Serves the data shown by {@link LiguePanel} as JSON, using the JDK's built-in
+ * HTTP server. Each request runs on its own virtual thread when the JVM
+ * supports them. Leagues are loaded once through {@link LigueRegistry} and
+ * read from memory afterwards, so reads do not touch the database.
+ * </p>
+ *
+ * <p>
+ * Standings and match lists are served from a {@link StandingsCache} with an
+ * ETag; a request whose If-None-Match carries the current ETag gets 304 Not
+ * Modified before the league is even looked up.
+ * </p>
+ *
+ * <ul>
+ * <li>{@code GET /ligues/{nom}/classement?saison=S&journee=J}: the standings,
+ * now or after a past journee.</li>
+ * <li>{@code GET /ligues/{nom}/matchs?statut=joues|a-venir}: the matches,
+ * optionally only past or upcoming ones.</li>
+ * <li>{@code GET /ligues/{nom}/equipes/{id}}: a team and its roster.</li>
+ * <li>{@code GET /ligues/{nom}/equipes/{id}/statistiques?saison=S}: the
+ * record of a team at home and away, its win streaks and its record against
+ * each opponent, over all seasons or one.</li>
+ * <li>{@code GET /ligues/{nom}/confrontations/{id1}/{id2}}: the matches
+ * between two teams and the record of the first against the second.</li>
+ * <li>{@code POST /ligues/{nom}/matchs/{id}/simulation}: simulates and saves an
+ * upcoming match.</li>
+ * <li>{@code GET /ligues/{nom}/direct}: a server-sent events stream of the
+ * results saved in this process, each batch followed by the new
+ * standings.</li>
+ * <li>{@code GET /ligues/{nom}/scenario?resultats=ID:B1-B2,...&branches=N&graine=N&modele=M}:
+ * the standings with some results assumed, and the finishing positions over
+ * {@code N} simulated ends of season, drawn with a Poisson (default), Elo or
+ * uniform model estimated from the league. Nothing is saved.</li>
+ * </ul>
+ *
+ * @version 1.0
+ */
+public class ServerMain {
+
+    private static final int PORT_DEFAUT = 8080;
+    private static final int BACKLOG = 4096;
+    /** Delay after which an idle event stream gets a comment, in milliseconds. */
+    private static final long KEEPALIVE = 15_000;
+    /** Simulated seasons of a scenario when the request does not say. */
+    private static final int BRANCHES_DEFAUT = 1000;
+    /** The most simulated seasons a scenario request may ask for. */
+    private static final int BRANCHES_MAX = 10_000;
+    /** The most scenario projections running at once; more are refused with 503. */
+    private static final int PROJECTIONS_MAX = 4;
+
+    private final HttpServer server;
+    private final ExecutorService executeur;
+    private final StandingsCache cache = new StandingsCache();
+    private final Set<LiveResults.Abonnement> flux = ConcurrentHashMap.newKeySet();
+    /** Plays the branches of projections on half the cores, leaving the rest to requests. */
+    private final ForkJoinPool projections = new ForkJoinPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    private final Semaphore projectionsEnCours = new Semaphore(PROJECTIONS_MAX);
+
+    /**
+     * Constructs a server listening on the given port. It is not started.
+     *
+     * @param port the TCP port.
+     * @throws IOException if the port cannot be bound.
+     */
+    public ServerMain(int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        this.executeur = VirtualThreads.nouvelExecuteur();
+        server.createContext("/ligues/", this::traiter);
+        server.setExecutor(executeur);
+    }
+
+    /**
+     * Starts serving requests.
+     */
+    public void demarrer() {
+        server.start();
+    }
+
+    /**
+     * Stops the server, letting requests in progress finish for up to a second.
+     */
+    public void arreter() {
+        for (LiveResults.Abonnement abonnement : flux) {
+            LiveResults.getInstance().desabonner(abonnement);
+        }
+        server.stop(1);
+        executeur.shutdown();
+        projections.shutdown();
+    }
+
+    /**
+     * Routes a request under {@code /ligues/}.
+     *
+     * @param exchange the HTTP exchange.
+     * @throws IOException if the response cannot be written.
+     */
+    private void traiter(HttpExchange exchange) throws IOException {
+        try {
+            String[] chemin = segments(exchange.getRequestURI().getRawPath());
+            String methode = exchange.getRequestMethod();
+            String ressource = ressourceCachee(exchange, chemin);
+            if (ressource != null && methode.equals("GET")) {
+                StandingsCache.Vue vue = cache.nonModifiee(chemin[1], ressource,
+                        exchange.getRequestHeaders().getFirst("If-None-Match"));
+                if (vue != null) {
+                    exchange.getResponseHeaders().set("ETag", vue.getEtag());
+                    exchange.sendResponseHeaders(304, -1);
+                    return;
+                }
+            }
+            Ligue ligue = chemin.length >= 3 ? LigueRegistry.getInstance().getLigue(chemin[1]) : null;
+            if (ligue == null) {
+                erreur(exchange, 404, "Unknown league or resource");
+                return;
+            }
+
+            if (chemin.length == 3 && chemin[2].equals("classement")) {
+                if (verifierMethode(exchange, methode, "GET")) {
+                    String saison = parametre(exchange, "saison");
+                    String journee = parametre(exchange, "journee");
+                    if (saison == null && journee == null) {
+                        envoyer(exchange, cache.getVue(ligue.getNom(), ressource, () -> classement(ligue).toBytes()));
+                    } else if (entier(saison) < 0 || entier(journee) < 0) {
+                        erreur(exchange, 400, "saison and journee must both be given");
+                    } else {
+                        StandingsHistory.Tableau tableau = ligue.getHistorique().getTableau(entier(saison),
+                                entier(journee));
+                        envoyer(exchange, cache.getVue(ligue.getNom(), ressource,
+                                () -> classement(ligue, tableau).toBytes()));
+                    }
+                }
+            } else if (chemin.length == 3 && chemin[2].equals("matchs")) {
+                if (verifierMethode(exchange, methode, "GET")) {
+                    String statut = parametre(exchange, "statut");
+                    envoyer(exchange, cache.getVue(ligue.getNom(), ressource, () -> matchs(ligue, statut).toBytes()));
+                }
+            } else if (chemin.length == 4 && chemin[2].equals("equipes")) {
+                if (verifierMethode(exchange, methode, "GET")) {
+                    Equipe equipe = trouverEquipe(ligue, entier(chemin[3]));
+                    if (equipe == null) {
+                        erreur(exchange, 404, "Unknown team");
+                    } else {
+                        envoyer(exchange, 200, equipe(equipe));
+                    }
+                }
+            } else if (chemin.length == 5 && chemin[2].equals("equipes") && chemin[4].equals("statistiques")) {
+                if (verifierMethode(exchange, methode, "GET")) {
+                    Equipe equipe = trouverEquipe(ligue, entier(chemin[3]));
+                    String saison = parametre(exchange, "saison");
+                    if (equipe == null) {
+                        erreur(exchange, 404, "Unknown team");
+                    } else if (saison != null && entier(saison) < 0) {
+                        erreur(exchange, 400, "Invalid saison");
+                    } else {
+                        envoyer(exchange, 200, statistiques(ligue.getColonnes(), equipe, saison));
+                    }
+                }
+            } else if (chemin.length == 5 && chemin[2].equals("confrontations")) {
+                if (verifierMethode(exchange, methode, "GET")) {
+                    Equipe equipe = trouverEquipe(ligue, entier(chemin[3]));
+                    Equipe adversaire = trouverEquipe(ligue, entier(chemin[4]));
+                    if (equipe == null || adversaire == null || equipe == adversaire) {
+                        erreur(exchange, 404, "Unknown pair of teams");
+                    } else {
+                        envoyer(exchange, 200, confrontation(ligue, equipe, adversaire));
+                    }
+                }
+            } else if (chemin.length == 3 && chemin[2].equals("scenario")) {
+                if (verifierMethode(exchange, methode, "GET")) {
+                    scenario(exchange, ligue);
+                }
+            } else if (chemin.length == 3 && chemin[2].equals("direct")) {
+                if (verifierMethode(exchange, methode, "GET")) {
+                    diffuser(exchange, ligue);
+                }
+            } else if (chemin.length == 5 && chemin[2].equals("matchs") && chemin[4].equals("simulation")) {
+                if (verifierMethode(exchange, methode, "POST")) {
+                    simuler(exchange, ligue, entier(chemin[3]));
+                }
+            } else {
+                erreur(exchange, 404, "Unknown resource");
+            }
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            erreur(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Simulates an upcoming match and saves its result. The shared league only
+     * gets the result once it is saved; a match another client played first
+     * answers 409 and a failed save 500, both leaving the league unchanged.
+     */
+    private void simuler(HttpExchange exchange, Ligue ligue, int idMatch) throws IOException {
+        Match match = trouverMatch(ligue, idMatch);
+        if (match == null) {
+            erreur(exchange, 404, "Unknown match");
+            return;
+        }
+        if (match.getNbButsEquipe1() != -1) {
+            erreur(exchange, 409, "Match already played");
+            return;
+        }
+        // The conditional update lets only one request save the match, without
+        // holding a monitor (and pinning a virtual thread) across the save.
+        int rows = match.jouerMatch();
+        if (rows == 0) {
+            erreur(exchange, 409, "Match already played");
+            return;
+        }
+        if (rows < 0) {
+            erreur(exchange, 500, "Result could not be saved");
+            return;
+        }
+        JsonWriter json = new JsonWriter();
+        ecrireMatch(json, match, null);
+        envoyer(exchange, 200, json);
+    }
+
+    /**
+     * Forks a scenario of a league with the requested results and projects the
+     * end of the season from it.
+     */
+    private void scenario(HttpExchange exchange, Ligue ligue) throws IOException {
+        String branchesTexte = parametre(exchange, "branches");
+        int branches = branchesTexte == null ? BRANCHES_DEFAUT : entier(branchesTexte);
+        String graineTexte = parametre(exchange, "graine");
+        long graine;
+        try {
+            graine = graineTexte == null ? System.nanoTime() : Long.parseLong(graineTexte);
+        } catch (NumberFormatException e) {
+            erreur(exchange, 400, "Invalid seed");
+            return;
+        }
+        if (branches < 0 || branches > BRANCHES_MAX) {
+            erreur(exchange, 400, "branches must be between 0 and " + BRANCHES_MAX);
+            return;
+        }
+        String modele = parametre(exchange, "modele");
+        MatchModel modeleScenario;
+        if (modele == null || modele.equals("poisson")) {
+            modeleScenario = PoissonMatchModel.estimer(ligue);
+        } else if (modele.equals("elo")) {
+            modeleScenario = EloMatchModel.estimer(ligue);
+        } else if (modele.equals("uniforme")) {
+            modeleScenario = UniformMatchModel.INSTANCE;
+        } else {
+            erreur(exchange, 400, "modele must be poisson, elo or uniforme");
+            return;
+        }
+
+        Scenario scenario = Scenario.de(ligue, modeleScenario);
+        String resultats = parametre(exchange, "resultats");
+        if (resultats != null && !resultats.isEmpty()) {
+            for (String resultat : resultats.split(",")) {
+                int deuxPoints = resultat.indexOf(':');
+                int tiret = resultat.indexOf('-', deuxPoints + 1);
+                if (deuxPoints < 0 || tiret < 0) {
+                    erreur(exchange, 400, "Results must look like ID:B1-B2");
+                    return;
+                }
+                try {
+                    scenario = scenario.fixer(entier(resultat.substring(0, deuxPoints)),
+                            entier(resultat.substring(deuxPoints + 1, tiret)), entier(resultat.substring(tiret + 1)));
+                } catch (IllegalArgumentException e) {
+                    erreur(exchange, 400, e.getMessage());
+                    return;
+                }
+            }
+        }
+
+        Scenario.Projection projection;
+        if (!projectionsEnCours.tryAcquire()) {
+            erreur(exchange, 503, "Too many projections in progress");
+            return;
+        }
+        try {
+            Scenario fourche = scenario;
+            // The parallel stream of the projection runs in the pool it is submitted to.
+            projection = projections.submit(() -> fourche.projeter(branches, graine)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            erreur(exchange, 503, "Interrupted");
+            return;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            projectionsEnCours.release();
+        }
+        JsonWriter json = new JsonWriter().debutObjet().membre("ligue", ligue.getNom())
+                .membre("branches", branches).membre("graine", graine).nom("classement").debutTableau();
+        int rang = 0;
+        for (Equipe equipe : scenario.getClassement()) {
+            json.debutObjet().membre("rang", ++rang).membre("id", equipe.getId()).membre("nom", equipe.getNom())
+                    .membre("points", scenario.getPoints(equipe));
+            if (branches > 0) {
+                json.membre("positionMoyenne", arrondir(projection.getPositionMoyenne(equipe)))
+                        .membre("premier", arrondir(projection.getProbabilite(equipe, 1)));
+            }
+            json.finObjet();
+        }
+        envoyer(exchange, 200, json.finTableau().finObjet());
+    }
+
+    /**
+     * Streams the results of a league as server-sent events until the client
+     * disconnects or the server stops.
+     *
+     * <p>
+     * The stream opens with the current standings. Then each batch taken from
+     * the subscription is written as one {@code resultat} event per match
+     * followed by a single {@code classement} event, so a burst of results costs
+     * one standings payload, shared with the other viewers through the cache.
+     * After an overflow a {@code resynchronisation} event tells the client to
+     * reload the matches.
+     * </p>
+     */
+    private void diffuser(HttpExchange exchange, Ligue ligue) throws IOException {
+        LiveResults.Abonnement abonnement = LiveResults.getInstance().abonner(ligue.getNom(),
+                LiveResults.CAPACITE_DEFAUT, null);
+        flux.add(abonnement);
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            evenement(out, "classement", classementCache(ligue));
+            out.flush();
+            while (!abonnement.isFermee()) {
+                LiveResults.Lot lot = abonnement.attendre(KEEPALIVE);
+                if (lot == null) {
+                    out.write(": \n\n".getBytes(StandardCharsets.UTF_8));
+                } else {
+                    if (lot.isDeborde()) {
+                        evenement(out, "resynchronisation", new JsonWriter().debutObjet().finObjet().toBytes());
+                    }
+                    for (LiveResults.Resultat resultat : lot.getResultats()) {
+                        evenement(out, "resultat", resultat.toJson());
+                    }
+                    evenement(out, "classement", classementCache(ligue));
+                }
+                out.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // The client went away.
+        } finally {
+            flux.remove(abonnement);
+            LiveResults.getInstance().desabonner(abonnement);
+        }
+    }
+
+    private byte[] classementCache(Ligue ligue) {
+        return cache.getVue(ligue.getNom(), "classement", () -> classement(ligue).toBytes()).getCorps();
+    }
+
+    private static void evenement(OutputStream out, String type, byte[] donnees) throws IOException {
+        out.write(("event: " + type + "\ndata: ").getBytes(StandardCharsets.UTF_8));
+        out.write(donnees);
+        out.write('\n');
+        out.write('\n');
+    }
+
+    private static JsonWriter classement(Ligue ligue) {
+        JsonWriter json = new JsonWriter().debutObjet().membre("ligue", ligue.getNom()).nom("classement")
+                .debutTableau();
+        int rang = 0;
+        for (Equipe equipe : ligue.getEquipes()) {
+            json.debutObjet().membre("rang", ++rang).membre("id", equipe.getId()).membre("nom", equipe.getNom())
+                    .membre("points", equipe.getPoints()).membre("elo", Math.round(equipe.getElo())).finObjet();
+        }
+        return json.finTableau().finObjet();
+    }
+
+    private static JsonWriter classement(Ligue ligue, StandingsHistory.Tableau tableau) {
+        JsonWriter json = new JsonWriter().debutObjet().membre("ligue", ligue.getNom())
+                .membre("saison", tableau.getSaison()).membre("journee", tableau.getJournee()).nom("classement")
+                .debutTableau();
+        int rang = 0;
+        for (Equipe equipe : tableau.getClassement()) {
+            json.debutObjet().membre("rang", ++rang).membre("id", equipe.getId()).membre("nom", equipe.getNom())
+                    .membre("points", tableau.getPoints(equipe)).finObjet();
+        }
+        return json.finTableau().finObjet();
+    }
+
+    private static JsonWriter matchs(Ligue ligue, String statut) {
+        boolean joues = statut == null || statut.equals("joues");
+        boolean aVenir = statut == null || statut.equals("a-venir");
+        ProbabilityMatrix.Instantane probabilites = aVenir ? ligue.getProbabilites().instantane() : null;
+        JsonWriter json = new JsonWriter().debutObjet().membre("ligue", ligue.getNom()).nom("matchs")
+                .debutTableau();
+        for (Match match : ligue.getMatches()) {
+            boolean joue = match.getScore() != Match.NON_JOUE;
+            if (joue ? joues : aVenir) {
+                ecrireMatch(json, match, probabilites);
+            }
+        }
+        return json.finTableau().finObjet();
+    }
+
+    private static JsonWriter equipe(Equipe equipe) {
+        JsonWriter json = new JsonWriter().debutObjet().membre("id", equipe.getId())
+                .membre("nom", equipe.getNom()).membre("points", equipe.getPoints()).nom("joueurs").debutTableau();
+        List<Joueur> joueurs = equipe.getJoueurs();
+        if (joueurs != null) {
+            for (Joueur joueur : joueurs) {
+                json.debutObjet().membre("id", joueur.getId()).membre("nom", joueur.getNom())
+                        .membre("prenom", joueur.getPrenom()).membre("numeroMaillot", joueur.getNumeroMaillot())
+                        .finObjet();
+            }
+        }
+        return json.finTableau().finObjet();
+    }
+
+    private static JsonWriter statistiques(MatchColumns colonnes, Equipe equipe, String saison) {
+        MatchColumns.Statistiques statistiques = saison == null ? colonnes.getStatistiques(equipe)
+                : colonnes.getStatistiques(equipe, entier(saison));
+        JsonWriter json = new JsonWriter().debutObjet().membre("id", equipe.getId()).membre("nom", equipe.getNom());
+        if (saison != null) {
+            json.membre("saison", entier(saison));
+        }
+        json.nom("total");
+        bilan(json, statistiques.getTotal());
+        json.nom("domicile");
+        bilan(json, statistiques.getDomicile());
+        json.nom("exterieur");
+        bilan(json, statistiques.getExterieur());
+        json.membre("meilleureSerie", statistiques.getMeilleureSerie())
+                .membre("serieEnCours", statistiques.getSerieEnCours());
+        if (saison == null) {
+            json.nom("confrontations").debutTableau();
+            for (Map.Entry<Equipe, MatchColumns.Bilan> entree : colonnes.getConfrontations(equipe).entrySet()) {
+                json.debutObjet().membre("id", entree.getKey().getId()).membre("nom", entree.getKey().getNom())
+                        .nom("bilan");
+                bilan(json, entree.getValue());
+                json.finObjet();
+            }
+            json.finTableau();
+        }
+        return json.finObjet();
+    }
+
+    private static JsonWriter confrontation(Ligue ligue, Equipe equipe, Equipe adversaire) {
+        HeadToHeadIndex.Confrontation confrontation = ligue.getConfrontations().getConfrontation(equipe, adversaire);
+        JsonWriter json = new JsonWriter().debutObjet()
+                .nom("equipe").debutObjet().membre("id", equipe.getId()).membre("nom", equipe.getNom()).finObjet()
+                .nom("adversaire").debutObjet().membre("id", adversaire.getId()).membre("nom", adversaire.getNom())
+                .finObjet().nom("bilan");
+        bilan(json, confrontation.getBilan(equipe));
+        json.nom("matchs").debutTableau();
+        for (Match match : confrontation.getMatchs()) {
+            ecrireMatch(json, match, null);
+        }
+        return json.finTableau().finObjet();
+    }
+
+    private static void bilan(JsonWriter json, MatchColumns.Bilan bilan) {
+        json.debutObjet().membre("joues", bilan.getJoues()).membre("victoires", bilan.getVictoires())
+                .membre("nuls", bilan.getNuls()).membre("defaites", bilan.getDefaites())
+                .membre("butsMarques", bilan.getButsMarques()).membre("butsEncaisses", bilan.getButsEncaisses())
+                .membre("points", bilan.getPoints()).finObjet();
+    }
+
+    /**
+     * Writes a match, with the outcome probabilities of an unplayed match when
+     * a snapshot of the matrix is given.
+     */
+    private static void ecrireMatch(JsonWriter json, Match match, ProbabilityMatrix.Instantane probabilites) {
+        int score = match.getScore();
+        int buts1 = MatchModel.butsEquipe1(score);
+        int buts2 = MatchModel.butsEquipe2(score);
+        json.debutObjet().membre("id", match.getId())
+                .nom("equipe1").debutObjet().membre("id", match.getEquipe1().getId())
+                .membre("nom", match.getEquipe1().getNom()).finObjet()
+                .nom("equipe2").debutObjet().membre("id", match.getEquipe2().getId())
+                .membre("nom", match.getEquipe2().getNom()).finObjet()
+                .membre("joue", buts1 != -1 && buts2 != -1);
+        if (buts1 != -1 && buts2 != -1) {
+            json.membre("butsEquipe1", buts1).membre("butsEquipe2", buts2);
+        } else if (probabilites != null) {
+            Equipe domicile = match.getEquipe1();
+            Equipe exterieur = match.getEquipe2();
+            json.nom("probabilites").debutObjet()
+                    .membre("domicile", arrondir(probabilites.getVictoireDomicile(domicile, exterieur)))
+                    .membre("nul", arrondir(probabilites.getNul(domicile, exterieur)))
+                    .membre("exterieur", arrondir(probabilites.getVictoireExterieur(domicile, exterieur)))
+                    .finObjet();
+        }
+        json.finObjet();
+    }
+
+    private static double arrondir(double probabilite) {
+        return Double.isNaN(probabilite) ? probabilite : Math.round(probabilite * 10_000) / 10_000.0;
+    }
+
+    private static Equipe trouverEquipe(Ligue ligue, int id) {
+        for (Equipe equipe : ligue.equipes) {
+            if (equipe.getId() == id) {
+                return equipe;
+            }
+        }
+        return null;
+    }
+
+    private static Match trouverMatch(Ligue ligue, int id) {
+        for (Match match : ligue.getMatches()) {
+            if (match.getId() == id) {
+                return match;
+            }
+        }
+        return null;
+    }
+
+    private static boolean verifierMethode(HttpExchange exchange, String methode, String attendue)
+            throws IOException {
+        if (methode.equals(attendue)) {
+            return true;
+        }
+        exchange.getResponseHeaders().set("Allow", attendue);
+        erreur(exchange, 405, "Method not allowed");
+        return false;
+    }
+
+    /**
+     * Gets the cache key of a request for a cached view.
+     *
+     * @return the view name, or null if the request is not for a cached view.
+     */
+    private static String ressourceCachee(HttpExchange exchange, String[] chemin) {
+        if (chemin.length != 3) {
+            return null;
+        }
+        if (chemin[2].equals("classement")) {
+            String saison = parametre(exchange, "saison");
+            String journee = parametre(exchange, "journee");
+            return saison == null && journee == null ? "classement"
+                    : "classement?saison=" + saison + "&journee=" + journee;
+        }
+        if (chemin[2].equals("matchs")) {
+            String statut = parametre(exchange, "statut");
+            return statut == null ? "matchs" : "matchs?statut=" + statut;
+        }
+        return null;
+    }
+
+    private static void envoyer(HttpExchange exchange, StandingsCache.Vue vue) throws IOException {
+        exchange.getResponseHeaders().set("ETag", vue.getEtag());
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        envoyer(exchange, 200, vue.getCorps());
+    }
+
+    private static void envoyer(HttpExchange exchange, int statut, JsonWriter json) throws IOException {
+        envoyer(exchange, statut, json.toBytes());
+    }
+
+    private static void envoyer(HttpExchange exchange, int statut, byte[] corps) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(statut, corps.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(corps);
+        }
+    }
+
+    private static void erreur(HttpExchange exchange, int statut, String message) throws IOException {
+        envoyer(exchange, statut, new JsonWriter().debutObjet().membre("erreur", message).finObjet());
+    }
+
+    /**
+     * Splits a raw path into decoded segments, dropping empty ones.
+     */
+    private static String[] segments(String chemin) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : chemin.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(decoder(segment));
+            }
+        }
+        return segments.toArray(new String[0]);
+    }
+
+    private static String parametre(HttpExchange exchange, String nom) {
+        String requete = exchange.getRequestURI().getRawQuery();
+        if (requete == null) {
+            return null;
+        }
+        for (String paire : requete.split("&")) {
+            int egal = paire.indexOf('=');
+            if (egal > 0 && decoder(paire.substring(0, egal)).equals(nom)) {
+                return decoder(paire.substring(egal + 1));
+            }
+        }
+        return null;
+    }
+
+    private static String decoder(String valeur) {
+        try {
+            return URLDecoder.decode(valeur, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int entier(String valeur) {
+        try {
+            return Integer.parseInt(valeur);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Starts the HTTP API.
+     *
+     * @param args the TCP port, 8080 by default.
+     * @throws IOException if the port cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : PORT_DEFAUT;
+        SchemaMigrator.migrer();
+        ServerMain serveur = new ServerMain(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(serveur::arreter));
+        serveur.demarrer();
+        System.out.println("Football API listening on port " + port
+                + (VirtualThreads.disponibles() ? " (virtual threads)" : ""));
+    }
+}
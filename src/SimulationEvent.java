@@ -0,0 +1,28 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event covering the simulation of a match or of a whole
+ * {@link Journee}.
+ *
+ * @version 1.0
+ */
+@Name("football.Simulation")
+@Label("Simulation")
+@Category({ "Football", "Simulation" })
+@Description("Simulation of one match or of every match of a journee")
+public class SimulationEvent extends jdk.jfr.Event {
+
+    @Label("Ligue")
+    String ligue;
+
+    @Label("Matches")
+    @Description("Number of matches simulated")
+    int matches;
+
+    @Label("Journee")
+    @Description("Whether a whole journee was simulated")
+    boolean journee;
+}
@@ -0,0 +1,104 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache of serialized league views, versioned by {@link LigueRevisions}.
+ *
+ * <p>
+ * Each view (standings, match lists) is kept as the exact bytes of the HTTP
+ * response body with the league revision it was built at and an ETag derived
+ * from it. A view is rebuilt only when the revision of its league has moved;
+ * until then requests get the cached bytes, and conditional requests carrying
+ * the current ETag are answered without touching the league, the database or
+ * the serializer.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class StandingsCache {
+
+    /** Distinguishes ETags of this process from those of a previous run. */
+    private static final String EPOQUE = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<String, Vue> vues = new ConcurrentHashMap<>();
+
+    /**
+     * A serialized view at one revision.
+     */
+    public static final class Vue {
+        private final long revision;
+        private final byte[] corps;
+        private final String etag;
+
+        Vue(long revision, byte[] corps) {
+            this.revision = revision;
+            this.corps = corps;
+            this.etag = "\"" + EPOQUE + "-" + revision + "\"";
+        }
+
+        /**
+         * Gets the serialized body. It must not be modified.
+         *
+         * @return the body bytes.
+         */
+        public byte[] getCorps() {
+            return corps;
+        }
+
+        /**
+         * Gets the entity tag of the body.
+         *
+         * @return the quoted ETag.
+         */
+        public String getEtag() {
+            return etag;
+        }
+    }
+
+    /**
+     * Checks whether a client's cached copy of a view is still current.
+     *
+     * @param nomLigue    the name of the league.
+     * @param ressource   the name of the view.
+     * @param ifNoneMatch the If-None-Match header sent by the client, or null.
+     * @return the current {@link Vue} if the client can be answered with 304
+     *         Not Modified, null otherwise.
+     */
+    public Vue nonModifiee(String nomLigue, String ressource, String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        Vue vue = vues.get(cle(nomLigue, ressource));
+        boolean aJour = vue != null && vue.revision == LigueRevisions.getRevision(nomLigue)
+                && (ifNoneMatch.equals("*") || ifNoneMatch.contains(vue.etag));
+        return aJour ? vue : null;
+    }
+
+    /**
+     * Gets a view, serializing it again only if its league has changed.
+     *
+     * @param nomLigue   the name of the league.
+     * @param ressource  the name of the view.
+     * @param serialiser builds the body from the current league state.
+     * @return the current {@link Vue}.
+     */
+    public Vue getVue(String nomLigue, String ressource, Supplier<byte[]> serialiser) {
+        String cle = cle(nomLigue, ressource);
+        // Read before serializing: a change made meanwhile leaves the view
+        // tagged with the older revision, so it is rebuilt on the next read.
+        long revision = LigueRevisions.getRevision(nomLigue);
+        Vue vue = vues.get(cle);
+        if (vue != null && vue.revision == revision) {
+            return vue;
+        }
+        Vue nouvelle = new Vue(revision, serialiser.get());
+        vues.merge(cle, nouvelle, (ancienne, candidate) -> ancienne.revision > candidate.revision ? ancienne
+                : candidate);
+        return nouvelle;
+    }
+
+    private static String cle(String nomLigue, String ressource) {
+        return nomLigue + '\u0000' + ressource;
+    }
+}
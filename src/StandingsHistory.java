@@ -0,0 +1,320 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The standings of a league after each of its played journees.
+ *
+ * <p>
+ * Played matches are grouped by season and journee, in schedule order.
+ * Matches created outside a generated schedule (season and journee 0) are
+ * taken in id order and cut into season 0 journees 1, 2, ... so that no team
+ * plays twice in one journee. Points are cumulative, like
+ * {@link Equipe#getPoints()}, so the table after the last journee is the
+ * current one.
+ * </p>
+ *
+ * <p>
+ * The points after each journee are a {@link PersistentIntArray} derived from
+ * the previous journee's, so the history holds the changes of each journee
+ * rather than a full copy of the table. A past table is found by binary
+ * search and ranked in {@code O(equipes log equipes)}, without replaying the
+ * matches.
+ * </p>
+ *
+ * <p>
+ * A history is immutable. When the league changes,
+ * {@link #mettreAJour(Ligue)} derives the next one: the results played since
+ * are credited to the last journee or to new ones after it, and the earlier
+ * tables are shared. Only a change the last table cannot absorb, such as a
+ * result taken back or played in a journee already past, a new team or a
+ * reloaded league, replays every match again.
+ * </p>
+ *
+ * @version 1.0
+ */
+public final class StandingsHistory {
+
+    private final Equipe[] equipes;
+    private final Map<Integer, Integer> indexEquipes;
+    /** The key of each scheduled match, by id, for the matches known when the history was built. */
+    private final Map<Integer, Long> calendrier;
+    /** The matches of the league, as held by the league when the history was built. */
+    private final List<Match> matchs;
+    /** The score counted for each of the matches, {@link Match#NON_JOUE} if none. */
+    private final int[] scores;
+    private final long revision;
+    /** The season in the high bits and the journee in the low bits, ascending. */
+    private final long[] journees;
+    /** The points of every team after each journee. */
+    private final PersistentIntArray[] points;
+    private final PersistentIntArray depart;
+    /** The number of season 0 journees, the teams of the last one and its last match id. */
+    private final int horsCalendrier;
+    private final Set<Integer> occupees;
+    private final int dernierHorsCalendrier;
+
+    private StandingsHistory(StandingsHistory precedent, int[] scores, long revision, long[] journees,
+            PersistentIntArray[] points, int horsCalendrier, Set<Integer> occupees, int dernierHorsCalendrier) {
+        this.equipes = precedent.equipes;
+        this.indexEquipes = precedent.indexEquipes;
+        this.calendrier = precedent.calendrier;
+        this.matchs = precedent.matchs;
+        this.depart = precedent.depart;
+        this.scores = scores;
+        this.revision = revision;
+        this.journees = journees;
+        this.points = points;
+        this.horsCalendrier = horsCalendrier;
+        this.occupees = occupees;
+        this.dernierHorsCalendrier = dernierHorsCalendrier;
+    }
+
+    /**
+     * Constructs the history of a league before any result.
+     */
+    private StandingsHistory(Ligue ligue, Map<Integer, Long> calendrier) {
+        this.equipes = ligue.equipes.toArray(new Equipe[0]);
+        this.indexEquipes = new HashMap<>();
+        for (int i = 0; i < equipes.length; i++) {
+            indexEquipes.put(equipes[i].getId(), i);
+        }
+        this.calendrier = calendrier;
+        this.matchs = ligue.matches;
+        this.depart = PersistentIntArray.de(new int[equipes.length]);
+        this.scores = new int[0];
+        this.revision = -1;
+        this.journees = new long[0];
+        this.points = new PersistentIntArray[0];
+        this.horsCalendrier = 0;
+        this.occupees = Collections.emptySet();
+        this.dernierHorsCalendrier = 0;
+    }
+
+    /**
+     * Builds the history of a league from its played matches.
+     *
+     * @param ligue the league.
+     * @return the history.
+     */
+    public static StandingsHistory construire(Ligue ligue) {
+        Map<Integer, Long> calendrier = new HashMap<>();
+        MatchDAO dao = MatchDAO.getInstance();
+        for (List<int[]> lignes : Arrays.asList(dao.getCalendrierJoue(ligue.getNom()),
+                dao.getCalendrierAVenir(ligue.getNom()))) {
+            for (int[] ligne : lignes) {
+                if (ligne[1] != 0 && ligne[2] != 0) {
+                    calendrier.put(ligne[0], (long) ligne[1] << 32 | ligne[2]);
+                }
+            }
+        }
+        // Every result of an empty history comes in order, so this never has to start over.
+        return new StandingsHistory(ligue, calendrier).prolonger(ligue);
+    }
+
+    /**
+     * Gets the history of a league as it is now, derived from this one.
+     *
+     * @param ligue the league this history was built from.
+     * @return this history with the results played since, or a new history
+     *         built by {@link #construire(Ligue)} if they cannot be added to
+     *         its last journees.
+     */
+    StandingsHistory mettreAJour(Ligue ligue) {
+        StandingsHistory suivant = ligue.matches == matchs && ligue.equipes.size() == equipes.length
+                ? prolonger(ligue)
+                : null;
+        return suivant != null ? suivant : construire(ligue);
+    }
+
+    /**
+     * Adds the results played since this history was built.
+     *
+     * @return the new history, or null if a result does not come after those
+     *         already counted.
+     */
+    private StandingsHistory prolonger(Ligue ligue) {
+        // Read the revision first: a later change makes the history stale, never silently newer.
+        long revisionCourante = LigueRevisions.getRevision(ligue.getNom());
+        int[] nouveaux = Arrays.copyOf(scores, matchs.size());
+        Arrays.fill(nouveaux, scores.length, nouveaux.length, Match.NON_JOUE);
+        List<Integer> joues = new ArrayList<>();
+        for (int i = 0; i < nouveaux.length; i++) {
+            Match match = matchs.get(i);
+            int score = match.getScore();
+            if (score == nouveaux[i]) {
+                continue;
+            }
+            if (nouveaux[i] != Match.NON_JOUE) {
+                return null; // A counted result was changed or taken back
+            }
+            if (indexEquipes.containsKey(match.getEquipe1().getId())) {
+                nouveaux[i] = score;
+                joues.add(i);
+            }
+        }
+        joues.sort(Comparator.<Integer>comparingLong(i -> calendrier.getOrDefault(matchs.get(i).getId(), 0L))
+                .thenComparingInt(i -> matchs.get(i).getId()));
+
+        long[] cles = Arrays.copyOf(journees, journees.length + joues.size());
+        PersistentIntArray[] tables = Arrays.copyOf(points, points.length + joues.size());
+        int nombre = journees.length;
+        PersistentIntArray courant = nombre > 0 ? tables[nombre - 1] : depart;
+        long cle = nombre > 0 ? cles[nombre - 1] : -1;
+        int hors = horsCalendrier;
+        Set<Integer> equipesHors = occupees;
+        int dernierHors = dernierHorsCalendrier;
+        for (int i : joues) {
+            Match match = matchs.get(i);
+            Long cleCalendrier = calendrier.get(match.getId());
+            long cleMatch;
+            if (cleCalendrier != null) {
+                cleMatch = cleCalendrier;
+            } else {
+                if (cle != -1 && cle >>> 32 != 0 || match.getId() < dernierHors) {
+                    return null; // Before results already counted
+                }
+                // Outside the schedule: a new journee starts when a team would play twice.
+                if (equipesHors == occupees) {
+                    equipesHors = new HashSet<>(occupees);
+                }
+                if (hors == 0 || equipesHors.contains(match.getEquipe1().getId())
+                        || equipesHors.contains(match.getEquipe2().getId())) {
+                    hors++;
+                    equipesHors.clear();
+                }
+                equipesHors.add(match.getEquipe1().getId());
+                equipesHors.add(match.getEquipe2().getId());
+                dernierHors = match.getId();
+                cleMatch = hors;
+            }
+            if (cleMatch < cle) {
+                return null; // In a journee already past
+            }
+            if (cleMatch != cle) {
+                cle = cleMatch;
+                cles[nombre] = cle;
+                nombre++;
+            }
+            int buts1 = MatchModel.butsEquipe1(nouveaux[i]);
+            int buts2 = MatchModel.butsEquipe2(nouveaux[i]);
+            courant = crediter(courant, match.getEquipe1(), Match.points(buts1, buts2));
+            courant = crediter(courant, match.getEquipe2(), Match.points(buts2, buts1));
+            tables[nombre - 1] = courant;
+        }
+        return new StandingsHistory(this, nouveaux, revisionCourante, Arrays.copyOf(cles, nombre),
+                Arrays.copyOf(tables, nombre), hors, equipesHors, dernierHors);
+    }
+
+    private PersistentIntArray crediter(PersistentIntArray points, Equipe equipe, int gagnes) {
+        Integer i = indexEquipes.get(equipe.getId());
+        return i == null ? points : points.set(i, points.get(i) + gagnes);
+    }
+
+    /**
+     * Gets the revision of the league the history was built from.
+     *
+     * @return the {@link LigueRevisions} revision.
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Gets the number of journees with at least one result.
+     *
+     * @return the number of journees.
+     */
+    public int getNombreJournees() {
+        return journees.length;
+    }
+
+    /**
+     * Gets the table as it was after a journee.
+     *
+     * @param saison  the season.
+     * @param journee the journee in the season.
+     * @return the table after the last journee played up to that one; all
+     *         teams have 0 points if none was.
+     */
+    public Tableau getTableau(int saison, int journee) {
+        int i = Arrays.binarySearch(journees, (long) saison << 32 | (journee & 0xFFFFFFFFL));
+        if (i < 0) {
+            i = -i - 2; // The last journee before
+        }
+        if (i < 0) {
+            return new Tableau(saison, journee, depart);
+        }
+        return new Tableau((int) (journees[i] >>> 32), (int) journees[i], points[i]);
+    }
+
+    /**
+     * The standings after one journee.
+     */
+    public final class Tableau {
+        private final int saison;
+        private final int journee;
+        private final PersistentIntArray points;
+
+        private Tableau(int saison, int journee, PersistentIntArray points) {
+            this.saison = saison;
+            this.journee = journee;
+            this.points = points;
+        }
+
+        /**
+         * Gets the season of the journee.
+         *
+         * @return the season, 0 for matches outside a schedule.
+         */
+        public int getSaison() {
+            return saison;
+        }
+
+        /**
+         * Gets the journee after which the table was taken.
+         *
+         * @return the journee in its season.
+         */
+        public int getJournee() {
+            return journee;
+        }
+
+        /**
+         * Gets the points of a team at that time.
+         *
+         * @param equipe the team.
+         * @return its points, 0 if it is not part of the league.
+         */
+        public int getPoints(Equipe equipe) {
+            Integer i = indexEquipes.get(equipe.getId());
+            return i == null ? 0 : points.get(i);
+        }
+
+        /**
+         * Gets the teams ranked by their points at that time.
+         *
+         * @return the teams by descending points; teams with equal points
+         *         keep their current order.
+         */
+        public List<Equipe> getClassement() {
+            int[] valeurs = points.toArray();
+            long[] cles = new long[valeurs.length];
+            for (int i = 0; i < valeurs.length; i++) {
+                cles[i] = ((long) (Integer.MAX_VALUE - valeurs[i]) << 32) | i;
+            }
+            Arrays.sort(cles);
+            Equipe[] classement = new Equipe[cles.length];
+            for (int r = 0; r < cles.length; r++) {
+                classement[r] = equipes[(int) cles[r]];
+            }
+            return Collections.unmodifiableList(Arrays.asList(classement));
+        }
+    }
+}
@@ -0,0 +1,188 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of prepared statements tied to one long-lived database connection.
+ *
+ * <p>
+ * DAO methods prepare their SQL on every call and close the statement when
+ * done. Through this cache, the first call prepares the statement (server-side
+ * when the driver is configured for it) and later calls on the same connection
+ * get the same statement back: closing it only clears its parameters. The
+ * least recently used statements are closed when the cache is full. Hit and
+ * miss counters are shared by all connections.
+ * </p>
+ *
+ * <p>
+ * A cache belongs to one connection, which is used by one thread at a time, so
+ * it needs no locking.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class StatementCache {
+
+    private static final int TAILLE_MAX = 64;
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    private final Connection connexion;
+    private final Map<String, CachedStatement> statements;
+
+    /**
+     * Constructs an empty cache for a physical connection.
+     *
+     * @param connexion the physical connection the statements are prepared on.
+     */
+    StatementCache(Connection connexion) {
+        this.connexion = connexion;
+        this.statements = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() > TAILLE_MAX && !eldest.getValue().ouvert) {
+                    eldest.getValue().fermer();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns a prepared statement for one of the
+     * {@link Connection#prepareStatement(String)} overloads, from the cache when
+     * possible.
+     *
+     * @param method the prepareStatement overload called.
+     * @param args   the arguments of the call, the SQL string first.
+     * @return a {@link PreparedStatement} whose close() returns it to the cache.
+     * @throws SQLException if the statement cannot be prepared.
+     */
+    PreparedStatement preparer(Method method, Object[] args) throws SQLException {
+        String cle = args.length == 1 ? (String) args[0] : Arrays.deepToString(args);
+        CachedStatement cached = statements.get(cle);
+
+        if (cached != null && cached.ouvert) {
+            // Same SQL already in use on this connection: fall back to a plain statement.
+            misses.increment();
+            return (PreparedStatement) invoquer(method, connexion, args);
+        }
+        if (cached == null || cached.statement.isClosed()) {
+            misses.increment();
+            cached = new CachedStatement((PreparedStatement) invoquer(method, connexion, args));
+            statements.put(cle, cached);
+        } else {
+            hits.increment();
+        }
+        cached.ouvert = true;
+        return cached.proxy;
+    }
+
+    /**
+     * Closes every cached statement.
+     */
+    void fermer() {
+        Iterator<CachedStatement> it = statements.values().iterator();
+        while (it.hasNext()) {
+            it.next().fermer();
+            it.remove();
+        }
+    }
+
+    /**
+     * Gets the number of statements served from a cache.
+     *
+     * @return the cache hits since startup.
+     */
+    public static long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of statements that had to be prepared.
+     *
+     * @return the cache misses since startup.
+     */
+    public static long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Calls a JDBC method reflectively, rethrowing its own exceptions.
+     *
+     * @param method the method to call.
+     * @param cible  the object to call it on.
+     * @param args   the arguments.
+     * @return the result of the call.
+     * @throws SQLException if the call throws one.
+     */
+    static Object invoquer(Method method, Object cible, Object[] args) throws SQLException {
+        try {
+            return method.invoke(cible, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new SQLException(cause);
+        } catch (IllegalAccessException e) {
+            throw new SQLException(e);
+        }
+    }
+
+    /**
+     * A cached statement with the proxy handed to DAO code.
+     */
+    private static class CachedStatement implements InvocationHandler {
+        final PreparedStatement statement;
+        final PreparedStatement proxy;
+        boolean ouvert;
+
+        CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class }, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (ouvert) {
+                        ouvert = false;
+                        if (!statement.isClosed()) {
+                            statement.clearParameters();
+                            statement.clearBatch();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return !ouvert || statement.isClosed();
+                default:
+                    return invoquer(method, statement, args);
+            }
+        }
+
+        void fermer() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+/**
+ * Management interface exposing the counters of the {@link StatementCache}s
+ * over JMX.
+ *
+ * @version 1.0
+ */
+public interface StatementCacheStatsMXBean {
+
+    /**
+     * Gets the number of statements served from a cache.
+     *
+     * @return the cache hits since startup.
+     */
+    long getHits();
+
+    /**
+     * Gets the number of statements that had to be prepared.
+     *
+     * @return the cache misses since startup.
+     */
+    long getMisses();
+}
@@ -0,0 +1,28 @@
+import java.util.Random;
+
+/**
+ * The original match model: each team scores 0, 1 or 2 goals with equal
+ * probability, whatever its strength.
+ *
+ * <p>
+ * The nine possible scores are drawn with a single call to the generator.
+ * </p>
+ *
+ * @version 1.0
+ */
+public final class UniformMatchModel implements MatchModel {
+
+    /** The shared instance; the model has no state. */
+    public static final UniformMatchModel INSTANCE = new UniformMatchModel();
+
+    private static final int BUTS = 3;
+
+    private UniformMatchModel() {
+    }
+
+    @Override
+    public int tirer(Equipe domicile, Equipe exterieur, Random random) {
+        int tirage = random.nextInt(BUTS * BUTS);
+        return MatchModel.score(tirage / BUTS, tirage % BUTS);
+    }
+}
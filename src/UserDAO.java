@@ -11,7 +11,18 @@ import java.sql.*;
  */
 public class UserDAO {
 
-    private static UserDAO instance;
+    private static final UserDAO instance = new UserDAO();
+
+    /**
+     * Returned by {@link #register(String, String)} when the username is
+     * already taken.
+     */
+    public static final int DOUBLON = -1;
+    /** MySQL error code of a duplicate key. */
+    private static final int ERREUR_DOUBLON = 1062;
+
+    private static final DaoMethodStats LOGIN = DaoMetrics.methode("UserDAO", "login");
+    private static final DaoMethodStats REGISTER = DaoMetrics.methode("UserDAO", "register");
 
     /**
      * Private constructor to prevent external instantiation.
@@ -25,9 +36,6 @@ public class UserDAO {
      * @return the UserDAO instance.
      */
     public static UserDAO getInstance() {
-        if (instance == null) {
-            instance = new UserDAO();
-        }
         return instance;
     }
 
@@ -40,44 +48,50 @@ public class UserDAO {
      */
     public boolean login(String username, String password) {
         String query = "SELECT * FROM user WHERE username = ? AND password = ?";
-        boolean connected = false;
 
-        try (Connection con = DatabaseConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(query)) {
+        return DaoMetrics.mesurer(LOGIN, false, connected -> connected ? 1 : 0, () -> {
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(query)) {
 
-            ps.setString(1, username);
-            ps.setString(2, password);
+                ps.setString(1, username);
+                ps.setString(2, password);
 
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    connected = true;
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next();
                 }
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-
-        return connected;
+        });
     }
 
     /**
      * Registers a new user in the database.
      *
+     * <p>
+     * The unique key {@code uk_user_username} refuses a second account with
+     * the same username, even when both are registered at the same time.
+     * </p>
+     *
      * @param username the username for the new user.
      * @param password the password for the new user.
+     * @return the number of rows inserted, {@link #DOUBLON} if the username is
+     *         already taken, 0 if the user could not be registered.
      */
-    public void register(String username, String password) {
+    public int register(String username, String password) {
         String insertQuery = "INSERT INTO user (username, password) VALUES (?, ?)";
 
-        try (Connection con = DatabaseConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(insertQuery)) {
-
-            ps.setString(1, username);
-            ps.setString(2, password);
-            ps.executeUpdate();
+        return DaoMetrics.mesurer(REGISTER, () -> {
+            try (Connection con = DatabaseConnection.getConnection();
+                    PreparedStatement ps = con.prepareStatement(insertQuery)) {
 
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+                ps.setString(1, username);
+                ps.setString(2, password);
+                return ps.executeUpdate();
+            } catch (SQLIntegrityConstraintViolationException e) {
+                if (e.getErrorCode() != ERREUR_DOUBLON) {
+                    throw e;
+                }
+                return DOUBLON;
+            }
+        });
     }
 }
@@ -0,0 +1,50 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual threads from code that still builds for Java 11.
+ *
+ * <p>
+ * Virtual threads are looked up reflectively: on Java 21 and later, tasks get
+ * one virtual thread each; on older JVMs they fall back to a cached pool of
+ * platform threads.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class VirtualThreads {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private VirtualThreads() {
+    }
+
+    /**
+     * Creates an executor that starts a new thread for each task, virtual when
+     * the JVM supports it.
+     *
+     * @return the new {@link ExecutorService}.
+     */
+    public static ExecutorService nouvelExecuteur() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Tells whether the executors created here use virtual threads.
+     *
+     * @return true on Java 21 and later.
+     */
+    public static boolean disponibles() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}